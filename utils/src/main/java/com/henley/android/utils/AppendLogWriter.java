@@ -0,0 +1,461 @@
+package com.henley.android.utils;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 追加写日志的辅助类(适用于频繁写入大量短小记录的场景，如统计日志、调试日志)
+ * <p>与每条记录调用一次{@link FileUtils#writeFile(String, String, boolean)}不同，文件只打开一次，记录先在内存中累积，
+ * 累积的数据达到{@link Builder#setBufferSize(int)}或距离上次写入超过{@link Builder#setFlushInterval(long)}时，由后台线程批量写入文件</p>
+ * <p>写入文件后按{@link Builder#setSyncInterval(long)}的间隔同步到磁盘，文件超过{@link Builder#setMaxFileSize(long)}时滚动为"文件名.1"、"文件名.2"...</p>
+ * <p>所有方法都是线程安全的；后台写入失败时，异常在下一次调用{@link #flush()}、{@link #sync()}或{@link #close()}时抛出</p>
+ *
+ * @author Henley
+ * @since 2026/10/18 15:42
+ */
+public final class AppendLogWriter implements Flushable, Closeable {
+
+    private final File file;
+    private final int bufferSize;
+    private final long flushInterval;
+    private final long syncInterval;
+    private final long maxFileSize;
+    private final int maxBackupCount;
+    private final CharsetEncoder encoder;
+    private final byte[] lineSeparator;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final Runnable flushTask = new Runnable() {
+        @Override
+        public void run() {
+            try {
+                flushBuffer(false);
+            } catch (IOException e) {
+                backgroundError = e;
+            }
+        }
+    };
+
+    /**
+     * 记录追加到的缓冲区，由{@link #lock}保护
+     */
+    private ByteBuffer pending;
+    /**
+     * 备用缓冲区(写文件时与{@link #pending}交换)，由{@link #lock}保护
+     */
+    private ByteBuffer spare;
+    private boolean flushRequested;
+    private boolean closed;
+    private final Object lock = new Object();
+
+    /**
+     * 文件相关的状态，由{@link #ioLock}保护
+     */
+    private FileOutputStream output;
+    private FileChannel channel;
+    private long fileSize;
+    private long lastSyncTime;
+    private boolean unsynced;
+    private final Object ioLock = new Object();
+    private volatile IOException backgroundError;
+
+    public static Builder builder(File file) {
+        return new Builder(file);
+    }
+
+    private AppendLogWriter(Builder builder) throws IOException {
+        this.file = builder.file;
+        this.bufferSize = builder.bufferSize;
+        this.flushInterval = builder.flushInterval;
+        this.syncInterval = builder.syncInterval;
+        this.maxFileSize = builder.maxFileSize;
+        this.maxBackupCount = builder.maxBackupCount;
+        this.encoder = builder.charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.lineSeparator = builder.lineSeparator == null ? new byte[0] : builder.lineSeparator.getBytes(builder.charset);
+        this.pending = ByteBuffer.allocate(bufferSize);
+        this.spare = ByteBuffer.allocate(bufferSize);
+        openFile();
+        this.lastSyncTime = System.currentTimeMillis();
+        this.scheduler = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "AppendLogWriter-" + file.getName());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        if (flushInterval > 0) {
+            scheduler.scheduleWithFixedDelay(flushTask, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 获取日志文件
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * 追加一条记录(自动添加换行符)
+     */
+    public void append(CharSequence record) {
+        boolean overflow;
+        synchronized (lock) {
+            checkNotClosed();
+            encode(record == null ? "null" : record);
+            ensureCapacity(lineSeparator.length);
+            pending.put(lineSeparator);
+            overflow = onAppended();
+        }
+        if (overflow) {
+            flushQuietly();
+        }
+    }
+
+    /**
+     * 追加原始数据(不添加换行符)
+     */
+    public void append(byte[] data, int offset, int length) {
+        boolean overflow;
+        synchronized (lock) {
+            checkNotClosed();
+            ensureCapacity(length);
+            pending.put(data, offset, length);
+            overflow = onAppended();
+        }
+        if (overflow) {
+            flushQuietly();
+        }
+    }
+
+    /**
+     * 将此前追加的所有记录写入文件(不保证同步到磁盘)
+     * <p>方法返回时，调用前追加的记录都已写入文件，其他线程可以读取到</p>
+     */
+    @Override
+    public void flush() {
+        try {
+            flushBuffer(false);
+        } catch (IOException e) {
+            throw new RuntimeException("IOException occurred. ", e);
+        }
+    }
+
+    /**
+     * 将此前追加的所有记录写入文件并同步到磁盘
+     */
+    public void sync() {
+        try {
+            flushBuffer(true);
+        } catch (IOException e) {
+            throw new RuntimeException("IOException occurred. ", e);
+        }
+    }
+
+    /**
+     * 写入所有记录、同步到磁盘并关闭文件，关闭后不能再追加记录
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        scheduler.shutdown();
+        try {
+            flushBuffer(true);
+        } catch (IOException e) {
+            throw new RuntimeException("IOException occurred. ", e);
+        } finally {
+            synchronized (ioLock) {
+                CloseUtils.closeIOQuietly(output);
+                output = null;
+                channel = null;
+            }
+        }
+    }
+
+    private void checkNotClosed() {
+        if (closed) {
+            throw new IllegalStateException("AppendLogWriter is closed");
+        }
+    }
+
+    /**
+     * 将字符编码后追加到缓冲区
+     */
+    private void encode(CharSequence record) {
+        CharBuffer input = record instanceof CharBuffer ? ((CharBuffer) record).duplicate() : CharBuffer.wrap(record);
+        encoder.reset();
+        ensureCapacity((int) Math.min(Integer.MAX_VALUE, (long) input.remaining() * 3));
+        while (true) {
+            CoderResult result = encoder.encode(input, pending, true);
+            if (result.isOverflow()) {
+                ensureCapacity(Math.max(input.remaining(), 16) * 3);
+                continue;
+            }
+            result = encoder.flush(pending);
+            if (result.isOverflow()) {
+                ensureCapacity(16);
+                continue;
+            }
+            return;
+        }
+    }
+
+    /**
+     * 确保缓冲区剩余空间不小于指定大小
+     */
+    private void ensureCapacity(int length) {
+        if (pending.remaining() >= length) {
+            return;
+        }
+        int capacity = pending.capacity();
+        int required = pending.position() + length;
+        while (capacity < required) {
+            capacity = capacity << 1;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(capacity);
+        pending.flip();
+        buffer.put(pending);
+        pending = buffer;
+    }
+
+    /**
+     * 追加记录后检查是否需要写入文件
+     *
+     * @return 如果缓冲的数据过多(超过{@link #bufferSize}的4倍)，需要由调用线程直接写入文件则返回true
+     */
+    private boolean onAppended() {
+        int size = pending.position();
+        if (size >= bufferSize * 4) {
+            return true;
+        }
+        if (size >= bufferSize && !flushRequested) {
+            flushRequested = true;
+            scheduler.execute(flushTask);
+        }
+        return false;
+    }
+
+    private void flushQuietly() {
+        try {
+            flushBuffer(false);
+        } catch (IOException e) {
+            backgroundError = e;
+        }
+    }
+
+    /**
+     * 将缓冲区中的数据写入文件
+     *
+     * @param forceSync 是否强制同步到磁盘，为false时按{@link #syncInterval}同步
+     */
+    private void flushBuffer(boolean forceSync) throws IOException {
+        synchronized (ioLock) {
+            IOException error = backgroundError;
+            if (error != null) {
+                backgroundError = null;
+                throw error;
+            }
+            if (channel == null) {
+                synchronized (lock) {
+                    if (closed) {
+                        return;
+                    }
+                }
+                // 上次滚动后重新打开文件失败，重试(仍然失败时抛出异常，记录保留在缓冲区中)
+                openFile();
+            }
+            ByteBuffer buffer;
+            synchronized (lock) {
+                flushRequested = false;
+                if (pending.position() == 0) {
+                    buffer = null;
+                } else {
+                    buffer = pending;
+                    pending = spare;
+                    spare = null;
+                }
+            }
+            if (buffer != null) {
+                try {
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        fileSize += channel.write(buffer);
+                    }
+                    unsynced = true;
+                } finally {
+                    buffer.clear();
+                    synchronized (lock) {
+                        spare = buffer.capacity() > bufferSize * 4 ? ByteBuffer.allocate(bufferSize) : buffer;
+                    }
+                }
+            }
+            long now = System.currentTimeMillis();
+            if (unsynced && (forceSync || (syncInterval >= 0 && now - lastSyncTime >= syncInterval))) {
+                channel.force(false);
+                unsynced = false;
+                lastSyncTime = now;
+            }
+            if (maxFileSize > 0 && fileSize >= maxFileSize) {
+                rotate();
+            }
+        }
+    }
+
+    /**
+     * 滚动日志文件：file.(n-1) -> file.n，...，file -> file.1，然后重新创建file
+     * <p>删除或重命名失败时抛出异常，但总会重新打开file(失败时继续追加到当前文件，下次写入后再次尝试滚动)</p>
+     */
+    private void rotate() throws IOException {
+        if (unsynced) {
+            channel.force(false);
+            unsynced = false;
+        }
+        CloseUtils.closeIOQuietly(output);
+        output = null;
+        channel = null;
+        try {
+            if (maxBackupCount > 0) {
+                File oldest = backupFile(maxBackupCount);
+                if (oldest.exists() && !oldest.delete()) {
+                    throw new IOException("Failed to delete " + oldest);
+                }
+                for (int i = maxBackupCount - 1; i >= 1; i--) {
+                    File backup = backupFile(i);
+                    if (backup.exists() && !backup.renameTo(backupFile(i + 1))) {
+                        throw new IOException("Failed to rename " + backup);
+                    }
+                }
+                if (!file.renameTo(backupFile(1))) {
+                    throw new IOException("Failed to rename " + file);
+                }
+            } else if (!file.delete()) {
+                throw new IOException("Failed to delete " + file);
+            }
+        } finally {
+            openFile();
+        }
+    }
+
+    private File backupFile(int index) {
+        return new File(file.getPath() + "." + index);
+    }
+
+    private void openFile() throws IOException {
+        FileUtils.makeDirs(file.getAbsolutePath());
+        output = new FileOutputStream(file, true);
+        channel = output.getChannel();
+        fileSize = channel.size();
+    }
+
+    /**
+     * {@link AppendLogWriter}的构建器
+     */
+    public static final class Builder {
+
+        private final File file;
+        private int bufferSize = 1024 * 64;
+        private long flushInterval = 1000;
+        private long syncInterval = 5000;
+        private long maxFileSize = FileUtils.ONE_MB * 4;
+        private int maxBackupCount = 3;
+        private Charset charset = Charset.forName("UTF-8");
+        private String lineSeparator = "\n";
+
+        private Builder(File file) {
+            if (file == null) {
+                throw new NullPointerException("file == null");
+            }
+            this.file = file;
+        }
+
+        /**
+         * 设置内存缓冲区大小，缓冲的数据超过该值时在后台写入文件(默认为64KB)
+         */
+        public Builder setBufferSize(int bufferSize) {
+            if (bufferSize <= 0) {
+                throw new IllegalArgumentException("bufferSize <= 0");
+            }
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * 设置定时写入文件的间隔(毫秒，默认为1000，小于等于0时只在缓冲区满或调用{@link #flush()}时写入)
+         */
+        public Builder setFlushInterval(long flushInterval) {
+            this.flushInterval = flushInterval;
+            return this;
+        }
+
+        /**
+         * 设置同步到磁盘的最小间隔(毫秒，默认为5000，0表示每次写入后都同步，小于0表示只在{@link #sync()}、{@link #close()}及滚动文件时同步)
+         */
+        public Builder setSyncInterval(long syncInterval) {
+            this.syncInterval = syncInterval;
+            return this;
+        }
+
+        /**
+         * 设置单个日志文件的最大大小(默认为4MB，小于等于0时不滚动)
+         */
+        public Builder setMaxFileSize(long maxFileSize) {
+            this.maxFileSize = maxFileSize;
+            return this;
+        }
+
+        /**
+         * 设置滚动时保留的历史文件数量(默认为3，为0时直接清空当前文件)
+         */
+        public Builder setMaxBackupCount(int maxBackupCount) {
+            if (maxBackupCount < 0) {
+                throw new IllegalArgumentException("maxBackupCount < 0");
+            }
+            this.maxBackupCount = maxBackupCount;
+            return this;
+        }
+
+        /**
+         * 设置记录的编码(默认为UTF-8)
+         */
+        public Builder setCharset(Charset charset) {
+            this.charset = charset;
+            return this;
+        }
+
+        /**
+         * 设置每条记录后追加的换行符(默认为"\n"，为null时不追加)
+         */
+        public Builder setLineSeparator(String lineSeparator) {
+            this.lineSeparator = lineSeparator;
+            return this;
+        }
+
+        /**
+         * 打开日志文件(文件不存在时自动创建)
+         */
+        public AppendLogWriter build() throws IOException {
+            return new AppendLogWriter(this);
+        }
+    }
+
+}
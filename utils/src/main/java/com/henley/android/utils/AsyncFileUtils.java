@@ -0,0 +1,440 @@
+package com.henley.android.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 文件异步操作工具类(在后台I/O线程池中执行{@link FileUtils}的读写、复制、移动及删除操作)
+ * <p>线程池的线程数量有上限，任务按优先级执行：{@link #PRIORITY_USER_VISIBLE}优先于{@link #PRIORITY_PREFETCH}，同一优先级按提交顺序执行</p>
+ * <p>针对同一个文件的操作按提交顺序依次执行(前一个操作完成后才会执行下一个)，不同文件的操作可以并行执行；
+ * 复制和移动操作同时加入源文件和目标文件的队列，两个文件之前提交的操作都完成后才执行</p>
+ * <p>线程池的队列没有上限，{@link #PRIORITY_USER_VISIBLE}的任务(包括所有写入操作)不会被拒绝；
+ * 未完成的{@link #PRIORITY_PREFETCH}任务超过64个时，新提交的预加载任务会被直接取消(返回的{@link Future#isCancelled()}为true，不会回调)</p>
+ * <p>回调默认在主线程中执行，也可以指定执行回调的{@link Executor}；任务被取消后不会回调</p>
+ *
+ * @author Henley
+ * @since 2026/10/18 15:10
+ */
+public final class AsyncFileUtils {
+
+    /**
+     * 优先级：用户正在等待结果的操作
+     */
+    public static final int PRIORITY_USER_VISIBLE = 0;
+    /**
+     * 优先级：预加载等用户不可见的操作
+     */
+    public static final int PRIORITY_PREFETCH = 1;
+    /**
+     * 最大线程数
+     */
+    static final int MAX_POOL_SIZE = Math.max(2, Math.min(Runtime.getRuntime().availableProcessors(), 4));
+    /**
+     * 空闲线程的存活时间(秒)
+     */
+    private static final long KEEP_ALIVE_SECONDS = 30;
+    /**
+     * 最多同时存在的未完成的预加载任务(超过时取消新提交的预加载任务，避免队列无限增长)
+     */
+    static final int MAX_PENDING_PREFETCH = 64;
+    private static final String[] NO_KEYS = new String[0];
+
+    private static final ThreadPoolExecutor EXECUTOR;
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+    private static final AtomicInteger PENDING_PREFETCH = new AtomicInteger();
+    /**
+     * 每个文件的操作队列(操作在它所在的所有队列的队首时才会执行)
+     */
+    private static final Map<String, ArrayDeque<FileTask<?>>> FILE_QUEUES = new HashMap<>();
+    private static volatile Executor mainThreadExecutor;
+
+    static {
+        EXECUTOR = new ThreadPoolExecutor(MAX_POOL_SIZE, MAX_POOL_SIZE, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<Runnable>(), new IOThreadFactory());
+        EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    private AsyncFileUtils() {
+        throw new UnsupportedOperationException("Instantiation operation is not supported.");
+    }
+
+    /**
+     * 获取在主线程中执行任务的{@link Executor}
+     */
+    public static Executor getMainThreadExecutor() {
+        Executor executor = mainThreadExecutor;
+        if (executor == null) {
+            final Handler handler = new Handler(Looper.getMainLooper());
+            executor = new Executor() {
+                @Override
+                public void execute(Runnable command) {
+                    handler.post(command);
+                }
+            };
+            mainThreadExecutor = executor;
+        }
+        return executor;
+    }
+
+    /**
+     * 提交异步任务
+     *
+     * @param file             任务操作的文件(同一文件的任务按提交顺序依次执行)，为null时不限制执行顺序
+     * @param priority         优先级({@link #PRIORITY_USER_VISIBLE}或{@link #PRIORITY_PREFETCH})
+     * @param callable         要执行的操作
+     * @param callback         回调(可以为null)
+     * @param callbackExecutor 执行回调的{@link Executor}，为null时在主线程中回调
+     * @return 可用于等待结果或取消任务的{@link Future}(未完成的预加载任务过多时返回已取消的{@link Future})
+     */
+    public static <T> Future<T> submit(File file, int priority, Callable<T> callable, Callback<T> callback, Executor callbackExecutor) {
+        return submit(file == null ? NO_KEYS : new String[]{file.getAbsolutePath()}, priority, callable, callback, callbackExecutor);
+    }
+
+    /**
+     * 提交操作多个文件的异步任务(与每个文件的其他任务都按提交顺序执行)
+     *
+     * @param keys 文件的绝对路径(没有重复)
+     */
+    private static <T> Future<T> submit(String[] keys, int priority, Callable<T> callable, Callback<T> callback, Executor callbackExecutor) {
+        if (callable == null) {
+            throw new NullPointerException("callable == null");
+        }
+        if (callback != null && callbackExecutor == null) {
+            callbackExecutor = getMainThreadExecutor();
+        }
+        FileTask<T> task = new FileTask<>(keys, priority, callable, callback, callbackExecutor);
+        if (task.prefetch && PENDING_PREFETCH.incrementAndGet() > MAX_PENDING_PREFETCH) {
+            task.cancel(false);
+            return task;
+        }
+        if (keys.length == 0) {
+            EXECUTOR.execute(task);
+            return task;
+        }
+        boolean runNow;
+        synchronized (FILE_QUEUES) {
+            // 在同一个锁中加入所有文件的队列，任意两个任务在它们共同的队列中的先后顺序都相同，不会互相等待
+            for (String key : keys) {
+                ArrayDeque<FileTask<?>> queue = FILE_QUEUES.get(key);
+                if (queue == null) {
+                    queue = new ArrayDeque<>();
+                    FILE_QUEUES.put(key, queue);
+                }
+                queue.addLast(task);
+            }
+            runNow = isRunnable(task);
+            task.scheduled = runNow;
+        }
+        if (runNow) {
+            EXECUTOR.execute(task);
+        }
+        return task;
+    }
+
+    /**
+     * 获取两个文件的路径(按字典序排列，同一个文件只返回一个)
+     */
+    private static String[] keysOf(File first, File second) {
+        String a = first.getAbsolutePath();
+        String b = second.getAbsolutePath();
+        int order = a.compareTo(b);
+        if (order == 0) {
+            return new String[]{a};
+        }
+        return order < 0 ? new String[]{a, b} : new String[]{b, a};
+    }
+
+    /**
+     * 异步读取文件
+     *
+     * @see FileUtils#readFile(String, String)
+     */
+    public static Future<String> readFile(final String filePath, final String charsetName, Callback<String> callback) {
+        return readFile(filePath, charsetName, PRIORITY_USER_VISIBLE, callback, null);
+    }
+
+    /**
+     * 异步读取文件
+     *
+     * @see FileUtils#readFile(String, String)
+     */
+    public static Future<String> readFile(final String filePath, final String charsetName, int priority, Callback<String> callback, Executor callbackExecutor) {
+        return submit(FileUtils.getFileByPath(filePath), priority, new Callable<String>() {
+            @Override
+            public String call() {
+                return FileUtils.readFile(filePath, charsetName);
+            }
+        }, callback, callbackExecutor);
+    }
+
+    /**
+     * 异步写入文件
+     *
+     * @see FileUtils#writeFile(String, String, boolean)
+     */
+    public static Future<Boolean> writeFile(final String filePath, final String content, final boolean append, Callback<Boolean> callback) {
+        return submit(FileUtils.getFileByPath(filePath), PRIORITY_USER_VISIBLE, new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                return FileUtils.writeFile(filePath, content, append);
+            }
+        }, callback, null);
+    }
+
+    /**
+     * 异步写入文件(原子操作)
+     *
+     * @see FileUtils#writeFileAtomic(File, byte[])
+     */
+    public static Future<Boolean> writeFileAtomic(final File file, final byte[] data, Callback<Boolean> callback) {
+        return submit(file, PRIORITY_USER_VISIBLE, new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                return FileUtils.writeFileAtomic(file, data);
+            }
+        }, callback, null);
+    }
+
+    /**
+     * 异步复制文件(与源文件及目标文件的其他操作按顺序执行)
+     *
+     * @see FileUtils#copyFile(File, File)
+     */
+    public static Future<Long> copyFile(final File srcFile, final File destFile, Callback<Long> callback) {
+        return submit(keysOf(srcFile, destFile), PRIORITY_USER_VISIBLE, new Callable<Long>() {
+            @Override
+            public Long call() {
+                return FileUtils.copyFile(srcFile, destFile);
+            }
+        }, callback, null);
+    }
+
+    /**
+     * 异步移动文件(与源文件及目标文件的其他操作按顺序执行)
+     *
+     * @see FileUtils#moveFile(File, File)
+     */
+    public static Future<Boolean> moveFile(final File srcFile, final File destFile, Callback<Boolean> callback) {
+        return submit(keysOf(srcFile, destFile), PRIORITY_USER_VISIBLE, new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                FileUtils.moveFile(srcFile, destFile);
+                return true;
+            }
+        }, callback, null);
+    }
+
+    /**
+     * 异步删除文件或目录
+     *
+     * @see FileUtils#deleteFile(File)
+     */
+    public static Future<Boolean> deleteFile(final File file, Callback<Boolean> callback) {
+        return submit(file, PRIORITY_USER_VISIBLE, new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                return FileUtils.deleteFile(file);
+            }
+        }, callback, null);
+    }
+
+    /**
+     * 判断任务是否在它所在的所有队列的队首(调用时需要持有FILE_QUEUES的锁)
+     */
+    private static boolean isRunnable(FileTask<?> task) {
+        for (String key : task.keys) {
+            ArrayDeque<FileTask<?>> queue = FILE_QUEUES.get(key);
+            if (queue == null || queue.peekFirst() != task) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 任务执行完毕或被取消后从所有队列中移除，并执行因此到达所有队列队首的任务
+     */
+    private static void release(FileTask<?> task) {
+        List<FileTask<?>> ready = null;
+        synchronized (FILE_QUEUES) {
+            if (task.released) {
+                return;
+            }
+            task.released = true;
+            for (String key : task.keys) {
+                ArrayDeque<FileTask<?>> queue = FILE_QUEUES.get(key);
+                if (queue == null) {
+                    continue;
+                }
+                boolean wasFirst = queue.peekFirst() == task;
+                queue.remove(task);
+                FileTask<?> next = queue.peekFirst();
+                if (next == null) {
+                    FILE_QUEUES.remove(key);
+                } else if (wasFirst && !next.scheduled && isRunnable(next)) {
+                    next.scheduled = true;
+                    if (ready == null) {
+                        ready = new ArrayList<>(task.keys.length);
+                    }
+                    ready.add(next);
+                }
+            }
+        }
+        if (ready != null) {
+            for (FileTask<?> next : ready) {
+                EXECUTOR.execute(next);
+            }
+        }
+    }
+
+    /**
+     * 移除被取消的等待中的任务(已经交给线程池的任务在run()结束时移除)
+     */
+    private static void removeCancelled(FileTask<?> task) {
+        synchronized (FILE_QUEUES) {
+            if (task.scheduled) {
+                return;
+            }
+        }
+        release(task);
+    }
+
+    /**
+     * 按优先级排序的异步任务
+     */
+    private static final class FileTask<T> extends FutureTask<T> implements Comparable<FileTask<?>> {
+
+        private final String[] keys;
+        private final int priority;
+        private final boolean prefetch;
+        private final long sequence;
+        private final Callback<T> callback;
+        private final Executor callbackExecutor;
+        /**
+         * 是否已经交给线程池(由FILE_QUEUES的锁保护)
+         */
+        private boolean scheduled;
+        /**
+         * 是否已经从队列中移除(由FILE_QUEUES的锁保护)
+         */
+        private boolean released;
+
+        private FileTask(String[] keys, int priority, Callable<T> callable, Callback<T> callback, Executor callbackExecutor) {
+            super(callable);
+            this.keys = keys;
+            this.priority = priority;
+            this.prefetch = priority >= PRIORITY_PREFETCH;
+            this.sequence = SEQUENCE.getAndIncrement();
+            this.callback = callback;
+            this.callbackExecutor = callbackExecutor;
+        }
+
+        @Override
+        public void run() {
+            try {
+                super.run();
+            } finally {
+                if (keys.length > 0) {
+                    release(this);
+                }
+            }
+        }
+
+        @Override
+        protected void done() {
+            if (prefetch) {
+                PENDING_PREFETCH.decrementAndGet();
+            }
+            if (isCancelled()) {
+                if (keys.length > 0) {
+                    removeCancelled(this);
+                }
+                return;
+            }
+            if (callback == null) {
+                return;
+            }
+            callbackExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    T result;
+                    try {
+                        result = get();
+                    } catch (ExecutionException e) {
+                        callback.onFailure(e.getCause());
+                        return;
+                    } catch (InterruptedException | CancellationException e) {
+                        return;
+                    }
+                    callback.onSuccess(result);
+                }
+            });
+        }
+
+        @Override
+        public int compareTo(FileTask<?> another) {
+            if (priority != another.priority) {
+                return priority < another.priority ? -1 : 1;
+            }
+            return sequence < another.sequence ? -1 : (sequence == another.sequence ? 0 : 1);
+        }
+    }
+
+    /**
+     * 创建后台优先级的I/O线程
+     */
+    private static final class IOThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                    runnable.run();
+                }
+            }, "AsyncFileUtils #" + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * 异步操作的回调
+     */
+    public interface Callback<T> {
+
+        /**
+         * 操作成功
+         */
+        void onSuccess(T result);
+
+        /**
+         * 操作失败(操作中抛出了异常)
+         */
+        void onFailure(Throwable error);
+    }
+
+}
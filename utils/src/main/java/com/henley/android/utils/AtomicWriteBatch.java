@@ -0,0 +1,319 @@
+package com.henley.android.utils;
+
+import android.os.Build;
+import android.system.ErrnoException;
+import android.system.Os;
+import android.system.OsConstants;
+
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import androidx.annotation.RequiresApi;
+
+/**
+ * 原子写文件辅助类
+ * <p>每个目标文件的内容先写入同目录下唯一的临时文件("文件名.16位十六进制随机数.tmp")，
+ * {@link #commit()}时先将所有临时文件同步到磁盘({@link FileDescriptor#sync()})，再依次重命名覆盖目标文件。
+ * 进程在写入过程中被杀死时，目标文件保持原有内容，不会出现只写了一半的文件；多个线程或批次同时写入同一个目标文件时各自使用不同的临时文件，
+ * 最后一个完成重命名的内容生效</p>
+ * <p>多个文件一起提交时，只有全部数据都已落盘后才开始重命名，但各个文件的重命名之间不是原子的</p>
+ * <p>重命名后会同步目标文件所在的目录(Android 5.0及以上，通过{@link Os#fsync(FileDescriptor)})，使断电后重命名也不会丢失；
+ * Android 5.0以下或文件系统不支持同步目录时，只保证文件内容已落盘，断电后目标文件可能仍是提交前的完整内容</p>
+ * <p>进程在重命名前被杀死时会遗留临时文件。每个进程第一次写入某个目录时，会删除该目录中遗留的临时文件
+ * (跳过本进程正在使用的，以及其他进程正在写入并持有文件锁的临时文件)</p>
+ *
+ * @author Henley
+ * @since 2026/10/18 10:47
+ */
+public final class AtomicWriteBatch {
+
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    /**
+     * 临时文件名中随机数的长度(十六进制)
+     */
+    private static final int TEMP_RANDOM_LENGTH = 16;
+    private static final Random TEMP_RANDOM = new Random();
+    /**
+     * 本进程中正在使用的临时文件(清理遗留的临时文件时跳过)
+     */
+    private static final Set<String> ACTIVE_TEMP_FILES = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    /**
+     * 本进程中已清理过遗留临时文件的目录
+     */
+    private static final Set<String> SWEPT_DIRECTORIES = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    private final List<PendingFile> pendingFiles = new ArrayList<>();
+    private boolean finished;
+
+    public static AtomicWriteBatch create() {
+        return new AtomicWriteBatch();
+    }
+
+    private AtomicWriteBatch() {
+    }
+
+    /**
+     * 开始写入目标文件，返回的输出流写入的是临时文件
+     * <p>返回的输出流不需要关闭，{@link #commit()}或{@link #abort()}时会统一关闭</p>
+     *
+     * @param file 目标文件
+     */
+    public OutputStream startWrite(File file) throws IOException {
+        checkNotFinished();
+        for (PendingFile pending : pendingFiles) {
+            if (pending.target.equals(file)) {
+                throw new IllegalArgumentException("File already in this batch: " + file);
+            }
+        }
+        FileUtils.makeDirs(file.getAbsolutePath());
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (SWEPT_DIRECTORIES.add(directory.getPath())) {
+            deleteOrphanedTempFiles(directory);
+        }
+        File temp = createTempFile(directory, file.getName());
+        FileOutputStream output;
+        try {
+            output = new FileOutputStream(temp);
+        } catch (IOException e) {
+            temp.delete();
+            ACTIVE_TEMP_FILES.remove(temp.getPath());
+            throw e;
+        }
+        lockQuietly(output);
+        PendingFile pending = new PendingFile(file, temp, output);
+        pendingFiles.add(pending);
+        return pending.stream;
+    }
+
+    /**
+     * 将数据写入目标文件(提交后生效)
+     */
+    public AtomicWriteBatch write(File file, byte[] data) throws IOException {
+        startWrite(file).write(data);
+        return this;
+    }
+
+    /**
+     * 提交所有文件：同步临时文件到磁盘后重命名覆盖目标文件，再同步目标文件所在的目录
+     * <p>提交失败时会删除所有尚未重命名的临时文件</p>
+     */
+    public void commit() throws IOException {
+        checkNotFinished();
+        finished = true;
+        try {
+            // 重命名后再关闭，期间一直持有文件锁，其他进程不会把临时文件当作遗留文件删除
+            for (PendingFile pending : pendingFiles) {
+                pending.output.flush();
+                pending.output.getFD().sync();
+            }
+            for (PendingFile pending : pendingFiles) {
+                if (!pending.temp.renameTo(pending.target)) {
+                    throw new IOException("Failed to rename " + pending.temp + " to " + pending.target);
+                }
+                pending.committed = true;
+            }
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+                Set<File> directories = new LinkedHashSet<>();
+                for (PendingFile pending : pendingFiles) {
+                    directories.add(pending.temp.getParentFile());
+                }
+                for (File directory : directories) {
+                    syncDirectory(directory);
+                }
+            }
+        } finally {
+            discardUncommitted();
+        }
+    }
+
+    /**
+     * 放弃写入，删除所有临时文件，目标文件保持不变
+     */
+    public void abort() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        discardUncommitted();
+    }
+
+    private void discardUncommitted() {
+        for (PendingFile pending : pendingFiles) {
+            CloseUtils.closeIOQuietly(pending.output);
+            if (!pending.committed) {
+                pending.temp.delete();
+            }
+            ACTIVE_TEMP_FILES.remove(pending.temp.getPath());
+        }
+        pendingFiles.clear();
+    }
+
+    /**
+     * 在目录中创建唯一的临时文件("文件名.16位十六进制随机数.tmp")，并记录为本进程正在使用
+     */
+    private static File createTempFile(File directory, String name) throws IOException {
+        while (true) {
+            // 最高位置1，使十六进制的长度固定为16
+            String random = Long.toHexString(TEMP_RANDOM.nextLong() | Long.MIN_VALUE);
+            File temp = new File(directory, name + '.' + random + TEMP_FILE_SUFFIX);
+            String path = temp.getPath();
+            if (!ACTIVE_TEMP_FILES.add(path)) {
+                continue;
+            }
+            boolean created = false;
+            try {
+                created = temp.createNewFile();
+            } finally {
+                if (!created) {
+                    ACTIVE_TEMP_FILES.remove(path);
+                }
+            }
+            if (created) {
+                return temp;
+            }
+        }
+    }
+
+    /**
+     * 判断是否是{@link #createTempFile(File, String)}创建的临时文件
+     */
+    private static boolean isTempFileName(String name) {
+        int end = name.length() - TEMP_FILE_SUFFIX.length();
+        int start = end - TEMP_RANDOM_LENGTH;
+        if (start < 2 || !name.endsWith(TEMP_FILE_SUFFIX) || name.charAt(start - 1) != '.') {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            char c = name.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 删除目录中遗留的临时文件(跳过本进程正在使用的，以及被其他进程锁定的临时文件)
+     */
+    private static void deleteOrphanedTempFiles(File directory) {
+        String[] names = directory.list();
+        if (names == null) {
+            return;
+        }
+        for (String name : names) {
+            if (!isTempFileName(name)) {
+                continue;
+            }
+            File temp = new File(directory, name);
+            if (ACTIVE_TEMP_FILES.contains(temp.getPath())) {
+                continue;
+            }
+            RandomAccessFile file = null;
+            try {
+                file = new RandomAccessFile(temp, "rw");
+                FileLock lock = file.getChannel().tryLock();
+                if (lock == null) {
+                    // 其他进程正在写入
+                    continue;
+                }
+                temp.delete();
+            } catch (OverlappingFileLockException e) {
+                // 本进程正在写入
+            } catch (IOException e) {
+                // 文件系统不支持文件锁时无法判断其他进程是否正在写入，此时按遗留文件处理
+                temp.delete();
+            } finally {
+                CloseUtils.closeIOQuietly(file);
+            }
+        }
+    }
+
+    /**
+     * 锁定正在写入的临时文件(文件系统不支持文件锁时忽略)
+     */
+    private static void lockQuietly(FileOutputStream output) {
+        try {
+            output.getChannel().tryLock();
+        } catch (IOException | OverlappingFileLockException ignored) {
+        }
+    }
+
+    /**
+     * 同步目录，使其中的重命名落盘(部分文件系统不支持同步目录，此时忽略)
+     */
+    @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+    private static void syncDirectory(File directory) {
+        FileDescriptor fd;
+        try {
+            fd = Os.open(directory.getPath(), OsConstants.O_RDONLY, 0);
+        } catch (ErrnoException e) {
+            return;
+        }
+        try {
+            Os.fsync(fd);
+        } catch (ErrnoException ignored) {
+        } finally {
+            try {
+                Os.close(fd);
+            } catch (ErrnoException ignored) {
+            }
+        }
+    }
+
+    private void checkNotFinished() {
+        if (finished) {
+            throw new IllegalStateException("AtomicWriteBatch has already been committed or aborted");
+        }
+    }
+
+    private static final class PendingFile {
+
+        private final File target;
+        private final File temp;
+        private final FileOutputStream output;
+        private final OutputStream stream;
+        private boolean committed;
+
+        private PendingFile(File target, File temp, FileOutputStream output) {
+            this.target = target;
+            this.temp = temp;
+            this.output = output;
+            this.stream = new UncloseableOutputStream(output);
+        }
+    }
+
+    /**
+     * 忽略{@link #close()}的输出流(临时文件需要在提交时同步后再关闭)
+     */
+    private static final class UncloseableOutputStream extends FilterOutputStream {
+
+        private UncloseableOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
+}
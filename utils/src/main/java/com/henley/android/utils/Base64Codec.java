@@ -0,0 +1,381 @@
+package com.henley.android.utils;
+
+import android.util.Base64;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * 一次性Base64编码/解码(纯Java实现，输出与{@link Base64}一致，可以在JVM上测试)
+ * <p>结果直接写入调用方提供的byte[]、char[]或{@link ByteBuffer}，可以通过{@link #encodedLength(int, int)}、
+ * {@link #decodedLength(byte[], int, int, int)}预先获取准确的输出长度，除返回新数组/字符串的方法外不分配内存</p>
+ * <p>支持{@link Base64}的标志位：{@link Base64#NO_PADDING}、{@link Base64#NO_WRAP}、{@link Base64#CRLF}、{@link Base64#URL_SAFE}；
+ * 解码时忽略所有不属于字母表的字符，数据错误时抛出{@link IllegalArgumentException}</p>
+ * <p>需要分段处理的数据(如大文件)请使用{@link Base64Coder}</p>
+ *
+ * @author Henley
+ * @since 2026/10/18 19:40
+ * @see EncodeUtils#base64Encode(byte[])
+ */
+public final class Base64Codec {
+
+    /**
+     * 每行的组数(每组4个字符，每行76个字符)
+     */
+    private static final int LINE_GROUPS = 19;
+    /**
+     * 处理非数组{@link ByteBuffer}时每次编码的输入大小(57的整数倍，保证每段都是完整的行)
+     */
+    private static final int BUFFER_ENCODE_CHUNK_SIZE = 57 * 64;
+    private static final int BUFFER_DECODE_CHUNK_SIZE = 1024 * 4;
+    /**
+     * 非ASCII字符转换后的字节(不属于任何字母表，解码时忽略)
+     */
+    private static final byte NON_ASCII = ' ';
+
+    private Base64Codec() {
+        throw new UnsupportedOperationException("Instantiation operation is not supported.");
+    }
+
+    /**
+     * 获取编码后的准确长度
+     *
+     * @param length 输入长度
+     * @param flags  {@link Base64}的标志位
+     */
+    public static int encodedLength(int length, int flags) {
+        if (length < 0) {
+            throw new IllegalArgumentException("length < 0");
+        }
+        int remainder = length % 3;
+        long size = (long) (length / 3) * 4;
+        if (remainder > 0) {
+            size += (flags & Base64.NO_PADDING) == 0 ? 4 : remainder + 1;
+        }
+        if ((flags & Base64.NO_WRAP) == 0 && length > 0) {
+            long groups = ((long) length + 2) / 3;
+            size += (groups + LINE_GROUPS - 1) / LINE_GROUPS * ((flags & Base64.CRLF) == 0 ? 1 : 2);
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Input too large: " + length);
+        }
+        return (int) size;
+    }
+
+    /**
+     * 编码，返回新的数组
+     */
+    public static byte[] encode(byte[] src, int flags) {
+        byte[] dst = new byte[encodedLength(src.length, flags)];
+        encode(src, 0, src.length, dst, 0, flags);
+        return dst;
+    }
+
+    /**
+     * 编码，返回字符串
+     */
+    public static String encodeToString(byte[] src, int flags) {
+        return encodeToString(src, 0, src.length, flags);
+    }
+
+    /**
+     * 编码数组中的一段，返回字符串
+     */
+    public static String encodeToString(byte[] src, int offset, int length, int flags) {
+        char[] dst = new char[encodedLength(length, flags)];
+        encode(src, offset, length, dst, 0, flags);
+        return new String(dst);
+    }
+
+    /**
+     * 编码并写入调用方提供的数组
+     *
+     * @param dst       输出数组(剩余空间不小于{@link #encodedLength(int, int)})
+     * @param dstOffset 输出起始位置
+     * @return 写入的字节数
+     */
+    public static int encode(byte[] src, int offset, int length, byte[] dst, int dstOffset, int flags) {
+        byte[] alphabet = (flags & Base64.URL_SAFE) == 0 ? Base64Coder.ENCODE : Base64Coder.ENCODE_WEBSAFE;
+        boolean wrap = (flags & Base64.NO_WRAP) == 0;
+        boolean crlf = (flags & Base64.CRLF) != 0;
+        int end = offset + length - length % 3;
+        int lineBytes = wrap ? LINE_GROUPS * 3 : Integer.MAX_VALUE;
+        int p = offset;
+        int op = dstOffset;
+        while (p < end) {
+            // 每次编码一行，内层循环没有分支
+            int lineEnd = end - p > lineBytes ? p + lineBytes : end;
+            for (; p < lineEnd; p += 3, op += 4) {
+                int v = (src[p] & 0xFF) << 16 | (src[p + 1] & 0xFF) << 8 | (src[p + 2] & 0xFF);
+                dst[op] = alphabet[v >>> 18];
+                dst[op + 1] = alphabet[(v >>> 12) & 0x3F];
+                dst[op + 2] = alphabet[(v >>> 6) & 0x3F];
+                dst[op + 3] = alphabet[v & 0x3F];
+            }
+            if (wrap && (lineEnd - offset) % lineBytes == 0) {
+                if (crlf) {
+                    dst[op++] = '\r';
+                }
+                dst[op++] = '\n';
+            }
+        }
+        int remainder = offset + length - end;
+        if (remainder > 0) {
+            int v = (src[p] & 0xFF) << 10 | (remainder == 2 ? (src[p + 1] & 0xFF) << 2 : 0);
+            dst[op++] = alphabet[v >>> 12];
+            dst[op++] = alphabet[(v >>> 6) & 0x3F];
+            if (remainder == 2) {
+                dst[op++] = alphabet[v & 0x3F];
+            }
+            if ((flags & Base64.NO_PADDING) == 0) {
+                dst[op++] = '=';
+                if (remainder == 1) {
+                    dst[op++] = '=';
+                }
+            }
+        }
+        if (wrap && (remainder > 0 || (length > 0 && length % lineBytes != 0))) {
+            if (crlf) {
+                dst[op++] = '\r';
+            }
+            dst[op++] = '\n';
+        }
+        return op - dstOffset;
+    }
+
+    /**
+     * 编码并写入调用方提供的字符数组
+     *
+     * @see #encode(byte[], int, int, byte[], int, int)
+     */
+    public static int encode(byte[] src, int offset, int length, char[] dst, int dstOffset, int flags) {
+        byte[] alphabet = (flags & Base64.URL_SAFE) == 0 ? Base64Coder.ENCODE : Base64Coder.ENCODE_WEBSAFE;
+        boolean wrap = (flags & Base64.NO_WRAP) == 0;
+        boolean crlf = (flags & Base64.CRLF) != 0;
+        int end = offset + length - length % 3;
+        int lineBytes = wrap ? LINE_GROUPS * 3 : Integer.MAX_VALUE;
+        int p = offset;
+        int op = dstOffset;
+        while (p < end) {
+            int lineEnd = end - p > lineBytes ? p + lineBytes : end;
+            for (; p < lineEnd; p += 3, op += 4) {
+                int v = (src[p] & 0xFF) << 16 | (src[p + 1] & 0xFF) << 8 | (src[p + 2] & 0xFF);
+                dst[op] = (char) alphabet[v >>> 18];
+                dst[op + 1] = (char) alphabet[(v >>> 12) & 0x3F];
+                dst[op + 2] = (char) alphabet[(v >>> 6) & 0x3F];
+                dst[op + 3] = (char) alphabet[v & 0x3F];
+            }
+            if (wrap && (lineEnd - offset) % lineBytes == 0) {
+                if (crlf) {
+                    dst[op++] = '\r';
+                }
+                dst[op++] = '\n';
+            }
+        }
+        int remainder = offset + length - end;
+        if (remainder > 0) {
+            int v = (src[p] & 0xFF) << 10 | (remainder == 2 ? (src[p + 1] & 0xFF) << 2 : 0);
+            dst[op++] = (char) alphabet[v >>> 12];
+            dst[op++] = (char) alphabet[(v >>> 6) & 0x3F];
+            if (remainder == 2) {
+                dst[op++] = (char) alphabet[v & 0x3F];
+            }
+            if ((flags & Base64.NO_PADDING) == 0) {
+                dst[op++] = '=';
+                if (remainder == 1) {
+                    dst[op++] = '=';
+                }
+            }
+        }
+        if (wrap && (remainder > 0 || (length > 0 && length % lineBytes != 0))) {
+            if (crlf) {
+                dst[op++] = '\r';
+            }
+            dst[op++] = '\n';
+        }
+        return op - dstOffset;
+    }
+
+    /**
+     * 编码src中剩余的数据并写入dst(两者的position都会前移)
+     *
+     * @throws BufferOverflowException dst的剩余空间小于{@link #encodedLength(int, int)}
+     */
+    public static int encode(ByteBuffer src, ByteBuffer dst, int flags) {
+        int length = src.remaining();
+        int size = encodedLength(length, flags);
+        if (dst.remaining() < size) {
+            throw new BufferOverflowException();
+        }
+        if (src.hasArray() && dst.hasArray()) {
+            encode(src.array(), src.arrayOffset() + src.position(), length,
+                    dst.array(), dst.arrayOffset() + dst.position(), flags);
+            src.position(src.limit());
+            dst.position(dst.position() + size);
+            return size;
+        }
+        // 直接缓冲区按完整的行分段编码，各段的结果拼接后与一次编码相同
+        byte[] input = BufferPool.acquireBytes(BUFFER_ENCODE_CHUNK_SIZE);
+        byte[] output = BufferPool.acquireBytes(encodedLength(BUFFER_ENCODE_CHUNK_SIZE, flags));
+        try {
+            while (src.hasRemaining()) {
+                int count = Math.min(src.remaining(), BUFFER_ENCODE_CHUNK_SIZE);
+                src.get(input, 0, count);
+                dst.put(output, 0, encode(input, 0, count, output, 0, flags));
+            }
+        } finally {
+            BufferPool.release(input);
+            BufferPool.release(output);
+        }
+        return size;
+    }
+
+    /**
+     * 获取解码后的准确长度(需要扫描一遍数据；数据格式错误时结果没有意义，解码时会抛出异常)
+     */
+    public static int decodedLength(byte[] src, int offset, int length, int flags) {
+        int[] table = (flags & Base64.URL_SAFE) == 0 ? Base64Coder.DECODE : Base64Coder.DECODE_WEBSAFE;
+        int count = 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            count += ~table[src[i] & 0xFF] >>> 31;
+        }
+        return decodedLength(count);
+    }
+
+    /**
+     * 获取解码后的准确长度
+     *
+     * @see #decodedLength(byte[], int, int, int)
+     */
+    public static int decodedLength(CharSequence src, int flags) {
+        int[] table = (flags & Base64.URL_SAFE) == 0 ? Base64Coder.DECODE : Base64Coder.DECODE_WEBSAFE;
+        int count = 0;
+        for (int i = 0, length = src.length(); i < length; i++) {
+            char c = src.charAt(i);
+            if (c < 0x80 && table[c] >= 0) {
+                count++;
+            }
+        }
+        return decodedLength(count);
+    }
+
+    /**
+     * 由字母表中字符的数量计算解码后的长度
+     */
+    private static int decodedLength(int alphabetCount) {
+        int remainder = alphabetCount & 3;
+        return (alphabetCount >>> 2) * 3 + (remainder > 1 ? remainder - 1 : 0);
+    }
+
+    /**
+     * 解码，返回新的数组
+     */
+    public static byte[] decode(byte[] src, int flags) {
+        byte[] dst = new byte[decodedLength(src, 0, src.length, flags)];
+        decode(src, 0, src.length, dst, 0, flags);
+        return dst;
+    }
+
+    /**
+     * 解码字符串，返回新的数组
+     */
+    public static byte[] decode(String src, int flags) {
+        int length = src.length();
+        char[] chars = BufferPool.acquireChars(length);
+        try {
+            src.getChars(0, length, chars, 0);
+            byte[] dst = new byte[decodedLength(src, flags)];
+            decode(chars, 0, length, dst, 0, flags);
+            return dst;
+        } finally {
+            BufferPool.release(chars);
+        }
+    }
+
+    /**
+     * 解码并写入调用方提供的数组
+     *
+     * @param dst       输出数组(剩余空间不小于{@link #decodedLength(byte[], int, int, int)})
+     * @param dstOffset 输出起始位置
+     * @return 写入的字节数
+     * @throws IllegalArgumentException 数据不是正确的Base64格式
+     */
+    public static int decode(byte[] src, int offset, int length, byte[] dst, int dstOffset, int flags) {
+        int[] table = (flags & Base64.URL_SAFE) == 0 ? Base64Coder.DECODE : Base64Coder.DECODE_WEBSAFE;
+        long result = Base64Coder.decode(table, src, offset, length, 0, dst, dstOffset);
+        return Base64Coder.decodeFinish((int) (result >>> 32), dst, (int) result) - dstOffset;
+    }
+
+    /**
+     * 解码字符数组并写入调用方提供的数组
+     * <p>字符分段转换为ASCII字节(非ASCII字符视为忽略的字符)后使用与byte[]相同的解码实现</p>
+     *
+     * @see #decode(byte[], int, int, byte[], int, int)
+     */
+    public static int decode(char[] src, int offset, int length, byte[] dst, int dstOffset, int flags) {
+        int[] table = (flags & Base64.URL_SAFE) == 0 ? Base64Coder.DECODE : Base64Coder.DECODE_WEBSAFE;
+        byte[] input = BufferPool.acquireBytes(BUFFER_DECODE_CHUNK_SIZE);
+        try {
+            int state = 0;
+            int op = dstOffset;
+            for (int p = offset, end = offset + length; p < end; ) {
+                int count = Math.min(end - p, input.length);
+                for (int i = 0; i < count; i++) {
+                    char c = src[p + i];
+                    input[i] = c < 0x80 ? (byte) c : NON_ASCII;
+                }
+                long result = Base64Coder.decode(table, input, 0, count, state, dst, op);
+                state = (int) (result >>> 32);
+                op = (int) result;
+                p += count;
+            }
+            return Base64Coder.decodeFinish(state, dst, op) - dstOffset;
+        } finally {
+            BufferPool.release(input);
+        }
+    }
+
+    /**
+     * 解码src中剩余的数据并写入dst(两者的position都会前移)
+     *
+     * @throws BufferOverflowException dst的剩余空间不足
+     */
+    public static int decode(ByteBuffer src, ByteBuffer dst, int flags) {
+        if (src.hasArray() && dst.hasArray()) {
+            byte[] array = src.array();
+            int offset = src.arrayOffset() + src.position();
+            int length = src.remaining();
+            if (dst.remaining() < decodedLength(array, offset, length, flags)) {
+                throw new BufferOverflowException();
+            }
+            int count = decode(array, offset, length, dst.array(), dst.arrayOffset() + dst.position(), flags);
+            src.position(src.limit());
+            dst.position(dst.position() + count);
+            return count;
+        }
+        int[] table = (flags & Base64.URL_SAFE) == 0 ? Base64Coder.DECODE : Base64Coder.DECODE_WEBSAFE;
+        // 每段的输出(包括上一段剩余的不完整的组)不超过(BUFFER_DECODE_CHUNK_SIZE + 3) * 3 / 4，小于输出缓冲区
+        byte[] input = BufferPool.acquireBytes(BUFFER_DECODE_CHUNK_SIZE);
+        byte[] output = BufferPool.acquireBytes(BUFFER_DECODE_CHUNK_SIZE);
+        int total = 0;
+        try {
+            int state = 0;
+            while (src.hasRemaining()) {
+                int count = Math.min(src.remaining(), BUFFER_DECODE_CHUNK_SIZE);
+                src.get(input, 0, count);
+                long result = Base64Coder.decode(table, input, 0, count, state, output, 0);
+                state = (int) (result >>> 32);
+                dst.put(output, 0, (int) result);
+                total += (int) result;
+            }
+            int written = Base64Coder.decodeFinish(state, output, 0);
+            dst.put(output, 0, written);
+            total += written;
+        } finally {
+            BufferPool.release(input);
+            BufferPool.release(output);
+        }
+        return total;
+    }
+
+}
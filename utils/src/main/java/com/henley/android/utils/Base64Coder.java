@@ -0,0 +1,636 @@
+package com.henley.android.utils;
+
+import android.util.Base64;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 增量Base64编码/解码器(纯Java实现，输出与{@link Base64}一致)
+ * <p>数据可以分多次传入({@link Coder#process})，编码器/解码器保存不足一组的剩余数据，适用于边读边编码的大文件等场景，不需要把全部数据读入内存</p>
+ * <p>支持{@link Base64}的标志位：{@link Base64#DEFAULT}(每76个字符换行)、{@link Base64#NO_PADDING}、{@link Base64#NO_WRAP}、
+ * {@link Base64#CRLF}、{@link Base64#URL_SAFE}、{@link Base64#NO_CLOSE}(只对流有效)；解码时忽略所有不属于字母表的字符</p>
+ * <p>流使用的缓冲区不超过8KB(从{@link BufferPool}获取)，不会进入大对象空间</p>
+ *
+ * @author Henley
+ * @since 2026/10/18 19:05
+ * @see EncodeUtils#base64EncodeOutputStream(OutputStream, int)
+ * @see EncodeUtils#base64DecodeInputStream(InputStream, int)
+ */
+public final class Base64Coder {
+
+    /**
+     * 每行的组数(每组4个字符，每行76个字符)
+     */
+    private static final int LINE_GROUPS = 19;
+    /**
+     * 编码流每次处理的输入大小(编码后不超过8KB)
+     */
+    private static final int ENCODE_CHUNK_SIZE = 57 * 96;
+    /**
+     * 解码流每次处理的输入大小
+     */
+    private static final int DECODE_CHUNK_SIZE = 1024 * 8;
+    private static final int STREAM_BUFFER_SIZE = 1024 * 8;
+
+    static final byte[] ENCODE = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes();
+    static final byte[] ENCODE_WEBSAFE = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes();
+    /**
+     * 解码表：-1表示忽略的字符，-2表示'='
+     */
+    static final int[] DECODE = createDecodeTable(ENCODE);
+    static final int[] DECODE_WEBSAFE = createDecodeTable(ENCODE_WEBSAFE);
+    private static final int SKIP = -1;
+    private static final int EQUALS = -2;
+    /**
+     * 解码状态中表示当前组位置的位数
+     */
+    private static final int STATE_BITS = 3;
+    private static final int STATE_MASK = (1 << STATE_BITS) - 1;
+
+    private Base64Coder() {
+        throw new UnsupportedOperationException("Instantiation operation is not supported.");
+    }
+
+    private static int[] createDecodeTable(byte[] alphabet) {
+        int[] table = new int[256];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = SKIP;
+        }
+        for (int i = 0; i < alphabet.length; i++) {
+            table[alphabet[i]] = i;
+        }
+        table['='] = EQUALS;
+        return table;
+    }
+
+    /**
+     * 创建增量编码器
+     *
+     * @param flags {@link Base64}的标志位
+     */
+    public static Encoder newEncoder(int flags) {
+        return new Encoder(flags);
+    }
+
+    /**
+     * 创建增量解码器
+     *
+     * @param flags {@link Base64}的标志位(只有{@link Base64#URL_SAFE}有效)
+     */
+    public static Decoder newDecoder(int flags) {
+        return new Decoder(flags);
+    }
+
+    /**
+     * 包装输出流：写入的数据编码后写入out
+     * <p>关闭时写入剩余数据(及填充)，除非指定了{@link Base64#NO_CLOSE}，否则同时关闭out</p>
+     */
+    public static OutputStream encodingOutputStream(OutputStream out, int flags) {
+        return new CoderOutputStream(out, new Encoder(flags), ENCODE_CHUNK_SIZE, (flags & Base64.NO_CLOSE) == 0);
+    }
+
+    /**
+     * 包装输出流：写入的Base64数据解码后写入out
+     *
+     * @see #encodingOutputStream(OutputStream, int)
+     */
+    public static OutputStream decodingOutputStream(OutputStream out, int flags) {
+        return new CoderOutputStream(out, new Decoder(flags), DECODE_CHUNK_SIZE, (flags & Base64.NO_CLOSE) == 0);
+    }
+
+    /**
+     * 包装输入流：读取时返回in中数据的Base64编码
+     */
+    public static InputStream encodingInputStream(InputStream in, int flags) {
+        return new CoderInputStream(in, new Encoder(flags), ENCODE_CHUNK_SIZE);
+    }
+
+    /**
+     * 包装输入流：读取时返回in中Base64数据解码后的内容
+     */
+    public static InputStream decodingInputStream(InputStream in, int flags) {
+        return new CoderInputStream(in, new Decoder(flags), DECODE_CHUNK_SIZE);
+    }
+
+    /**
+     * 解码一段数据({@link Base64Codec}与{@link Decoder}共用的实现)
+     * <p>state的低3位：0~3为下一个字符在当前组中的位置；4为已读取一个'='，需要第二个'='；5为已结束，只允许忽略的字符；
+     * 其余位为当前组已读取的值。开始时为0，分段解码时传入上一段返回的状态</p>
+     *
+     * @param table     解码表({@link #DECODE}或{@link #DECODE_WEBSAFE})
+     * @param state     开始时的状态
+     * @param dst       输出数组(剩余空间不小于length * 3 / 4 + 2)
+     * @param dstOffset 输出起始位置
+     * @return 高32位为结束时的状态，低32位为输出结束位置
+     * @throws IllegalArgumentException 数据不是正确的Base64格式
+     */
+    static long decode(int[] table, byte[] src, int offset, int length, int state, byte[] dst, int dstOffset) {
+        int end = offset + length;
+        int p = offset;
+        int op = dstOffset;
+        int s = state & STATE_MASK;
+        int v = state >>> STATE_BITS;
+        while (p < end) {
+            if (s == 0) {
+                // 快速路径：连续4个都是字母表中的字符
+                for (; end - p >= 4; p += 4, op += 3) {
+                    int value = table[src[p] & 0xFF] << 18 | table[src[p + 1] & 0xFF] << 12
+                            | table[src[p + 2] & 0xFF] << 6 | table[src[p + 3] & 0xFF];
+                    if (value < 0) {
+                        break;
+                    }
+                    dst[op] = (byte) (value >> 16);
+                    dst[op + 1] = (byte) (value >> 8);
+                    dst[op + 2] = (byte) value;
+                }
+                if (p >= end) {
+                    break;
+                }
+            }
+            int d = table[src[p++] & 0xFF];
+            if (d == SKIP) {
+                continue;
+            }
+            switch (s) {
+                case 0:
+                case 1:
+                    if (d < 0) {
+                        throw badBase64();
+                    }
+                    v = (v << 6) | d;
+                    s++;
+                    break;
+                case 2:
+                    if (d >= 0) {
+                        v = (v << 6) | d;
+                        s++;
+                    } else {
+                        dst[op++] = (byte) (v >> 4);
+                        s = 4;
+                    }
+                    break;
+                case 3:
+                    if (d >= 0) {
+                        v = (v << 6) | d;
+                        dst[op++] = (byte) (v >> 16);
+                        dst[op++] = (byte) (v >> 8);
+                        dst[op++] = (byte) v;
+                        v = 0;
+                        s = 0;
+                    } else {
+                        dst[op++] = (byte) (v >> 10);
+                        dst[op++] = (byte) (v >> 2);
+                        s = 5;
+                    }
+                    break;
+                case 4:
+                    if (d != EQUALS) {
+                        throw badBase64();
+                    }
+                    s = 5;
+                    break;
+                default:
+                    throw badBase64();
+            }
+        }
+        return (long) (v << STATE_BITS | s) << 32 | op;
+    }
+
+    /**
+     * 结束解码，输出最后不完整的一组
+     *
+     * @param state {@link #decode(int[], byte[], int, int, int, byte[], int)}返回的状态
+     * @param op    输出位置
+     * @return 输出结束位置
+     * @throws IllegalArgumentException 数据不完整
+     */
+    static int decodeFinish(int state, byte[] dst, int op) {
+        int v = state >>> STATE_BITS;
+        switch (state & STATE_MASK) {
+            case 1:
+            case 4:
+                throw badBase64();
+            case 2:
+                dst[op++] = (byte) (v >> 4);
+                break;
+            case 3:
+                dst[op++] = (byte) (v >> 10);
+                dst[op++] = (byte) (v >> 2);
+                break;
+            default:
+                break;
+        }
+        return op;
+    }
+
+    private static IllegalArgumentException badBase64() {
+        return new IllegalArgumentException("bad base-64");
+    }
+
+    /**
+     * 增量编码/解码器
+     */
+    public abstract static class Coder {
+
+        Coder() {
+        }
+
+        /**
+         * 处理一段数据
+         *
+         * @param src       输入数据
+         * @param offset    输入起始位置
+         * @param length    输入长度
+         * @param dst       输出数组(剩余空间不小于{@link #maxOutputSize(int)})
+         * @param dstOffset 输出起始位置
+         * @param finish    是否为最后一段数据(处理后重置状态，可以继续处理新的数据)
+         * @return 输出的字节数
+         * @throws IllegalArgumentException 解码时遇到错误的Base64数据
+         */
+        public abstract int process(byte[] src, int offset, int length, byte[] dst, int dstOffset, boolean finish);
+
+        /**
+         * 获取处理指定长度的输入(包含结束)时最多输出的字节数
+         */
+        public abstract int maxOutputSize(int length);
+
+        /**
+         * 重置状态(丢弃尚未输出的数据)
+         */
+        public abstract void reset();
+    }
+
+    /**
+     * 增量编码器
+     */
+    public static final class Encoder extends Coder {
+
+        private final byte[] alphabet;
+        private final boolean doPadding;
+        private final boolean doNewline;
+        private final boolean doCr;
+        private final byte[] tail = new byte[2];
+        private int tailLength;
+        private int count = LINE_GROUPS;
+        private boolean hasOutput;
+
+        private Encoder(int flags) {
+            this.alphabet = (flags & Base64.URL_SAFE) == 0 ? ENCODE : ENCODE_WEBSAFE;
+            this.doPadding = (flags & Base64.NO_PADDING) == 0;
+            this.doNewline = (flags & Base64.NO_WRAP) == 0;
+            this.doCr = (flags & Base64.CRLF) != 0;
+        }
+
+        @Override
+        public int maxOutputSize(int length) {
+            long groups = ((long) tailLength + length) / 3;
+            long size = groups * 4 + 4;
+            if (doNewline) {
+                // 当前行可能已经写了部分组，再加上结尾的换行
+                size += (groups / LINE_GROUPS + 2) * (doCr ? 2 : 1);
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Input too large: " + length);
+            }
+            return (int) size;
+        }
+
+        @Override
+        public int process(byte[] src, int offset, int length, byte[] dst, int dstOffset, boolean finish) {
+            int p = offset;
+            int end = offset + length;
+            int op = dstOffset;
+            if (tailLength > 0 && tailLength + length >= 3) {
+                int v;
+                if (tailLength == 1) {
+                    v = (tail[0] & 0xFF) << 16 | (src[p] & 0xFF) << 8 | (src[p + 1] & 0xFF);
+                    p += 2;
+                } else {
+                    v = (tail[0] & 0xFF) << 16 | (tail[1] & 0xFF) << 8 | (src[p] & 0xFF);
+                    p++;
+                }
+                tailLength = 0;
+                op = writeGroup(v, dst, op);
+            }
+            while (end - p >= 3) {
+                int v = (src[p] & 0xFF) << 16 | (src[p + 1] & 0xFF) << 8 | (src[p + 2] & 0xFF);
+                p += 3;
+                op = writeGroup(v, dst, op);
+            }
+            while (p < end) {
+                tail[tailLength++] = src[p++];
+            }
+            if (op > dstOffset) {
+                hasOutput = true;
+            }
+            if (finish) {
+                op = finish(dst, op);
+            }
+            return op - dstOffset;
+        }
+
+        @Override
+        public void reset() {
+            tailLength = 0;
+            count = LINE_GROUPS;
+            hasOutput = false;
+        }
+
+        private int writeGroup(int v, byte[] dst, int op) {
+            dst[op++] = alphabet[(v >> 18) & 0x3F];
+            dst[op++] = alphabet[(v >> 12) & 0x3F];
+            dst[op++] = alphabet[(v >> 6) & 0x3F];
+            dst[op++] = alphabet[v & 0x3F];
+            if (doNewline && --count == 0) {
+                op = writeNewline(dst, op);
+                count = LINE_GROUPS;
+            }
+            return op;
+        }
+
+        private int writeNewline(byte[] dst, int op) {
+            if (doCr) {
+                dst[op++] = '\r';
+            }
+            dst[op++] = '\n';
+            return op;
+        }
+
+        /**
+         * 输出剩余数据(与{@link Base64#encode(byte[], int)}的结尾规则一致：开启换行时，非空输出总以换行符结尾)
+         */
+        private int finish(byte[] dst, int op) {
+            if (tailLength == 1) {
+                int v = (tail[0] & 0xFF) << 4;
+                dst[op++] = alphabet[(v >> 6) & 0x3F];
+                dst[op++] = alphabet[v & 0x3F];
+                if (doPadding) {
+                    dst[op++] = '=';
+                    dst[op++] = '=';
+                }
+                if (doNewline) {
+                    op = writeNewline(dst, op);
+                }
+            } else if (tailLength == 2) {
+                int v = (tail[0] & 0xFF) << 10 | (tail[1] & 0xFF) << 2;
+                dst[op++] = alphabet[(v >> 12) & 0x3F];
+                dst[op++] = alphabet[(v >> 6) & 0x3F];
+                dst[op++] = alphabet[v & 0x3F];
+                if (doPadding) {
+                    dst[op++] = '=';
+                }
+                if (doNewline) {
+                    op = writeNewline(dst, op);
+                }
+            } else if (doNewline && hasOutput && count != LINE_GROUPS) {
+                op = writeNewline(dst, op);
+            }
+            tailLength = 0;
+            count = LINE_GROUPS;
+            hasOutput = false;
+            return op;
+        }
+    }
+
+    /**
+     * 增量解码器
+     */
+    public static final class Decoder extends Coder {
+
+        private final int[] alphabet;
+        /**
+         * 解码状态(格式见{@link Base64Coder#decode(int[], byte[], int, int, int, byte[], int)})
+         */
+        private int state;
+
+        private Decoder(int flags) {
+            this.alphabet = (flags & Base64.URL_SAFE) == 0 ? DECODE : DECODE_WEBSAFE;
+        }
+
+        @Override
+        public int maxOutputSize(int length) {
+            return (int) (((long) length + 4) * 3 / 4);
+        }
+
+        @Override
+        public int process(byte[] src, int offset, int length, byte[] dst, int dstOffset, boolean finish) {
+            try {
+                long result = decode(alphabet, src, offset, length, state, dst, dstOffset);
+                int op = (int) result;
+                state = (int) (result >>> 32);
+                if (finish) {
+                    op = decodeFinish(state, dst, op);
+                    state = 0;
+                }
+                return op - dstOffset;
+            } catch (IllegalArgumentException e) {
+                reset();
+                throw e;
+            }
+        }
+
+        @Override
+        public void reset() {
+            state = 0;
+        }
+    }
+
+    /**
+     * 写入时编码/解码的输出流
+     */
+    private static final class CoderOutputStream extends FilterOutputStream {
+
+        private final Coder coder;
+        private final int chunkSize;
+        private final boolean closeOut;
+        private byte[] buffer;
+        private final byte[] singleByte = new byte[1];
+
+        private CoderOutputStream(OutputStream out, Coder coder, int chunkSize, boolean closeOut) {
+            super(out);
+            this.coder = coder;
+            this.chunkSize = chunkSize;
+            this.closeOut = closeOut;
+            this.buffer = BufferPool.acquireBytes(STREAM_BUFFER_SIZE);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            singleByte[0] = (byte) b;
+            write(singleByte, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (buffer == null) {
+                throw new IOException("Stream closed");
+            }
+            while (len > 0) {
+                int count = Math.min(len, chunkSize);
+                internalWrite(b, off, count, false);
+                off += count;
+                len -= count;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (buffer == null) {
+                return;
+            }
+            IOException error = null;
+            try {
+                internalWrite(singleByte, 0, 0, true);
+                out.flush();
+            } catch (IOException e) {
+                error = e;
+            }
+            BufferPool.release(buffer);
+            buffer = null;
+            if (closeOut) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    if (error == null) {
+                        error = e;
+                    }
+                }
+            }
+            if (error != null) {
+                throw error;
+            }
+        }
+
+        private void internalWrite(byte[] b, int off, int len, boolean finish) throws IOException {
+            int length;
+            try {
+                length = coder.process(b, off, len, buffer, 0, finish);
+            } catch (IllegalArgumentException e) {
+                throw new IOException(e.getMessage());
+            }
+            out.write(buffer, 0, length);
+        }
+    }
+
+    /**
+     * 读取时编码/解码的输入流
+     */
+    private static final class CoderInputStream extends FilterInputStream {
+
+        private final Coder coder;
+        private final int chunkSize;
+        private byte[] inputBuffer;
+        private byte[] outputBuffer;
+        private int outputStart;
+        private int outputEnd;
+        private boolean eof;
+
+        private CoderInputStream(InputStream in, Coder coder, int chunkSize) {
+            super(in);
+            this.coder = coder;
+            this.chunkSize = chunkSize;
+            this.inputBuffer = BufferPool.acquireBytes(chunkSize);
+            this.outputBuffer = BufferPool.acquireBytes(STREAM_BUFFER_SIZE);
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (outputStart >= outputEnd) {
+                refill();
+            }
+            if (outputStart >= outputEnd) {
+                return -1;
+            }
+            return outputBuffer[outputStart++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (outputStart >= outputEnd) {
+                refill();
+            }
+            if (outputStart >= outputEnd) {
+                return -1;
+            }
+            int count = Math.min(len, outputEnd - outputStart);
+            System.arraycopy(outputBuffer, outputStart, b, off, count);
+            outputStart += count;
+            return count;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = 0;
+            while (skipped < n) {
+                if (outputStart >= outputEnd) {
+                    refill();
+                }
+                if (outputStart >= outputEnd) {
+                    break;
+                }
+                int count = (int) Math.min(n - skipped, outputEnd - outputStart);
+                outputStart += count;
+                skipped += count;
+            }
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return outputEnd - outputStart;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void mark(int readlimit) {
+        }
+
+        @Override
+        public void reset() throws IOException {
+            throw new IOException("mark/reset not supported");
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+            if (inputBuffer != null) {
+                BufferPool.release(inputBuffer);
+                BufferPool.release(outputBuffer);
+                inputBuffer = null;
+                outputBuffer = null;
+            }
+        }
+
+        /**
+         * 读取并处理下一段输入，直到有输出或输入结束
+         */
+        private void refill() throws IOException {
+            if (inputBuffer == null) {
+                throw new IOException("Stream closed");
+            }
+            outputStart = 0;
+            outputEnd = 0;
+            while (!eof && outputEnd == 0) {
+                int length = in.read(inputBuffer, 0, chunkSize);
+                eof = length == -1;
+                try {
+                    outputEnd = coder.process(inputBuffer, 0, eof ? 0 : length, outputBuffer, 0, eof);
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(e.getMessage());
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,269 @@
+package com.henley.android.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * I/O缓冲区池(复用byte[]及char[]，避免每次读写都分配新的缓冲区)
+ * <p>缓冲区按大小分级(4KB~256KB，每级翻倍)，申请的大小会向上取整到对应级别，超过最大级别时直接分配且不回收</p>
+ * <p>每个线程先使用自己缓存的缓冲区(不超过{@value #MAX_THREAD_LOCAL_SIZE}字节的级别)，其次使用无锁的共享缓冲区，都没有时才分配新的缓冲区</p>
+ * <p>缓冲区使用完毕后必须通过{@link #release(byte[])}或{@link #release(char[])}归还，且只能归还一次，归还后不能再继续使用。
+ * 池中不记录缓冲区是否由本类分配：长度恰好是某一级别大小的数组都会被放入池中，同一个缓冲区归还两次(或归还后继续使用)会导致
+ * 它被交给两个使用者，从而互相破坏数据。同一线程中重复归还一个仍在池中的缓冲区时会被忽略，其他情况无法检测</p>
+ *
+ * @author Henley
+ * @since 2026/10/18 14:02
+ */
+public final class BufferPool {
+
+    /**
+     * 默认缓冲区大小
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1024 * 8;
+    /**
+     * 最小级别的大小
+     */
+    private static final int MIN_SIZE = 1024 * 4;
+    /**
+     * 最大级别的大小
+     */
+    private static final int MAX_SIZE = 1024 * 256;
+    /**
+     * 可以缓存在线程中的最大级别
+     */
+    private static final int MAX_THREAD_LOCAL_SIZE = 1024 * 64;
+    private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_SIZE);
+    private static final int SIZE_CLASS_COUNT = Integer.numberOfTrailingZeros(MAX_SIZE) - MIN_SHIFT + 1;
+    /**
+     * 每个级别共享的缓冲区数量
+     */
+    private static final int SHARED_SLOTS_PER_CLASS = 4;
+
+    private static final AtomicReferenceArray<byte[]> SHARED_BYTES = new AtomicReferenceArray<>(SIZE_CLASS_COUNT * SHARED_SLOTS_PER_CLASS);
+    private static final AtomicReferenceArray<char[]> SHARED_CHARS = new AtomicReferenceArray<>(SIZE_CLASS_COUNT * SHARED_SLOTS_PER_CLASS);
+    private static final ThreadLocal<LocalCache> LOCAL_CACHE = new ThreadLocal<LocalCache>() {
+        @Override
+        protected LocalCache initialValue() {
+            return new LocalCache();
+        }
+    };
+
+    private static final AtomicLong ACQUIRE_COUNT = new AtomicLong();
+    private static final AtomicLong ALLOCATION_COUNT = new AtomicLong();
+    private static final AtomicLong ALLOCATED_BYTES = new AtomicLong();
+
+    private BufferPool() {
+        throw new UnsupportedOperationException("Instantiation operation is not supported.");
+    }
+
+    /**
+     * 获取默认大小的字节缓冲区
+     */
+    public static byte[] acquireBytes() {
+        return acquireBytes(DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * 获取字节缓冲区
+     *
+     * @param minSize 最小长度(返回的缓冲区长度可能大于该值)
+     */
+    public static byte[] acquireBytes(int minSize) {
+        ACQUIRE_COUNT.incrementAndGet();
+        int sizeClass = sizeClassOf(minSize);
+        if (sizeClass < 0) {
+            return allocateBytes(minSize);
+        }
+        LocalCache cache = LOCAL_CACHE.get();
+        byte[] buffer = cache.bytes[sizeClass];
+        if (buffer != null) {
+            cache.bytes[sizeClass] = null;
+            return buffer;
+        }
+        int start = sizeClass * SHARED_SLOTS_PER_CLASS;
+        for (int i = start; i < start + SHARED_SLOTS_PER_CLASS; i++) {
+            buffer = SHARED_BYTES.get(i);
+            if (buffer != null && SHARED_BYTES.compareAndSet(i, buffer, null)) {
+                return buffer;
+            }
+        }
+        return allocateBytes(MIN_SIZE << sizeClass);
+    }
+
+    /**
+     * 归还字节缓冲区(每个缓冲区只能归还一次，归还后不能再继续使用)
+     * <p>长度不是任何级别大小的缓冲区会被忽略；长度恰好是某一级别大小的数组即使不是本类分配的也会被放入池中</p>
+     */
+    public static void release(byte[] buffer) {
+        int sizeClass = buffer == null ? -1 : exactSizeClassOf(buffer.length);
+        if (sizeClass < 0) {
+            return;
+        }
+        LocalCache cache = LOCAL_CACHE.get();
+        int start = sizeClass * SHARED_SLOTS_PER_CLASS;
+        if (cache.bytes[sizeClass] == buffer || isShared(SHARED_BYTES, start, buffer)) {
+            // 重复归还
+            return;
+        }
+        if (buffer.length <= MAX_THREAD_LOCAL_SIZE && cache.bytes[sizeClass] == null) {
+            cache.bytes[sizeClass] = buffer;
+            return;
+        }
+        for (int i = start; i < start + SHARED_SLOTS_PER_CLASS; i++) {
+            if (SHARED_BYTES.get(i) == null && SHARED_BYTES.compareAndSet(i, null, buffer)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 获取默认大小的字符缓冲区
+     */
+    public static char[] acquireChars() {
+        return acquireChars(DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * 获取字符缓冲区
+     *
+     * @param minSize 最小长度(返回的缓冲区长度可能大于该值)
+     */
+    public static char[] acquireChars(int minSize) {
+        ACQUIRE_COUNT.incrementAndGet();
+        int sizeClass = sizeClassOf(minSize);
+        if (sizeClass < 0) {
+            return allocateChars(minSize);
+        }
+        LocalCache cache = LOCAL_CACHE.get();
+        char[] buffer = cache.chars[sizeClass];
+        if (buffer != null) {
+            cache.chars[sizeClass] = null;
+            return buffer;
+        }
+        int start = sizeClass * SHARED_SLOTS_PER_CLASS;
+        for (int i = start; i < start + SHARED_SLOTS_PER_CLASS; i++) {
+            buffer = SHARED_CHARS.get(i);
+            if (buffer != null && SHARED_CHARS.compareAndSet(i, buffer, null)) {
+                return buffer;
+            }
+        }
+        return allocateChars(MIN_SIZE << sizeClass);
+    }
+
+    /**
+     * 归还字符缓冲区(每个缓冲区只能归还一次，归还后不能再继续使用)
+     * <p>长度不是任何级别大小的缓冲区会被忽略；长度恰好是某一级别大小的数组即使不是本类分配的也会被放入池中</p>
+     */
+    public static void release(char[] buffer) {
+        int sizeClass = buffer == null ? -1 : exactSizeClassOf(buffer.length);
+        if (sizeClass < 0) {
+            return;
+        }
+        LocalCache cache = LOCAL_CACHE.get();
+        int start = sizeClass * SHARED_SLOTS_PER_CLASS;
+        if (cache.chars[sizeClass] == buffer || isShared(SHARED_CHARS, start, buffer)) {
+            // 重复归还
+            return;
+        }
+        if (buffer.length <= MAX_THREAD_LOCAL_SIZE && cache.chars[sizeClass] == null) {
+            cache.chars[sizeClass] = buffer;
+            return;
+        }
+        for (int i = start; i < start + SHARED_SLOTS_PER_CLASS; i++) {
+            if (SHARED_CHARS.get(i) == null && SHARED_CHARS.compareAndSet(i, null, buffer)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 获取申请缓冲区的总次数
+     */
+    public static long getAcquireCount() {
+        return ACQUIRE_COUNT.get();
+    }
+
+    /**
+     * 获取新分配缓冲区的次数(稳定运行时应不再增长)
+     */
+    public static long getAllocationCount() {
+        return ALLOCATION_COUNT.get();
+    }
+
+    /**
+     * 获取新分配缓冲区的总字节数(char按2字节计算)
+     */
+    public static long getAllocatedBytes() {
+        return ALLOCATED_BYTES.get();
+    }
+
+    /**
+     * 重置统计数据
+     */
+    public static void resetCounters() {
+        ACQUIRE_COUNT.set(0);
+        ALLOCATION_COUNT.set(0);
+        ALLOCATED_BYTES.set(0);
+    }
+
+    private static byte[] allocateBytes(int size) {
+        ALLOCATION_COUNT.incrementAndGet();
+        ALLOCATED_BYTES.addAndGet(size);
+        return new byte[size];
+    }
+
+    private static char[] allocateChars(int size) {
+        ALLOCATION_COUNT.incrementAndGet();
+        ALLOCATED_BYTES.addAndGet(size * 2L);
+        return new char[size];
+    }
+
+    /**
+     * 判断缓冲区是否已在某一级别的共享缓冲区中
+     */
+    private static <T> boolean isShared(AtomicReferenceArray<T> shared, int start, T buffer) {
+        for (int i = start; i < start + SHARED_SLOTS_PER_CLASS; i++) {
+            if (shared.get(i) == buffer) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 获取能容纳指定大小的最小级别
+     *
+     * @return 如果超过最大级别则返回-1
+     */
+    private static int sizeClassOf(int size) {
+        if (size <= MIN_SIZE) {
+            return 0;
+        }
+        if (size > MAX_SIZE) {
+            return -1;
+        }
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_SHIFT;
+    }
+
+    /**
+     * 获取与指定大小完全相同的级别
+     *
+     * @return 如果不是任何级别的大小则返回-1
+     */
+    private static int exactSizeClassOf(int size) {
+        if (size < MIN_SIZE || size > MAX_SIZE || Integer.bitCount(size) != 1) {
+            return -1;
+        }
+        return Integer.numberOfTrailingZeros(size) - MIN_SHIFT;
+    }
+
+    /**
+     * 线程缓存的缓冲区(每个级别最多一个)
+     */
+    private static final class LocalCache {
+
+        private final byte[][] bytes = new byte[SIZE_CLASS_COUNT][];
+        private final char[][] chars = new char[SIZE_CLASS_COUNT][];
+    }
+
+}
@@ -0,0 +1,323 @@
+package com.henley.android.utils;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.HashMap;
+import java.util.Locale;
+
+/**
+ * 缓存的数字格式化(每个线程按格式缓存{@link DecimalFormat}，默认语言改变时自动失效)
+ * <p>常用的简单格式("##0.00"、"###,##0.##"、"##0.0%"等：整数部分只有'#'、','和一个'0'，小数最多两位)使用定点快速路径，
+ * 直接按当前语言的符号把数字写入{@link StringBuilder}，不经过{@link DecimalFormat}和{@link java.math.BigDecimal}；
+ * 舍入方式与{@link DecimalFormat}默认的{@link java.math.RoundingMode#HALF_EVEN}相同，
+ * 接近舍入边界(各平台的实现可能不同)、负零、非有限值及很大的数值仍交给{@link DecimalFormat}处理，结果完全一致</p>
+ *
+ * @author Henley
+ * @since 2026/10/18 22:30
+ * @see NumberUtils#formatDecimal(double, String)
+ */
+public final class DecimalFormatter {
+
+    /**
+     * 每个线程最多缓存的格式数量(超过时清空)
+     */
+    private static final int MAX_CACHED_PATTERNS = 32;
+    /**
+     * 快速路径支持的最大值(乘以10的小数位数次幂后)，保证double乘法的误差远小于舍入边界判断的范围
+     */
+    private static final double MAX_FAST_SCALED = 1L << 43;
+    private static final double[] POWERS_OF_TEN = {1, 10, 100, 1000, 10000};
+    private static final long[] LONG_POWERS_OF_TEN = {1, 10, 100, 1000, 10000};
+    /**
+     * 创建缓存时用于校验快速路径的数字(结果与{@link DecimalFormat}不同时不使用快速路径)
+     */
+    private static final double[] SAMPLES = {0, 0.04, 12.3, -7.891, -1234567.891, 987654321.987};
+
+    private static final ThreadLocal<Cache> LOCAL_CACHE = new ThreadLocal<Cache>() {
+        @Override
+        protected Cache initialValue() {
+            return new Cache();
+        }
+    };
+
+    private DecimalFormatter() {
+        throw new UnsupportedOperationException("Instantiation operation is not supported.");
+    }
+
+    /**
+     * 格式化数字
+     *
+     * @param pattern {@link DecimalFormat}的格式
+     */
+    public static String format(double number, String pattern) {
+        Entry entry = getEntry(pattern);
+        if (entry.fastPattern != null) {
+            StringBuilder builder = entry.cache.builder;
+            builder.setLength(0);
+            if (entry.appendFast(number, builder)) {
+                return builder.toString();
+            }
+        }
+        return entry.format.format(number);
+    }
+
+    /**
+     * 格式化数字
+     *
+     * @param pattern {@link DecimalFormat}的格式
+     */
+    public static String format(long number, String pattern) {
+        Entry entry = getEntry(pattern);
+        if (entry.fastPattern != null) {
+            StringBuilder builder = entry.cache.builder;
+            builder.setLength(0);
+            if (entry.appendFast(number, builder)) {
+                return builder.toString();
+            }
+        }
+        return entry.format.format(number);
+    }
+
+    /**
+     * 格式化数字并追加到builder中
+     *
+     * @param pattern {@link DecimalFormat}的格式
+     * @return builder
+     */
+    public static StringBuilder format(double number, String pattern, StringBuilder builder) {
+        Entry entry = getEntry(pattern);
+        if (entry.fastPattern != null) {
+            int length = builder.length();
+            if (entry.appendFast(number, builder)) {
+                return builder;
+            }
+            builder.setLength(length);
+        }
+        return builder.append(entry.format.format(number));
+    }
+
+    /**
+     * 获取当前线程缓存的{@link DecimalFormat}(不能修改它的设置，也不能传给其他线程使用)
+     *
+     * @param pattern {@link DecimalFormat}的格式
+     */
+    public static DecimalFormat getFormat(String pattern) {
+        return getEntry(pattern).format;
+    }
+
+    private static Entry getEntry(String pattern) {
+        Cache cache = LOCAL_CACHE.get();
+        Locale locale = Locale.getDefault();
+        if (!locale.equals(cache.locale)) {
+            cache.entries.clear();
+            cache.locale = locale;
+        }
+        Entry entry = cache.entries.get(pattern);
+        if (entry == null) {
+            if (cache.entries.size() >= MAX_CACHED_PATTERNS) {
+                cache.entries.clear();
+            }
+            entry = new Entry(cache, new DecimalFormat(pattern), FastPattern.compile(pattern));
+            cache.entries.put(pattern, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * 每个线程的缓存
+     */
+    private static final class Cache {
+
+        private final HashMap<String, Entry> entries = new HashMap<>();
+        private final StringBuilder builder = new StringBuilder(32);
+        /**
+         * 整数部分的数字(倒序)
+         */
+        private final char[] digits = new char[32];
+        private Locale locale;
+    }
+
+    /**
+     * 一种格式的缓存
+     */
+    private static final class Entry {
+
+        private final Cache cache;
+        private final DecimalFormat format;
+        private final FastPattern fastPattern;
+        private final char zeroDigit;
+        private final char groupingSeparator;
+        private final char decimalSeparator;
+        private final char minusSign;
+        private final char percent;
+
+        private Entry(Cache cache, DecimalFormat format, FastPattern fastPattern) {
+            this.cache = cache;
+            this.format = format;
+            DecimalFormatSymbols symbols = format.getDecimalFormatSymbols();
+            this.zeroDigit = symbols.getZeroDigit();
+            this.groupingSeparator = symbols.getGroupingSeparator();
+            this.decimalSeparator = symbols.getDecimalSeparator();
+            this.minusSign = symbols.getMinusSign();
+            this.percent = symbols.getPercent();
+            this.fastPattern = fastPattern != null && verify(fastPattern) ? fastPattern : null;
+        }
+
+        /**
+         * 校验快速路径的结果与{@link DecimalFormat}相同(部分语言的符号或格式可能不是单个字符)
+         */
+        private boolean verify(FastPattern pattern) {
+            StringBuilder builder = new StringBuilder();
+            for (double sample : SAMPLES) {
+                builder.setLength(0);
+                if (!appendFast(pattern, sample, builder) || !builder.toString().equals(format.format(sample))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean appendFast(double number, StringBuilder builder) {
+            return appendFast(fastPattern, number, builder);
+        }
+
+        private boolean appendFast(FastPattern pattern, double number, StringBuilder builder) {
+            int scale = pattern.maxFractionDigits + (pattern.percent ? 2 : 0);
+            double scaled = Math.abs(number) * POWERS_OF_TEN[scale];
+            if (!(scaled < MAX_FAST_SCALED)) {
+                return false;
+            }
+            long value = (long) scaled;
+            double fraction = scaled - value;
+            // 接近舍入边界时，double的二进制误差及各平台不同的实现可能导致不同的结果
+            if (Math.abs(fraction - 0.5) <= Math.ulp(scaled) * 4) {
+                return false;
+            }
+            if (fraction > 0.5) {
+                value++;
+            }
+            boolean negative = number < 0 || (number == 0 && 1 / number < 0);
+            if (negative && value == 0) {
+                return false;
+            }
+            append(pattern, value, negative, builder);
+            return true;
+        }
+
+        private boolean appendFast(long number, StringBuilder builder) {
+            FastPattern pattern = fastPattern;
+            int scale = pattern.maxFractionDigits + (pattern.percent ? 2 : 0);
+            if (number >= MAX_FAST_SCALED || number <= -MAX_FAST_SCALED) {
+                return false;
+            }
+            long value = Math.abs(number) * LONG_POWERS_OF_TEN[scale];
+            append(pattern, value, number < 0, builder);
+            return true;
+        }
+
+        /**
+         * 写入已按小数位数放大并舍入的非负整数
+         */
+        private void append(FastPattern pattern, long value, boolean negative, StringBuilder builder) {
+            long divisor = LONG_POWERS_OF_TEN[pattern.maxFractionDigits];
+            long integer = value / divisor;
+            long fraction = value % divisor;
+            if (negative) {
+                builder.append(minusSign);
+            }
+            char[] digits = cache.digits;
+            int count = 0;
+            int groupDigits = 0;
+            do {
+                if (pattern.groupingSize > 0 && groupDigits == pattern.groupingSize) {
+                    digits[count++] = groupingSeparator;
+                    groupDigits = 0;
+                }
+                digits[count++] = (char) (zeroDigit + (int) (integer % 10));
+                groupDigits++;
+                integer /= 10;
+            } while (integer > 0);
+            while (count > 0) {
+                builder.append(digits[--count]);
+            }
+            int fractionDigits = pattern.maxFractionDigits;
+            while (fractionDigits > pattern.minFractionDigits && fraction % 10 == 0) {
+                fraction /= 10;
+                fractionDigits--;
+            }
+            if (fractionDigits > 0) {
+                builder.append(decimalSeparator);
+                for (int i = fractionDigits - 1; i >= 0; i--) {
+                    builder.append((char) (zeroDigit + (int) (fraction / LONG_POWERS_OF_TEN[i] % 10)));
+                }
+            }
+            if (pattern.percent) {
+                builder.append(percent);
+            }
+        }
+    }
+
+    /**
+     * 快速路径支持的格式：[#,]*0[.0*#*][%]，小数最多两位，整数部分最少一位
+     */
+    private static final class FastPattern {
+
+        private final int groupingSize;
+        private final int minFractionDigits;
+        private final int maxFractionDigits;
+        private final boolean percent;
+
+        private FastPattern(int groupingSize, int minFractionDigits, int maxFractionDigits, boolean percent) {
+            this.groupingSize = groupingSize;
+            this.minFractionDigits = minFractionDigits;
+            this.maxFractionDigits = maxFractionDigits;
+            this.percent = percent;
+        }
+
+        /**
+         * @return 不支持的格式返回null
+         */
+        private static FastPattern compile(String pattern) {
+            boolean percent = pattern.endsWith("%");
+            int end = percent ? pattern.length() - 1 : pattern.length();
+            int point = pattern.indexOf('.');
+            int integerEnd = point < 0 ? end : point;
+            if (integerEnd == 0 || pattern.charAt(integerEnd - 1) != '0') {
+                return null;
+            }
+            int lastComma = -1;
+            int previousComma = -1;
+            for (int i = 0; i < integerEnd - 1; i++) {
+                char c = pattern.charAt(i);
+                if (c == ',') {
+                    previousComma = lastComma;
+                    lastComma = i;
+                } else if (c != '#') {
+                    return null;
+                }
+            }
+            int groupingSize = lastComma < 0 ? 0 : integerEnd - 1 - lastComma;
+            if (lastComma >= 0 && (groupingSize == 0 || (previousComma >= 0 && lastComma - previousComma - 1 != groupingSize))) {
+                return null;
+            }
+            int minFractionDigits = 0;
+            int maxFractionDigits = 0;
+            if (point >= 0) {
+                for (int i = point + 1; i < end; i++) {
+                    char c = pattern.charAt(i);
+                    if (c == '0' && maxFractionDigits == minFractionDigits) {
+                        minFractionDigits++;
+                    } else if (c != '#') {
+                        return null;
+                    }
+                    maxFractionDigits++;
+                }
+                if (maxFractionDigits == 0 || maxFractionDigits > 2) {
+                    return null;
+                }
+            }
+            return new FastPattern(groupingSize, minFractionDigits, maxFractionDigits, percent);
+        }
+    }
+
+}
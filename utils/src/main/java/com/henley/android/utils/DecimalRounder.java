@@ -0,0 +1,182 @@
+package com.henley.android.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * 不使用{@link BigDecimal}的十进制舍入
+ * <p>结果与{@code new BigDecimal(number).setScale(scale, roundingMode).doubleValue()}完全相同(按double的精确二进制值舍入，支持所有{@link RoundingMode})：
+ * 用Dekker算法得到number * 10^scale的精确值(两个double之和)，据此精确判断舍入方向，再除以10^scale(一次正确舍入的除法)</p>
+ * <p>scale为0~9时使用上述算法，其他scale及放大后超过2^52的数值使用{@link BigDecimal}</p>
+ *
+ * @author Henley
+ * @since 2026/10/18 22:50
+ * @see NumberUtils#roundingNumber(float, int, RoundingMode)
+ */
+public final class DecimalRounder {
+
+    private static final int MAX_FAST_SCALE = 9;
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9};
+    /**
+     * 放大后的数值不超过此值时，整数部分和小数部分都可以精确计算
+     */
+    private static final double MAX_FAST_SCALED = 4503599627370496.0; // 2^52
+    /**
+     * Veltkamp拆分常数(2^27 + 1)
+     */
+    private static final double SPLITTER = 134217729.0;
+
+    /**
+     * 小数部分的状态
+     */
+    private static final int FRACTION_ZERO = 0;
+    private static final int FRACTION_BELOW_HALF = 1;
+    private static final int FRACTION_HALF = 2;
+    private static final int FRACTION_ABOVE_HALF = 3;
+
+    private DecimalRounder() {
+        throw new UnsupportedOperationException("Instantiation operation is not supported.");
+    }
+
+    /**
+     * 舍入到指定的小数位数
+     *
+     * @throws NumberFormatException number为NaN或无穷大
+     * @throws ArithmeticException   roundingMode为{@link RoundingMode#UNNECESSARY}且需要舍入
+     */
+    public static double round(double number, int scale, RoundingMode roundingMode) {
+        if (Double.isNaN(number) || Double.isInfinite(number)) {
+            throw new NumberFormatException("Infinite or NaN");
+        }
+        if (scale < 0 || scale > MAX_FAST_SCALE) {
+            return roundWithBigDecimal(number, scale, roundingMode);
+        }
+        double power = POWERS_OF_TEN[scale];
+        double magnitude = Math.abs(number);
+        double product = magnitude * power;
+        if (!(product < MAX_FAST_SCALED)) {
+            return roundWithBigDecimal(number, scale, roundingMode);
+        }
+        // magnitude * power == product + error(精确)
+        double error = twoProductError(magnitude, power, product);
+        double integer = Math.floor(product);
+        double fraction = product - integer;
+        int state;
+        if (fraction == 0) {
+            if (error == 0) {
+                state = FRACTION_ZERO;
+            } else if (error > 0) {
+                state = FRACTION_BELOW_HALF;
+            } else {
+                // 精确值略小于整数
+                integer -= 1;
+                state = FRACTION_ABOVE_HALF;
+            }
+        } else {
+            // fraction是product的ulp的整数倍，|error|不超过半个ulp，所以error只在fraction恰好为0.5时影响比较结果
+            double diff = fraction - 0.5;
+            if (diff == 0) {
+                state = error == 0 ? FRACTION_HALF : error > 0 ? FRACTION_ABOVE_HALF : FRACTION_BELOW_HALF;
+            } else {
+                state = diff > 0 ? FRACTION_ABOVE_HALF : FRACTION_BELOW_HALF;
+            }
+        }
+        boolean negative = number < 0;
+        if (roundUp(integer, state, negative, roundingMode)) {
+            integer += 1;
+        }
+        if (integer == 0) {
+            // BigDecimal没有负零
+            return 0d;
+        }
+        return (negative ? -integer : integer) / power;
+    }
+
+    /**
+     * 舍入数组中的每个数(直接修改数组，NaN和无穷大保持不变)
+     */
+    public static void round(double[] values, int scale, RoundingMode roundingMode) {
+        round(values, 0, values.length, scale, roundingMode);
+    }
+
+    /**
+     * 舍入数组中一段的每个数(直接修改数组，NaN和无穷大保持不变)
+     */
+    public static void round(double[] values, int offset, int length, int scale, RoundingMode roundingMode) {
+        for (int i = offset, end = offset + length; i < end; i++) {
+            double value = values[i];
+            if (!Double.isNaN(value) && !Double.isInfinite(value)) {
+                values[i] = round(value, scale, roundingMode);
+            }
+        }
+    }
+
+    /**
+     * 舍入数组中的每个数(直接修改数组，NaN和无穷大保持不变；结果为double舍入结果转换为float)
+     */
+    public static void round(float[] values, int scale, RoundingMode roundingMode) {
+        round(values, 0, values.length, scale, roundingMode);
+    }
+
+    /**
+     * 舍入数组中一段的每个数(直接修改数组，NaN和无穷大保持不变；结果为double舍入结果转换为float)
+     */
+    public static void round(float[] values, int offset, int length, int scale, RoundingMode roundingMode) {
+        for (int i = offset, end = offset + length; i < end; i++) {
+            float value = values[i];
+            if (!Float.isNaN(value) && !Float.isInfinite(value)) {
+                values[i] = (float) round(value, scale, roundingMode);
+            }
+        }
+    }
+
+    /**
+     * 判断绝对值是否需要进位
+     *
+     * @param integer 绝对值的整数部分
+     * @param state   绝对值的小数部分的状态
+     */
+    private static boolean roundUp(double integer, int state, boolean negative, RoundingMode roundingMode) {
+        if (state == FRACTION_ZERO) {
+            return false;
+        }
+        switch (roundingMode) {
+            case UP:
+                return true;
+            case DOWN:
+                return false;
+            case CEILING:
+                return !negative;
+            case FLOOR:
+                return negative;
+            case HALF_UP:
+                return state >= FRACTION_HALF;
+            case HALF_DOWN:
+                return state == FRACTION_ABOVE_HALF;
+            case HALF_EVEN:
+                return state == FRACTION_ABOVE_HALF || (state == FRACTION_HALF && integer % 2 != 0);
+            case UNNECESSARY:
+                throw new ArithmeticException("Rounding necessary");
+            default:
+                throw new IllegalArgumentException("Unknown rounding mode: " + roundingMode);
+        }
+    }
+
+    /**
+     * Dekker算法：计算a * b的舍入误差(a * b == product + 返回值，要求不溢出)
+     */
+    private static double twoProductError(double a, double b, double product) {
+        double c = SPLITTER * a;
+        double aHigh = c - (c - a);
+        double aLow = a - aHigh;
+        c = SPLITTER * b;
+        double bHigh = c - (c - b);
+        double bLow = b - bHigh;
+        return ((aHigh * bHigh - product) + aHigh * bLow + aLow * bHigh) + aLow * bLow;
+    }
+
+    private static double roundWithBigDecimal(double number, int scale, RoundingMode roundingMode) {
+        return new BigDecimal(number).setScale(scale, roundingMode).doubleValue();
+    }
+
+}
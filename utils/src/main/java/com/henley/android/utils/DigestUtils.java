@@ -3,32 +3,107 @@ package com.henley.android.utils;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
-import java.nio.MappedByteBuffer;
-import java.nio.channels.FileChannel;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.security.DigestException;
+import java.security.InvalidKeyException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
 
 /**
- * 摘要算法(支持MD2/MD5/SHA/SHA256/SHA384/SHA512)
+ * 摘要算法(支持MD2/MD5/SHA/SHA256/SHA384/SHA512、HMAC，以及CRC32C/xxHash64/MurmurHash3等非加密哈希)
  *
  * @author Henley
  * @since 2020/5/26 14:23
  */
 public final class DigestUtils {
 
+    /**
+     * 计算文件摘要时每次读取的大小
+     */
+    private static final int DIGEST_CHUNK_SIZE = 1024 * 64;
+    /**
+     * 计算文件摘要时回调进度的间隔(字节)
+     */
+    private static final long PROGRESS_INTERVAL = 1024 * 1024;
+    /**
+     * 支持的摘要算法中最长的摘要长度(SHA-512)
+     */
+    private static final int MAX_DIGEST_LENGTH = 64;
+    /**
+     * 每种算法的原型实例(用于克隆)
+     */
+    private static final ConcurrentHashMap<String, MessageDigest> PROTOTYPES = new ConcurrentHashMap<>();
+    /**
+     * 每个线程缓存的消息摘要实例(每种算法一个，首次使用后不再修改映射)
+     */
+    private static final ThreadLocal<HashMap<String, DigestSlot>> LOCAL_DIGESTS = new ThreadLocal<HashMap<String, DigestSlot>>() {
+        @Override
+        protected HashMap<String, DigestSlot> initialValue() {
+            return new HashMap<>();
+        }
+    };
+    /**
+     * 最多缓存的HMAC密钥数量
+     */
+    private static final int MAX_CACHED_MACS = 16;
+    /**
+     * 已初始化的Mac原型实例(以算法名及密钥的SHA-256摘要为键，按访问顺序淘汰)
+     */
+    private static final LinkedHashMap<MacKey, Mac> MAC_CACHE = new LinkedHashMap<MacKey, Mac>(MAX_CACHED_MACS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<MacKey, Mac> eldest) {
+            return size() > MAX_CACHED_MACS;
+        }
+    };
+    private static final ThreadLocal<byte[]> LOCAL_OUTPUT = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[MAX_DIGEST_LENGTH];
+        }
+    };
+
     private DigestUtils() {
         throw new UnsupportedOperationException("Instantiation operation is not supported.");
     }
 
     /**
      * 根据给定摘要算法创建一个消息摘要实例
+     * <p>每种算法只通过{@link MessageDigest#getInstance(String)}查找一次，之后通过克隆原型实例创建</p>
      *
      * @param algorithm 摘要算法名
      * @return 消息摘要实例
      * @throws RuntimeException 当 {@link NoSuchAlgorithmException} 发生时
      * @see MessageDigest#getInstance(String)
      */
-    private static MessageDigest getDigest(String algorithm) {
+    static MessageDigest newDigest(String algorithm) {
+        MessageDigest prototype = PROTOTYPES.get(algorithm);
+        if (prototype != null) {
+            try {
+                return (MessageDigest) prototype.clone();
+            } catch (CloneNotSupportedException e) {
+                return getInstance(algorithm);
+            }
+        }
+        MessageDigest digest = getInstance(algorithm);
+        try {
+            PROTOTYPES.putIfAbsent(algorithm, (MessageDigest) digest.clone());
+        } catch (CloneNotSupportedException e) {
+            // 不支持克隆的实现每次都通过getInstance创建
+        }
+        return digest;
+    }
+
+    private static MessageDigest getInstance(String algorithm) {
         try {
             return MessageDigest.getInstance(algorithm);
         } catch (NoSuchAlgorithmException e) {
@@ -36,6 +111,145 @@ public final class DigestUtils {
         }
     }
 
+    /**
+     * 获取当前线程缓存的消息摘要实例(使用完毕后通过{@link #releaseDigest(String, MessageDigest)}归还)
+     * <p>实例一直保留在缓存中，只标记为使用中；嵌套调用(如在进度回调中再次计算摘要)时缓存的实例正在使用，会得到一个新的实例</p>
+     */
+    private static MessageDigest acquireDigest(String algorithm) {
+        HashMap<String, DigestSlot> slots = LOCAL_DIGESTS.get();
+        DigestSlot slot = slots.get(algorithm);
+        if (slot == null) {
+            slot = new DigestSlot(newDigest(algorithm));
+            slots.put(algorithm, slot);
+        } else if (slot.inUse) {
+            return newDigest(algorithm);
+        }
+        slot.inUse = true;
+        return slot.digest;
+    }
+
+    private static void releaseDigest(String algorithm, MessageDigest digest) {
+        digest.reset();
+        DigestSlot slot = LOCAL_DIGESTS.get().get(algorithm);
+        if (slot != null && slot.digest == digest) {
+            slot.inUse = false;
+        }
+    }
+
+    /**
+     * 使用指定的摘要算法计算消息摘要
+     *
+     * @param algorithm 摘要算法名(如"MD5"、"SHA-256")
+     * @param data      做消息摘要的数据
+     * @return 消息摘要
+     */
+    public static byte[] digest(String algorithm, byte[] data) {
+        return digest(algorithm, data, 0, data.length);
+    }
+
+    /**
+     * 使用指定的摘要算法计算数据中一段的消息摘要
+     *
+     * @param algorithm 摘要算法名(如"MD5"、"SHA-256")
+     * @param data      做消息摘要的数据
+     * @param offset    起始位置
+     * @param length    长度
+     * @return 消息摘要
+     */
+    public static byte[] digest(String algorithm, byte[] data, int offset, int length) {
+        MessageDigest digest = acquireDigest(algorithm);
+        try {
+            digest.update(data, offset, length);
+            return digest.digest();
+        } finally {
+            releaseDigest(algorithm, digest);
+        }
+    }
+
+    /**
+     * 使用指定的摘要算法计算消息摘要，结果写入调用方提供的数组(不分配新的数组)
+     *
+     * @param algorithm 摘要算法名(如"MD5"、"SHA-256")
+     * @param data      做消息摘要的数据
+     * @param offset    起始位置
+     * @param length    长度
+     * @param out       保存摘要的数组
+     * @param outOffset 摘要在out中的起始位置
+     * @return 摘要的长度(字节)
+     * @throws IllegalArgumentException 当out的剩余空间不足时
+     */
+    public static int digest(String algorithm, byte[] data, int offset, int length, byte[] out, int outOffset) {
+        MessageDigest digest = acquireDigest(algorithm);
+        try {
+            digest.update(data, offset, length);
+            return finish(digest, out, outOffset);
+        } finally {
+            releaseDigest(algorithm, digest);
+        }
+    }
+
+    /**
+     * 使用指定的摘要算法计算缓冲区中剩余数据的消息摘要(计算后缓冲区的position等于limit)
+     *
+     * @param algorithm 摘要算法名(如"MD5"、"SHA-256")
+     * @param data      做消息摘要的数据
+     * @return 消息摘要
+     */
+    public static byte[] digest(String algorithm, ByteBuffer data) {
+        MessageDigest digest = acquireDigest(algorithm);
+        try {
+            digest.update(data);
+            return digest.digest();
+        } finally {
+            releaseDigest(algorithm, digest);
+        }
+    }
+
+    /**
+     * 使用指定的摘要算法计算缓冲区中剩余数据的消息摘要，结果写入调用方提供的数组(不分配新的数组)
+     *
+     * @param algorithm 摘要算法名(如"MD5"、"SHA-256")
+     * @param data      做消息摘要的数据(计算后缓冲区的position等于limit)
+     * @param out       保存摘要的数组
+     * @param outOffset 摘要在out中的起始位置
+     * @return 摘要的长度(字节)
+     * @throws IllegalArgumentException 当out的剩余空间不足时
+     */
+    public static int digest(String algorithm, ByteBuffer data, byte[] out, int outOffset) {
+        MessageDigest digest = acquireDigest(algorithm);
+        try {
+            digest.update(data);
+            return finish(digest, out, outOffset);
+        } finally {
+            releaseDigest(algorithm, digest);
+        }
+    }
+
+    /**
+     * 使用指定的摘要算法计算消息摘要，并将十六进制结果追加到builder中(适用于频繁生成缓存键等场景)
+     *
+     * @param builder   追加结果的{@link StringBuilder}
+     * @param algorithm 摘要算法名(如"MD5"、"SHA-256")
+     * @param data      做消息摘要的数据
+     * @param offset    起始位置
+     * @param length    长度
+     * @param lowerCase 是否使用小写字母
+     * @return builder
+     */
+    public static StringBuilder appendDigestHex(StringBuilder builder, String algorithm, byte[] data, int offset, int length, boolean lowerCase) {
+        byte[] out = LOCAL_OUTPUT.get();
+        int digestLength = digest(algorithm, data, offset, length, out, 0);
+        return appendHex(builder, out, 0, digestLength, lowerCase);
+    }
+
+    private static int finish(MessageDigest digest, byte[] out, int outOffset) {
+        try {
+            return digest.digest(out, outOffset, out.length - outOffset);
+        } catch (DigestException e) {
+            throw new IllegalArgumentException(e.getMessage());
+        }
+    }
+
     /**
      * 使用MD5消息摘要算法计算消息摘要
      *
@@ -43,13 +257,100 @@ public final class DigestUtils {
      * @return 消息摘要（长度为32的十六进制字符串）
      */
     public static String encodeMD5(File file) throws IOException {
-        MessageDigest digest = getDigest("MD5");
-        FileInputStream in = new FileInputStream(file);
-        FileChannel ch = in.getChannel();
-        MappedByteBuffer byteBuffer = ch.map(FileChannel.MapMode.READ_ONLY, 0, file.length());
-        digest.update(byteBuffer);
-        CloseUtils.closeIOQuietly(ch, in);
-        return byte2Hex(digest.digest());
+        return encodeMD5(file, null);
+    }
+
+    /**
+     * 使用MD5消息摘要算法计算消息摘要
+     *
+     * @param file     做消息摘要的文件
+     * @param listener 进度监听(可以为null)
+     * @return 消息摘要（长度为32的十六进制字符串）
+     */
+    public static String encodeMD5(File file, ProgressListener listener) throws IOException {
+        return byte2Hex(digest(file, "MD5", listener));
+    }
+
+    /**
+     * 使用SHA-1消息摘要算法计算文件的消息摘要
+     *
+     * @return SHA-1消息摘要（长度为40的十六进制字符串）
+     */
+    public static String encodeSHAHex(File file, ProgressListener listener) throws IOException {
+        return byte2Hex(digest(file, "SHA", listener));
+    }
+
+    /**
+     * 使用SHA-256消息摘要算法计算文件的消息摘要
+     *
+     * @return SHA-256消息摘要（长度为64的十六进制字符串）
+     */
+    public static String encodeSHA256Hex(File file, ProgressListener listener) throws IOException {
+        return byte2Hex(digest(file, "SHA-256", listener));
+    }
+
+    /**
+     * 使用SHA-384消息摘要算法计算文件的消息摘要
+     *
+     * @return SHA-384消息摘要（长度为96的十六进制字符串）
+     */
+    public static String encodeSHA384Hex(File file, ProgressListener listener) throws IOException {
+        return byte2Hex(digest(file, "SHA-384", listener));
+    }
+
+    /**
+     * 使用SHA-512消息摘要算法计算文件的消息摘要
+     *
+     * @return SHA-512消息摘要（长度为128的十六进制字符串）
+     */
+    public static String encodeSHA512Hex(File file, ProgressListener listener) throws IOException {
+        return byte2Hex(digest(file, "SHA-512", listener));
+    }
+
+    /**
+     * 使用指定的摘要算法计算文件的消息摘要
+     * <p>文件按固定大小的块(从{@link BufferPool}获取的缓冲区)顺序读取，内存占用与文件大小无关，支持超过2GB的文件</p>
+     *
+     * @param file      做消息摘要的文件
+     * @param algorithm 摘要算法名(如"MD5"、"SHA-256")
+     * @param listener  进度监听(可以为null，在调用线程中回调)
+     * @return 消息摘要
+     */
+    public static byte[] digest(File file, String algorithm, ProgressListener listener) throws IOException {
+        MessageDigest digest = acquireDigest(algorithm);
+        FileInputStream in;
+        try {
+            in = new FileInputStream(file);
+        } catch (IOException e) {
+            releaseDigest(algorithm, digest);
+            throw e;
+        }
+        byte[] buffer = BufferPool.acquireBytes(DIGEST_CHUNK_SIZE);
+        try {
+            long total = in.getChannel().size();
+            long processed = 0;
+            long reported = 0;
+            if (listener != null) {
+                listener.onProgress(0, total);
+            }
+            int length;
+            while ((length = in.read(buffer, 0, buffer.length)) != -1) {
+                digest.update(buffer, 0, length);
+                processed += length;
+                if (listener != null && processed - reported >= PROGRESS_INTERVAL) {
+                    listener.onProgress(processed, total);
+                    reported = processed;
+                }
+            }
+            if (listener != null && processed != reported) {
+                listener.onProgress(processed, total);
+            }
+            return digest.digest();
+        } finally {
+            releaseDigest(algorithm, digest);
+            BufferPool.release(buffer);
+            CloseUtils.closeIOQuietly(in);
+        }
     }
 
     /**
@@ -59,7 +360,7 @@ public final class DigestUtils {
      * @return 消息摘要（长度为16的字节数组）
      */
     public static byte[] encodeMD5(byte[] data) {
-        return getDigest("MD5").digest(data);
+        return digest("MD5", data);
     }
 
     /**
@@ -79,7 +380,7 @@ public final class DigestUtils {
      * @return SHA-1消息摘要（长度为20的字节数组）
      */
     public static byte[] encodeSHA(byte[] data) {
-        return getDigest("SHA").digest(data);
+        return digest("SHA", data);
     }
 
     /**
@@ -89,7 +390,7 @@ public final class DigestUtils {
      * @return SHA-1消息摘要（长度为40的十六进制字符串）
      */
     public static String encodeSHAHex(byte[] data) {
-        return byte2Hex(getDigest("SHA").digest(data));
+        return byte2Hex(digest("SHA", data));
     }
 
     /**
@@ -99,7 +400,7 @@ public final class DigestUtils {
      * @return SHA-256消息摘要（长度为32的字节数组）
      */
     public static byte[] encodeSHA256(byte[] data) {
-        return getDigest("SHA-256").digest(data);
+        return digest("SHA-256", data);
     }
 
     /**
@@ -119,7 +420,7 @@ public final class DigestUtils {
      * @return SHA-384消息摘要（长度为43的字节数组）
      */
     public static byte[] encodeSHA384(byte[] data) {
-        return getDigest("SHA-384").digest(data);
+        return digest("SHA-384", data);
     }
 
     /**
@@ -139,7 +440,7 @@ public final class DigestUtils {
      * @return SHA-512消息摘要（长度为64的字节数组）
      */
     public static byte[] encodeSHA512(byte[] data) {
-        return getDigest("SHA-512").digest(data);
+        return digest("SHA-512", data);
     }
 
     /**
@@ -153,21 +454,490 @@ public final class DigestUtils {
     }
 
     /**
-     * 将byte数组转换成16进制
+     * 创建使用指定密钥初始化的HMAC签名器(密钥只初始化一次，适用于使用同一个密钥频繁签名的场景)
+     * <p>签名器由调用方持有，密钥派生的状态只保存在签名器中，不再使用时丢弃即可；不会放入{@link #getHmac(String, byte[])}的全局缓存</p>
+     *
+     * @param algorithm HMAC算法名(如"HmacSHA256")
+     * @param key       密钥(不能为空)
+     */
+    public static HmacSigner newHmac(String algorithm, byte[] key) {
+        return new HmacSigner(initMac(algorithm, key));
+    }
+
+    /**
+     * 获取已使用指定密钥初始化的{@link Mac}实例(可用于流式计算，调用方独占使用)
+     * <p>每个(算法, 密钥)只初始化一次，之后通过克隆已初始化的原型实例创建，最多缓存{@value #MAX_CACHED_MACS}个密钥</p>
+     * <p>注意：缓存是进程级的，以密钥的SHA-256摘要为键(不保存密钥本身)，但已初始化的Mac内部保存了由密钥派生的状态，
+     * 在被淘汰或调用{@link #clearHmacCache()}之前一直保留在内存中；每次调用还需要计算一次密钥的摘要。
+     * 使用固定密钥频繁签名，或不希望密钥状态在全局缓存中保留时，请使用{@link #newHmac(String, byte[])}</p>
+     *
+     * @param algorithm HMAC算法名(如"HmacSHA256")
+     * @param key       密钥(不能为空)
+     */
+    public static Mac getHmac(String algorithm, byte[] key) {
+        MacKey cacheKey = new MacKey(algorithm, digest("SHA-256", key));
+        Mac prototype;
+        synchronized (MAC_CACHE) {
+            prototype = MAC_CACHE.get(cacheKey);
+        }
+        if (prototype != null) {
+            try {
+                return (Mac) prototype.clone();
+            } catch (CloneNotSupportedException e) {
+                return initMac(algorithm, key);
+            }
+        }
+        Mac mac = initMac(algorithm, key);
+        try {
+            Mac copy = (Mac) mac.clone();
+            synchronized (MAC_CACHE) {
+                MAC_CACHE.put(cacheKey, copy);
+            }
+        } catch (CloneNotSupportedException e) {
+            // 不支持克隆的实现每次都重新初始化
+        }
+        return mac;
+    }
+
+    /**
+     * 清除缓存的所有HMAC实例(如密钥轮换或退出登录后)
+     */
+    public static void clearHmacCache() {
+        synchronized (MAC_CACHE) {
+            MAC_CACHE.clear();
+        }
+    }
+
+    private static Mac initMac(String algorithm, byte[] key) {
+        try {
+            Mac mac = Mac.getInstance(algorithm);
+            mac.init(new SecretKeySpec(key, algorithm));
+            return mac;
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e.getMessage());
+        } catch (InvalidKeyException e) {
+            throw new IllegalArgumentException(e.getMessage());
+        }
+    }
+
+    /**
+     * 使用指定的HMAC算法计算消息认证码
+     *
+     * @param algorithm HMAC算法名(如"HmacSHA256")
+     * @param key       密钥
+     * @param data      数据
+     */
+    public static byte[] hmac(String algorithm, byte[] key, byte[] data) {
+        return hmac(algorithm, key, data, 0, data.length);
+    }
+
+    /**
+     * 使用指定的HMAC算法计算数据中一段的消息认证码
+     */
+    public static byte[] hmac(String algorithm, byte[] key, byte[] data, int offset, int length) {
+        Mac mac = getHmac(algorithm, key);
+        mac.update(data, offset, length);
+        return mac.doFinal();
+    }
+
+    /**
+     * 使用指定的HMAC算法计算缓冲区中剩余数据的消息认证码(计算后缓冲区的position等于limit)
+     */
+    public static byte[] hmac(String algorithm, byte[] key, ByteBuffer data) {
+        Mac mac = getHmac(algorithm, key);
+        mac.update(data);
+        return mac.doFinal();
+    }
+
+    /**
+     * 使用指定的HMAC算法计算输入流中剩余数据的消息认证码(不会关闭流)
+     */
+    public static byte[] hmac(String algorithm, byte[] key, InputStream input) throws IOException {
+        Mac mac = getHmac(algorithm, key);
+        byte[] buffer = BufferPool.acquireBytes();
+        try {
+            int length;
+            while ((length = input.read(buffer, 0, buffer.length)) != -1) {
+                mac.update(buffer, 0, length);
+            }
+        } finally {
+            BufferPool.release(buffer);
+        }
+        return mac.doFinal();
+    }
+
+    /**
+     * 使用指定的HMAC算法计算消息认证码
+     *
+     * @param lowerCase 是否使用小写字母
+     * @return 十六进制字符串
+     */
+    public static String hmacHex(String algorithm, byte[] key, byte[] data, boolean lowerCase) {
+        return byte2Hex(hmac(algorithm, key, data), lowerCase);
+    }
+
+    /**
+     * 使用指定的HMAC算法计算消息认证码
+     *
+     * @return Base64字符串(不换行)
+     */
+    public static String hmacBase64(String algorithm, byte[] key, byte[] data) {
+        return EncodeUtils.base64Encode2String(hmac(algorithm, key, data));
+    }
+
+    /**
+     * 使用HmacMD5算法计算消息认证码
+     *
+     * @param data 数据
+     * @param key  密钥
+     * @return 消息认证码（长度为16的字节数组）
+     */
+    public static byte[] encodeHmacMD5(byte[] data, byte[] key) {
+        return hmac("HmacMD5", key, data);
+    }
+
+    /**
+     * 使用HmacMD5算法计算消息认证码
+     *
+     * @return 消息认证码（长度为32的十六进制字符串）
+     */
+    public static String encodeHmacMD5Hex(byte[] data, byte[] key) {
+        return byte2Hex(encodeHmacMD5(data, key));
+    }
+
+    /**
+     * 使用HmacSHA1算法计算消息认证码
+     *
+     * @param data 数据
+     * @param key  密钥
+     * @return 消息认证码（长度为20的字节数组）
+     */
+    public static byte[] encodeHmacSHA1(byte[] data, byte[] key) {
+        return hmac("HmacSHA1", key, data);
+    }
+
+    /**
+     * 使用HmacSHA1算法计算消息认证码
+     *
+     * @return 消息认证码（长度为40的十六进制字符串）
+     */
+    public static String encodeHmacSHA1Hex(byte[] data, byte[] key) {
+        return byte2Hex(encodeHmacSHA1(data, key));
+    }
+
+    /**
+     * 使用HmacSHA256算法计算消息认证码
+     *
+     * @param data 数据
+     * @param key  密钥
+     * @return 消息认证码（长度为32的字节数组）
+     */
+    public static byte[] encodeHmacSHA256(byte[] data, byte[] key) {
+        return hmac("HmacSHA256", key, data);
+    }
+
+    /**
+     * 使用HmacSHA256算法计算消息认证码
+     *
+     * @return 消息认证码（长度为64的十六进制字符串）
+     */
+    public static String encodeHmacSHA256Hex(byte[] data, byte[] key) {
+        return byte2Hex(encodeHmacSHA256(data, key));
+    }
+
+    /**
+     * 使用HmacSHA512算法计算消息认证码
+     *
+     * @param data 数据
+     * @param key  密钥
+     * @return 消息认证码（长度为64的字节数组）
+     */
+    public static byte[] encodeHmacSHA512(byte[] data, byte[] key) {
+        return hmac("HmacSHA512", key, data);
+    }
+
+    /**
+     * 使用HmacSHA512算法计算消息认证码
+     *
+     * @return 消息认证码（长度为128的十六进制字符串）
+     */
+    public static String encodeHmacSHA512Hex(byte[] data, byte[] key) {
+        return byte2Hex(encodeHmacSHA512(data, key));
+    }
+
+    /**
+     * 使用CRC32C计算校验和(非加密哈希，见{@link FastHash})
+     *
+     * @return 32位无符号校验和
+     */
+    public static long encodeCRC32C(byte[] data) {
+        return FastHash.crc32c().update(data).getValue();
+    }
+
+    /**
+     * 使用xxHash64计算哈希值(非加密哈希，适用于缓存键及数据变化检测，见{@link FastHash})
+     */
+    public static long encodeXXH64(byte[] data) {
+        return FastHash.xxHash64().update(data).getValue();
+    }
+
+    /**
+     * 使用xxHash64计算字符序列的哈希值(按UTF-16小端字节序处理，不先编码为byte[])
+     */
+    public static long encodeXXH64(CharSequence text) {
+        return FastHash.xxHash64().update(text).getValue();
+    }
+
+    /**
+     * 使用xxHash64计算文件的哈希值
+     */
+    public static long encodeXXH64(File file) throws IOException {
+        return FastHash.xxHash64().update(file).getValue();
+    }
+
+    /**
+     * 使用MurmurHash3(x64_128，种子为0)计算哈希值
+     *
+     * @return 哈希值（长度为32的小写十六进制字符串）
+     */
+    public static String encodeMurmur3Hash128Hex(byte[] data) {
+        return FastHash.murmur3Hash128(0).update(data).getHex();
+    }
+
+    /**
+     * 将byte数组转换成16进制(大写字母)
      *
      * @param buf
      * @return
      */
-    private static String byte2Hex(byte[] buf) {
-        StringBuilder builder = new StringBuilder();
-        for (int i = 0; i < buf.length; i++) {
-            String hex = Integer.toHexString(buf[i] & 0xFF);
-            if (hex.length() == 1) {
-                hex = '0' + hex;
+    static String byte2Hex(byte[] buf) {
+        return byte2Hex(buf, false);
+    }
+
+    /**
+     * 将byte数组转换成16进制
+     *
+     * @param buf       要转换的数据
+     * @param lowerCase 是否使用小写字母
+     */
+    public static String byte2Hex(byte[] buf, boolean lowerCase) {
+        return HexCodec.encodeToString(buf, lowerCase);
+    }
+
+    /**
+     * 将byte数组中的一段转换成16进制，写入调用方提供的字符数组(不分配新的数组)
+     *
+     * @param buf       要转换的数据
+     * @param offset    起始位置
+     * @param length    长度
+     * @param out       保存结果的数组(剩余空间至少为length * 2)
+     * @param outOffset 结果在out中的起始位置
+     * @param lowerCase 是否使用小写字母
+     * @return 写入的字符数
+     */
+    public static int byte2Hex(byte[] buf, int offset, int length, char[] out, int outOffset, boolean lowerCase) {
+        return HexCodec.encode(buf, offset, length, out, outOffset, lowerCase);
+    }
+
+    /**
+     * 将byte数组中的一段转换成16进制并追加到builder中
+     *
+     * @param lowerCase 是否使用小写字母
+     * @return builder
+     */
+    public static StringBuilder appendHex(StringBuilder builder, byte[] buf, int offset, int length, boolean lowerCase) {
+        return HexCodec.appendTo(builder, buf, offset, length, lowerCase);
+    }
+
+    /**
+     * 每个线程中一种算法的消息摘要实例
+     */
+    private static final class DigestSlot {
+
+        private final MessageDigest digest;
+        private boolean inUse;
+
+        private DigestSlot(MessageDigest digest) {
+            this.digest = digest;
+        }
+    }
+
+    /**
+     * HMAC缓存的键(算法名及密钥的SHA-256摘要)
+     */
+    private static final class MacKey {
+
+        private final String algorithm;
+        private final byte[] keyDigest;
+        private final int hashCode;
+
+        private MacKey(String algorithm, byte[] keyDigest) {
+            this.algorithm = algorithm;
+            this.keyDigest = keyDigest;
+            this.hashCode = 31 * algorithm.hashCode() + Arrays.hashCode(keyDigest);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof MacKey)) {
+                return false;
             }
-            builder.append(hex.toUpperCase());
+            MacKey other = (MacKey) o;
+            return algorithm.equals(other.algorithm) && Arrays.equals(keyDigest, other.keyDigest);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
         }
-        return builder.toString();
+    }
+
+    /**
+     * 使用固定密钥的HMAC签名器(通过{@link #newHmac(String, byte[])}创建)
+     * <p>内部持有一个已初始化的{@link Mac}，每次签名后自动恢复到初始化后的状态，不需要重新初始化；
+     * 所有方法都是线程安全的(内部同步)，多个线程同时高频签名时可以每个线程创建一个签名器</p>
+     */
+    public static final class HmacSigner {
+
+        private final Mac mac;
+        private final byte[] output;
+
+        private HmacSigner(Mac mac) {
+            this.mac = mac;
+            this.output = new byte[mac.getMacLength()];
+        }
+
+        /**
+         * 获取算法名
+         */
+        public String getAlgorithm() {
+            return mac.getAlgorithm();
+        }
+
+        /**
+         * 获取消息认证码的长度(字节)
+         */
+        public int getMacLength() {
+            return output.length;
+        }
+
+        /**
+         * 计算消息认证码
+         */
+        public byte[] sign(byte[] data) {
+            return sign(data, 0, data.length);
+        }
+
+        /**
+         * 计算数据中一段的消息认证码
+         */
+        public synchronized byte[] sign(byte[] data, int offset, int length) {
+            mac.update(data, offset, length);
+            return mac.doFinal();
+        }
+
+        /**
+         * 计算数据中一段的消息认证码，结果写入调用方提供的数组(不分配新的数组)
+         *
+         * @return 消息认证码的长度(字节)
+         * @throws IllegalArgumentException 当out的剩余空间不足时
+         */
+        public synchronized int sign(byte[] data, int offset, int length, byte[] out, int outOffset) {
+            if (out.length - outOffset < output.length) {
+                throw new IllegalArgumentException("Output buffer too small");
+            }
+            mac.update(data, offset, length);
+            try {
+                mac.doFinal(out, outOffset);
+            } catch (ShortBufferException e) {
+                throw new IllegalArgumentException(e.getMessage());
+            }
+            return output.length;
+        }
+
+        /**
+         * 计算缓冲区中剩余数据的消息认证码(计算后缓冲区的position等于limit)
+         */
+        public synchronized byte[] sign(ByteBuffer data) {
+            mac.update(data);
+            return mac.doFinal();
+        }
+
+        /**
+         * 计算输入流中剩余数据的消息认证码(不会关闭流)
+         */
+        public synchronized byte[] sign(InputStream input) throws IOException {
+            byte[] buffer = BufferPool.acquireBytes();
+            try {
+                int length;
+                while ((length = input.read(buffer, 0, buffer.length)) != -1) {
+                    mac.update(buffer, 0, length);
+                }
+                return mac.doFinal();
+            } finally {
+                // 读取失败时丢弃已输入的数据
+                mac.reset();
+                BufferPool.release(buffer);
+            }
+        }
+
+        /**
+         * 计算消息认证码
+         *
+         * @param lowerCase 是否使用小写字母
+         * @return 十六进制字符串
+         */
+        public String signHex(byte[] data, boolean lowerCase) {
+            return byte2Hex(sign(data), lowerCase);
+        }
+
+        /**
+         * 计算消息认证码
+         *
+         * @return Base64字符串(不换行)
+         */
+        public String signBase64(byte[] data) {
+            return EncodeUtils.base64Encode2String(sign(data));
+        }
+
+        /**
+         * 计算数据中一段的消息认证码，并将十六进制结果追加到builder中(不分配中间数组)
+         *
+         * @param lowerCase 是否使用小写字母
+         * @return builder
+         */
+        public synchronized StringBuilder appendHex(StringBuilder builder, byte[] data, int offset, int length, boolean lowerCase) {
+            sign(data, offset, length, output, 0);
+            return HexCodec.appendTo(builder, output, 0, output.length, lowerCase);
+        }
+
+        /**
+         * 创建一个新的已初始化的{@link Mac}实例(可用于流式计算，或交给其他线程独占使用)
+         *
+         * @throws UnsupportedOperationException 当Mac的实现不支持克隆时
+         */
+        public synchronized Mac newMac() {
+            try {
+                return (Mac) mac.clone();
+            } catch (CloneNotSupportedException e) {
+                throw new UnsupportedOperationException("Mac does not support clone: " + mac.getAlgorithm());
+            }
+        }
+    }
+
+    /**
+     * 计算文件摘要的进度监听
+     */
+    public interface ProgressListener {
+
+        /**
+         * @param processedBytes 已处理的字节数
+         * @param totalBytes     文件总大小(开始计算时的大小)
+         */
+        void onProgress(long processedBytes, long totalBytes);
     }
 
 }
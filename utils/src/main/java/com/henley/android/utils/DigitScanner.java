@@ -0,0 +1,152 @@
+package com.henley.android.utils;
+
+import java.util.Arrays;
+
+/**
+ * 连续数字(ASCII的'0'~'9'，与JVM的正则表达式"\d+"相同)扫描器，不使用正则表达式
+ * <p>Android的正则表达式基于ICU，其中的"\d"匹配所有Unicode十进制数字(如阿拉伯-印度数字、全角数字)，这里不匹配这些数字</p>
+ * <p>可以逐段查找位置({@link #indexOfDigits(CharSequence, int)}、{@link #endOfDigits(CharSequence, int)})、
+ * 通过{@link Visitor}回调处理每一段，或直接把每一段解析为long写入调用方提供的数组，都不创建字符串</p>
+ *
+ * @author Henley
+ * @since 2026/10/18 22:10
+ * @see NumberUtils#getNumberList(String)
+ */
+public final class DigitScanner {
+
+    private DigitScanner() {
+        throw new UnsupportedOperationException("Instantiation operation is not supported.");
+    }
+
+    /**
+     * 连续数字的回调
+     */
+    public interface Visitor {
+
+        /**
+         * @param text  扫描的文本
+         * @param start 数字的起始位置
+         * @param end   数字的结束位置(不含)
+         * @return 是否继续扫描
+         */
+        boolean onDigits(CharSequence text, int start, int end);
+    }
+
+    /**
+     * 从from开始查找下一段数字的起始位置
+     *
+     * @return 没有数字时返回-1
+     */
+    public static int indexOfDigits(CharSequence text, int from) {
+        for (int i = Math.max(from, 0), length = text.length(); i < length; i++) {
+            if (isDigit(text.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 获取从start开始的一段数字的结束位置(不含)
+     */
+    public static int endOfDigits(CharSequence text, int start) {
+        int i = start;
+        int length = text.length();
+        while (i < length && isDigit(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * 依次回调每一段数字
+     *
+     * @return 回调的次数
+     */
+    public static int scan(CharSequence text, Visitor visitor) {
+        int count = 0;
+        int start = indexOfDigits(text, 0);
+        while (start >= 0) {
+            int end = endOfDigits(text, start);
+            count++;
+            if (!visitor.onDigits(text, start, end)) {
+                break;
+            }
+            start = indexOfDigits(text, end);
+        }
+        return count;
+    }
+
+    /**
+     * 把每一段数字的位置写入spans(第i段的起始位置为spans[i * 2]，结束位置为spans[i * 2 + 1])
+     *
+     * @return 写入的段数(最多spans.length / 2段)
+     */
+    public static int findSpans(CharSequence text, int[] spans) {
+        int count = 0;
+        int max = spans.length / 2;
+        int start = indexOfDigits(text, 0);
+        while (start >= 0 && count < max) {
+            int end = endOfDigits(text, start);
+            spans[count * 2] = start;
+            spans[count * 2 + 1] = end;
+            count++;
+            start = indexOfDigits(text, end);
+        }
+        return count;
+    }
+
+    /**
+     * 把每一段数字解析为long写入values(超出long范围时为{@link Long#MAX_VALUE})
+     *
+     * @return 写入的个数(最多values.length个)
+     */
+    public static int parseLongs(CharSequence text, long[] values) {
+        int count = 0;
+        int start = indexOfDigits(text, 0);
+        while (start >= 0 && count < values.length) {
+            int end = endOfDigits(text, start);
+            values[count++] = parseDigits(text, start, end);
+            start = indexOfDigits(text, end);
+        }
+        return count;
+    }
+
+    /**
+     * 把每一段数字解析为long(超出long范围时为{@link Long#MAX_VALUE})
+     */
+    public static long[] parseLongs(CharSequence text) {
+        long[] values = new long[8];
+        int count = 0;
+        int start = indexOfDigits(text, 0);
+        while (start >= 0) {
+            int end = endOfDigits(text, start);
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = parseDigits(text, start, end);
+            start = indexOfDigits(text, end);
+        }
+        return count == values.length ? values : Arrays.copyOf(values, count);
+    }
+
+    /**
+     * 解析[start, end)中的数字(调用方保证都是数字，超出long范围时返回{@link Long#MAX_VALUE})
+     */
+    public static long parseDigits(CharSequence text, int start, int end) {
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = text.charAt(i) - '0';
+            if (value > (Long.MAX_VALUE - digit) / 10) {
+                return Long.MAX_VALUE;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+}
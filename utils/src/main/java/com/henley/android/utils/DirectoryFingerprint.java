@@ -0,0 +1,447 @@
+package com.henley.android.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * 目录指纹(检测目录中的文件是否发生变化)
+ * <p>为目录中的每个文件保存(相对路径、大小、修改时间、摘要)索引，索引以二进制格式通过{@link FileUtils#writeFileAtomic(File, byte[])}持久化。
+ * 再次扫描时，大小和修改时间都未变化的文件直接使用索引中的摘要，只有新增或变化的文件才会在线程池中并行计算摘要</p>
+ * <p>目录摘要由按相对路径排序的所有文件的路径和摘要计算得出，任何文件的增加、删除、改名或内容变化都会改变目录摘要</p>
+ * <p>修改时间与索引保存时间过于接近的文件(可能在同一时间粒度内再次被修改)下次扫描时会重新计算摘要</p>
+ * <p>指向目录的符号链接会被跳过(避免链接指向上级目录时无限循环)，指向文件的符号链接按目标文件计算</p>
+ * <p>列出文件后、计算摘要前(或计算期间)被删除的文件视为已删除，不会导致扫描失败</p>
+ *
+ * @author Henley
+ * @since 2026/10/18 18:20
+ * @see DigestUtils#digest(File, String, DigestUtils.ProgressListener)
+ */
+public final class DirectoryFingerprint {
+
+    private static final int INDEX_MAGIC = 0x44465031;
+    private static final int INDEX_VERSION = 1;
+    /**
+     * 文件系统修改时间的粒度(毫秒)，修改时间在索引保存前该时间内的文件不信任索引中的摘要
+     */
+    private static final long MTIME_GRANULARITY = 2000;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final File directory;
+    private final File indexFile;
+    private final String algorithm;
+    private final ExecutorService executor;
+    /**
+     * 内存中的索引(相对路径 -> 条目)，首次扫描时从索引文件加载
+     */
+    private Map<String, Entry> index;
+
+    /**
+     * 创建目录指纹(并行度为CPU核心数，最大为{@value ParallelPool#MAX_PARALLELISM}，API 21及以上使用共用的线程池)
+     *
+     * @param directory 要检测的目录
+     * @param indexFile 索引文件(位于目录中时会被忽略)
+     * @param algorithm 摘要算法名(如"MD5"、"SHA-256")
+     */
+    public static DirectoryFingerprint create(File directory, File indexFile, String algorithm) {
+        return create(directory, indexFile, algorithm, ParallelPool.defaultParallelism());
+    }
+
+    /**
+     * 创建目录指纹
+     *
+     * @param directory   要检测的目录
+     * @param indexFile   索引文件(位于目录中时会被忽略)
+     * @param algorithm   摘要算法名(如"MD5"、"SHA-256")
+     * @param parallelism 并行度(取值范围为1~{@value ParallelPool#MAX_PARALLELISM})
+     */
+    public static DirectoryFingerprint create(File directory, File indexFile, String algorithm, int parallelism) {
+        DigestUtils.newDigest(algorithm);
+        return new DirectoryFingerprint(directory, indexFile, algorithm, parallelism);
+    }
+
+    private DirectoryFingerprint(File directory, File indexFile, String algorithm, int parallelism) {
+        this(directory, indexFile, algorithm, ParallelPool.executor(parallelism, "DirectoryFingerprint"));
+    }
+
+    DirectoryFingerprint(File directory, File indexFile, String algorithm, ExecutorService executor) {
+        this.directory = directory;
+        this.indexFile = indexFile;
+        this.algorithm = algorithm;
+        this.executor = executor;
+    }
+
+    /**
+     * 扫描目录，计算变化的文件的摘要并更新索引
+     *
+     * @return 扫描结果
+     */
+    public synchronized Result scan() throws IOException {
+        if (index == null) {
+            index = readIndex();
+        }
+        Map<String, File> files = listFiles();
+        Map<String, Entry> entries = new TreeMap<>();
+        List<String> added = new ArrayList<>();
+        List<String> changed = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        List<String> pendingPaths = new ArrayList<>();
+        List<Future<Entry>> pending = new ArrayList<>();
+        for (Map.Entry<String, File> item : files.entrySet()) {
+            final String path = item.getKey();
+            final File file = item.getValue();
+            final long size = file.length();
+            final long lastModified = file.lastModified();
+            Entry old = index.get(path);
+            if (old != null && old.trusted && old.size == size && old.lastModified == lastModified) {
+                entries.put(path, old);
+                continue;
+            }
+            pendingPaths.add(path);
+            pending.add(executor.submit(new Callable<Entry>() {
+                @Override
+                public Entry call() throws IOException {
+                    byte[] digest;
+                    try {
+                        digest = DigestUtils.digest(file, algorithm, null);
+                    } catch (FileNotFoundException e) {
+                        if (file.exists()) {
+                            throw e;
+                        }
+                        return null;
+                    }
+                    // 计算摘要期间被删除的文件(已打开的文件仍可读取)同样视为已删除
+                    return file.exists() ? new Entry(path, size, lastModified, digest, true) : null;
+                }
+            }));
+        }
+        for (String path : index.keySet()) {
+            if (!files.containsKey(path)) {
+                removed.add(path);
+            }
+        }
+        int hashedCount = 0;
+        try {
+            for (int i = 0; i < pending.size(); i++) {
+                Entry entry = pending.get(i).get();
+                if (entry == null) {
+                    // 列出文件后被删除
+                    if (index.containsKey(pendingPaths.get(i))) {
+                        removed.add(pendingPaths.get(i));
+                    }
+                    continue;
+                }
+                hashedCount++;
+                Entry old = index.get(entry.path);
+                if (old == null) {
+                    added.add(entry.path);
+                } else if (!MessageDigest.isEqual(old.digest, entry.digest)) {
+                    changed.add(entry.path);
+                }
+                entries.put(entry.path, entry);
+            }
+        } catch (InterruptedException e) {
+            cancelAll(pending);
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while hashing " + directory);
+        } catch (ExecutionException e) {
+            cancelAll(pending);
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+        long now = System.currentTimeMillis();
+        boolean modified = !pending.isEmpty() || !removed.isEmpty();
+        Map<String, Entry> newIndex = new HashMap<>(entries.size() * 2);
+        for (Entry entry : entries.values()) {
+            if (now - entry.lastModified < MTIME_GRANULARITY) {
+                // 修改时间过新，文件可能在同一时间粒度内再次被修改，下次扫描时重新计算摘要
+                newIndex.put(entry.path, entry.untrusted());
+                modified = true;
+            } else {
+                newIndex.put(entry.path, entry);
+            }
+        }
+        index = newIndex;
+        if (modified || !indexFile.exists()) {
+            writeIndex(entries, now);
+        }
+        Collections.sort(added);
+        Collections.sort(changed);
+        Collections.sort(removed);
+        return new Result(computeDirectoryDigest(entries), entries, added, changed, removed, hashedCount);
+    }
+
+    /**
+     * 删除索引文件，下次扫描时重新计算所有文件的摘要
+     */
+    public synchronized void clearIndex() {
+        index = null;
+        indexFile.delete();
+    }
+
+    /**
+     * 关闭线程池，关闭后不能再使用(使用共用的线程池时不做任何操作)
+     */
+    public void shutdown() {
+        ParallelPool.shutdown(executor);
+    }
+
+    private static void cancelAll(List<Future<Entry>> futures) {
+        for (Future<Entry> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * 列出目录中的所有文件(相对路径使用"/"分隔，不进入符号链接指向的目录)
+     */
+    private Map<String, File> listFiles() {
+        Map<String, File> files = new HashMap<>();
+        String indexPath = indexFile.getAbsolutePath();
+        ArrayDeque<File> directories = new ArrayDeque<>();
+        ArrayDeque<String> prefixes = new ArrayDeque<>();
+        directories.push(directory);
+        prefixes.push("");
+        while (!directories.isEmpty()) {
+            File dir = directories.pop();
+            String prefix = prefixes.pop();
+            File[] children = dir.listFiles();
+            if (children == null) {
+                continue;
+            }
+            for (File child : children) {
+                String path = prefix + child.getName();
+                if (child.isDirectory()) {
+                    if (!isSymlink(child)) {
+                        directories.push(child);
+                        prefixes.push(path + "/");
+                    }
+                } else if (child.isFile()) {
+                    String absolutePath = child.getAbsolutePath();
+                    if (!absolutePath.equals(indexPath) && !absolutePath.startsWith(indexPath + ".")) {
+                        files.put(path, child);
+                    }
+                }
+            }
+        }
+        return files;
+    }
+
+    /**
+     * 判断文件是否为符号链接(比较父目录的规范路径加文件名与文件本身的规范路径，无法判断时视为符号链接)
+     */
+    private static boolean isSymlink(File file) {
+        try {
+            File parent = file.getAbsoluteFile().getParentFile();
+            File resolved = parent == null ? file.getAbsoluteFile() : new File(parent.getCanonicalFile(), file.getName());
+            return !resolved.getCanonicalFile().equals(resolved.getAbsoluteFile());
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    /**
+     * 计算目录摘要：依次对每个文件(按相对路径排序)的路径(UTF-8)、0x00及文件摘要计算摘要
+     */
+    private byte[] computeDirectoryDigest(Map<String, Entry> entries) {
+        MessageDigest digest = DigestUtils.newDigest(algorithm);
+        for (Entry entry : entries.values()) {
+            digest.update(entry.path.getBytes(UTF_8));
+            digest.update((byte) 0);
+            digest.update(entry.digest);
+        }
+        return digest.digest();
+    }
+
+    /**
+     * 读取索引文件(索引文件不存在、已损坏或算法不同时返回空索引)
+     */
+    private Map<String, Entry> readIndex() {
+        Map<String, Entry> entries = new HashMap<>();
+        if (!indexFile.isFile()) {
+            return entries;
+        }
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new FileInputStream(indexFile));
+            if (in.readInt() != INDEX_MAGIC || in.readInt() != INDEX_VERSION || !algorithm.equals(in.readUTF())) {
+                return entries;
+            }
+            long savedTime = in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String path = in.readUTF();
+                long size = in.readLong();
+                long lastModified = in.readLong();
+                byte[] digest = new byte[in.readUnsignedByte()];
+                in.readFully(digest);
+                entries.put(path, new Entry(path, size, lastModified, digest, savedTime - lastModified >= MTIME_GRANULARITY));
+            }
+            return entries;
+        } catch (IOException e) {
+            entries.clear();
+            return entries;
+        } finally {
+            CloseUtils.closeIOQuietly(in);
+        }
+    }
+
+    private void writeIndex(Map<String, Entry> entries, long savedTime) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + entries.size() * 64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(INDEX_MAGIC);
+        out.writeInt(INDEX_VERSION);
+        out.writeUTF(algorithm);
+        out.writeLong(savedTime);
+        out.writeInt(entries.size());
+        for (Entry entry : entries.values()) {
+            out.writeUTF(entry.path);
+            out.writeLong(entry.size);
+            out.writeLong(entry.lastModified);
+            out.writeByte(entry.digest.length);
+            out.write(entry.digest);
+        }
+        out.flush();
+        if (!FileUtils.writeFileAtomic(indexFile, bytes.toByteArray())) {
+            throw new IOException("Failed to write index " + indexFile);
+        }
+    }
+
+    /**
+     * 索引条目
+     */
+    private static final class Entry {
+
+        private final String path;
+        private final long size;
+        private final long lastModified;
+        private final byte[] digest;
+        /**
+         * 为false时表示摘要不可信(修改时间与索引保存时间过于接近)，需要重新计算
+         */
+        private final boolean trusted;
+
+        private Entry(String path, long size, long lastModified, byte[] digest, boolean trusted) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.digest = digest;
+            this.trusted = trusted;
+        }
+
+        private Entry untrusted() {
+            return new Entry(path, size, lastModified, digest, false);
+        }
+    }
+
+    /**
+     * 扫描结果
+     */
+    public static final class Result {
+
+        private final byte[] directoryDigest;
+        private final Map<String, Entry> entries;
+        private final List<String> addedPaths;
+        private final List<String> changedPaths;
+        private final List<String> removedPaths;
+        private final int hashedCount;
+
+        private Result(byte[] directoryDigest, Map<String, Entry> entries, List<String> addedPaths,
+                       List<String> changedPaths, List<String> removedPaths, int hashedCount) {
+            this.directoryDigest = directoryDigest;
+            this.entries = entries;
+            this.addedPaths = Collections.unmodifiableList(addedPaths);
+            this.changedPaths = Collections.unmodifiableList(changedPaths);
+            this.removedPaths = Collections.unmodifiableList(removedPaths);
+            this.hashedCount = hashedCount;
+        }
+
+        /**
+         * 获取目录摘要
+         */
+        public byte[] getDirectoryDigest() {
+            return directoryDigest.clone();
+        }
+
+        /**
+         * 获取目录摘要(大写十六进制字符串)
+         */
+        public String getDirectoryDigestHex() {
+            return DigestUtils.byte2Hex(directoryDigest);
+        }
+
+        /**
+         * 获取文件的摘要
+         *
+         * @param relativePath 相对于目录的路径(使用"/"分隔)
+         * @return 如果文件不在目录中则返回null
+         */
+        public byte[] getFileDigest(String relativePath) {
+            Entry entry = entries.get(relativePath);
+            return entry == null ? null : entry.digest.clone();
+        }
+
+        /**
+         * 获取文件数量
+         */
+        public int getFileCount() {
+            return entries.size();
+        }
+
+        /**
+         * 获取本次扫描计算了摘要的文件数量
+         */
+        public int getHashedCount() {
+            return hashedCount;
+        }
+
+        /**
+         * 获取新增文件的相对路径(与上次扫描相比)
+         */
+        public List<String> getAddedPaths() {
+            return addedPaths;
+        }
+
+        /**
+         * 获取内容发生变化的文件的相对路径(只有大小或修改时间变化而内容不变的文件不包含在内)
+         */
+        public List<String> getChangedPaths() {
+            return changedPaths;
+        }
+
+        /**
+         * 获取已删除文件的相对路径
+         */
+        public List<String> getRemovedPaths() {
+            return removedPaths;
+        }
+
+        /**
+         * 判断与上次扫描相比是否有文件增加、删除或内容变化
+         */
+        public boolean hasChanges() {
+            return !addedPaths.isEmpty() || !changedPaths.isEmpty() || !removedPaths.isEmpty();
+        }
+    }
+
+}
@@ -0,0 +1,750 @@
+package com.henley.android.utils;
+
+import android.content.Context;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于日志文件的磁盘LRU缓存(限制缓存的总字节数及条目数)
+ * <p>每个条目对应缓存目录中的一个文件，所有的新增、删除及访问操作都会追加到日志文件中，重新打开缓存时通过日志恢复索引，无需遍历目录</p>
+ * <p>同一个key同一时间只能有一个{@link Editor}，但可以同时有多个{@link Snapshot}读取，读取到的始终是提交时的完整内容</p>
+ * <p>key只能由小写字母、数字、'-'及'_'组成，长度为1~120，通常使用{@link DigestUtils#encodeMD5Hex(byte[])}的小写形式</p>
+ *
+ * @author Henley
+ * @since 2026/10/18 13:05
+ */
+public final class DiskLruCache implements Closeable {
+
+    private static final String JOURNAL_FILE = "journal";
+    private static final String JOURNAL_FILE_TEMP = "journal.tmp";
+    private static final String JOURNAL_FILE_BACKUP = "journal.bkp";
+    private static final String MAGIC = "com.henley.android.utils.DiskLruCache";
+    private static final String VERSION = "1";
+    private static final String CLEAN = "CLEAN";
+    private static final String DIRTY = "DIRTY";
+    private static final String REMOVE = "REMOVE";
+    private static final String READ = "READ";
+    private static final String CLEAN_FILE_SUFFIX = ".0";
+    private static final String DIRTY_FILE_SUFFIX = ".0.tmp";
+    private static final int MAX_KEY_LENGTH = 120;
+    private static final int REDUNDANT_OP_COMPACT_THRESHOLD = 2000;
+    private static final long ANY_SEQUENCE_NUMBER = -1;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final File directory;
+    private final File journalFile;
+    private final File journalFileTemp;
+    private final File journalFileBackup;
+    private final int appVersion;
+    private long maxSize;
+    private int maxCount;
+    private long size;
+    private Writer journalWriter;
+    private final LinkedHashMap<String, Entry> lruEntries = new LinkedHashMap<>(0, 0.75f, true);
+    private int redundantOpCount;
+    /**
+     * 下一个提交版本的序号(0表示尚未提交的条目)
+     */
+    private long nextSequenceNumber = 1;
+
+    /**
+     * 在后台线程中执行裁剪缓存及重建日志
+     */
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(0, 1, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+    private final Runnable cleanupRunnable = new Runnable() {
+        @Override
+        public void run() {
+            synchronized (DiskLruCache.this) {
+                if (journalWriter == null) {
+                    return;
+                }
+                try {
+                    trimToLimits();
+                    if (journalRebuildRequired()) {
+                        rebuildJournal();
+                    }
+                } catch (IOException ignored) {
+                    // 下次写入时会再次尝试
+                }
+            }
+        }
+    };
+
+    /**
+     * 打开应用缓存目录中的磁盘缓存
+     *
+     * @param diskCacheName 缓存目录名(位于{@link FileUtils#getCacheDirectory(Context, String)})
+     * @param appVersion    应用版本，版本改变时会清空缓存
+     * @param maxSize       缓存的最大字节数
+     * @param maxCount      缓存的最大条目数
+     */
+    public static DiskLruCache open(Context context, String diskCacheName, int appVersion, long maxSize, int maxCount) throws IOException {
+        return open(FileUtils.getCacheDirectory(context, diskCacheName), appVersion, maxSize, maxCount);
+    }
+
+    /**
+     * 打开磁盘缓存(目录不存在时自动创建)
+     *
+     * @param directory  缓存目录(该目录只能用于当前缓存)
+     * @param appVersion 应用版本，版本改变时会清空缓存
+     * @param maxSize    缓存的最大字节数
+     * @param maxCount   缓存的最大条目数
+     */
+    public static DiskLruCache open(File directory, int appVersion, long maxSize, int maxCount) throws IOException {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize <= 0");
+        }
+        if (maxCount <= 0) {
+            throw new IllegalArgumentException("maxCount <= 0");
+        }
+        // 重建日志时被中断，优先使用备份的日志
+        File backupFile = new File(directory, JOURNAL_FILE_BACKUP);
+        if (backupFile.exists()) {
+            File journalFile = new File(directory, JOURNAL_FILE);
+            if (journalFile.exists()) {
+                backupFile.delete();
+            } else if (!backupFile.renameTo(journalFile)) {
+                throw new IOException("Failed to restore journal from " + backupFile);
+            }
+        }
+        DiskLruCache cache = new DiskLruCache(directory, appVersion, maxSize, maxCount);
+        if (cache.journalFile.exists()) {
+            try {
+                boolean rebuild = cache.readJournal();
+                cache.processJournal();
+                if (rebuild) {
+                    cache.rebuildJournal();
+                } else {
+                    cache.journalWriter = newJournalWriter(cache.journalFile);
+                }
+                return cache;
+            } catch (IOException journalIsCorrupt) {
+                cache.delete();
+            }
+        }
+        FileUtils.createOrExistsDir(directory);
+        cache = new DiskLruCache(directory, appVersion, maxSize, maxCount);
+        cache.rebuildJournal();
+        return cache;
+    }
+
+    private DiskLruCache(File directory, int appVersion, long maxSize, int maxCount) {
+        this.directory = directory;
+        this.appVersion = appVersion;
+        this.journalFile = new File(directory, JOURNAL_FILE);
+        this.journalFileTemp = new File(directory, JOURNAL_FILE_TEMP);
+        this.journalFileBackup = new File(directory, JOURNAL_FILE_BACKUP);
+        this.maxSize = maxSize;
+        this.maxCount = maxCount;
+    }
+
+    private static Writer newJournalWriter(File file) throws FileNotFoundException {
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), UTF_8));
+    }
+
+    /**
+     * 读取日志并恢复索引
+     *
+     * @return 如果日志需要重建(最后一行不完整)则返回true
+     */
+    private boolean readJournal() throws IOException {
+        String journal = FileUtils.readFile(journalFile, "UTF-8", false);
+        if (journal == null) {
+            throw new IOException("Unable to read journal " + journalFile);
+        }
+        int lineStart = 0;
+        int lineCount = 0;
+        int newline;
+        while ((newline = journal.indexOf('\n', lineStart)) != -1) {
+            String line = journal.substring(lineStart, newline);
+            lineStart = newline + 1;
+            if (lineCount < 4) {
+                readJournalHeader(line, lineCount);
+            } else {
+                readJournalLine(line);
+            }
+            lineCount++;
+        }
+        if (lineCount < 4) {
+            throw new IOException("Unexpected journal header");
+        }
+        redundantOpCount = lineCount - 4 - lruEntries.size();
+        // 最后一行没有换行符，说明写入日志时被中断
+        return lineStart < journal.length();
+    }
+
+    private void readJournalHeader(String line, int index) throws IOException {
+        String expected;
+        switch (index) {
+            case 0:
+                expected = MAGIC;
+                break;
+            case 1:
+                expected = VERSION;
+                break;
+            case 2:
+                expected = Integer.toString(appVersion);
+                break;
+            default:
+                expected = "";
+                break;
+        }
+        if (!expected.equals(line)) {
+            throw new IOException("Unexpected journal header: " + line);
+        }
+    }
+
+    private void readJournalLine(String line) throws IOException {
+        int firstSpace = line.indexOf(' ');
+        if (firstSpace == -1) {
+            throw new IOException("Unexpected journal line: " + line);
+        }
+        int keyBegin = firstSpace + 1;
+        int secondSpace = line.indexOf(' ', keyBegin);
+        String command = line.substring(0, firstSpace);
+        String key = secondSpace == -1 ? line.substring(keyBegin) : line.substring(keyBegin, secondSpace);
+        if (secondSpace == -1 && REMOVE.equals(command)) {
+            lruEntries.remove(key);
+            return;
+        }
+        Entry entry = lruEntries.get(key);
+        if (entry == null) {
+            entry = new Entry(key);
+            lruEntries.put(key, entry);
+        }
+        if (secondSpace != -1 && CLEAN.equals(command)) {
+            long length = NumberUtils.parseLong(line.substring(secondSpace + 1), -1L);
+            if (length < 0) {
+                throw new IOException("Unexpected journal line: " + line);
+            }
+            entry.readable = true;
+            entry.currentEditor = null;
+            entry.length = length;
+            // 每个已提交的版本使用不同的序号，重新打开后获取的快照也能检测到过期
+            entry.sequenceNumber = nextSequenceNumber++;
+        } else if (secondSpace == -1 && DIRTY.equals(command)) {
+            entry.currentEditor = new Editor(entry);
+        } else if (secondSpace != -1 || !READ.equals(command)) {
+            throw new IOException("Unexpected journal line: " + line);
+        }
+    }
+
+    /**
+     * 计算缓存大小，并删除未完成编辑的条目以及文件长度与日志不一致的条目
+     */
+    private void processJournal() {
+        journalFileTemp.delete();
+        List<Entry> entries = new ArrayList<>(lruEntries.values());
+        for (Entry entry : entries) {
+            if (entry.currentEditor == null && entry.readable && entry.getCleanFile().length() == entry.length) {
+                size += entry.length;
+            } else {
+                entry.currentEditor = null;
+                entry.getCleanFile().delete();
+                entry.getDirtyFile().delete();
+                lruEntries.remove(entry.key);
+            }
+        }
+    }
+
+    /**
+     * 根据当前索引重写日志(先写入临时文件，同步后再替换)
+     */
+    private synchronized void rebuildJournal() throws IOException {
+        if (journalWriter != null) {
+            journalWriter.close();
+        }
+        FileOutputStream output = new FileOutputStream(journalFileTemp);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, UTF_8));
+        try {
+            writer.write(MAGIC);
+            writer.write('\n');
+            writer.write(VERSION);
+            writer.write('\n');
+            writer.write(Integer.toString(appVersion));
+            writer.write('\n');
+            writer.write('\n');
+            for (Entry entry : lruEntries.values()) {
+                if (entry.currentEditor != null) {
+                    writer.write(DIRTY + ' ' + entry.key + '\n');
+                } else {
+                    writer.write(CLEAN + ' ' + entry.key + ' ' + entry.length + '\n');
+                }
+            }
+            writer.flush();
+            output.getFD().sync();
+        } finally {
+            writer.close();
+        }
+        if (journalFile.exists() && !journalFile.renameTo(journalFileBackup)) {
+            throw new IOException("Failed to back up journal " + journalFile);
+        }
+        if (!journalFileTemp.renameTo(journalFile)) {
+            throw new IOException("Failed to rename " + journalFileTemp);
+        }
+        journalFileBackup.delete();
+        journalWriter = newJournalWriter(journalFile);
+        redundantOpCount = 0;
+    }
+
+    /**
+     * 获取缓存快照
+     *
+     * @return 如果缓存不存在则返回null
+     */
+    public synchronized Snapshot get(String key) throws IOException {
+        checkNotClosed();
+        validateKey(key);
+        Entry entry = lruEntries.get(key);
+        if (entry == null || !entry.readable) {
+            return null;
+        }
+        InputStream in;
+        try {
+            in = new FileInputStream(entry.getCleanFile());
+        } catch (FileNotFoundException e) {
+            // 缓存文件被手动删除
+            return null;
+        }
+        redundantOpCount++;
+        journalWriter.write(READ + ' ' + key + '\n');
+        if (journalRebuildRequired()) {
+            executor.execute(cleanupRunnable);
+        }
+        return new Snapshot(key, entry.sequenceNumber, in, entry.length);
+    }
+
+    /**
+     * 获取编辑器
+     *
+     * @return 如果该key正在被编辑则返回null
+     */
+    public Editor edit(String key) throws IOException {
+        return edit(key, ANY_SEQUENCE_NUMBER);
+    }
+
+    private synchronized Editor edit(String key, long expectedSequenceNumber) throws IOException {
+        checkNotClosed();
+        validateKey(key);
+        Entry entry = lruEntries.get(key);
+        if (expectedSequenceNumber != ANY_SEQUENCE_NUMBER
+                && (entry == null || entry.sequenceNumber != expectedSequenceNumber)) {
+            return null; // 快照已过期
+        }
+        if (entry == null) {
+            entry = new Entry(key);
+            lruEntries.put(key, entry);
+        } else if (entry.currentEditor != null) {
+            return null; // 正在被其他编辑器编辑
+        }
+        Editor editor = new Editor(entry);
+        entry.currentEditor = editor;
+        // 先写入DIRTY并刷新，防止出现没有日志记录的文件
+        journalWriter.write(DIRTY + ' ' + key + '\n');
+        journalWriter.flush();
+        return editor;
+    }
+
+    private synchronized void completeEdit(Editor editor, boolean success) throws IOException {
+        Entry entry = editor.entry;
+        if (entry.currentEditor != editor) {
+            throw new IllegalStateException("Editor is no longer active");
+        }
+        File dirty = entry.getDirtyFile();
+        if (success && dirty.exists()) {
+            File clean = entry.getCleanFile();
+            if (!dirty.renameTo(clean)) {
+                success = false;
+            } else {
+                long newLength = clean.length();
+                size = size - entry.length + newLength;
+                entry.length = newLength;
+                entry.readable = true;
+                entry.sequenceNumber = nextSequenceNumber++;
+            }
+        }
+        dirty.delete();
+        entry.currentEditor = null;
+        redundantOpCount++;
+        if (entry.readable) {
+            journalWriter.write(CLEAN + ' ' + entry.key + ' ' + entry.length + '\n');
+        } else {
+            lruEntries.remove(entry.key);
+            journalWriter.write(REMOVE + ' ' + entry.key + '\n');
+        }
+        journalWriter.flush();
+        if (size > maxSize || lruEntries.size() > maxCount || journalRebuildRequired()) {
+            executor.execute(cleanupRunnable);
+        }
+    }
+
+    /**
+     * 删除缓存(正在被编辑的缓存无法删除)
+     *
+     * @return 如果删除成功则返回true
+     */
+    public synchronized boolean remove(String key) throws IOException {
+        checkNotClosed();
+        validateKey(key);
+        Entry entry = lruEntries.get(key);
+        if (entry == null || entry.currentEditor != null) {
+            return false;
+        }
+        removeEntry(entry);
+        return true;
+    }
+
+    private void removeEntry(Entry entry) throws IOException {
+        File clean = entry.getCleanFile();
+        if (!clean.delete() && clean.exists()) {
+            throw new IOException("Failed to delete " + clean);
+        }
+        size -= entry.length;
+        entry.length = 0;
+        redundantOpCount++;
+        journalWriter.write(REMOVE + ' ' + entry.key + '\n');
+        lruEntries.remove(entry.key);
+        if (journalRebuildRequired()) {
+            executor.execute(cleanupRunnable);
+        }
+    }
+
+    /**
+     * 按最近最少使用的顺序删除缓存，直到缓存大小及条目数都不超过限制
+     */
+    private void trimToLimits() throws IOException {
+        if (size <= maxSize && lruEntries.size() <= maxCount) {
+            return;
+        }
+        List<Entry> entries = new ArrayList<>(lruEntries.values());
+        for (Entry entry : entries) {
+            if (size <= maxSize && lruEntries.size() <= maxCount) {
+                break;
+            }
+            if (entry.currentEditor == null) {
+                removeEntry(entry);
+            }
+        }
+    }
+
+    /**
+     * 冗余的日志记录达到阈值且超过条目数时重建日志
+     */
+    private boolean journalRebuildRequired() {
+        return redundantOpCount >= REDUNDANT_OP_COMPACT_THRESHOLD && redundantOpCount >= lruEntries.size();
+    }
+
+    /**
+     * 获取缓存的总字节数
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * 获取缓存的条目数
+     */
+    public synchronized int count() {
+        return lruEntries.size();
+    }
+
+    public synchronized long getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized int getMaxCount() {
+        return maxCount;
+    }
+
+    /**
+     * 修改缓存限制(超出部分在后台线程中删除)
+     */
+    public synchronized void setLimits(long maxSize, int maxCount) {
+        checkNotClosed();
+        this.maxSize = maxSize;
+        this.maxCount = maxCount;
+        executor.execute(cleanupRunnable);
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    public synchronized boolean isClosed() {
+        return journalWriter == null;
+    }
+
+    /**
+     * 裁剪缓存并将日志写入磁盘
+     */
+    public synchronized void flush() throws IOException {
+        checkNotClosed();
+        trimToLimits();
+        journalWriter.flush();
+    }
+
+    /**
+     * 关闭缓存(放弃所有未提交的编辑)
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (journalWriter == null) {
+            return;
+        }
+        for (Entry entry : new ArrayList<>(lruEntries.values())) {
+            if (entry.currentEditor != null) {
+                entry.currentEditor.abort();
+            }
+        }
+        trimToLimits();
+        journalWriter.close();
+        journalWriter = null;
+        executor.shutdown();
+    }
+
+    /**
+     * 关闭缓存并删除缓存目录中的所有文件
+     */
+    public void delete() throws IOException {
+        close();
+        FileUtils.deleteFile(directory);
+    }
+
+    private void checkNotClosed() {
+        if (journalWriter == null) {
+            throw new IllegalStateException("Cache is closed");
+        }
+    }
+
+    private static void validateKey(String key) {
+        int length = key.length();
+        boolean valid = length > 0 && length <= MAX_KEY_LENGTH;
+        for (int i = 0; valid && i < length; i++) {
+            char c = key.charAt(i);
+            valid = (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+        }
+        if (!valid) {
+            throw new IllegalArgumentException("Keys must match [a-z0-9_-]{1," + MAX_KEY_LENGTH + "}: \"" + key + "\"");
+        }
+    }
+
+    /**
+     * 缓存快照(读取的是获取快照时已提交的内容)
+     */
+    public final class Snapshot implements Closeable {
+
+        private final String key;
+        private final long sequenceNumber;
+        private final InputStream in;
+        private final long length;
+
+        private Snapshot(String key, long sequenceNumber, InputStream in, long length) {
+            this.key = key;
+            this.sequenceNumber = sequenceNumber;
+            this.in = in;
+            this.length = length;
+        }
+
+        /**
+         * 编辑该快照对应的缓存
+         *
+         * @return 如果缓存在获取快照后已被修改或正在被编辑则返回null
+         */
+        public Editor edit() throws IOException {
+            return DiskLruCache.this.edit(key, sequenceNumber);
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public InputStream getInputStream() {
+            return in;
+        }
+
+        /**
+         * 以UTF-8读取全部内容
+         */
+        public String getString() throws IOException {
+            ByteArrayOutputStream output = new ByteArrayOutputStream((int) Math.min(length, Integer.MAX_VALUE - 8));
+            FileUtils.copy(in, output);
+            return new String(output.toByteArray(), UTF_8);
+        }
+
+        public long getLength() {
+            return length;
+        }
+
+        @Override
+        public void close() {
+            CloseUtils.closeIOQuietly(in);
+        }
+    }
+
+    /**
+     * 缓存编辑器(写入的内容在{@link #commit()}后才对读取可见)
+     */
+    public final class Editor {
+
+        private final Entry entry;
+        private boolean hasErrors;
+        private boolean committed;
+
+        private Editor(Entry entry) {
+            this.entry = entry;
+        }
+
+        /**
+         * 获取写入新内容的输出流(写入完成后需要关闭)
+         */
+        public OutputStream newOutputStream() throws IOException {
+            synchronized (DiskLruCache.this) {
+                if (entry.currentEditor != this) {
+                    throw new IllegalStateException("Editor is no longer active");
+                }
+                File dirty = entry.getDirtyFile();
+                FileOutputStream output;
+                try {
+                    output = new FileOutputStream(dirty);
+                } catch (FileNotFoundException e) {
+                    // 缓存目录被删除，重新创建后再试一次
+                    FileUtils.createOrExistsDir(directory);
+                    output = new FileOutputStream(dirty);
+                }
+                return new FaultHidingOutputStream(output);
+            }
+        }
+
+        /**
+         * 以UTF-8写入字符串
+         */
+        public void set(String value) throws IOException {
+            OutputStream output = newOutputStream();
+            try {
+                output.write(value.getBytes(UTF_8));
+            } finally {
+                CloseUtils.closeIOQuietly(output);
+            }
+        }
+
+        /**
+         * 提交编辑(写入过程中发生错误时删除该缓存)
+         */
+        public void commit() throws IOException {
+            if (hasErrors) {
+                completeEdit(this, false);
+                remove(entry.key);
+            } else {
+                completeEdit(this, true);
+            }
+            committed = true;
+        }
+
+        /**
+         * 放弃编辑
+         */
+        public void abort() throws IOException {
+            completeEdit(this, false);
+        }
+
+        /**
+         * 如果尚未提交则放弃编辑(适合在finally中调用)
+         */
+        public void abortUnlessCommitted() {
+            if (!committed) {
+                try {
+                    abort();
+                } catch (IOException | IllegalStateException ignored) {
+                    // ignore
+                }
+            }
+        }
+
+        /**
+         * 记录写入时发生的错误，提交时据此放弃该缓存
+         */
+        private final class FaultHidingOutputStream extends FilterOutputStream {
+
+            private FaultHidingOutputStream(OutputStream out) {
+                super(out);
+            }
+
+            @Override
+            public void write(int oneByte) {
+                try {
+                    out.write(oneByte);
+                } catch (IOException e) {
+                    hasErrors = true;
+                }
+            }
+
+            @Override
+            public void write(byte[] buffer, int offset, int length) {
+                try {
+                    out.write(buffer, offset, length);
+                } catch (IOException e) {
+                    hasErrors = true;
+                }
+            }
+
+            @Override
+            public void close() {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    hasErrors = true;
+                }
+            }
+
+            @Override
+            public void flush() {
+                try {
+                    out.flush();
+                } catch (IOException e) {
+                    hasErrors = true;
+                }
+            }
+        }
+    }
+
+    private final class Entry {
+
+        private final String key;
+        private long length;
+        private boolean readable;
+        private Editor currentEditor;
+        private long sequenceNumber;
+
+        private Entry(String key) {
+            this.key = key;
+        }
+
+        private File getCleanFile() {
+            return new File(directory, key + CLEAN_FILE_SUFFIX);
+        }
+
+        private File getDirtyFile() {
+            return new File(directory, key + DIRTY_FILE_SUFFIX);
+        }
+    }
+
+}
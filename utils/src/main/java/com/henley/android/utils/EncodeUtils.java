@@ -5,6 +5,8 @@ import android.text.Html;
 import android.text.Spanned;
 import android.util.Base64;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
@@ -41,6 +43,9 @@ public final class EncodeUtils {
      * @return 编码为字符集的字符串
      */
     public static String urlEncode(String input, String charset) {
+        if (isUtf8(charset)) {
+            return PercentCodec.FORM.encode(input);
+        }
         try {
             return URLEncoder.encode(input, charset);
         } catch (UnsupportedEncodingException e) {
@@ -68,6 +73,9 @@ public final class EncodeUtils {
      * @return URL解码为指定字符集的字符串
      */
     public static String urlDecode(String input, String charset) {
+        if (isUtf8(charset)) {
+            return PercentCodec.FORM.decode(input);
+        }
         try {
             return URLDecoder.decode(input, charset);
         } catch (UnsupportedEncodingException e) {
@@ -75,6 +83,13 @@ public final class EncodeUtils {
         }
     }
 
+    /**
+     * 判断字符集名称是否为UTF-8(UTF-8使用{@link PercentCodec}，不需要按名称查找字符集)
+     */
+    private static boolean isUtf8(String charset) {
+        return "UTF-8".equalsIgnoreCase(charset) || "UTF8".equalsIgnoreCase(charset);
+    }
+
     /**
      * Base64编码
      *
@@ -92,7 +107,7 @@ public final class EncodeUtils {
      * @return Base64编码后的字符串
      */
     public static byte[] base64Encode(byte[] input) {
-        return Base64.encode(input, Base64.NO_WRAP);
+        return Base64Codec.encode(input, Base64.NO_WRAP);
     }
 
     /**
@@ -102,7 +117,7 @@ public final class EncodeUtils {
      * @return Base64编码后的字符串
      */
     public static String base64Encode2String(byte[] input) {
-        return Base64.encodeToString(input, Base64.NO_WRAP);
+        return Base64Codec.encodeToString(input, Base64.NO_WRAP);
     }
 
     /**
@@ -112,7 +127,7 @@ public final class EncodeUtils {
      * @return Base64解码后的字符串
      */
     public static byte[] base64Decode(String input) {
-        return Base64.decode(input, Base64.NO_WRAP);
+        return Base64Codec.decode(input, Base64.NO_WRAP);
     }
 
     /**
@@ -122,7 +137,7 @@ public final class EncodeUtils {
      * @return Base64解码后的字符串
      */
     public static byte[] base64Decode(byte[] input) {
-        return Base64.decode(input, Base64.NO_WRAP);
+        return Base64Codec.decode(input, Base64.NO_WRAP);
     }
 
     /**
@@ -133,7 +148,52 @@ public final class EncodeUtils {
      * @return Base64URL安全编码后的字符串
      */
     public static byte[] base64UrlSafeEncode(String input) {
-        return Base64.encode(input.getBytes(), Base64.URL_SAFE);
+        return Base64Codec.encode(input.getBytes(), Base64.URL_SAFE);
+    }
+
+    /**
+     * 包装输出流，写入的数据经Base64编码后写入output(适用于大文件，不需要把全部数据读入内存)
+     * <p>写入完毕后必须关闭返回的流，才会写入最后不足一组的数据</p>
+     *
+     * @param output 输出流
+     * @param flags  {@link Base64}的标志位(如{@link Base64#NO_WRAP}、{@link Base64#URL_SAFE})
+     * @see Base64Coder
+     */
+    public static OutputStream base64EncodeOutputStream(OutputStream output, int flags) {
+        return Base64Coder.encodingOutputStream(output, flags);
+    }
+
+    /**
+     * 包装输出流，写入的Base64数据解码后写入output
+     *
+     * @param output 输出流
+     * @param flags  {@link Base64}的标志位
+     * @see Base64Coder
+     */
+    public static OutputStream base64DecodeOutputStream(OutputStream output, int flags) {
+        return Base64Coder.decodingOutputStream(output, flags);
+    }
+
+    /**
+     * 包装输入流，读取到的是input中数据的Base64编码
+     *
+     * @param input 输入流
+     * @param flags {@link Base64}的标志位(如{@link Base64#NO_WRAP}、{@link Base64#URL_SAFE})
+     * @see Base64Coder
+     */
+    public static InputStream base64EncodeInputStream(InputStream input, int flags) {
+        return Base64Coder.encodingInputStream(input, flags);
+    }
+
+    /**
+     * 包装输入流，读取到的是input中Base64数据解码后的内容
+     *
+     * @param input 输入流
+     * @param flags {@link Base64}的标志位
+     * @see Base64Coder
+     */
+    public static InputStream base64DecodeInputStream(InputStream input, int flags) {
+        return Base64Coder.decodingInputStream(input, flags);
     }
 
     /**
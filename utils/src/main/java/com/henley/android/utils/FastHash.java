@@ -0,0 +1,621 @@
+package com.henley.android.utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * 快速非加密哈希(CRC32C、xxHash64、MurmurHash3)
+ * <p>适用于缓存键、数据变化检测等不需要抗碰撞攻击的场景，速度远高于MD5等加密摘要算法；纯Java实现，可以在JVM中测试</p>
+ * <p>实例保存增量计算的状态，可以多次调用update后再获取结果，获取结果不会改变状态；实例不是线程安全的</p>
+ * <p>{@link CharSequence}按UTF-16小端字节序的char序列计算(不先编码为byte[])，因此与对应UTF-8字节的哈希值不同</p>
+ *
+ * @author Henley
+ * @since 2026/10/18 17:05
+ * @see DigestUtils
+ */
+public abstract class FastHash {
+
+    /**
+     * 处理{@link CharSequence}及非数组{@link ByteBuffer}时使用的临时缓冲区大小
+     */
+    private static final int SCRATCH_SIZE = 1024;
+
+    private final int blockSize;
+    private final byte[] block;
+    private int blockLength;
+    private long totalLength;
+    private byte[] scratch;
+
+    /**
+     * 创建CRC32C(Castagnoli)校验和，结果为32位无符号整数
+     */
+    public static FastHash crc32c() {
+        return new Crc32C();
+    }
+
+    /**
+     * 创建种子为0的xxHash64哈希
+     */
+    public static FastHash xxHash64() {
+        return new XxHash64(0);
+    }
+
+    /**
+     * 创建xxHash64哈希
+     */
+    public static FastHash xxHash64(long seed) {
+        return new XxHash64(seed);
+    }
+
+    /**
+     * 创建MurmurHash3(x86_32)哈希，结果为32位无符号整数
+     */
+    public static FastHash murmur3Hash32(int seed) {
+        return new Murmur3Hash32(seed);
+    }
+
+    /**
+     * 创建MurmurHash3(x64_128)哈希，{@link #getValue()}返回低64位，{@link #getBytes()}返回完整的128位
+     */
+    public static FastHash murmur3Hash128(int seed) {
+        return new Murmur3Hash128(seed);
+    }
+
+    FastHash(int blockSize) {
+        this.blockSize = blockSize;
+        this.block = new byte[blockSize];
+    }
+
+    /**
+     * 获取哈希值的位数
+     */
+    public abstract int getBits();
+
+    /**
+     * 获取当前的哈希值(32位哈希为无符号整数，128位哈希为低64位)
+     */
+    public abstract long getValue();
+
+    /**
+     * 获取当前的哈希值(32/64位哈希为大端字节序，128位哈希与MurmurHash3参考实现的输出顺序一致)
+     */
+    public byte[] getBytes() {
+        int length = getBits() / 8;
+        long value = getValue();
+        byte[] bytes = new byte[length];
+        for (int i = length - 1; i >= 0; i--) {
+            bytes[i] = (byte) value;
+            value >>>= 8;
+        }
+        return bytes;
+    }
+
+    /**
+     * 获取当前的哈希值(小写十六进制字符串)
+     */
+    public String getHex() {
+        return DigestUtils.byte2Hex(getBytes(), true);
+    }
+
+    /**
+     * 获取已经处理的字节数
+     */
+    public long getLength() {
+        return totalLength;
+    }
+
+    /**
+     * 重置为初始状态
+     */
+    public FastHash reset() {
+        blockLength = 0;
+        totalLength = 0;
+        resetState();
+        return this;
+    }
+
+    public FastHash update(byte b) {
+        block[blockLength++] = b;
+        totalLength++;
+        if (blockLength == blockSize) {
+            processBlocks(block, 0, blockSize);
+            blockLength = 0;
+        }
+        return this;
+    }
+
+    public FastHash update(byte[] data) {
+        return update(data, 0, data.length);
+    }
+
+    public FastHash update(byte[] data, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > data.length - length) {
+            throw new IndexOutOfBoundsException("offset=" + offset + ", length=" + length + ", size=" + data.length);
+        }
+        totalLength += length;
+        if (blockLength > 0) {
+            int count = Math.min(blockSize - blockLength, length);
+            System.arraycopy(data, offset, block, blockLength, count);
+            blockLength += count;
+            offset += count;
+            length -= count;
+            if (blockLength < blockSize) {
+                return this;
+            }
+            processBlocks(block, 0, blockSize);
+            blockLength = 0;
+        }
+        int remainder = length % blockSize;
+        if (length > remainder) {
+            processBlocks(data, offset, length - remainder);
+        }
+        if (remainder > 0) {
+            System.arraycopy(data, offset + length - remainder, block, 0, remainder);
+            blockLength = remainder;
+        }
+        return this;
+    }
+
+    /**
+     * 处理缓冲区中剩余的数据(处理后缓冲区的position等于limit)
+     */
+    public FastHash update(ByteBuffer data) {
+        if (data.hasArray()) {
+            update(data.array(), data.arrayOffset() + data.position(), data.remaining());
+            data.position(data.limit());
+            return this;
+        }
+        byte[] buffer = scratch();
+        while (data.hasRemaining()) {
+            int count = Math.min(buffer.length, data.remaining());
+            data.get(buffer, 0, count);
+            update(buffer, 0, count);
+        }
+        return this;
+    }
+
+    /**
+     * 处理字符序列(每个char按UTF-16小端字节序作为2个字节处理)
+     */
+    public FastHash update(CharSequence text) {
+        byte[] buffer = scratch();
+        int length = text.length();
+        int index = 0;
+        while (index < length) {
+            int count = Math.min(buffer.length / 2, length - index);
+            for (int i = 0, j = 0; i < count; i++) {
+                char c = text.charAt(index + i);
+                buffer[j++] = (byte) c;
+                buffer[j++] = (byte) (c >>> 8);
+            }
+            update(buffer, 0, count * 2);
+            index += count;
+        }
+        return this;
+    }
+
+    /**
+     * 处理文件的全部内容
+     */
+    public FastHash update(File file) throws IOException {
+        FileInputStream in = new FileInputStream(file);
+        byte[] buffer = BufferPool.acquireBytes();
+        try {
+            int length;
+            while ((length = in.read(buffer, 0, buffer.length)) != -1) {
+                update(buffer, 0, length);
+            }
+            return this;
+        } finally {
+            BufferPool.release(buffer);
+            CloseUtils.closeIOQuietly(in);
+        }
+    }
+
+    /**
+     * 处理完整的块
+     *
+     * @param length 长度(块大小的整数倍)
+     */
+    abstract void processBlocks(byte[] data, int offset, int length);
+
+    abstract void resetState();
+
+    /**
+     * 获取尚未处理的不足一个块的数据(有效长度为{@link #getTailLength()})
+     */
+    final byte[] getTail() {
+        return block;
+    }
+
+    final int getTailLength() {
+        return blockLength;
+    }
+
+    private byte[] scratch() {
+        if (scratch == null) {
+            scratch = new byte[SCRATCH_SIZE];
+        }
+        return scratch;
+    }
+
+    static long getLongLE(byte[] data, int offset) {
+        return (data[offset] & 0xFFL)
+                | (data[offset + 1] & 0xFFL) << 8
+                | (data[offset + 2] & 0xFFL) << 16
+                | (data[offset + 3] & 0xFFL) << 24
+                | (data[offset + 4] & 0xFFL) << 32
+                | (data[offset + 5] & 0xFFL) << 40
+                | (data[offset + 6] & 0xFFL) << 48
+                | (data[offset + 7] & 0xFFL) << 56;
+    }
+
+    static int getIntLE(byte[] data, int offset) {
+        return (data[offset] & 0xFF)
+                | (data[offset + 1] & 0xFF) << 8
+                | (data[offset + 2] & 0xFF) << 16
+                | (data[offset + 3] & 0xFF) << 24;
+    }
+
+    /**
+     * CRC32C(多项式0x1EDC6F41，使用slicing-by-8查表)
+     */
+    private static final class Crc32C extends FastHash {
+
+        private static final int[] TABLE = createTable();
+
+        private int crc = 0xFFFFFFFF;
+
+        private Crc32C() {
+            super(1);
+        }
+
+        private static int[] createTable() {
+            int[] table = new int[8 * 256];
+            for (int n = 0; n < 256; n++) {
+                int c = n;
+                for (int k = 0; k < 8; k++) {
+                    c = (c & 1) != 0 ? (c >>> 1) ^ 0x82F63B78 : c >>> 1;
+                }
+                table[n] = c;
+            }
+            for (int n = 0; n < 256; n++) {
+                int c = table[n];
+                for (int k = 1; k < 8; k++) {
+                    c = (c >>> 8) ^ table[c & 0xFF];
+                    table[k * 256 + n] = c;
+                }
+            }
+            return table;
+        }
+
+        @Override
+        public int getBits() {
+            return 32;
+        }
+
+        @Override
+        public long getValue() {
+            return ~crc & 0xFFFFFFFFL;
+        }
+
+        @Override
+        void processBlocks(byte[] data, int offset, int length) {
+            int[] table = TABLE;
+            int c = crc;
+            int end = offset + length;
+            while (end - offset >= 8) {
+                c ^= getIntLE(data, offset);
+                c = table[7 * 256 + (c & 0xFF)]
+                        ^ table[6 * 256 + ((c >>> 8) & 0xFF)]
+                        ^ table[5 * 256 + ((c >>> 16) & 0xFF)]
+                        ^ table[4 * 256 + (c >>> 24)]
+                        ^ table[3 * 256 + (data[offset + 4] & 0xFF)]
+                        ^ table[2 * 256 + (data[offset + 5] & 0xFF)]
+                        ^ table[256 + (data[offset + 6] & 0xFF)]
+                        ^ table[data[offset + 7] & 0xFF];
+                offset += 8;
+            }
+            while (offset < end) {
+                c = (c >>> 8) ^ table[(c ^ data[offset++]) & 0xFF];
+            }
+            crc = c;
+        }
+
+        @Override
+        void resetState() {
+            crc = 0xFFFFFFFF;
+        }
+    }
+
+    /**
+     * xxHash64
+     */
+    private static final class XxHash64 extends FastHash {
+
+        private static final long PRIME1 = 0x9E3779B185EBCA87L;
+        private static final long PRIME2 = 0xC2B2AE3D27D4EB4FL;
+        private static final long PRIME3 = 0x165667B19E3779F9L;
+        private static final long PRIME4 = 0x85EBCA77C2B2AE63L;
+        private static final long PRIME5 = 0x27D4EB2F165667C5L;
+
+        private final long seed;
+        private long v1;
+        private long v2;
+        private long v3;
+        private long v4;
+
+        private XxHash64(long seed) {
+            super(32);
+            this.seed = seed;
+            resetState();
+        }
+
+        @Override
+        public int getBits() {
+            return 64;
+        }
+
+        @Override
+        public long getValue() {
+            long total = getLength();
+            long h;
+            if (total >= 32) {
+                h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+                h = mergeRound(h, v1);
+                h = mergeRound(h, v2);
+                h = mergeRound(h, v3);
+                h = mergeRound(h, v4);
+            } else {
+                h = seed + PRIME5;
+            }
+            h += total;
+            byte[] tail = getTail();
+            int length = getTailLength();
+            int offset = 0;
+            while (length - offset >= 8) {
+                h ^= round(0, getLongLE(tail, offset));
+                h = Long.rotateLeft(h, 27) * PRIME1 + PRIME4;
+                offset += 8;
+            }
+            if (length - offset >= 4) {
+                h ^= (getIntLE(tail, offset) & 0xFFFFFFFFL) * PRIME1;
+                h = Long.rotateLeft(h, 23) * PRIME2 + PRIME3;
+                offset += 4;
+            }
+            while (offset < length) {
+                h ^= (tail[offset++] & 0xFFL) * PRIME5;
+                h = Long.rotateLeft(h, 11) * PRIME1;
+            }
+            h ^= h >>> 33;
+            h *= PRIME2;
+            h ^= h >>> 29;
+            h *= PRIME3;
+            h ^= h >>> 32;
+            return h;
+        }
+
+        @Override
+        void processBlocks(byte[] data, int offset, int length) {
+            long a = v1;
+            long b = v2;
+            long c = v3;
+            long d = v4;
+            for (int end = offset + length; offset < end; offset += 32) {
+                a = round(a, getLongLE(data, offset));
+                b = round(b, getLongLE(data, offset + 8));
+                c = round(c, getLongLE(data, offset + 16));
+                d = round(d, getLongLE(data, offset + 24));
+            }
+            v1 = a;
+            v2 = b;
+            v3 = c;
+            v4 = d;
+        }
+
+        @Override
+        void resetState() {
+            v1 = seed + PRIME1 + PRIME2;
+            v2 = seed + PRIME2;
+            v3 = seed;
+            v4 = seed - PRIME1;
+        }
+
+        private static long round(long acc, long input) {
+            return Long.rotateLeft(acc + input * PRIME2, 31) * PRIME1;
+        }
+
+        private static long mergeRound(long acc, long value) {
+            return (acc ^ round(0, value)) * PRIME1 + PRIME4;
+        }
+    }
+
+    /**
+     * MurmurHash3 x86_32
+     */
+    private static final class Murmur3Hash32 extends FastHash {
+
+        private static final int C1 = 0xCC9E2D51;
+        private static final int C2 = 0x1B873593;
+
+        private final int seed;
+        private int h;
+
+        private Murmur3Hash32(int seed) {
+            super(4);
+            this.seed = seed;
+            this.h = seed;
+        }
+
+        @Override
+        public int getBits() {
+            return 32;
+        }
+
+        @Override
+        public long getValue() {
+            byte[] tail = getTail();
+            int length = getTailLength();
+            int h1 = h;
+            if (length > 0) {
+                int k1 = 0;
+                for (int i = length - 1; i >= 0; i--) {
+                    k1 = (k1 << 8) | (tail[i] & 0xFF);
+                }
+                h1 ^= mixK1(k1);
+            }
+            h1 ^= (int) getLength();
+            h1 ^= h1 >>> 16;
+            h1 *= 0x85EBCA6B;
+            h1 ^= h1 >>> 13;
+            h1 *= 0xC2B2AE35;
+            h1 ^= h1 >>> 16;
+            return h1 & 0xFFFFFFFFL;
+        }
+
+        @Override
+        void processBlocks(byte[] data, int offset, int length) {
+            int h1 = h;
+            for (int end = offset + length; offset < end; offset += 4) {
+                h1 ^= mixK1(getIntLE(data, offset));
+                h1 = Integer.rotateLeft(h1, 13);
+                h1 = h1 * 5 + 0xE6546B64;
+            }
+            h = h1;
+        }
+
+        @Override
+        void resetState() {
+            h = seed;
+        }
+
+        private static int mixK1(int k1) {
+            k1 *= C1;
+            k1 = Integer.rotateLeft(k1, 15);
+            return k1 * C2;
+        }
+    }
+
+    /**
+     * MurmurHash3 x64_128
+     */
+    private static final class Murmur3Hash128 extends FastHash {
+
+        private static final long C1 = 0x87C37B91114253D5L;
+        private static final long C2 = 0x4CF5AD432745937FL;
+
+        private final long seed;
+        private long h1;
+        private long h2;
+
+        private Murmur3Hash128(int seed) {
+            super(16);
+            this.seed = seed & 0xFFFFFFFFL;
+            resetState();
+        }
+
+        @Override
+        public int getBits() {
+            return 128;
+        }
+
+        @Override
+        public long getValue() {
+            long[] result = finish();
+            return result[0];
+        }
+
+        /**
+         * h1、h2依次按小端字节序输出(与参考实现的内存布局一致)
+         */
+        @Override
+        public byte[] getBytes() {
+            long[] result = finish();
+            byte[] bytes = new byte[16];
+            for (int i = 0; i < 8; i++) {
+                bytes[i] = (byte) (result[0] >>> (i * 8));
+                bytes[i + 8] = (byte) (result[1] >>> (i * 8));
+            }
+            return bytes;
+        }
+
+        private long[] finish() {
+            byte[] tail = getTail();
+            int length = getTailLength();
+            long a = h1;
+            long b = h2;
+            if (length > 8) {
+                long k2 = 0;
+                for (int i = length - 1; i >= 8; i--) {
+                    k2 = (k2 << 8) | (tail[i] & 0xFFL);
+                }
+                b ^= mixK2(k2);
+            }
+            if (length > 0) {
+                long k1 = 0;
+                for (int i = Math.min(length, 8) - 1; i >= 0; i--) {
+                    k1 = (k1 << 8) | (tail[i] & 0xFFL);
+                }
+                a ^= mixK1(k1);
+            }
+            long total = getLength();
+            a ^= total;
+            b ^= total;
+            a += b;
+            b += a;
+            a = fmix64(a);
+            b = fmix64(b);
+            a += b;
+            b += a;
+            return new long[]{a, b};
+        }
+
+        @Override
+        void processBlocks(byte[] data, int offset, int length) {
+            long a = h1;
+            long b = h2;
+            for (int end = offset + length; offset < end; offset += 16) {
+                a ^= mixK1(getLongLE(data, offset));
+                a = Long.rotateLeft(a, 27);
+                a += b;
+                a = a * 5 + 0x52DCE729;
+                b ^= mixK2(getLongLE(data, offset + 8));
+                b = Long.rotateLeft(b, 31);
+                b += a;
+                b = b * 5 + 0x38495AB5;
+            }
+            h1 = a;
+            h2 = b;
+        }
+
+        @Override
+        void resetState() {
+            h1 = seed;
+            h2 = seed;
+        }
+
+        private static long mixK1(long k1) {
+            k1 *= C1;
+            k1 = Long.rotateLeft(k1, 31);
+            return k1 * C2;
+        }
+
+        private static long mixK2(long k2) {
+            k2 *= C2;
+            k2 = Long.rotateLeft(k2, 33);
+            return k2 * C1;
+        }
+
+        private static long fmix64(long k) {
+            k ^= k >>> 33;
+            k *= 0xFF51AFD7ED558CCDL;
+            k ^= k >>> 33;
+            k *= 0xC4CEB9FE1A85EC53L;
+            k ^= k >>> 33;
+            return k;
+        }
+    }
+
+}
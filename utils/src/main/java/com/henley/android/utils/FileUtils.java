@@ -1,6 +1,8 @@
 package com.henley.android.utils;
 
 import android.content.Context;
+import android.net.Uri;
+import android.os.Build;
 import android.text.TextUtils;
 
 import java.io.BufferedReader;
@@ -16,9 +18,19 @@ import java.io.OutputStream;
 import java.math.BigInteger;
 import java.net.FileNameMap;
 import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
 import java.util.ArrayList;
 import java.util.List;
 
+import androidx.annotation.RequiresApi;
+
 /**
  * 文件工具类(可用于读写文件及对文件进行操作)
  *
@@ -28,6 +40,10 @@ import java.util.List;
 public final class FileUtils {
 
     private static final int BUFFER_SIZE = 1024 * 4;
+    private static final int DECODE_CHUNK_SIZE = 1024 * 64;
+    private static final int DIGEST_COPY_BUFFER_SIZE = 1024 * 64;
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+    private static final long MAX_TRANSFER_SIZE = 1024 * 1024 * 32;
     private final static String FILE_EXTENSION_SEPARATOR = ".";
 
     /**
@@ -120,38 +136,125 @@ public final class FileUtils {
      *
      * @param filePath    目标文件路径
      * @param charsetName 编码方式
-     * @return 如果文件不存在则返回null，反之返回文件内容
+     * @return 如果文件不存在则返回null，反之返回文件内容(各行之间以"\r\n"连接)
+     * @see #readFile(File, String, boolean)
      */
     public static String readFile(String filePath, String charsetName) {
-        File file = new File(filePath);
-        StringBuilder builder = new StringBuilder();
-        if (!file.isFile()) {
+        return readFile(new File(filePath), charsetName, true);
+    }
+
+    /**
+     * 读文件
+     * <p>根据{@link File#length()}预先分配字符缓冲区，并以大块方式批量解码，耗时与文件大小成线性关系</p>
+     *
+     * @param file        目标文件
+     * @param charsetName 编码方式
+     * @param joinLines   如果joinLines为true，则将各行以"\r\n"连接(与{@link #readFile(String, String)}一致)，反之则原样返回文件内容
+     * @return 如果文件不存在则返回null，反之返回文件内容
+     */
+    public static String readFile(File file, String charsetName, boolean joinLines) {
+        if (file == null || !file.isFile()) {
             return null;
         }
-        BufferedReader reader = null;
+        FileInputStream in = null;
         try {
-            InputStreamReader is = new InputStreamReader(new FileInputStream(file), charsetName);
-            reader = new BufferedReader(is);
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (!"".equals(builder.toString())) {
-                    builder.append("\r\n");
-                }
-                builder.append(line);
-            }
-            reader.close();
-            return builder.toString();
+            in = new FileInputStream(file);
+            CharBuffer chars = decode(in.getChannel(), file.length(), Charset.forName(charsetName));
+            return joinLines ? joinLines(chars) : chars.toString();
         } catch (IOException e) {
             throw new RuntimeException("IOException occurred. ", e);
         } finally {
-            if (reader != null) {
-                try {
-                    reader.close();
-                } catch (IOException e) {
-                    throw new RuntimeException("IOException occurred. ", e);
+            CloseUtils.closeIOQuietly(in);
+        }
+    }
+
+    /**
+     * 将通道中的全部字节解码为字符(同一个{@link CharsetDecoder}在各个数据块之间复用)
+     *
+     * @param channel  数据来源
+     * @param sizeHint 预估的字节数(用于预先分配缓冲区)
+     * @param charset  编码方式
+     */
+    private static CharBuffer decode(ReadableByteChannel channel, long sizeHint, Charset charset) throws IOException {
+        CharsetDecoder decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        int chunkSize = (int) Math.max(BUFFER_SIZE, Math.min(sizeHint, DECODE_CHUNK_SIZE));
+        long expectedChars = (long) (sizeHint * (double) decoder.averageCharsPerByte()) + 16;
+        byte[] buffer = BufferPool.acquireBytes(chunkSize);
+        ByteBuffer in = ByteBuffer.wrap(buffer);
+        CharBuffer out = CharBuffer.allocate((int) Math.min(expectedChars, MAX_ARRAY_SIZE));
+        try {
+            boolean endOfInput = false;
+            while (true) {
+                if (!endOfInput && in.hasRemaining()) {
+                    endOfInput = channel.read(in) < 0;
+                }
+                in.flip();
+                CoderResult result = decoder.decode(in, out, endOfInput);
+                in.compact();
+                if (result.isOverflow()) {
+                    out = grow(out, chunkSize);
+                } else if (endOfInput) {
+                    break;
+                }
+            }
+            while (decoder.flush(out).isOverflow()) {
+                out = grow(out, chunkSize);
+            }
+        } finally {
+            BufferPool.release(buffer);
+        }
+        out.flip();
+        return out;
+    }
+
+    /**
+     * 扩容字符缓冲区
+     */
+    private static CharBuffer grow(CharBuffer buffer, int minGrowth) {
+        int capacity = buffer.capacity();
+        if (capacity >= MAX_ARRAY_SIZE) {
+            throw new OutOfMemoryError("Required array size too large");
+        }
+        int newCapacity = (int) Math.min(Math.max(capacity * 2L, (long) capacity + minGrowth), MAX_ARRAY_SIZE);
+        CharBuffer newBuffer = CharBuffer.allocate(newCapacity);
+        buffer.flip();
+        newBuffer.put(buffer);
+        return newBuffer;
+    }
+
+    /**
+     * 按{@link BufferedReader#readLine()}的规则("\n"、"\r"或"\r\n")拆分行，再以"\r\n"连接
+     * <p>与原有实现保持一致：结尾的换行符不会产生空行，文件开头的空行会被忽略</p>
+     */
+    private static String joinLines(CharBuffer chars) {
+        char[] src = chars.array();
+        int start = chars.arrayOffset() + chars.position();
+        int end = chars.arrayOffset() + chars.limit();
+        StringBuilder builder = new StringBuilder(end - start + 16);
+        int lineStart = start;
+        for (int i = start; i < end; i++) {
+            char c = src[i];
+            if (c == '\n' || c == '\r') {
+                appendLine(builder, src, lineStart, i);
+                if (c == '\r' && i + 1 < end && src[i + 1] == '\n') {
+                    i++;
                 }
+                lineStart = i + 1;
             }
         }
+        if (lineStart < end) {
+            appendLine(builder, src, lineStart, end);
+        }
+        return builder.toString();
+    }
+
+    private static void appendLine(StringBuilder builder, char[] src, int start, int end) {
+        if (builder.length() > 0) {
+            builder.append("\r\n");
+        }
+        builder.append(src, start, end - start);
     }
 
     /**
@@ -278,15 +381,23 @@ public final class FileUtils {
      * @param append 如果append为true，则追加内容到文件末尾，反之则清空文件内容然后再写入
      */
     public static boolean writeFile(File file, InputStream stream, boolean append) {
+        return writeFile(file, stream, append, BufferPool.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * 写文件
+     *
+     * @param file       目标文件
+     * @param stream     需要写入的流
+     * @param append     如果append为true，则追加内容到文件末尾，反之则清空文件内容然后再写入
+     * @param bufferSize 缓冲区大小(如闪存上写入大文件时可使用64KB以上的缓冲区)
+     */
+    public static boolean writeFile(File file, InputStream stream, boolean append, int bufferSize) {
         OutputStream os = null;
         try {
             makeDirs(file.getAbsolutePath());
             os = new FileOutputStream(file, append);
-            byte[] data = new byte[BUFFER_SIZE];
-            int length = -1;
-            while ((length = stream.read(data)) != -1) {
-                os.write(data, 0, length);
-            }
+            copy(stream, os, bufferSize);
             os.flush();
             return true;
         } catch (FileNotFoundException e) {
@@ -305,6 +416,61 @@ public final class FileUtils {
         }
     }
 
+    /**
+     * 原子写文件(清空文件内容后写入)
+     * <p>先写入同目录下的临时文件并同步到磁盘，再重命名覆盖目标文件，进程在写入过程中被杀死时目标文件保持原有内容</p>
+     *
+     * @param filePath 目标文件路径
+     * @param content  需要写入的内容
+     * @return 如果content为空则返回false，反之返回true
+     * @see AtomicWriteBatch
+     */
+    public static boolean writeFileAtomic(String filePath, String content) {
+        if (isEmpty(content)) {
+            return false;
+        }
+        return writeFileAtomic(new File(filePath), content.getBytes());
+    }
+
+    /**
+     * 原子写文件(清空文件内容后写入)
+     *
+     * @param file 目标文件
+     * @param data 需要写入的数据
+     * @see #writeFileAtomic(String, String)
+     */
+    public static boolean writeFileAtomic(File file, byte[] data) {
+        AtomicWriteBatch batch = AtomicWriteBatch.create();
+        try {
+            batch.write(file, data).commit();
+            return true;
+        } catch (IOException e) {
+            batch.abort();
+            throw new RuntimeException("IOException occurred. ", e);
+        }
+    }
+
+    /**
+     * 原子写文件(清空文件内容后将stream写入文件，写入完成后关闭stream)
+     *
+     * @param file   目标文件
+     * @param stream 需要写入的流
+     * @see #writeFileAtomic(String, String)
+     */
+    public static boolean writeFileAtomic(File file, InputStream stream) {
+        AtomicWriteBatch batch = AtomicWriteBatch.create();
+        try {
+            copy(stream, batch.startWrite(file));
+            batch.commit();
+            return true;
+        } catch (IOException e) {
+            batch.abort();
+            throw new RuntimeException("IOException occurred. ", e);
+        } finally {
+            CloseUtils.closeIOQuietly(stream);
+        }
+    }
+
     /**
      * 移动文件
      *
@@ -361,8 +527,8 @@ public final class FileUtils {
     public static void moveFile(File srcFile, File destFile) {
         boolean rename = renameTo(srcFile, destFile);
         if (!rename) {
-            copyFile(srcFile.getAbsolutePath(), destFile.getAbsolutePath());
-            deleteFile(srcFile.getAbsolutePath());
+            copyFile(srcFile, destFile);
+            deleteFile(srcFile);
         }
     }
 
@@ -374,13 +540,165 @@ public final class FileUtils {
      * @return
      */
     public static boolean copyFile(String sourceFilePath, String destFilePath) {
-        InputStream inputStream;
+        copyFile(new File(sourceFilePath), new File(destFilePath));
+        return true;
+    }
+
+    /**
+     * 复制文件(通过{@link FileChannel#transferTo}在内核中完成复制，避免数据在用户空间中转)
+     *
+     * @param srcFile  源文件
+     * @param destFile 目标文件
+     * @return 复制的字节数
+     */
+    public static long copyFile(File srcFile, File destFile) {
+        FileInputStream in = null;
+        FileOutputStream out = null;
         try {
-            inputStream = new FileInputStream(sourceFilePath);
+            in = new FileInputStream(srcFile);
+            makeDirs(destFile.getAbsolutePath());
+            out = new FileOutputStream(destFile);
+            return copy(in.getChannel(), out.getChannel());
         } catch (FileNotFoundException e) {
             throw new RuntimeException("FileNotFoundException occurred. ", e);
+        } catch (IOException e) {
+            throw new RuntimeException("IOException occurred. ", e);
+        } finally {
+            CloseUtils.closeIOQuietly(out, in);
         }
-        return writeFile(destFilePath, inputStream);
+    }
+
+    /**
+     * 复制文件，并在复制的同时计算摘要(源文件只读取一次，不需要复制后再读取目标文件计算摘要)
+     *
+     * @param srcFile    源文件
+     * @param destFile   目标文件
+     * @param algorithms 摘要算法名(如"MD5"、"SHA-256")
+     * @return 复制结果(包含复制的字节数及摘要)
+     * @throws RuntimeException 复制失败时(已写入的目标文件会被删除)
+     */
+    public static CopyResult copyFileWithDigest(File srcFile, File destFile, String... algorithms) {
+        return copyFileWithDigest(srcFile, destFile, MultiDigest.create(algorithms), null, null);
+    }
+
+    /**
+     * 复制文件并校验摘要，摘要与期望值不一致时删除目标文件并抛出异常
+     *
+     * @param srcFile        源文件
+     * @param destFile       目标文件
+     * @param algorithm      摘要算法名(如"MD5"、"SHA-256")
+     * @param expectedDigest 期望的摘要
+     * @return 复制结果(包含复制的字节数及摘要)
+     * @throws RuntimeException 复制失败或摘要不一致时(目标文件已被删除)
+     */
+    public static CopyResult copyFileWithDigest(File srcFile, File destFile, String algorithm, byte[] expectedDigest) {
+        return copyFileWithDigest(srcFile, destFile, MultiDigest.create(algorithm), algorithm, expectedDigest);
+    }
+
+    private static CopyResult copyFileWithDigest(File srcFile, File destFile, MultiDigest digest, String verifyAlgorithm, byte[] expectedDigest) {
+        FileInputStream in = null;
+        FileOutputStream out = null;
+        boolean successful = false;
+        try {
+            in = new FileInputStream(srcFile);
+            makeDirs(destFile.getAbsolutePath());
+            out = new FileOutputStream(destFile);
+            long length = copy(digest.wrap(in), out, DIGEST_COPY_BUFFER_SIZE);
+            out.close();
+            if (verifyAlgorithm != null && !digest.matches(verifyAlgorithm, expectedDigest)) {
+                throw new IOException(verifyAlgorithm + " digest mismatch, expected " + DigestUtils.byte2Hex(expectedDigest)
+                        + " but was " + digest.getDigestHex(verifyAlgorithm));
+            }
+            successful = true;
+            return new CopyResult(length, digest);
+        } catch (FileNotFoundException e) {
+            throw new RuntimeException("FileNotFoundException occurred. ", e);
+        } catch (IOException e) {
+            throw new RuntimeException("IOException occurred. ", e);
+        } finally {
+            CloseUtils.closeIOQuietly(out, in);
+            // 目标文件打开后的任何失败(读写出错、摘要不一致)都删除不完整的目标文件，打开前失败时不影响已有的文件
+            if (!successful && out != null) {
+                destFile.delete();
+            }
+        }
+    }
+
+    /**
+     * 复制流(不会关闭流)
+     * <p>如果两端都是文件流，则使用{@link FileChannel#transferTo}复制，反之使用复用的缓冲区复制</p>
+     *
+     * @param input  输入流
+     * @param output 输出流
+     * @return 复制的字节数
+     */
+    public static long copy(InputStream input, OutputStream output) throws IOException {
+        return copy(input, output, BufferPool.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * 复制流(不会关闭流)
+     *
+     * @param input      输入流
+     * @param output     输出流
+     * @param bufferSize 缓冲区大小(从{@link BufferPool}中获取)
+     * @return 复制的字节数
+     * @see #copy(InputStream, OutputStream)
+     */
+    public static long copy(InputStream input, OutputStream output, int bufferSize) throws IOException {
+        if (input instanceof FileInputStream && output instanceof FileOutputStream) {
+            return copy(((FileInputStream) input).getChannel(), ((FileOutputStream) output).getChannel());
+        }
+        byte[] buffer = BufferPool.acquireBytes(bufferSize);
+        try {
+            long count = 0;
+            int length;
+            while ((length = input.read(buffer)) != -1) {
+                output.write(buffer, 0, length);
+                count += length;
+            }
+            return count;
+        } finally {
+            BufferPool.release(buffer);
+        }
+    }
+
+    /**
+     * 复制通道(从输入通道的当前位置开始复制到末尾，不会关闭通道)
+     *
+     * @param input  输入通道
+     * @param output 输出通道
+     * @return 复制的字节数
+     */
+    public static long copy(FileChannel input, FileChannel output) throws IOException {
+        long position = input.position();
+        long size = input.size();
+        long count = 0;
+        while (position < size) {
+            // transferTo每次可能只传输部分数据，需要循环直到完成
+            long transferred = input.transferTo(position, Math.min(size - position, MAX_TRANSFER_SIZE), output);
+            if (transferred <= 0) {
+                break;
+            }
+            position += transferred;
+            count += transferred;
+        }
+        input.position(position);
+        // 无法通过transferTo完成的部分(如复制过程中文件增长、管道等特殊文件)使用缓冲区复制
+        byte[] array = BufferPool.acquireBytes();
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(array);
+            while (input.read(buffer) != -1) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    count += output.write(buffer);
+                }
+                buffer.clear();
+            }
+        } finally {
+            BufferPool.release(array);
+        }
+        return count;
     }
 
     /**
@@ -420,6 +738,69 @@ public final class FileUtils {
         }
     }
 
+    /**
+     * 按行惰性读取文件(不会一次性将文件内容读入内存)
+     *
+     * @param file        目标文件
+     * @param charsetName 编码方式
+     * @return 如果文件不存在则返回null，反之返回{@link LineIterator}(使用完毕后需要关闭)
+     */
+    public static LineIterator lineIterator(File file, String charsetName) {
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+        try {
+            return LineIterator.create(new FileInputStream(file), charsetName);
+        } catch (FileNotFoundException e) {
+            throw new RuntimeException("FileNotFoundException occurred. ", e);
+        }
+    }
+
+    /**
+     * 按行惰性读取{@link Uri}指向的内容(如content://)
+     *
+     * @param context     上下文
+     * @param uri         目标Uri
+     * @param charsetName 编码方式
+     * @return 如果内容无法打开则返回null，反之返回{@link LineIterator}(使用完毕后需要关闭)
+     */
+    public static LineIterator lineIterator(Context context, Uri uri, String charsetName) {
+        InputStream stream;
+        try {
+            stream = context.getContentResolver().openInputStream(uri);
+        } catch (FileNotFoundException e) {
+            return null;
+        }
+        return stream == null ? null : LineIterator.create(stream, charsetName);
+    }
+
+    /**
+     * 逐行访问文件内容，visitor返回false时提前结束读取
+     *
+     * @param file        目标文件
+     * @param charsetName 编码方式
+     * @param visitor     逐行访问的回调
+     * @return 访问的行数，如果文件不存在则返回-1
+     */
+    public static int readLines(File file, String charsetName, LineIterator.LineVisitor visitor) {
+        LineIterator iterator = lineIterator(file, charsetName);
+        return iterator == null ? -1 : iterator.visit(visitor);
+    }
+
+    /**
+     * 逐行访问{@link Uri}指向的内容(如content://)，visitor返回false时提前结束读取
+     *
+     * @param context     上下文
+     * @param uri         目标Uri
+     * @param charsetName 编码方式
+     * @param visitor     逐行访问的回调
+     * @return 访问的行数，如果内容无法打开则返回-1
+     */
+    public static int readLines(Context context, Uri uri, String charsetName, LineIterator.LineVisitor visitor) {
+        LineIterator iterator = lineIterator(context, uri, charsetName);
+        return iterator == null ? -1 : iterator.visit(visitor);
+    }
+
     /**
      * 得到路径所在的文件名（不包含后缀）
      * <p/>
@@ -691,6 +1072,7 @@ public final class FileUtils {
 
     /**
      * 删除文件或目录
+     * <p>Android 5.0及以上使用{@link FileWalker}并行删除(不跟随符号链接，只删除链接本身)</p>
      *
      * @param file 文件
      * @return 返回值情况如下：
@@ -701,6 +1083,9 @@ public final class FileUtils {
      * <ul>
      */
     public static boolean deleteFile(File file) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            return FileWalkerHolder.WALKER.delete(file).isSuccessful();
+        }
         if (!file.exists()) {
             return true;
         }
@@ -725,6 +1110,7 @@ public final class FileUtils {
 
     /**
      * 得到文件大小
+     * <p>Android 5.0及以上使用{@link FileWalker}并行计算(每个条目只获取一次文件信息，不跟随符号链接)</p>
      *
      * @param file
      * @return 返回值情况如下：
@@ -735,7 +1121,13 @@ public final class FileUtils {
      * <ul>
      */
     public static long getFileSize(File file) {
-        if (file == null || !file.exists()) {
+        if (file == null) {
+            return 0;
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            return FileWalkerHolder.WALKER.getSize(file);
+        }
+        if (!file.exists()) {
             return 0;
         }
         long size = 0;
@@ -853,4 +1245,52 @@ public final class FileUtils {
         return cacheDirectory;
     }
 
+    /**
+     * 复制文件的结果
+     */
+    public static final class CopyResult {
+
+        private final long length;
+        private final MultiDigest digest;
+
+        private CopyResult(long length, MultiDigest digest) {
+            this.length = length;
+            this.digest = digest;
+        }
+
+        /**
+         * 获取复制的字节数
+         */
+        public long getLength() {
+            return length;
+        }
+
+        /**
+         * 获取复制的数据的摘要
+         *
+         * @param algorithm 摘要算法名(必须是复制时指定的算法之一)
+         */
+        public byte[] getDigest(String algorithm) {
+            return digest.getDigest(algorithm);
+        }
+
+        /**
+         * 获取复制的数据的摘要(大写十六进制字符串)
+         *
+         * @param algorithm 摘要算法名(必须是复制时指定的算法之一)
+         */
+        public String getDigestHex(String algorithm) {
+            return digest.getDigestHex(algorithm);
+        }
+    }
+
+    /**
+     * {@link #deleteFile(File)}及{@link #getFileSize(File)}共用的{@link FileWalker}(首次使用时创建，使用{@link ParallelPool}中共用的线程池)
+     */
+    @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+    private static final class FileWalkerHolder {
+
+        private static final FileWalker WALKER = FileWalker.create();
+    }
+
 }
@@ -0,0 +1,415 @@
+package com.henley.android.utils;
+
+import android.os.Build;
+import android.system.ErrnoException;
+import android.system.Os;
+import android.system.OsConstants;
+import android.system.StructStat;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+import androidx.annotation.RequiresApi;
+
+/**
+ * 并行遍历目录的辅助类(基于{@link ForkJoinPool}，可用于计算目录大小、统计文件数量及递归删除)
+ * <p>每个条目只通过{@link Os#lstat(String)}获取一次文件信息，不会跟随符号链接进入其他目录</p>
+ * <p>遍历操作在调用线程上阻塞直到完成，可以在其他线程调用{@link #cancel()}取消(会取消此实例上正在进行的所有操作)</p>
+ *
+ * @author Henley
+ * @since 2026/10/18 11:20
+ * @see FileUtils#getFileSize(File)
+ * @see FileUtils#deleteFile(File)
+ */
+@RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+public final class FileWalker {
+
+    /**
+     * 单个任务处理的最大条目数，超过时拆分为子任务
+     */
+    private static final int ENTRIES_PER_TASK = 256;
+    private static final FileSystem OS_FILE_SYSTEM = new FileSystem() {
+        @Override
+        public long lstat(String path) throws IOException {
+            StructStat stat;
+            try {
+                stat = Os.lstat(path);
+            } catch (ErrnoException e) {
+                if (e.errno == OsConstants.ENOENT) {
+                    return MISSING;
+                }
+                throw new IOException(path, e);
+            }
+            if (OsConstants.S_ISDIR(stat.st_mode)) {
+                return DIRECTORY;
+            }
+            return OsConstants.S_ISREG(stat.st_mode) ? stat.st_size : SPECIAL;
+        }
+    };
+
+    private final ForkJoinPool pool;
+    private final FileSystem fileSystem;
+    private final Set<Operation> runningOperations = Collections.newSetFromMap(new ConcurrentHashMap<Operation, Boolean>());
+    private volatile ProgressListener progressListener;
+
+    /**
+     * 创建遍历器(并行度为CPU核心数，最大为{@value ParallelPool#MAX_PARALLELISM}，使用共用的线程池)
+     */
+    public static FileWalker create() {
+        return create(ParallelPool.defaultParallelism());
+    }
+
+    /**
+     * 创建遍历器
+     *
+     * @param parallelism 并行度(取值范围为1~{@value ParallelPool#MAX_PARALLELISM}，与默认并行度相同时使用共用的线程池)
+     */
+    public static FileWalker create(int parallelism) {
+        return new FileWalker(parallelism, OS_FILE_SYSTEM);
+    }
+
+    FileWalker(int parallelism, FileSystem fileSystem) {
+        this.pool = ParallelPool.forkJoinPool(parallelism);
+        this.fileSystem = fileSystem;
+    }
+
+    /**
+     * 设置进度监听(在工作线程中回调)
+     */
+    public FileWalker setProgressListener(ProgressListener listener) {
+        this.progressListener = listener;
+        return this;
+    }
+
+    /**
+     * 获取文件或目录的大小
+     *
+     * @return 文件大小或目录中所有文件大小的和，如果路径不存在则返回0
+     */
+    public long getSize(File file) {
+        return walk(file).getTotalSize();
+    }
+
+    /**
+     * 统计目录中的文件数量(不包含目录)
+     */
+    public long countFiles(File file) {
+        return walk(file).getFileCount();
+    }
+
+    /**
+     * 遍历文件或目录，统计大小及文件数量
+     */
+    public Result walk(File file) {
+        return execute(file, false);
+    }
+
+    /**
+     * 递归删除文件或目录
+     *
+     * @return 删除结果，{@link Result#isSuccessful()}表示是否全部删除成功
+     */
+    public Result delete(File file) {
+        return execute(file, true);
+    }
+
+    /**
+     * 取消此遍历器上正在进行的所有操作(包括其他线程发起的操作，已删除的文件无法恢复)
+     * <p>{@link FileUtils#deleteFile(File)}和{@link FileUtils#getFileSize(File)}共用同一个遍历器，不要取消它们使用的实例；
+     * 需要单独取消的操作请使用自己创建的遍历器</p>
+     */
+    public void cancel() {
+        for (Operation operation : runningOperations) {
+            operation.cancelled = true;
+        }
+    }
+
+    /**
+     * 关闭线程池，关闭后不能再使用(使用共用的线程池时只取消正在进行的操作)
+     */
+    public void shutdown() {
+        cancel();
+        ParallelPool.shutdown(pool);
+    }
+
+    private Result execute(File file, boolean delete) {
+        Operation operation = new Operation(delete, fileSystem, progressListener);
+        runningOperations.add(operation);
+        try {
+            String path = file.getAbsolutePath();
+            long type = operation.stat(path);
+            if (type == FileSystem.DIRECTORY) {
+                pool.invoke(new DirectoryTask(path, operation));
+            } else if (type != FileSystem.MISSING) {
+                operation.visitFile(path, type);
+            }
+            operation.notifyProgress();
+            return operation.toResult();
+        } finally {
+            runningOperations.remove(operation);
+        }
+    }
+
+    /**
+     * 处理一个目录：列出子条目并处理，删除模式下在子条目处理完成后删除目录本身
+     */
+    private static final class DirectoryTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String path;
+        private final Operation operation;
+
+        private DirectoryTask(String path, Operation operation) {
+            this.path = path;
+            this.operation = operation;
+        }
+
+        @Override
+        protected void compute() {
+            if (operation.cancelled) {
+                return;
+            }
+            String[] names = new File(path).list();
+            if (names == null) {
+                operation.failedCount.incrementAndGet();
+                return;
+            }
+            if (names.length > 0) {
+                new EntriesTask(path, names, 0, names.length, operation).invoke();
+            }
+            operation.visitDirectory(path);
+        }
+    }
+
+    /**
+     * 处理目录中的一段条目，条目过多时拆分为两个子任务
+     */
+    private static final class EntriesTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String parent;
+        private final String[] names;
+        private final int from;
+        private final int to;
+        private final Operation operation;
+
+        private EntriesTask(String parent, String[] names, int from, int to, Operation operation) {
+            this.parent = parent;
+            this.names = names;
+            this.from = from;
+            this.to = to;
+            this.operation = operation;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > ENTRIES_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new EntriesTask(parent, names, from, middle, operation),
+                        new EntriesTask(parent, names, middle, to, operation));
+                return;
+            }
+            List<DirectoryTask> directories = null;
+            for (int i = from; i < to && !operation.cancelled; i++) {
+                String path = parent + File.separator + names[i];
+                long type = operation.stat(path);
+                if (type == FileSystem.DIRECTORY) {
+                    if (directories == null) {
+                        directories = new ArrayList<>();
+                    }
+                    directories.add(new DirectoryTask(path, operation));
+                } else if (type != FileSystem.MISSING) {
+                    operation.visitFile(path, type);
+                }
+            }
+            operation.notifyProgress();
+            if (directories != null) {
+                invokeAll(directories);
+            }
+        }
+    }
+
+    /**
+     * 一次遍历操作的状态
+     */
+    private static final class Operation {
+
+        private final boolean delete;
+        private final FileSystem fileSystem;
+        private final ProgressListener listener;
+        private final AtomicLong totalSize = new AtomicLong();
+        private final AtomicLong fileCount = new AtomicLong();
+        private final AtomicLong directoryCount = new AtomicLong();
+        private final AtomicLong failedCount = new AtomicLong();
+        private volatile boolean cancelled;
+
+        private Operation(boolean delete, FileSystem fileSystem, ProgressListener listener) {
+            this.delete = delete;
+            this.fileSystem = fileSystem;
+            this.listener = listener;
+        }
+
+        /**
+         * 获取文件类型或大小(获取失败时计入失败数量，按不存在处理)
+         */
+        private long stat(String path) {
+            try {
+                return fileSystem.lstat(path);
+            } catch (IOException e) {
+                failedCount.incrementAndGet();
+                return FileSystem.MISSING;
+            }
+        }
+
+        /**
+         * @param type 文件大小或{@link FileSystem#SPECIAL}
+         */
+        private void visitFile(String path, long type) {
+            if (delete && !new File(path).delete()) {
+                failedCount.incrementAndGet();
+                return;
+            }
+            if (type >= 0) {
+                totalSize.addAndGet(type);
+            }
+            fileCount.incrementAndGet();
+        }
+
+        private void visitDirectory(String path) {
+            if (delete) {
+                if (cancelled) {
+                    return;
+                }
+                if (!new File(path).delete()) {
+                    failedCount.incrementAndGet();
+                    return;
+                }
+            }
+            directoryCount.incrementAndGet();
+        }
+
+        private void notifyProgress() {
+            ProgressListener listener = this.listener;
+            if (listener != null) {
+                listener.onProgress(fileCount.get(), directoryCount.get(), totalSize.get());
+            }
+        }
+
+        private Result toResult() {
+            return new Result(totalSize.get(), fileCount.get(), directoryCount.get(), failedCount.get(), cancelled);
+        }
+    }
+
+    /**
+     * 获取文件信息的方式(默认使用{@link Os#lstat(String)}，测试中可以替换)
+     */
+    interface FileSystem {
+
+        /**
+         * 文件不存在
+         */
+        long MISSING = -1;
+        /**
+         * 目录
+         */
+        long DIRECTORY = -2;
+        /**
+         * 除普通文件和目录以外的条目(如符号链接、设备文件)
+         */
+        long SPECIAL = -3;
+
+        /**
+         * 获取条目的信息(不跟随符号链接)
+         *
+         * @return 普通文件返回文件大小，其他条目返回{@link #MISSING}、{@link #DIRECTORY}或{@link #SPECIAL}
+         * @throws IOException 获取失败(文件不存在除外)
+         */
+        long lstat(String path) throws IOException;
+    }
+
+    /**
+     * 遍历结果
+     */
+    public static final class Result {
+
+        private final long totalSize;
+        private final long fileCount;
+        private final long directoryCount;
+        private final long failedCount;
+        private final boolean cancelled;
+
+        private Result(long totalSize, long fileCount, long directoryCount, long failedCount, boolean cancelled) {
+            this.totalSize = totalSize;
+            this.fileCount = fileCount;
+            this.directoryCount = directoryCount;
+            this.failedCount = failedCount;
+            this.cancelled = cancelled;
+        }
+
+        /**
+         * 获取所有文件大小的和(删除模式下为已删除文件大小的和)
+         */
+        public long getTotalSize() {
+            return totalSize;
+        }
+
+        /**
+         * 获取文件数量(不包含目录)
+         */
+        public long getFileCount() {
+            return fileCount;
+        }
+
+        /**
+         * 获取目录数量(包含根目录)
+         */
+        public long getDirectoryCount() {
+            return directoryCount;
+        }
+
+        /**
+         * 获取无法访问或无法删除的条目数量
+         */
+        public long getFailedCount() {
+            return failedCount;
+        }
+
+        /**
+         * 判断操作是否被取消
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * 判断操作是否全部成功(未被取消且没有失败的条目)
+         */
+        public boolean isSuccessful() {
+            return !cancelled && failedCount == 0;
+        }
+    }
+
+    /**
+     * 遍历进度监听
+     */
+    public interface ProgressListener {
+
+        /**
+         * @param fileCount      已处理的文件数量
+         * @param directoryCount 已处理的目录数量
+         * @param totalSize      已处理的文件大小的和
+         */
+        void onProgress(long fileCount, long directoryCount, long totalSize);
+    }
+
+}
@@ -0,0 +1,725 @@
+package com.henley.android.utils;
+
+import android.content.res.Configuration;
+import android.os.Build;
+import android.util.LruCache;
+import android.util.SparseArray;
+
+import java.util.Arrays;
+import java.util.Formattable;
+import java.util.Formatter;
+import java.util.IllegalFormatException;
+import java.util.Locale;
+import java.util.MissingFormatArgumentException;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.StringRes;
+
+/**
+ * 预编译的格式化模板(格式与{@link String#format(String, Object...)}相同，结果也完全相同)
+ * <pre>
+ * FormatTemplate template = FormatTemplate.compile("%1$s共有%2$d条记录");
+ * FormatTemplate.Arguments arguments = new FormatTemplate.Arguments(2);
+ * String text = template.format(arguments.clear().add(name).add(count)); // 基本类型参数不装箱
+ * </pre>
+ * <p>格式只解析一次，按格式字符串或字符串资源id缓存；不带标志、宽度和精度的%s、%d、%c、%b以及%%、%n直接写入每个线程复用的{@link StringBuilder}，
+ * 其他格式(如"%.2f"、"%05d")交给每个线程复用的{@link Formatter}处理；使用相对索引("%&lt;s")或格式错误的模板整体交给{@link String#format(Locale, String, Object...)}处理</p>
+ *
+ * @author Henley
+ * @since 2026/10/18 23:10
+ * @see StringUtils#format(String, Object...)
+ */
+public final class FormatTemplate {
+
+    /**
+     * 按格式字符串缓存的最大模板数量
+     */
+    private static final int MAX_CACHED_TEMPLATES = 64;
+    /**
+     * 每个线程复用的{@link StringBuilder}的最大容量(超过时丢弃)
+     */
+    private static final int MAX_BUILDER_CAPACITY = 1024;
+    /**
+     * 预估的每个参数的长度
+     */
+    private static final int ESTIMATED_ARGUMENT_LENGTH = 8;
+
+    private static final int KIND_LITERAL = 0;
+    private static final int KIND_STRING = 1;
+    private static final int KIND_DECIMAL = 2;
+    private static final int KIND_CHAR = 3;
+    private static final int KIND_BOOLEAN = 4;
+    /**
+     * 交给{@link Formatter}处理的格式
+     */
+    private static final int KIND_DELEGATE = 5;
+
+    private static final String CONVERSIONS = "bBhHsScCdoxXeEfgGaAtT";
+    private static final String FLAGS = "-#+ 0,(";
+
+    private static final LruCache<String, FormatTemplate> CACHE = new LruCache<>(MAX_CACHED_TEMPLATES);
+    private static final SparseArray<FormatTemplate> RESOURCE_CACHE = new SparseArray<>();
+    private static Locale resourceLocale;
+
+    private static final ThreadLocal<State> LOCAL_STATE = new ThreadLocal<State>() {
+        @Override
+        protected State initialValue() {
+            return new State();
+        }
+    };
+
+    private final String source;
+    /**
+     * 每一段的类型，为null时整个模板交给{@link String#format(Locale, String, Object...)}处理
+     */
+    private final int[] kinds;
+    /**
+     * 每一段的参数索引(文本为-1)
+     */
+    private final int[] indexes;
+    /**
+     * 每一段的文本(文本段为文本，格式段为原始格式)
+     */
+    private final String[] texts;
+    /**
+     * 去掉参数索引后交给{@link Formatter}的格式
+     */
+    private final String[] delegates;
+    private final int estimatedLength;
+
+    /**
+     * 编译格式(按格式字符串缓存)
+     */
+    public static FormatTemplate compile(@NonNull String format) {
+        FormatTemplate template = CACHE.get(format);
+        if (template == null) {
+            template = new FormatTemplate(format);
+            CACHE.put(format, template);
+        }
+        return template;
+    }
+
+    /**
+     * 编译字符串资源(按资源id缓存，语言改变时自动失效)
+     */
+    public static FormatTemplate compile(@StringRes int resId) {
+        Locale locale = getResourceLocale();
+        synchronized (RESOURCE_CACHE) {
+            if (locale == null ? resourceLocale != null : !locale.equals(resourceLocale)) {
+                RESOURCE_CACHE.clear();
+                resourceLocale = locale;
+            }
+            FormatTemplate template = RESOURCE_CACHE.get(resId);
+            if (template == null) {
+                template = new FormatTemplate(StringUtils.getString(resId));
+                RESOURCE_CACHE.put(resId, template);
+            }
+            return template;
+        }
+    }
+
+    private FormatTemplate(String source) {
+        this.source = source;
+        int length = source.length();
+        int capacity = 1;
+        for (int i = 0; i < length; i++) {
+            if (source.charAt(i) == '%') {
+                capacity += 2;
+            }
+        }
+        int[] kinds = new int[capacity];
+        int[] indexes = new int[capacity];
+        String[] texts = new String[capacity];
+        String[] delegates = new String[capacity];
+        int count = 0;
+        int ordinaryIndex = 0;
+        int literalLength = 0;
+        StringBuilder literal = new StringBuilder(length);
+        boolean supported = true;
+        int i = 0;
+        while (i < length) {
+            char c = source.charAt(i);
+            if (c != '%') {
+                literal.append(c);
+                i++;
+                continue;
+            }
+            int specStart = i++;
+            // [argument_index$]
+            int index = -1;
+            int digitsEnd = skipDigits(source, i);
+            if (digitsEnd > i && digitsEnd < length && source.charAt(digitsEnd) == '$') {
+                index = parseIndex(source, i, digitsEnd);
+                if (index < 0) {
+                    supported = false;
+                    break;
+                }
+                i = digitsEnd + 1;
+            }
+            // [flags][width][.precision]
+            int optionsStart = i;
+            while (i < length && FLAGS.indexOf(source.charAt(i)) >= 0) {
+                i++;
+            }
+            i = skipDigits(source, i);
+            if (i < length && source.charAt(i) == '.') {
+                int precisionEnd = skipDigits(source, i + 1);
+                if (precisionEnd == i + 1) {
+                    supported = false;
+                    break;
+                }
+                i = precisionEnd;
+            }
+            boolean plain = i == optionsStart;
+            // conversion
+            if (i >= length) {
+                supported = false;
+                break;
+            }
+            char conversion = source.charAt(i++);
+            if (conversion == '%' || conversion == 'n') {
+                if (!plain || index >= 0) {
+                    supported = false;
+                    break;
+                }
+                literal.append(conversion == '%' ? "%" : System.getProperty("line.separator"));
+                continue;
+            }
+            if (CONVERSIONS.indexOf(conversion) < 0) {
+                supported = false;
+                break;
+            }
+            if (conversion == 't' || conversion == 'T') {
+                if (i >= length) {
+                    supported = false;
+                    break;
+                }
+                i++;
+                plain = false;
+            }
+            int kind = plain ? getPlainKind(conversion) : KIND_DELEGATE;
+            String delegate = null;
+            if (kind == KIND_DELEGATE) {
+                delegate = "%" + source.substring(optionsStart, i);
+                if (!isValid(delegate)) {
+                    supported = false;
+                    break;
+                }
+            }
+            if (literal.length() > 0) {
+                kinds[count] = KIND_LITERAL;
+                indexes[count] = -1;
+                texts[count++] = literal.toString();
+                literalLength += literal.length();
+                literal.setLength(0);
+            }
+            kinds[count] = kind;
+            indexes[count] = index >= 0 ? index : ordinaryIndex++;
+            texts[count] = source.substring(specStart, i);
+            delegates[count++] = delegate;
+        }
+        if (!supported) {
+            this.kinds = null;
+            this.indexes = null;
+            this.texts = null;
+            this.delegates = null;
+            this.estimatedLength = length;
+            return;
+        }
+        if (literal.length() > 0) {
+            kinds[count] = KIND_LITERAL;
+            indexes[count] = -1;
+            texts[count++] = literal.toString();
+            literalLength += literal.length();
+        }
+        this.kinds = Arrays.copyOf(kinds, count);
+        this.indexes = Arrays.copyOf(indexes, count);
+        this.texts = Arrays.copyOf(texts, count);
+        this.delegates = Arrays.copyOf(delegates, count);
+        this.estimatedLength = literalLength + (count - countLiterals(this.kinds)) * ESTIMATED_ARGUMENT_LENGTH;
+    }
+
+    /**
+     * 获取格式字符串
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * 格式化
+     *
+     * @throws IllegalFormatException 格式与参数不匹配(与{@link String#format(String, Object...)}相同)
+     */
+    public String format(Object... args) {
+        Locale locale = getDefaultLocale();
+        if (kinds == null) {
+            return String.format(locale, source, args);
+        }
+        State state = getState(locale);
+        StringBuilder builder = state.acquireBuilder(estimatedLength);
+        try {
+            render(state, builder, args, null);
+            return builder.toString();
+        } finally {
+            state.releaseBuilder(builder);
+        }
+    }
+
+    /**
+     * 格式化(基本类型的参数不装箱)
+     *
+     * @throws IllegalFormatException 格式与参数不匹配(与{@link String#format(String, Object...)}相同)
+     */
+    public String format(Arguments arguments) {
+        Locale locale = getDefaultLocale();
+        if (kinds == null) {
+            return String.format(locale, source, arguments.toArray());
+        }
+        State state = getState(locale);
+        StringBuilder builder = state.acquireBuilder(estimatedLength);
+        try {
+            render(state, builder, null, arguments);
+            return builder.toString();
+        } finally {
+            state.releaseBuilder(builder);
+        }
+    }
+
+    /**
+     * 格式化并追加到builder中
+     *
+     * @return builder
+     * @throws IllegalFormatException 格式与参数不匹配(与{@link String#format(String, Object...)}相同)
+     */
+    public StringBuilder appendTo(StringBuilder builder, Object... args) {
+        Locale locale = getDefaultLocale();
+        if (kinds == null) {
+            return builder.append(String.format(locale, source, args));
+        }
+        render(getState(locale), builder, args, null);
+        return builder;
+    }
+
+    /**
+     * 格式化并追加到builder中(基本类型的参数不装箱)
+     *
+     * @return builder
+     * @throws IllegalFormatException 格式与参数不匹配(与{@link String#format(String, Object...)}相同)
+     */
+    public StringBuilder appendTo(StringBuilder builder, Arguments arguments) {
+        Locale locale = getDefaultLocale();
+        if (kinds == null) {
+            return builder.append(String.format(locale, source, arguments.toArray()));
+        }
+        render(getState(locale), builder, null, arguments);
+        return builder;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    /**
+     * 写入每一段(args和arguments只有一个不为null)
+     */
+    private void render(State state, StringBuilder builder, Object[] args, Arguments arguments) {
+        int argumentCount = args != null ? args.length : arguments.size;
+        for (int i = 0, count = kinds.length; i < count; i++) {
+            int kind = kinds[i];
+            if (kind == KIND_LITERAL) {
+                builder.append(texts[i]);
+                continue;
+            }
+            int index = indexes[i];
+            if (index >= argumentCount) {
+                throw new MissingFormatArgumentException(texts[i]);
+            }
+            if (args != null) {
+                appendObject(state, builder, kind, delegates[i], args[index]);
+                continue;
+            }
+            switch (arguments.types[index]) {
+                case Arguments.TYPE_INT:
+                case Arguments.TYPE_LONG:
+                    if (kind == KIND_STRING || (kind == KIND_DECIMAL && state.asciiIntegers)) {
+                        builder.append(arguments.longs[index]);
+                    } else if (kind == KIND_BOOLEAN) {
+                        builder.append(true);
+                    } else {
+                        appendObject(state, builder, kind, delegates[i], arguments.get(index));
+                    }
+                    break;
+                case Arguments.TYPE_FLOAT:
+                case Arguments.TYPE_DOUBLE:
+                case Arguments.TYPE_CHAR:
+                    if (kind == KIND_STRING) {
+                        appendPrimitive(builder, arguments, index);
+                    } else if (kind == KIND_BOOLEAN) {
+                        builder.append(true);
+                    } else if (kind == KIND_CHAR && arguments.types[index] == Arguments.TYPE_CHAR) {
+                        builder.append((char) arguments.longs[index]);
+                    } else {
+                        appendObject(state, builder, kind, delegates[i], arguments.get(index));
+                    }
+                    break;
+                case Arguments.TYPE_BOOLEAN:
+                    if (kind == KIND_STRING || kind == KIND_BOOLEAN) {
+                        builder.append(arguments.longs[index] != 0);
+                    } else {
+                        appendObject(state, builder, kind, delegates[i], arguments.get(index));
+                    }
+                    break;
+                default:
+                    appendObject(state, builder, kind, delegates[i], arguments.objects[index]);
+                    break;
+            }
+        }
+    }
+
+    private static void appendPrimitive(StringBuilder builder, Arguments arguments, int index) {
+        switch (arguments.types[index]) {
+            case Arguments.TYPE_FLOAT:
+                builder.append((float) arguments.doubles[index]);
+                break;
+            case Arguments.TYPE_DOUBLE:
+                builder.append(arguments.doubles[index]);
+                break;
+            default:
+                builder.append((char) arguments.longs[index]);
+                break;
+        }
+    }
+
+    private static void appendObject(State state, StringBuilder builder, int kind, String delegate, Object value) {
+        switch (kind) {
+            case KIND_STRING:
+                if (value instanceof Formattable) {
+                    appendFormatted(state, builder, "%s", value);
+                } else {
+                    builder.append(value);
+                }
+                break;
+            case KIND_DECIMAL:
+                if (value == null) {
+                    builder.append("null");
+                } else if (state.asciiIntegers && (value instanceof Integer || value instanceof Long
+                        || value instanceof Short || value instanceof Byte)) {
+                    builder.append(((Number) value).longValue());
+                } else {
+                    appendFormatted(state, builder, "%d", value);
+                }
+                break;
+            case KIND_CHAR:
+                if (value == null) {
+                    builder.append("null");
+                } else if (value instanceof Character) {
+                    builder.append(((Character) value).charValue());
+                } else {
+                    appendFormatted(state, builder, "%c", value);
+                }
+                break;
+            case KIND_BOOLEAN:
+                builder.append(value instanceof Boolean ? ((Boolean) value).booleanValue() : value != null);
+                break;
+            default:
+                appendFormatted(state, builder, delegate, value);
+                break;
+        }
+    }
+
+    /**
+     * 使用每个线程复用的{@link Formatter}格式化一个参数
+     */
+    private static void appendFormatted(State state, StringBuilder builder, String spec, Object value) {
+        if (state.formatting) {
+            // Formattable中再次格式化
+            builder.append(String.format(state.locale, spec, value));
+            return;
+        }
+        state.formatting = true;
+        try {
+            state.formatter.format(spec, value);
+            builder.append(state.formatterBuilder);
+        } finally {
+            state.formatterBuilder.setLength(0);
+            state.formatting = false;
+        }
+    }
+
+    private static State getState(Locale locale) {
+        State state = LOCAL_STATE.get();
+        if (!locale.equals(state.locale)) {
+            state.locale = locale;
+            state.formatterBuilder.setLength(0);
+            state.formatter = new Formatter(state.formatterBuilder, locale);
+            // 部分语言的%d使用本地数字
+            state.asciiIntegers = "-1234567890".equals(String.format(locale, "%d", -1234567890));
+        }
+        return state;
+    }
+
+    /**
+     * 获取资源当前使用的语言(API 24开始{@link Configuration#locale}已过时，使用语言列表中的第一个)
+     */
+    @SuppressWarnings("deprecation")
+    private static Locale getResourceLocale() {
+        Configuration configuration = Tool.getContext().getResources().getConfiguration();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+            return configuration.getLocales().get(0);
+        } else {
+            return configuration.locale;
+        }
+    }
+
+    private static Locale getDefaultLocale() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+            return Locale.getDefault(Locale.Category.FORMAT);
+        } else {
+            return Locale.getDefault();
+        }
+    }
+
+    private static int getPlainKind(char conversion) {
+        switch (conversion) {
+            case 's':
+                return KIND_STRING;
+            case 'd':
+                return KIND_DECIMAL;
+            case 'c':
+                return KIND_CHAR;
+            case 'b':
+                return KIND_BOOLEAN;
+            default:
+                return KIND_DELEGATE;
+        }
+    }
+
+    /**
+     * 检查交给{@link Formatter}的格式是否有效(格式错误时与{@link String#format(String, Object...)}一样在检查参数前抛出异常)
+     */
+    private static boolean isValid(String spec) {
+        try {
+            new Formatter(new StringBuilder(), Locale.US).format(spec);
+            return true;
+        } catch (MissingFormatArgumentException e) {
+            return true;
+        } catch (IllegalFormatException e) {
+            return false;
+        }
+    }
+
+    private static int skipDigits(String source, int start) {
+        int i = start;
+        while (i < source.length() && source.charAt(i) >= '0' && source.charAt(i) <= '9') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return 参数索引(从0开始)，无效时返回-1
+     */
+    private static int parseIndex(String source, int start, int end) {
+        if (end - start > 9) {
+            return -1;
+        }
+        int index = 0;
+        for (int i = start; i < end; i++) {
+            index = index * 10 + (source.charAt(i) - '0');
+        }
+        return index - 1;
+    }
+
+    private static int countLiterals(int[] kinds) {
+        int count = 0;
+        for (int kind : kinds) {
+            if (kind == KIND_LITERAL) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 可复用的参数列表(基本类型的参数不装箱；不能在多个线程中同时使用)
+     */
+    public static final class Arguments {
+
+        private static final int TYPE_OBJECT = 0;
+        private static final int TYPE_INT = 1;
+        private static final int TYPE_LONG = 2;
+        private static final int TYPE_FLOAT = 3;
+        private static final int TYPE_DOUBLE = 4;
+        private static final int TYPE_BOOLEAN = 5;
+        private static final int TYPE_CHAR = 6;
+
+        private int[] types;
+        private long[] longs;
+        private double[] doubles;
+        private Object[] objects;
+        private int size;
+
+        public Arguments() {
+            this(4);
+        }
+
+        /**
+         * @param capacity 预计的参数数量
+         */
+        public Arguments(int capacity) {
+            capacity = Math.max(capacity, 1);
+            this.types = new int[capacity];
+            this.longs = new long[capacity];
+            this.doubles = new double[capacity];
+            this.objects = new Object[capacity];
+        }
+
+        /**
+         * 清空参数(同时释放对象参数的引用)
+         */
+        public Arguments clear() {
+            Arrays.fill(objects, 0, size, null);
+            size = 0;
+            return this;
+        }
+
+        /**
+         * 获取参数数量
+         */
+        public int size() {
+            return size;
+        }
+
+        public Arguments add(Object value) {
+            int index = next(TYPE_OBJECT);
+            objects[index] = value;
+            return this;
+        }
+
+        public Arguments add(int value) {
+            int index = next(TYPE_INT);
+            longs[index] = value;
+            return this;
+        }
+
+        public Arguments add(long value) {
+            int index = next(TYPE_LONG);
+            longs[index] = value;
+            return this;
+        }
+
+        public Arguments add(float value) {
+            int index = next(TYPE_FLOAT);
+            doubles[index] = value;
+            return this;
+        }
+
+        public Arguments add(double value) {
+            int index = next(TYPE_DOUBLE);
+            doubles[index] = value;
+            return this;
+        }
+
+        public Arguments add(boolean value) {
+            int index = next(TYPE_BOOLEAN);
+            longs[index] = value ? 1 : 0;
+            return this;
+        }
+
+        public Arguments add(char value) {
+            int index = next(TYPE_CHAR);
+            longs[index] = value;
+            return this;
+        }
+
+        /**
+         * 获取参数(基本类型会被装箱)
+         */
+        public Object get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            switch (types[index]) {
+                case TYPE_INT:
+                    return (int) longs[index];
+                case TYPE_LONG:
+                    return longs[index];
+                case TYPE_FLOAT:
+                    return (float) doubles[index];
+                case TYPE_DOUBLE:
+                    return doubles[index];
+                case TYPE_BOOLEAN:
+                    return longs[index] != 0;
+                case TYPE_CHAR:
+                    return (char) longs[index];
+                default:
+                    return objects[index];
+            }
+        }
+
+        /**
+         * 转换为数组(基本类型会被装箱)
+         */
+        public Object[] toArray() {
+            Object[] array = new Object[size];
+            for (int i = 0; i < size; i++) {
+                array[i] = get(i);
+            }
+            return array;
+        }
+
+        private int next(int type) {
+            if (size == types.length) {
+                int capacity = size * 2;
+                types = Arrays.copyOf(types, capacity);
+                longs = Arrays.copyOf(longs, capacity);
+                doubles = Arrays.copyOf(doubles, capacity);
+                objects = Arrays.copyOf(objects, capacity);
+            }
+            types[size] = type;
+            return size++;
+        }
+    }
+
+    /**
+     * 每个线程的状态
+     */
+    private static final class State {
+
+        private final StringBuilder formatterBuilder = new StringBuilder(16);
+        private StringBuilder builder = new StringBuilder(64);
+        private Formatter formatter;
+        private Locale locale;
+        /**
+         * 当前语言的%d是否与{@link Long#toString(long)}相同
+         */
+        private boolean asciiIntegers;
+        private boolean building;
+        private boolean formatting;
+
+        /**
+         * 获取复用的{@link StringBuilder}(参数的toString()中再次格式化时创建新的)
+         */
+        private StringBuilder acquireBuilder(int capacity) {
+            if (building) {
+                return new StringBuilder(capacity);
+            }
+            building = true;
+            builder.setLength(0);
+            builder.ensureCapacity(capacity);
+            return builder;
+        }
+
+        private void releaseBuilder(StringBuilder builder) {
+            if (builder == this.builder) {
+                building = false;
+                if (builder.capacity() > MAX_BUILDER_CAPACITY) {
+                    this.builder = new StringBuilder(64);
+                }
+            }
+        }
+    }
+
+}
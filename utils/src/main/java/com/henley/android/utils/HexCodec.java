@@ -0,0 +1,234 @@
+package com.henley.android.utils;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * 十六进制编码/解码
+ * <p>结果直接写入调用方提供的byte[]、char[]或{@link ByteBuffer}，编码使用按字节查表(每个字节对应两个字符)，内层循环没有分支</p>
+ * <p>解码时大小写字母都可以识别，数据长度为奇数或包含非十六进制字符时抛出{@link IllegalArgumentException}</p>
+ *
+ * @author Henley
+ * @since 2026/10/18 20:05
+ * @see DigestUtils#byte2Hex(byte[], boolean)
+ */
+public final class HexCodec {
+
+    /**
+     * 编码表：字节b对应的两个字符位于[b * 2]和[b * 2 + 1]
+     */
+    private static final char[] ENCODE_UPPER = createEncodeTable("0123456789ABCDEF");
+    private static final char[] ENCODE_LOWER = createEncodeTable("0123456789abcdef");
+    /**
+     * 解码表：-1表示非十六进制字符
+     */
+    private static final byte[] DECODE = createDecodeTable();
+
+    private HexCodec() {
+        throw new UnsupportedOperationException("Instantiation operation is not supported.");
+    }
+
+    private static char[] createEncodeTable(String digits) {
+        char[] table = new char[512];
+        for (int i = 0; i < 256; i++) {
+            table[i * 2] = digits.charAt(i >>> 4);
+            table[i * 2 + 1] = digits.charAt(i & 0x0F);
+        }
+        return table;
+    }
+
+    private static byte[] createDecodeTable() {
+        byte[] table = new byte[128];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = -1;
+        }
+        for (int i = 0; i < 10; i++) {
+            table['0' + i] = (byte) i;
+        }
+        for (int i = 0; i < 6; i++) {
+            table['A' + i] = (byte) (10 + i);
+            table['a' + i] = (byte) (10 + i);
+        }
+        return table;
+    }
+
+    /**
+     * 获取编码后的长度
+     */
+    public static int encodedLength(int length) {
+        if (length < 0 || length > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("Illegal length: " + length);
+        }
+        return length * 2;
+    }
+
+    /**
+     * 获取解码后的长度
+     *
+     * @throws IllegalArgumentException 长度为奇数
+     */
+    public static int decodedLength(int length) {
+        if (length < 0 || (length & 1) != 0) {
+            throw new IllegalArgumentException("Illegal hex length: " + length);
+        }
+        return length / 2;
+    }
+
+    /**
+     * 编码，返回字符串
+     *
+     * @param lowerCase 是否使用小写字母
+     */
+    public static String encodeToString(byte[] src, boolean lowerCase) {
+        return encodeToString(src, 0, src.length, lowerCase);
+    }
+
+    /**
+     * 编码数组中的一段，返回字符串
+     *
+     * @param lowerCase 是否使用小写字母
+     */
+    public static String encodeToString(byte[] src, int offset, int length, boolean lowerCase) {
+        char[] dst = new char[encodedLength(length)];
+        encode(src, offset, length, dst, 0, lowerCase);
+        return new String(dst);
+    }
+
+    /**
+     * 编码并写入调用方提供的字符数组
+     *
+     * @param dst       输出数组(剩余空间不小于length * 2)
+     * @param dstOffset 输出起始位置
+     * @param lowerCase 是否使用小写字母
+     * @return 写入的字符数
+     */
+    public static int encode(byte[] src, int offset, int length, char[] dst, int dstOffset, boolean lowerCase) {
+        char[] table = lowerCase ? ENCODE_LOWER : ENCODE_UPPER;
+        for (int i = 0, op = dstOffset; i < length; i++, op += 2) {
+            int index = (src[offset + i] & 0xFF) << 1;
+            dst[op] = table[index];
+            dst[op + 1] = table[index + 1];
+        }
+        return length * 2;
+    }
+
+    /**
+     * 编码并写入调用方提供的数组(ASCII字符)
+     *
+     * @see #encode(byte[], int, int, char[], int, boolean)
+     */
+    public static int encode(byte[] src, int offset, int length, byte[] dst, int dstOffset, boolean lowerCase) {
+        char[] table = lowerCase ? ENCODE_LOWER : ENCODE_UPPER;
+        for (int i = 0, op = dstOffset; i < length; i++, op += 2) {
+            int index = (src[offset + i] & 0xFF) << 1;
+            dst[op] = (byte) table[index];
+            dst[op + 1] = (byte) table[index + 1];
+        }
+        return length * 2;
+    }
+
+    /**
+     * 编码src中剩余的数据并写入dst(ASCII字符，两者的position都会前移)
+     *
+     * @throws BufferOverflowException dst的剩余空间不足
+     */
+    public static int encode(ByteBuffer src, ByteBuffer dst, boolean lowerCase) {
+        int length = src.remaining();
+        int size = encodedLength(length);
+        if (dst.remaining() < size) {
+            throw new BufferOverflowException();
+        }
+        if (src.hasArray() && dst.hasArray()) {
+            encode(src.array(), src.arrayOffset() + src.position(), length,
+                    dst.array(), dst.arrayOffset() + dst.position(), lowerCase);
+            src.position(src.limit());
+            dst.position(dst.position() + size);
+            return size;
+        }
+        char[] table = lowerCase ? ENCODE_LOWER : ENCODE_UPPER;
+        while (src.hasRemaining()) {
+            int index = (src.get() & 0xFF) << 1;
+            dst.put((byte) table[index]);
+            dst.put((byte) table[index + 1]);
+        }
+        return size;
+    }
+
+    /**
+     * 编码并追加到builder中
+     *
+     * @param lowerCase 是否使用小写字母
+     * @return builder
+     */
+    public static StringBuilder appendTo(StringBuilder builder, byte[] src, int offset, int length, boolean lowerCase) {
+        char[] table = lowerCase ? ENCODE_LOWER : ENCODE_UPPER;
+        builder.ensureCapacity(builder.length() + encodedLength(length));
+        for (int i = offset, end = offset + length; i < end; i++) {
+            int index = (src[i] & 0xFF) << 1;
+            builder.append(table[index]).append(table[index + 1]);
+        }
+        return builder;
+    }
+
+    /**
+     * 解码，返回新的数组
+     *
+     * @throws IllegalArgumentException 不是正确的十六进制字符串
+     */
+    public static byte[] decode(CharSequence src) {
+        byte[] dst = new byte[decodedLength(src.length())];
+        decode(src, 0, src.length(), dst, 0);
+        return dst;
+    }
+
+    /**
+     * 解码字符序列中的一段并写入调用方提供的数组
+     *
+     * @param dst       输出数组(剩余空间不小于length / 2)
+     * @param dstOffset 输出起始位置
+     * @return 写入的字节数
+     * @throws IllegalArgumentException 不是正确的十六进制字符串
+     */
+    public static int decode(CharSequence src, int offset, int length, byte[] dst, int dstOffset) {
+        int count = decodedLength(length);
+        for (int i = 0, p = offset; i < count; i++, p += 2) {
+            dst[dstOffset + i] = (byte) (digit(src.charAt(p)) << 4 | digit(src.charAt(p + 1)));
+        }
+        return count;
+    }
+
+    /**
+     * 解码字符数组中的一段并写入调用方提供的数组
+     *
+     * @see #decode(CharSequence, int, int, byte[], int)
+     */
+    public static int decode(char[] src, int offset, int length, byte[] dst, int dstOffset) {
+        int count = decodedLength(length);
+        for (int i = 0, p = offset; i < count; i++, p += 2) {
+            dst[dstOffset + i] = (byte) (digit(src[p]) << 4 | digit(src[p + 1]));
+        }
+        return count;
+    }
+
+    /**
+     * 解码ASCII字符数组中的一段并写入调用方提供的数组
+     *
+     * @see #decode(CharSequence, int, int, byte[], int)
+     */
+    public static int decode(byte[] src, int offset, int length, byte[] dst, int dstOffset) {
+        int count = decodedLength(length);
+        for (int i = 0, p = offset; i < count; i++, p += 2) {
+            dst[dstOffset + i] = (byte) (digit((char) (src[p] & 0xFF)) << 4 | digit((char) (src[p + 1] & 0xFF)));
+        }
+        return count;
+    }
+
+    private static int digit(char c) {
+        int value = c < 0x80 ? DECODE[c] : -1;
+        if (value < 0) {
+            throw new IllegalArgumentException("Illegal hex character: " + c);
+        }
+        return value;
+    }
+
+}
@@ -0,0 +1,213 @@
+package com.henley.android.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 按行惰性读取文本的迭代器(适用于逐行扫描大文件)
+ * <p>行的拆分规则与{@link java.io.BufferedReader#readLine()}一致("\n"、"\r"或"\r\n")</p>
+ * <p>所有行共用同一个缓冲区，{@link #next()}返回的{@link CharSequence}只在下一次调用{@link #hasNext()}或{@link #next()}之前有效，
+ * 如需保留请调用{@link CharSequence#toString()}</p>
+ * <p>迭代器只能遍历一次({@link #iterator()}只能调用一次)，使用完毕后需要调用{@link #close()}(字符缓冲区从{@link BufferPool}中获取，关闭时归还)</p>
+ * <p>文件、assets、raw资源及{@link android.net.Uri}的入口见{@link FileUtils#lineIterator(java.io.File, String)}、
+ * {@link FileUtils#readLines(java.io.File, String, LineVisitor)}、{@link ResourceUtils#lineIteratorFromAssets(android.content.Context, String, String)}等</p>
+ *
+ * @author Henley
+ * @since 2026/10/18 10:12
+ */
+public final class LineIterator implements Iterator<CharSequence>, Iterable<CharSequence>, Closeable {
+
+    private final Reader reader;
+    private char[] buffer;
+    private final StringBuilder line;
+    private int position;
+    private int limit;
+    private int lineNumber;
+    private boolean skipLF;
+    private boolean hasNextLine;
+    private boolean finished;
+    private boolean iterated;
+
+    public static LineIterator create(InputStream stream, String charsetName) {
+        return create(stream, Charset.forName(charsetName));
+    }
+
+    public static LineIterator create(InputStream stream, Charset charset) {
+        return new LineIterator(new InputStreamReader(stream, charset));
+    }
+
+    public static LineIterator create(Reader reader) {
+        return new LineIterator(reader);
+    }
+
+    private LineIterator(Reader reader) {
+        this.reader = reader;
+        this.buffer = BufferPool.acquireChars();
+        this.line = new StringBuilder(128);
+    }
+
+    /**
+     * 返回迭代器本身，用于for-each循环(只能调用一次，因为内容只能读取一次)
+     * <p>每次返回的{@link CharSequence}都是同一个可变对象，只在下一次迭代之前有效，如需保留请调用{@link CharSequence#toString()}</p>
+     *
+     * @throws IllegalStateException 再次调用时
+     */
+    @Override
+    public Iterator<CharSequence> iterator() {
+        if (iterated) {
+            throw new IllegalStateException("LineIterator can only be iterated once");
+        }
+        iterated = true;
+        return this;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (hasNextLine) {
+            return true;
+        }
+        if (finished) {
+            return false;
+        }
+        try {
+            hasNextLine = fillLine();
+        } catch (IOException e) {
+            close();
+            throw new RuntimeException("IOException occurred. ", e);
+        }
+        if (!hasNextLine) {
+            close();
+        }
+        return hasNextLine;
+    }
+
+    /**
+     * 返回下一行(不包含换行符，只在下一次调用{@link #hasNext()}或{@link #next()}之前有效)
+     */
+    @Override
+    public CharSequence next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more lines");
+        }
+        hasNextLine = false;
+        lineNumber++;
+        return line;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Remove unsupported on LineIterator");
+    }
+
+    /**
+     * 获取{@link #next()}最近返回的行的行号(从1开始)
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * 逐行访问剩余的内容，访问结束或{@link LineVisitor#onLine}返回false时关闭迭代器
+     *
+     * @return 访问的行数
+     */
+    public int visit(LineVisitor visitor) {
+        int count = 0;
+        try {
+            while (hasNext()) {
+                count++;
+                if (!visitor.onLine(next(), lineNumber)) {
+                    break;
+                }
+            }
+        } finally {
+            close();
+        }
+        return count;
+    }
+
+    /**
+     * 读取下一行(与{@link java.io.BufferedReader#readLine()}用法相同，不能与{@link #next()}混用)
+     *
+     * @return 下一行(不包含换行符，只在下一次读取之前有效)，如果已经没有可读的行则返回null
+     */
+    public CharSequence readLine() throws IOException {
+        if (finished || !fillLine()) {
+            return null;
+        }
+        lineNumber++;
+        return line;
+    }
+
+    @Override
+    public void close() {
+        finished = true;
+        hasNextLine = false;
+        CloseUtils.closeIOQuietly(reader);
+        if (buffer != null) {
+            BufferPool.release(buffer);
+            buffer = null;
+        }
+    }
+
+    /**
+     * 读取下一行到{@link #line}中
+     *
+     * @return 如果已经没有可读的行则返回false
+     */
+    private boolean fillLine() throws IOException {
+        line.setLength(0);
+        boolean started = false;
+        while (true) {
+            if (position >= limit) {
+                int length = reader.read(buffer, 0, buffer.length);
+                if (length < 0) {
+                    return started;
+                }
+                position = 0;
+                limit = length;
+                continue;
+            }
+            if (skipLF) {
+                skipLF = false;
+                if (buffer[position] == '\n') {
+                    position++;
+                    continue;
+                }
+            }
+            started = true;
+            int start = position;
+            while (position < limit) {
+                char c = buffer[position];
+                if (c == '\n' || c == '\r') {
+                    line.append(buffer, start, position - start);
+                    position++;
+                    skipLF = c == '\r';
+                    return true;
+                }
+                position++;
+            }
+            line.append(buffer, start, limit - start);
+        }
+    }
+
+    /**
+     * 逐行访问文本的回调
+     */
+    public interface LineVisitor {
+
+        /**
+         * @param line       当前行(不包含换行符，只在本次回调中有效)
+         * @param lineNumber 行号(从1开始)
+         * @return 返回true继续读取下一行，返回false提前结束
+         */
+        boolean onLine(CharSequence line, int lineNumber);
+    }
+
+}
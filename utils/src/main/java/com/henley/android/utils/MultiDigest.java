@@ -0,0 +1,307 @@
+package com.henley.android.utils;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.security.MessageDigest;
+
+/**
+ * 同时计算多个消息摘要的辅助类(在读写数据的同时计算摘要，避免为了校验再读一遍文件)
+ * <p>通过{@link #wrap(InputStream)}、{@link #wrap(OutputStream)}、{@link #wrapReadable(ReadableByteChannel)}、{@link #wrapWritable(WritableByteChannel)}
+ * 包装流或通道后，经过的数据会同时更新所有摘要，例如：</p>
+ * <pre>
+ * MultiDigest digest = MultiDigest.create("MD5", "SHA-256");
+ * FileUtils.writeFile(file, digest.wrap(inputStream));
+ * String md5 = digest.getDigestHex("MD5");
+ * </pre>
+ * <p>实例不是线程安全的</p>
+ *
+ * @author Henley
+ * @since 2026/10/18 17:48
+ * @see FileUtils#copyFileWithDigest(java.io.File, java.io.File, String...)
+ */
+public final class MultiDigest {
+
+    private final String[] algorithms;
+    private final MessageDigest[] digests;
+    private final byte[][] results;
+    private final byte[] singleByte = new byte[1];
+    private long length;
+
+    /**
+     * @param algorithms 摘要算法名(如"MD5"、"SHA-256")
+     */
+    public static MultiDigest create(String... algorithms) {
+        if (algorithms == null || algorithms.length == 0) {
+            throw new IllegalArgumentException("algorithms is empty");
+        }
+        return new MultiDigest(algorithms.clone());
+    }
+
+    private MultiDigest(String[] algorithms) {
+        this.algorithms = algorithms;
+        this.digests = new MessageDigest[algorithms.length];
+        this.results = new byte[algorithms.length][];
+        for (int i = 0; i < algorithms.length; i++) {
+            digests[i] = DigestUtils.newDigest(algorithms[i]);
+        }
+    }
+
+    public MultiDigest update(byte[] data, int offset, int length) {
+        checkNotFinished();
+        for (MessageDigest digest : digests) {
+            digest.update(data, offset, length);
+        }
+        this.length += length;
+        return this;
+    }
+
+    /**
+     * 使用缓冲区中剩余的数据更新摘要(不改变缓冲区的position)
+     */
+    public MultiDigest update(ByteBuffer data) {
+        checkNotFinished();
+        int position = data.position();
+        for (MessageDigest digest : digests) {
+            data.position(position);
+            digest.update(data);
+        }
+        length += data.position() - position;
+        data.position(position);
+        return this;
+    }
+
+    /**
+     * 获取已经处理的字节数
+     */
+    public long getLength() {
+        return length;
+    }
+
+    public String[] getAlgorithms() {
+        return algorithms.clone();
+    }
+
+    /**
+     * 获取摘要结果(第一次调用后不能再更新摘要，除非调用{@link #reset()})
+     *
+     * @param algorithm 摘要算法名(必须是创建时指定的算法之一)
+     */
+    public byte[] getDigest(String algorithm) {
+        int index = indexOf(algorithm);
+        finish();
+        return results[index].clone();
+    }
+
+    /**
+     * 获取摘要结果(大写十六进制字符串)
+     *
+     * @param algorithm 摘要算法名(必须是创建时指定的算法之一)
+     */
+    public String getDigestHex(String algorithm) {
+        int index = indexOf(algorithm);
+        finish();
+        return DigestUtils.byte2Hex(results[index]);
+    }
+
+    /**
+     * 判断摘要结果是否与期望值相同
+     */
+    public boolean matches(String algorithm, byte[] expected) {
+        int index = indexOf(algorithm);
+        finish();
+        return MessageDigest.isEqual(results[index], expected);
+    }
+
+    /**
+     * 重置所有摘要
+     */
+    public MultiDigest reset() {
+        for (int i = 0; i < digests.length; i++) {
+            digests[i].reset();
+            results[i] = null;
+        }
+        length = 0;
+        return this;
+    }
+
+    /**
+     * 包装输入流，读取的数据会更新摘要(跳过的数据不会更新摘要)
+     */
+    public InputStream wrap(InputStream input) {
+        return new DigestInputStream(input);
+    }
+
+    /**
+     * 包装输出流，写入的数据会更新摘要
+     */
+    public OutputStream wrap(OutputStream output) {
+        return new DigestOutputStream(output);
+    }
+
+    /**
+     * 包装可读通道，读取的数据会更新摘要(单独命名以避免{@link java.nio.channels.FileChannel}等同时实现两个接口的通道产生歧义)
+     */
+    public ReadableByteChannel wrapReadable(ReadableByteChannel channel) {
+        return new DigestReadableChannel(channel);
+    }
+
+    /**
+     * 包装可写通道，写入的数据会更新摘要
+     */
+    public WritableByteChannel wrapWritable(WritableByteChannel channel) {
+        return new DigestWritableChannel(channel);
+    }
+
+    private int indexOf(String algorithm) {
+        for (int i = 0; i < algorithms.length; i++) {
+            if (algorithms[i].equalsIgnoreCase(algorithm)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Algorithm not in this MultiDigest: " + algorithm);
+    }
+
+    private void finish() {
+        if (results[0] != null) {
+            return;
+        }
+        for (int i = 0; i < digests.length; i++) {
+            results[i] = digests[i].digest();
+        }
+    }
+
+    private void checkNotFinished() {
+        if (results[0] != null) {
+            throw new IllegalStateException("Digest already computed, call reset() first");
+        }
+    }
+
+    /**
+     * 使用刚刚经过通道的数据更新摘要
+     *
+     * @param buffer 读写后的缓冲区
+     * @param start  读写前缓冲区的position
+     */
+    private void updateProcessed(ByteBuffer buffer, int start) {
+        int end = buffer.position();
+        if (end <= start) {
+            return;
+        }
+        ByteBuffer processed = buffer.duplicate();
+        processed.position(start);
+        processed.limit(end);
+        update(processed);
+    }
+
+    private final class DigestInputStream extends FilterInputStream {
+
+        private DigestInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b != -1) {
+                singleByte[0] = (byte) b;
+                update(singleByte, 0, 1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int count = in.read(b, off, len);
+            if (count > 0) {
+                update(b, off, count);
+            }
+            return count;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+
+    private final class DigestOutputStream extends FilterOutputStream {
+
+        private DigestOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            singleByte[0] = (byte) b;
+            update(singleByte, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            update(b, off, len);
+        }
+    }
+
+    private final class DigestReadableChannel implements ReadableByteChannel {
+
+        private final ReadableByteChannel channel;
+
+        private DigestReadableChannel(ReadableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            int start = dst.position();
+            int count = channel.read(dst);
+            updateProcessed(dst, start);
+            return count;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    private final class DigestWritableChannel implements WritableByteChannel {
+
+        private final WritableByteChannel channel;
+
+        private DigestWritableChannel(WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            int start = src.position();
+            int count = channel.write(src);
+            updateProcessed(src, start);
+            return count;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+}
@@ -0,0 +1,357 @@
+package com.henley.android.utils;
+
+/**
+ * 不抛出异常的数字解析(一次遍历完成校验和转换，格式错误或溢出时返回默认值，不创建异常对象)
+ * <p>接受的格式与{@link Integer#parseInt(String)}、{@link Long#parseLong(String)}、{@link Float#parseFloat(String)}、
+ * {@link Double#parseDouble(String)}相同：</p>
+ * <ul>
+ * <li>整数：可选的'+'/'-'后跟十进制数字，不允许空白字符；包含非ASCII数字(如全角数字)时交给JDK解析</li>
+ * <li>浮点数：忽略首尾的空白字符，可选的符号、小数点、指数及类型后缀('f'/'F'/'d'/'D')；有效数字较少且指数较小时直接精确计算，
+ * 其他合法的格式(有效数字较多、"NaN"、"Infinity"、十六进制)交给JDK解析，结果与JDK完全相同</li>
+ * </ul>
+ *
+ * @author Henley
+ * @since 2026/10/18 21:40
+ * @see NumberUtils#parseInt(String, int)
+ */
+public final class NumberParser {
+
+    /**
+     * 可以精确表示的10的整数次幂(double)
+     */
+    private static final double[] DOUBLE_POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    /**
+     * 可以精确表示的10的整数次幂(float)
+     */
+    private static final float[] FLOAT_POWERS_OF_TEN = {
+            1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+    };
+    /**
+     * double可以精确表示的最大整数(2^53)
+     */
+    private static final long MAX_EXACT_DOUBLE_MANTISSA = 1L << 53;
+    /**
+     * float可以精确表示的最大整数(2^24)
+     */
+    private static final long MAX_EXACT_FLOAT_MANTISSA = 1L << 24;
+
+    private NumberParser() {
+        throw new UnsupportedOperationException("Instantiation operation is not supported.");
+    }
+
+    public static int parseInt(CharSequence s, int defaultValue) {
+        return s == null ? defaultValue : parseInt(s, 0, s.length(), defaultValue);
+    }
+
+    /**
+     * 解析int(格式错误或溢出时返回defaultValue)
+     *
+     * @param offset 起始位置
+     * @param length 长度
+     */
+    public static int parseInt(CharSequence s, int offset, int length, int defaultValue) {
+        if (s == null || length <= 0) {
+            return defaultValue;
+        }
+        char first = s.charAt(offset);
+        boolean negative = first == '-';
+        int i = offset;
+        if (negative || first == '+') {
+            if (length == 1) {
+                return defaultValue;
+            }
+            i++;
+        }
+        // 用负数累加，Integer.MIN_VALUE不会溢出
+        int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        int multiplyLimit = limit / 10;
+        int result = 0;
+        for (int end = offset + length; i < end; i++) {
+            char c = s.charAt(i);
+            int digit = c - '0';
+            if (digit < 0 || digit > 9) {
+                return c >= 0x80 ? fallbackParseInt(s, offset, length, defaultValue) : defaultValue;
+            }
+            if (result < multiplyLimit) {
+                return defaultValue;
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return defaultValue;
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    public static long parseLong(CharSequence s, long defaultValue) {
+        return s == null ? defaultValue : parseLong(s, 0, s.length(), defaultValue);
+    }
+
+    /**
+     * 解析long(格式错误或溢出时返回defaultValue)
+     *
+     * @param offset 起始位置
+     * @param length 长度
+     */
+    public static long parseLong(CharSequence s, int offset, int length, long defaultValue) {
+        if (s == null || length <= 0) {
+            return defaultValue;
+        }
+        char first = s.charAt(offset);
+        boolean negative = first == '-';
+        int i = offset;
+        if (negative || first == '+') {
+            if (length == 1) {
+                return defaultValue;
+            }
+            i++;
+        }
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplyLimit = limit / 10;
+        long result = 0;
+        for (int end = offset + length; i < end; i++) {
+            char c = s.charAt(i);
+            int digit = c - '0';
+            if (digit < 0 || digit > 9) {
+                return c >= 0x80 ? fallbackParseLong(s, offset, length, defaultValue) : defaultValue;
+            }
+            if (result < multiplyLimit) {
+                return defaultValue;
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return defaultValue;
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * 包含非ASCII字符时(可能是其他语言的数字)交给JDK解析
+     */
+    private static int fallbackParseInt(CharSequence s, int offset, int length, int defaultValue) {
+        try {
+            return Integer.parseInt(s.subSequence(offset, offset + length).toString());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static long fallbackParseLong(CharSequence s, int offset, int length, long defaultValue) {
+        try {
+            return Long.parseLong(s.subSequence(offset, offset + length).toString());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public static float parseFloat(CharSequence s, float defaultValue) {
+        return s == null ? defaultValue : parseFloat(s, 0, s.length(), defaultValue);
+    }
+
+    /**
+     * 解析float(格式错误时返回defaultValue)
+     *
+     * @param offset 起始位置
+     * @param length 长度
+     */
+    public static float parseFloat(CharSequence s, int offset, int length, float defaultValue) {
+        long decimal = scan(s, offset, length);
+        if (decimal == SCAN_INVALID) {
+            return defaultValue;
+        }
+        if (decimal != SCAN_FALLBACK) {
+            long mantissa = decimal >>> MANTISSA_SHIFT;
+            int exponent = exponentOf(decimal);
+            if (mantissa <= MAX_EXACT_FLOAT_MANTISSA && Math.abs(exponent) < FLOAT_POWERS_OF_TEN.length) {
+                float value = mantissa;
+                value = exponent < 0 ? value / FLOAT_POWERS_OF_TEN[-exponent] : value * FLOAT_POWERS_OF_TEN[exponent];
+                return (decimal & NEGATIVE) != 0 ? -value : value;
+            }
+        }
+        try {
+            return Float.parseFloat(s.subSequence(offset, offset + length).toString());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public static double parseDouble(CharSequence s, double defaultValue) {
+        return s == null ? defaultValue : parseDouble(s, 0, s.length(), defaultValue);
+    }
+
+    /**
+     * 解析double(格式错误时返回defaultValue)
+     *
+     * @param offset 起始位置
+     * @param length 长度
+     */
+    public static double parseDouble(CharSequence s, int offset, int length, double defaultValue) {
+        long decimal = scan(s, offset, length);
+        if (decimal == SCAN_INVALID) {
+            return defaultValue;
+        }
+        if (decimal != SCAN_FALLBACK) {
+            // Clinger快速路径：尾数和10的幂都可以精确表示，一次乘除法的结果就是正确舍入的
+            double value = decimal >>> MANTISSA_SHIFT;
+            int exponent = exponentOf(decimal);
+            value = exponent < 0 ? value / DOUBLE_POWERS_OF_TEN[-exponent] : value * DOUBLE_POWERS_OF_TEN[exponent];
+            return (decimal & NEGATIVE) != 0 ? -value : value;
+        }
+        try {
+            return Double.parseDouble(s.subSequence(offset, offset + length).toString());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * 格式错误
+     */
+    private static final long SCAN_INVALID = -1L;
+    /**
+     * 格式合法但不能快速计算(有效数字太多、指数太大、"NaN"、"Infinity"、十六进制)，需要交给JDK解析
+     */
+    private static final long SCAN_FALLBACK = -2L;
+    /**
+     * {@link #scan}的结果：尾数(不超过2^53)左移8位，指数加64后占用第1~7位，第0位为符号
+     */
+    private static final int MANTISSA_SHIFT = 8;
+    private static final int EXPONENT_BIAS = 64;
+    private static final long NEGATIVE = 1L;
+
+    private static int exponentOf(long decimal) {
+        return (int) ((decimal >>> 1) & 0x7F) - EXPONENT_BIAS;
+    }
+
+    /**
+     * 校验浮点数格式并提取尾数和指数(结果打包在一个long中，不创建对象)
+     *
+     * @return {@link #SCAN_INVALID}、{@link #SCAN_FALLBACK}或可以用double快速计算的十进制数
+     */
+    private static long scan(CharSequence s, int offset, int length) {
+        if (s == null || length <= 0) {
+            return SCAN_INVALID;
+        }
+        int i = offset;
+        int end = offset + length;
+        // 与String.trim()相同，忽略首尾不大于' '的字符
+        while (i < end && s.charAt(i) <= ' ') {
+            i++;
+        }
+        while (end > i && s.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (i == end) {
+            return SCAN_INVALID;
+        }
+        char c = s.charAt(i);
+        boolean negative = false;
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            if (++i == end) {
+                return SCAN_INVALID;
+            }
+            c = s.charAt(i);
+        }
+        if (c == 'N' || c == 'I') {
+            return matches(s, i, end, c == 'N' ? "NaN" : "Infinity") ? SCAN_FALLBACK : SCAN_INVALID;
+        }
+        if (c == '0' && i + 1 < end && (s.charAt(i + 1) == 'x' || s.charAt(i + 1) == 'X')) {
+            return SCAN_FALLBACK;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        int droppedDigits = 0;
+        boolean seenPoint = false;
+        boolean tooManyDigits = false;
+        for (; i < end; i++) {
+            c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (mantissa < MAX_EXACT_DOUBLE_MANTISSA) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (seenPoint) {
+                        fractionDigits++;
+                    }
+                } else {
+                    // 超出精度的数字：非0时需要交给JDK，0只影响指数
+                    tooManyDigits |= c != '0';
+                    if (!seenPoint) {
+                        droppedDigits++;
+                    }
+                }
+            } else if (c == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0) {
+            return SCAN_INVALID;
+        }
+        int exponent = 0;
+        if (i < end && (c == 'e' || c == 'E')) {
+            if (++i == end) {
+                return SCAN_INVALID;
+            }
+            c = s.charAt(i);
+            boolean negativeExponent = c == '-';
+            if (c == '-' || c == '+') {
+                if (++i == end) {
+                    return SCAN_INVALID;
+                }
+            }
+            int exponentDigits = 0;
+            for (; i < end; i++) {
+                c = s.charAt(i);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                exponentDigits++;
+                if (exponent < 100000) {
+                    exponent = exponent * 10 + (c - '0');
+                }
+            }
+            if (exponentDigits == 0) {
+                return SCAN_INVALID;
+            }
+            if (negativeExponent) {
+                exponent = -exponent;
+            }
+        }
+        if (i < end && (c == 'f' || c == 'F' || c == 'd' || c == 'D')) {
+            i++;
+        }
+        if (i != end) {
+            return SCAN_INVALID;
+        }
+        if (mantissa == 0) {
+            return (long) EXPONENT_BIAS << 1 | (negative ? NEGATIVE : 0L);
+        }
+        exponent += droppedDigits - fractionDigits;
+        if (tooManyDigits || mantissa > MAX_EXACT_DOUBLE_MANTISSA || Math.abs(exponent) >= DOUBLE_POWERS_OF_TEN.length) {
+            return SCAN_FALLBACK;
+        }
+        return mantissa << MANTISSA_SHIFT | (long) (exponent + EXPONENT_BIAS) << 1 | (negative ? NEGATIVE : 0L);
+    }
+
+    private static boolean matches(CharSequence s, int start, int end, String expected) {
+        if (end - start != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            if (s.charAt(start + i) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -7,8 +7,6 @@ import java.math.RoundingMode;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * 数值辅助类
@@ -30,16 +28,12 @@ public final class NumberUtils {
     }
 
     /**
-     * 将字符串转换为Integer类型的数字
+     * 将字符串转换为Integer类型的数字(格式错误或溢出时返回defaultValue，不抛出异常)
+     *
+     * @see NumberParser#parseInt(CharSequence, int, int, int)
      */
     public static int parseInt(String number, int defaultValue) {
-        int value;
-        try {
-            value = Integer.parseInt(number);
-        } catch (NumberFormatException | NullPointerException e) {
-            value = defaultValue;
-        }
-        return value;
+        return NumberParser.parseInt(number, defaultValue);
     }
 
     /**
@@ -50,16 +44,12 @@ public final class NumberUtils {
     }
 
     /**
-     * 将字符串转换为Long类型的数字
+     * 将字符串转换为Long类型的数字(格式错误或溢出时返回defaultValue，不抛出异常)
+     *
+     * @see NumberParser#parseLong(CharSequence, int, int, long)
      */
     public static long parseLong(String number, long defaultValue) {
-        long value;
-        try {
-            value = Long.parseLong(number);
-        } catch (NumberFormatException | NullPointerException e) {
-            value = defaultValue;
-        }
-        return value;
+        return NumberParser.parseLong(number, defaultValue);
     }
 
     /**
@@ -70,16 +60,12 @@ public final class NumberUtils {
     }
 
     /**
-     * 将字符串转换为Float类型的数字
+     * 将字符串转换为Float类型的数字(格式错误时返回defaultValue，不抛出异常)
+     *
+     * @see NumberParser#parseFloat(CharSequence, int, int, float)
      */
     public static float parseFloat(String number, float defaultValue) {
-        float value;
-        try {
-            value = Float.parseFloat(number);
-        } catch (NumberFormatException | NullPointerException e) {
-            value = defaultValue;
-        }
-        return value;
+        return NumberParser.parseFloat(number, defaultValue);
     }
 
     /**
@@ -90,43 +76,45 @@ public final class NumberUtils {
     }
 
     /**
-     * 将字符串转换为Double类型的数字
+     * 将字符串转换为Double类型的数字(格式错误时返回defaultValue，不抛出异常)
+     *
+     * @see NumberParser#parseDouble(CharSequence, int, int, double)
      */
     public static double parseDouble(String number, double defaultValue) {
-        double value;
-        try {
-            value = Double.parseDouble(number);
-        } catch (NumberFormatException | NullPointerException e) {
-            value = defaultValue;
-        }
-        return value;
+        return NumberParser.parseDouble(number, defaultValue);
     }
 
     /**
-     * 截取字符串中的数字
+     * 截取字符串中的第一段数字
+     * <p>只匹配ASCII的'0'~'9'；Android的正则表达式(ICU)中"\d"还匹配其他语言的数字(如"٣"、"３")，原来基于正则表达式的实现在Android上会返回这些数字</p>
+     *
+     * @see DigitScanner
      */
     public static String getNumberFromString(String content) {
-        Pattern pattern = Pattern.compile("\\d+");
-        Matcher matcher = pattern.matcher(content);
-        if (matcher.find()) {
-            return matcher.group(0);
+        int start = DigitScanner.indexOfDigits(content, 0);
+        if (start >= 0) {
+            return content.substring(start, DigitScanner.endOfDigits(content, start));
         }
         return "";
     }
 
     /**
      * 返回字符串中的数字段
+     * <p>与{@link #getNumberFromString(String)}相同，只匹配ASCII的'0'~'9'，不匹配其他语言的数字</p>
+     * <p>只需要数值或位置时可以使用{@link DigitScanner}，不创建字符串</p>
      */
     public static List<String> getNumberList(String content) {
         if (TextUtils.isEmpty(content)) {
             return null;
         }
-        Pattern compile = Pattern.compile("\\d+");
-        Matcher matcher = compile.matcher(content);
-        List<String> list = new ArrayList<>();
-        while (matcher.find()) {
-            list.add(matcher.group());
-        }
+        final List<String> list = new ArrayList<>();
+        DigitScanner.scan(content, new DigitScanner.Visitor() {
+            @Override
+            public boolean onDigits(CharSequence text, int start, int end) {
+                list.add(text.subSequence(start, end).toString());
+                return true;
+            }
+        });
         return list;
     }
 
@@ -149,13 +137,7 @@ public final class NumberUtils {
 
     public static String formateDecimalFromString(String value, String format) {
         if (TextUtils.isEmpty(value) || "0".equals(value)) return "0";
-        double number = 0;
-        try {
-            number = Double.parseDouble(value);
-        } catch (NumberFormatException e) {
-            e.printStackTrace();
-        }
-        return formatDecimal(number, format);
+        return formatDecimal(NumberParser.parseDouble(value, 0), format);
     }
 
 
@@ -190,17 +172,21 @@ public final class NumberUtils {
     }
 
     /**
-     * 格式化数字
+     * 格式化数字(每个线程缓存{@link DecimalFormat}，常用的简单格式不经过{@link DecimalFormat})
+     *
+     * @see DecimalFormatter
      */
     public static String formatDecimal(long number, String pattern) {
-        return new DecimalFormat(pattern).format(number);
+        return DecimalFormatter.format(number, pattern);
     }
 
     /**
-     * 格式化数字
+     * 格式化数字(每个线程缓存{@link DecimalFormat}，常用的简单格式不经过{@link DecimalFormat})
+     *
+     * @see DecimalFormatter
      */
     public static String formatDecimal(double number, String pattern) {
-        return new DecimalFormat(pattern).format(number);
+        return DecimalFormatter.format(number, pattern);
     }
 
     /**
@@ -215,10 +201,10 @@ public final class NumberUtils {
      * <br/>{@link RoundingMode#HALF_UP} 最近数字舍入(5进)
      * <br/>{@link RoundingMode#HALF_DOWN} 最近数字舍入(5舍)
      * <br/>{@link RoundingMode#HALF_EVEN} 银行家舍入法
+     * <p>结果与{@link BigDecimal#setScale(int, RoundingMode)}相同，但不创建{@link BigDecimal}(批量舍入可以使用{@link DecimalRounder})</p>
      */
     public static double roundingNumber(float number, int scale, RoundingMode roundingMode) {
-        BigDecimal decimal = new BigDecimal(number);
-        return decimal.setScale(scale, roundingMode).doubleValue();
+        return DecimalRounder.round(number, scale, roundingMode);
     }
 
 }
@@ -0,0 +1,108 @@
+package com.henley.android.utils;
+
+import android.os.Build;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import androidx.annotation.RequiresApi;
+
+/**
+ * 并行计算使用的线程池及并行度策略({@link FileWalker}、{@link TreeDigest}、{@link DirectoryFingerprint}共用)
+ * <p>并行度限制在1~{@value #MAX_PARALLELISM}之间，默认为CPU核心数。使用默认并行度的实例共用同一个{@link ForkJoinPool}(首次使用时创建)，
+ * 避免每个实例各自创建线程；指定了其他并行度的实例使用单独的线程池</p>
+ * <p>共用的线程池不能被关闭，通过{@link #shutdown(ExecutorService)}关闭时会被忽略</p>
+ *
+ * @author Henley
+ * @since 2026/10/18 20:40
+ */
+final class ParallelPool {
+
+    /**
+     * 最大并行度
+     */
+    static final int MAX_PARALLELISM = 8;
+
+    private ParallelPool() {
+        throw new UnsupportedOperationException("Instantiation operation is not supported.");
+    }
+
+    /**
+     * 将并行度限制在1~{@value #MAX_PARALLELISM}之间
+     */
+    static int clamp(int parallelism) {
+        return Math.max(1, Math.min(parallelism, MAX_PARALLELISM));
+    }
+
+    /**
+     * 获取默认并行度(CPU核心数，最大为{@value #MAX_PARALLELISM})
+     */
+    static int defaultParallelism() {
+        return clamp(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * 获取指定并行度的{@link ForkJoinPool}(并行度为默认值时返回共用的线程池，否则创建新的线程池)
+     */
+    @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+    static ForkJoinPool forkJoinPool(int parallelism) {
+        parallelism = clamp(parallelism);
+        if (parallelism == SharedPoolHolder.POOL.getParallelism()) {
+            return SharedPoolHolder.POOL;
+        }
+        return new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * 获取指定并行度的线程池(API 21及以上与{@link #forkJoinPool(int)}相同，以下版本创建空闲时自动结束线程的固定大小线程池)
+     *
+     * @param name 线程名(仅用于API 21以下新建的线程)
+     */
+    static ExecutorService executor(int parallelism, final String name) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            return forkJoinPool(parallelism);
+        }
+        parallelism = clamp(parallelism);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 判断是否为共用的线程池
+     */
+    static boolean isShared(ExecutorService executor) {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP && executor == SharedPoolHolder.POOL;
+    }
+
+    /**
+     * 关闭线程池(共用的线程池不会被关闭)
+     */
+    static void shutdown(ExecutorService executor) {
+        if (!isShared(executor)) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * 共用的线程池(工作线程为守护线程，空闲时自动结束)
+     */
+    @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+    private static final class SharedPoolHolder {
+
+        private static final ForkJoinPool POOL = new ForkJoinPool(defaultParallelism());
+    }
+
+}
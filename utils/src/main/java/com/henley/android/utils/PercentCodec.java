@@ -0,0 +1,340 @@
+package com.henley.android.utils;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+/**
+ * 百分号编码/解码(UTF-8)
+ * <p>按URL的不同部分使用不同的安全字符集合(查表判断)，结果直接追加到{@link StringBuilder}或{@link Appendable}中；
+ * 不需要转义时直接返回原字符串，不分配内存</p>
+ * <ul>
+ * <li>{@link #FORM}：与{@link java.net.URLEncoder}/{@link java.net.URLDecoder}(UTF-8)的结果相同，空格编码为'+'</li>
+ * <li>{@link #PATH_SEGMENT}：路径中的一段(转义'/')</li>
+ * <li>{@link #PATH}：路径(保留'/')</li>
+ * <li>{@link #QUERY}：完整的查询字符串(保留'&amp;'、'='等分隔符)</li>
+ * <li>{@link #QUERY_PARAM}：查询参数的名称或值(转义'&amp;'、'='、'+')</li>
+ * <li>{@link #FRAGMENT}：片段</li>
+ * </ul>
+ * <p>除{@link #FORM}外空格编码为"%20"，解码时'+'保持不变</p>
+ * <p>{@link #decode(String)}在'%'后不是两个十六进制字符时抛出异常(与{@link java.net.URLDecoder}相同)；
+ * 解码不可信的输入时可以使用{@link #decodeLenient(String)}，格式错误的'%'按原样保留。
+ * 两者在转义的字节不是正确的UTF-8时都替换为U+FFFD</p>
+ *
+ * @author Henley
+ * @since 2026/10/18 20:30
+ * @see EncodeUtils#urlEncode(String)
+ * @see UrlUtils#encode(String)
+ */
+public final class PercentCodec {
+
+    private static final String UNRESERVED = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789-._~";
+    private static final String SUB_DELIMS = "!$&'()*+,;=";
+    private static final String PCHAR = UNRESERVED + SUB_DELIMS + ":@";
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * 表单编码(application/x-www-form-urlencoded)
+     */
+    public static final PercentCodec FORM = new PercentCodec(
+            "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789.-*_", true);
+    /**
+     * 路径中的一段
+     */
+    public static final PercentCodec PATH_SEGMENT = new PercentCodec(PCHAR, false);
+    /**
+     * 路径
+     */
+    public static final PercentCodec PATH = new PercentCodec(PCHAR + "/", false);
+    /**
+     * 查询字符串
+     */
+    public static final PercentCodec QUERY = new PercentCodec(PCHAR + "/?", false);
+    /**
+     * 查询参数的名称或值
+     */
+    public static final PercentCodec QUERY_PARAM = new PercentCodec(UNRESERVED + "!$'()*,;:@/?", false);
+    /**
+     * 片段
+     */
+    public static final PercentCodec FRAGMENT = new PercentCodec(PCHAR + "/?", false);
+
+    /**
+     * 不需要转义的ASCII字符
+     */
+    private final boolean[] safe = new boolean[128];
+    /**
+     * 空格是否编码为'+'(解码时'+'转换为空格)
+     */
+    private final boolean spaceAsPlus;
+
+    private PercentCodec(String safeChars, boolean spaceAsPlus) {
+        for (int i = 0; i < safeChars.length(); i++) {
+            safe[safeChars.charAt(i)] = true;
+        }
+        this.spaceAsPlus = spaceAsPlus;
+    }
+
+    /**
+     * 编码
+     *
+     * @return 不需要转义时返回input本身
+     */
+    public String encode(String input) {
+        int start = indexOfUnsafe(input);
+        if (start < 0) {
+            return input;
+        }
+        StringBuilder builder = new StringBuilder(input.length() + 16);
+        builder.append(input, 0, start);
+        encodeFrom(input, start, builder);
+        return builder.toString();
+    }
+
+    /**
+     * 编码并追加到builder中
+     *
+     * @return builder
+     */
+    public StringBuilder encode(CharSequence input, StringBuilder builder) {
+        int start = indexOfUnsafe(input);
+        if (start < 0) {
+            return builder.append(input);
+        }
+        builder.append(input, 0, start);
+        encodeFrom(input, start, builder);
+        return builder;
+    }
+
+    /**
+     * 编码并追加到appendable中
+     *
+     * @return appendable
+     */
+    public Appendable encode(CharSequence input, Appendable appendable) throws IOException {
+        if (appendable instanceof StringBuilder) {
+            return encode(input, (StringBuilder) appendable);
+        }
+        int start = indexOfUnsafe(input);
+        if (start < 0) {
+            return appendable.append(input);
+        }
+        appendable.append(input, 0, start);
+        encodeFrom(input, start, appendable);
+        return appendable;
+    }
+
+    /**
+     * 解码
+     *
+     * @return 不需要解码时返回input本身
+     * @throws IllegalArgumentException '%'后不是两个十六进制字符
+     */
+    public String decode(String input) {
+        int start = indexOfEscape(input);
+        if (start < 0) {
+            return input;
+        }
+        StringBuilder builder = new StringBuilder(input.length());
+        builder.append(input, 0, start);
+        decodeFrom(input, start, builder, false);
+        return builder.toString();
+    }
+
+    /**
+     * 解码并追加到builder中
+     *
+     * @return builder
+     * @throws IllegalArgumentException '%'后不是两个十六进制字符
+     */
+    public StringBuilder decode(CharSequence input, StringBuilder builder) {
+        int start = indexOfEscape(input);
+        if (start < 0) {
+            return builder.append(input);
+        }
+        builder.append(input, 0, start);
+        decodeFrom(input, start, builder, false);
+        return builder;
+    }
+
+    /**
+     * 宽松解码：'%'后不是两个十六进制字符时按原样保留，不抛出异常(如"100%"解码为"100%")
+     *
+     * @return 不需要解码时返回input本身
+     */
+    public String decodeLenient(String input) {
+        int start = indexOfEscape(input);
+        if (start < 0) {
+            return input;
+        }
+        StringBuilder builder = new StringBuilder(input.length());
+        builder.append(input, 0, start);
+        decodeFrom(input, start, builder, true);
+        return builder.toString();
+    }
+
+    /**
+     * 宽松解码并追加到builder中
+     *
+     * @return builder
+     * @see #decodeLenient(String)
+     */
+    public StringBuilder decodeLenient(CharSequence input, StringBuilder builder) {
+        int start = indexOfEscape(input);
+        if (start < 0) {
+            return builder.append(input);
+        }
+        builder.append(input, 0, start);
+        decodeFrom(input, start, builder, true);
+        return builder;
+    }
+
+    /**
+     * 判断字符是否需要转义
+     */
+    public boolean isSafe(char c) {
+        return c < 0x80 && safe[c];
+    }
+
+    private int indexOfUnsafe(CharSequence input) {
+        for (int i = 0, length = input.length(); i < length; i++) {
+            char c = input.charAt(i);
+            if (c >= 0x80 || !safe[c]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int indexOfEscape(CharSequence input) {
+        for (int i = 0, length = input.length(); i < length; i++) {
+            char c = input.charAt(i);
+            if (c == '%' || (c == '+' && spaceAsPlus)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void encodeFrom(CharSequence input, int start, StringBuilder builder) {
+        try {
+            encodeFrom(input, start, (Appendable) builder);
+        } catch (IOException e) {
+            throw new RuntimeException("IOException occurred. ", e);
+        }
+    }
+
+    private void encodeFrom(CharSequence input, int start, Appendable out) throws IOException {
+        int length = input.length();
+        for (int i = start; i < length; i++) {
+            char c = input.charAt(i);
+            if (c < 0x80) {
+                if (safe[c]) {
+                    out.append(c);
+                } else if (c == ' ' && spaceAsPlus) {
+                    out.append('+');
+                } else {
+                    appendEscaped(out, c);
+                }
+            } else if (c < 0x800) {
+                appendEscaped(out, 0xC0 | (c >> 6));
+                appendEscaped(out, 0x80 | (c & 0x3F));
+            } else if (c < Character.MIN_SURROGATE || c > Character.MAX_SURROGATE) {
+                appendEscaped(out, 0xE0 | (c >> 12));
+                appendEscaped(out, 0x80 | ((c >> 6) & 0x3F));
+                appendEscaped(out, 0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(input.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, input.charAt(++i));
+                appendEscaped(out, 0xF0 | (codePoint >> 18));
+                appendEscaped(out, 0x80 | ((codePoint >> 12) & 0x3F));
+                appendEscaped(out, 0x80 | ((codePoint >> 6) & 0x3F));
+                appendEscaped(out, 0x80 | (codePoint & 0x3F));
+            } else {
+                // 单独的代理字符按UTF-8编码器的处理替换为'?'
+                appendEscaped(out, '?');
+            }
+        }
+    }
+
+    private static void appendEscaped(Appendable out, int b) throws IOException {
+        out.append('%').append(HEX_DIGITS[(b >> 4) & 0x0F]).append(HEX_DIGITS[b & 0x0F]);
+    }
+
+    /**
+     * @param lenient 格式错误的'%'是否按原样保留(否则抛出异常)
+     */
+    private void decodeFrom(CharSequence input, int start, StringBuilder builder, boolean lenient) {
+        int length = input.length();
+        byte[] bytes = null;
+        int i = start;
+        while (i < length) {
+            char c = input.charAt(i);
+            if (c == '+' && spaceAsPlus) {
+                builder.append(' ');
+                i++;
+            } else if (c == '%') {
+                // 连续的转义字节一起按UTF-8解码
+                if (bytes == null) {
+                    bytes = new byte[(length - i) / 3];
+                }
+                int count = 0;
+                while (i < length && input.charAt(i) == '%') {
+                    int value = escapedByte(input, i);
+                    if (value < 0) {
+                        if (!lenient) {
+                            throw illegalEscape(input, i);
+                        }
+                        break;
+                    }
+                    bytes[count++] = (byte) value;
+                    i += 3;
+                }
+                appendUtf8(bytes, count, builder);
+                if (count == 0) {
+                    // 宽松模式下格式错误的'%'
+                    builder.append('%');
+                    i++;
+                }
+            } else {
+                builder.append(c);
+                i++;
+            }
+        }
+    }
+
+    /**
+     * 解码UTF-8字节，纯ASCII时直接追加
+     */
+    private static void appendUtf8(byte[] bytes, int count, StringBuilder builder) {
+        for (int i = 0; i < count; i++) {
+            if (bytes[i] < 0) {
+                builder.append(new String(bytes, i, count - i, UTF_8));
+                return;
+            }
+            builder.append((char) bytes[i]);
+        }
+    }
+
+    /**
+     * 获取index处'%'后两个十六进制字符表示的字节
+     *
+     * @return 格式错误时返回-1
+     */
+    private static int escapedByte(CharSequence input, int index) {
+        if (index + 2 >= input.length()) {
+            return -1;
+        }
+        int high = Character.digit(input.charAt(index + 1), 16);
+        int low = Character.digit(input.charAt(index + 2), 16);
+        return high < 0 || low < 0 ? -1 : high << 4 | low;
+    }
+
+    private static IllegalArgumentException illegalEscape(CharSequence input, int index) {
+        if (index + 2 >= input.length()) {
+            return new IllegalArgumentException("Incomplete trailing escape (%) pattern");
+        }
+        char c = Character.digit(input.charAt(index + 1), 16) < 0 ? input.charAt(index + 1) : input.charAt(index + 2);
+        return new IllegalArgumentException("Illegal hex characters in escape (%) pattern - " + c);
+    }
+
+}
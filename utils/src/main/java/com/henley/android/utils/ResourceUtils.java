@@ -9,7 +9,6 @@ import android.content.res.XmlResourceParser;
 import android.graphics.drawable.Drawable;
 import android.text.TextUtils;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -61,22 +60,7 @@ public final class ResourceUtils {
         if (is == null) {
             return null;
         }
-        StringBuilder builder = new StringBuilder();
-        InputStreamReader in = null;
-        BufferedReader br = null;
-        try {
-            in = new InputStreamReader(is);
-            br = new BufferedReader(in);
-            String line;
-            while ((line = br.readLine()) != null) {
-                builder.append(line);
-            }
-            return builder.toString();
-        } catch (IOException e) {
-            return null;
-        } finally {
-            CloseUtils.closeIOQuietly(br, in, is);
-        }
+        return readText(is);
     }
 
     /**
@@ -87,22 +71,7 @@ public final class ResourceUtils {
         if (is == null) {
             return null;
         }
-        List<String> fileContent = new ArrayList<String>();
-        InputStreamReader in = null;
-        BufferedReader br = null;
-        try {
-            in = new InputStreamReader(is);
-            br = new BufferedReader(in);
-            String line;
-            while ((line = br.readLine()) != null) {
-                fileContent.add(line);
-            }
-            return fileContent;
-        } catch (IOException e) {
-            return null;
-        } finally {
-            CloseUtils.closeIOQuietly(br, in, is);
-        }
+        return readLines(is);
     }
 
     /**
@@ -116,46 +85,77 @@ public final class ResourceUtils {
      * 打开raw目录中的资源并转换为String
      */
     public static String geFileFromRaw(@NonNull Context context, int resId) {
-        InputStream is = context.getResources().openRawResource(resId);
-        StringBuilder builder = new StringBuilder();
-        InputStreamReader in = null;
-        BufferedReader br = null;
-        try {
-            in = new InputStreamReader(is);
-            br = new BufferedReader(in);
-            String line;
-            while ((line = br.readLine()) != null) {
-                builder.append(line);
-            }
-            return builder.toString();
-        } catch (IOException e) {
-            return null;
-        } finally {
-            CloseUtils.closeIOQuietly(br, in, is);
-        }
+        return readText(context.getResources().openRawResource(resId));
     }
 
     /**
      * 打开raw目录中的资源并转换为List<String>
      */
     public static List<String> geFileToListFromRaw(@NonNull Context context, int resId) {
-        InputStream is = context.getResources().openRawResource(resId);
-        List<String> fileContent = new ArrayList<>();
-        BufferedReader br = null;
-        InputStreamReader in = null;
-        try {
-            in = new InputStreamReader(is);
-            br = new BufferedReader(in);
-            String line;
-            while ((line = br.readLine()) != null) {
-                fileContent.add(line);
-            }
-            return fileContent;
-        } catch (IOException e) {
-            return null;
-        } finally {
-            CloseUtils.closeIOQuietly(br, in, is);
-        }
+        return readLines(context.getResources().openRawResource(resId));
+    }
+
+    /**
+     * 按行惰性读取assets目录中的资源(使用系统默认编码)
+     *
+     * @return 如果资源不存在则返回null，反之返回{@link LineIterator}(使用完毕后需要关闭)
+     */
+    public static LineIterator lineIteratorFromAssets(Context context, String fileName) {
+        InputStream is = openAssets(context, fileName);
+        return is == null ? null : LineIterator.create(new InputStreamReader(is));
+    }
+
+    /**
+     * 按行惰性读取assets目录中的资源
+     *
+     * @param charsetName 编码方式
+     * @return 如果资源不存在则返回null，反之返回{@link LineIterator}(使用完毕后需要关闭)
+     */
+    public static LineIterator lineIteratorFromAssets(Context context, String fileName, String charsetName) {
+        InputStream is = openAssets(context, fileName);
+        return is == null ? null : LineIterator.create(is, charsetName);
+    }
+
+    /**
+     * 逐行访问assets目录中的资源，visitor返回false时提前结束读取(读取结束后自动关闭)
+     *
+     * @param charsetName 编码方式
+     * @param visitor     逐行访问的回调
+     * @return 访问的行数，如果资源不存在则返回-1
+     */
+    public static int readLinesFromAssets(Context context, String fileName, String charsetName, LineIterator.LineVisitor visitor) {
+        LineIterator iterator = lineIteratorFromAssets(context, fileName, charsetName);
+        return iterator == null ? -1 : iterator.visit(visitor);
+    }
+
+    /**
+     * 按行惰性读取raw目录中的资源(使用系统默认编码)
+     *
+     * @return {@link LineIterator}(使用完毕后需要关闭)
+     */
+    public static LineIterator lineIteratorFromRaw(@NonNull Context context, @RawRes int resId) {
+        return LineIterator.create(new InputStreamReader(openRaw(context, resId)));
+    }
+
+    /**
+     * 按行惰性读取raw目录中的资源
+     *
+     * @param charsetName 编码方式
+     * @return {@link LineIterator}(使用完毕后需要关闭)
+     */
+    public static LineIterator lineIteratorFromRaw(@NonNull Context context, @RawRes int resId, String charsetName) {
+        return LineIterator.create(openRaw(context, resId), charsetName);
+    }
+
+    /**
+     * 逐行访问raw目录中的资源，visitor返回false时提前结束读取(读取结束后自动关闭)
+     *
+     * @param charsetName 编码方式
+     * @param visitor     逐行访问的回调
+     * @return 访问的行数
+     */
+    public static int readLinesFromRaw(@NonNull Context context, @RawRes int resId, String charsetName, LineIterator.LineVisitor visitor) {
+        return lineIteratorFromRaw(context, resId, charsetName).visit(visitor);
     }
 
     /**
@@ -169,23 +169,49 @@ public final class ResourceUtils {
      * 打开raw目录中的资源，并转换为String
      */
     public String getRawText(@NonNull Context context, int id) {
-        InputStreamReader isr = null;
-        BufferedReader br = null;
+        return readText(openRaw(context, id));
+    }
+
+    /**
+     * 读取流中的全部行并直接拼接(不保留换行符)，读取完成后关闭流
+     *
+     * @return 如果读取失败则返回null
+     */
+    private static String readText(InputStream is) {
+        LineIterator iterator = LineIterator.create(new InputStreamReader(is));
+        try {
+            StringBuilder builder = new StringBuilder();
+            CharSequence line;
+            while ((line = iterator.readLine()) != null) {
+                builder.append(line);
+            }
+            return builder.toString();
+        } catch (IOException e) {
+            return null;
+        } finally {
+            iterator.close();
+        }
+    }
+
+    /**
+     * 读取流中的全部行，读取完成后关闭流
+     *
+     * @return 如果读取失败则返回null
+     */
+    private static List<String> readLines(InputStream is) {
+        LineIterator iterator = LineIterator.create(new InputStreamReader(is));
         try {
-            isr = new InputStreamReader(openRaw(context, id));
-            br = new BufferedReader(isr);
-            String line;
-            StringBuilder result = new StringBuilder();
-            while ((line = br.readLine()) != null) {
-                result.append(line);
+            List<String> fileContent = new ArrayList<>();
+            CharSequence line;
+            while ((line = iterator.readLine()) != null) {
+                fileContent.add(line.toString());
             }
-            return result.toString();
+            return fileContent;
         } catch (IOException e) {
-            e.printStackTrace();
+            return null;
         } finally {
-            CloseUtils.closeIOQuietly(br, isr);
+            iterator.close();
         }
-        return null;
     }
 
     /**
@@ -8,7 +8,6 @@ import android.net.Uri;
 import android.os.Build;
 import android.provider.MediaStore;
 
-import java.io.BufferedReader;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
@@ -285,11 +284,11 @@ public class ScopedStorageManager {
      * Read content from InputStream
      */
     private static String readInputStream(InputStream stream) {
-        BufferedReader reader = null;
+        LineIterator reader = null;
         StringBuilder builder = new StringBuilder();
         try {
-            reader = new BufferedReader(new InputStreamReader(stream));
-            String line;
+            reader = LineIterator.create(new InputStreamReader(stream));
+            CharSequence line;
             while ((line = reader.readLine()) != null) {
                 if (builder.length() > 0) {
                     builder.append("\r\n");
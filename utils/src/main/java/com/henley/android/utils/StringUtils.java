@@ -1,11 +1,9 @@
 package com.henley.android.utils;
 
-import android.os.Build;
 import android.text.TextUtils;
 
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
-import java.util.Locale;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -150,21 +148,21 @@ public final class StringUtils {
     }
 
     /**
-     * 格式化字符串
+     * 格式化字符串(按资源id缓存编译后的模板)
+     *
+     * @see FormatTemplate#compile(int)
      */
     public static String format(@StringRes int resId, Object... args) {
-        return format(getString(resId), args);
+        return FormatTemplate.compile(resId).format(args);
     }
 
     /**
-     * 格式化字符串
+     * 格式化字符串(按格式缓存编译后的模板)
+     *
+     * @see FormatTemplate#compile(String)
      */
     public static String format(String format, Object... args) {
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
-            return String.format(Locale.getDefault(Locale.Category.FORMAT), format, args);
-        } else {
-            return String.format(Locale.getDefault(), format, args);
-        }
+        return FormatTemplate.compile(format).format(args);
     }
 
 }
@@ -0,0 +1,337 @@
+package com.henley.android.utils;
+
+import android.os.Build;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+import androidx.annotation.RequiresApi;
+
+/**
+ * 分块树形摘要(Merkle树)，多核并行计算大文件的摘要
+ * <p>文件按固定大小分块，各块的摘要在{@link ForkJoinPool}中并行计算，再两两合并为根摘要：</p>
+ * <ul>
+ * <li>叶子节点：H(0x00 || 块数据)</li>
+ * <li>中间节点：H(0x01 || 左子节点 || 右子节点)，某一层的节点数为奇数时，最后一个节点直接提升到上一层</li>
+ * <li>空文件视为只有一个空块</li>
+ * </ul>
+ * <p>根摘要与{@link DigestUtils}中的普通摘要是不同的格式，结果也不相同；相同的算法和块大小对同一文件的计算结果是确定的</p>
+ * <p>每个块的摘要可以单独获取和校验，可用于分块校验或断点续传</p>
+ *
+ * @author Henley
+ * @since 2026/10/18 16:25
+ * @see DigestUtils#digest(File, String, DigestUtils.ProgressListener)
+ */
+@RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+public final class TreeDigest {
+
+    /**
+     * 默认块大小
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+    /**
+     * 每次读取的大小
+     */
+    private static final int READ_SIZE = 1024 * 64;
+    private static final byte LEAF_PREFIX = 0x00;
+    private static final byte NODE_PREFIX = 0x01;
+
+    private final String algorithm;
+    private final int chunkSize;
+    private final ForkJoinPool pool;
+
+    /**
+     * 使用默认块大小创建树形摘要(并行度为CPU核心数，最大为{@value ParallelPool#MAX_PARALLELISM}，使用共用的线程池)
+     *
+     * @param algorithm 摘要算法名(如"MD5"、"SHA-256")
+     */
+    public static TreeDigest create(String algorithm) {
+        return create(algorithm, DEFAULT_CHUNK_SIZE, ParallelPool.defaultParallelism());
+    }
+
+    /**
+     * 创建树形摘要
+     *
+     * @param algorithm   摘要算法名(如"MD5"、"SHA-256")
+     * @param chunkSize   块大小(字节)
+     * @param parallelism 并行度(取值范围为1~{@value ParallelPool#MAX_PARALLELISM}，与默认并行度相同时使用共用的线程池)
+     */
+    public static TreeDigest create(String algorithm, int chunkSize, int parallelism) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize <= 0");
+        }
+        DigestUtils.newDigest(algorithm);
+        return new TreeDigest(algorithm, chunkSize, parallelism);
+    }
+
+    private TreeDigest(String algorithm, int chunkSize, int parallelism) {
+        this.algorithm = algorithm;
+        this.chunkSize = chunkSize;
+        this.pool = ParallelPool.forkJoinPool(parallelism);
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * 计算文件的树形摘要
+     */
+    public Result digest(File file) throws IOException {
+        return digest(file, null);
+    }
+
+    /**
+     * 计算文件的树形摘要
+     *
+     * @param listener 进度监听(可以为null，每处理完一个块在工作线程中回调一次)
+     */
+    public Result digest(File file, DigestUtils.ProgressListener listener) throws IOException {
+        FileInputStream in = new FileInputStream(file);
+        try {
+            FileChannel channel = in.getChannel();
+            long length = channel.size();
+            int chunkCount = getChunkCount(length);
+            byte[][] chunkDigests = new byte[chunkCount][];
+            ChunkTask task = new ChunkTask(channel, length, chunkDigests, 0, chunkCount, listener, new AtomicLong());
+            try {
+                pool.invoke(task);
+            } catch (RuntimeException e) {
+                // 工作线程中的异常可能被ForkJoinPool再包装一层
+                for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                    if (cause instanceof IOException) {
+                        throw (IOException) cause;
+                    }
+                }
+                throw e;
+            }
+            return new Result(length, chunkSize, chunkDigests, computeRoot(chunkDigests));
+        } finally {
+            CloseUtils.closeIOQuietly(in);
+        }
+    }
+
+    /**
+     * 计算文件中一个块的摘要
+     *
+     * @param index 块的序号(从0开始)
+     */
+    public byte[] digestChunk(File file, int index) throws IOException {
+        FileInputStream in = new FileInputStream(file);
+        try {
+            FileChannel channel = in.getChannel();
+            return digestChunk(channel, channel.size(), index);
+        } finally {
+            CloseUtils.closeIOQuietly(in);
+        }
+    }
+
+    /**
+     * 校验文件中一个块的摘要(文件可以是未下载完成的文件，只要该块的数据已经完整)
+     *
+     * @param index    块的序号(从0开始)
+     * @param expected 期望的块摘要(如{@link Result#getChunkDigest(int)})
+     */
+    public boolean verifyChunk(File file, int index, byte[] expected) throws IOException {
+        return MessageDigest.isEqual(digestChunk(file, index), expected);
+    }
+
+    /**
+     * 由所有块的摘要计算根摘要(可用于校验从其他地方获取的块摘要列表)
+     */
+    public byte[] computeRoot(byte[][] chunkDigests) {
+        if (chunkDigests.length == 0) {
+            throw new IllegalArgumentException("chunkDigests is empty");
+        }
+        MessageDigest digest = DigestUtils.newDigest(algorithm);
+        byte[][] level = chunkDigests;
+        while (level.length > 1) {
+            byte[][] parent = new byte[(level.length + 1) / 2][];
+            for (int i = 0; i < parent.length; i++) {
+                int left = i * 2;
+                if (left + 1 < level.length) {
+                    digest.update(NODE_PREFIX);
+                    digest.update(level[left]);
+                    digest.update(level[left + 1]);
+                    parent[i] = digest.digest();
+                } else {
+                    parent[i] = level[left];
+                }
+            }
+            level = parent;
+        }
+        return level[0].clone();
+    }
+
+    /**
+     * 关闭线程池，关闭后不能再使用(使用共用的线程池时不做任何操作)
+     */
+    public void shutdown() {
+        ParallelPool.shutdown(pool);
+    }
+
+    private int getChunkCount(long length) {
+        long count = (length + chunkSize - 1) / chunkSize;
+        if (count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("File too large for chunk size " + chunkSize);
+        }
+        return Math.max(1, (int) count);
+    }
+
+    /**
+     * 计算一个块的摘要(使用按位置读取，多个线程可以同时读取同一个{@link FileChannel})
+     *
+     * @param length 文件长度(块的范围以此为准)
+     */
+    private byte[] digestChunk(FileChannel channel, long length, int index) throws IOException {
+        MessageDigest digest = DigestUtils.newDigest(algorithm);
+        digest.update(LEAF_PREFIX);
+        long position = (long) index * chunkSize;
+        long end = Math.min(position + chunkSize, length);
+        byte[] array = BufferPool.acquireBytes(READ_SIZE);
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(array);
+            while (position < end) {
+                buffer.clear();
+                buffer.limit((int) Math.min(array.length, end - position));
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    break;
+                }
+                digest.update(array, 0, read);
+                position += read;
+            }
+        } finally {
+            BufferPool.release(array);
+        }
+        return digest.digest();
+    }
+
+    /**
+     * 计算一段连续块的摘要，块数较多时拆分为两个子任务
+     */
+    private final class ChunkTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final long length;
+        private final byte[][] chunkDigests;
+        private final int from;
+        private final int to;
+        private final DigestUtils.ProgressListener listener;
+        private final AtomicLong processed;
+
+        private ChunkTask(FileChannel channel, long length, byte[][] chunkDigests, int from, int to,
+                          DigestUtils.ProgressListener listener, AtomicLong processed) {
+            this.channel = channel;
+            this.length = length;
+            this.chunkDigests = chunkDigests;
+            this.from = from;
+            this.to = to;
+            this.listener = listener;
+            this.processed = processed;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ChunkTask(channel, length, chunkDigests, from, middle, listener, processed),
+                        new ChunkTask(channel, length, chunkDigests, middle, to, listener, processed));
+                return;
+            }
+            try {
+                chunkDigests[from] = digestChunk(channel, length, from);
+            } catch (IOException e) {
+                throw new RuntimeException("IOException occurred. ", e);
+            }
+            if (listener != null) {
+                long start = (long) from * chunkSize;
+                long done = processed.addAndGet(Math.min(chunkSize, length - start));
+                listener.onProgress(done, length);
+            }
+        }
+    }
+
+    /**
+     * 树形摘要的计算结果
+     */
+    public static final class Result {
+
+        private final long length;
+        private final int chunkSize;
+        private final byte[][] chunkDigests;
+        private final byte[] rootDigest;
+
+        private Result(long length, int chunkSize, byte[][] chunkDigests, byte[] rootDigest) {
+            this.length = length;
+            this.chunkSize = chunkSize;
+            this.chunkDigests = chunkDigests;
+            this.rootDigest = rootDigest;
+        }
+
+        /**
+         * 获取文件长度
+         */
+        public long getLength() {
+            return length;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public int getChunkCount() {
+            return chunkDigests.length;
+        }
+
+        /**
+         * 获取根摘要
+         */
+        public byte[] getRootDigest() {
+            return rootDigest.clone();
+        }
+
+        /**
+         * 获取根摘要(十六进制字符串)
+         */
+        public String getRootDigestHex() {
+            return DigestUtils.byte2Hex(rootDigest);
+        }
+
+        /**
+         * 获取一个块的摘要
+         *
+         * @param index 块的序号(从0开始)
+         */
+        public byte[] getChunkDigest(int index) {
+            return chunkDigests[index].clone();
+        }
+
+        /**
+         * 获取所有块的摘要
+         */
+        public List<byte[]> getChunkDigests() {
+            List<byte[]> list = new ArrayList<>(chunkDigests.length);
+            for (byte[] digest : chunkDigests) {
+                list.add(digest.clone());
+            }
+            return list;
+        }
+    }
+
+}
@@ -0,0 +1,167 @@
+package com.henley.android.utils;
+
+/**
+ * Url构建器(预先分配足够的容量，路径和参数直接编码到同一个{@link StringBuilder}中)
+ * <pre>
+ * String url = UrlBuilder.create("https://example.com/api", 2)
+ *         .addPathSegment("user info")
+ *         .addQueryParameter("id", "1&amp;2")
+ *         .addQueryParameter("name", "张三")
+ *         .build(); // https://example.com/api/user%20info?id=1%262&amp;name=%E5%BC%A0%E4%B8%89
+ * </pre>
+ * <p>路径段使用{@link PercentCodec#PATH_SEGMENT}编码，参数名和值使用{@link PercentCodec#QUERY_PARAM}编码，片段使用{@link PercentCodec#FRAGMENT}编码；
+ * 基础Url中已有的查询参数和片段会被保留</p>
+ *
+ * @author Henley
+ * @since 2026/10/18 21:20
+ * @see UrlView
+ */
+public final class UrlBuilder {
+
+    /**
+     * 预估的每个参数的长度
+     */
+    private static final int ESTIMATED_PARAMETER_LENGTH = 32;
+
+    private final StringBuilder builder;
+    private String fragment;
+    private boolean hasQuery;
+
+    /**
+     * @param baseUrl 基础Url(不会被编码)
+     */
+    public static UrlBuilder create(CharSequence baseUrl) {
+        return create(baseUrl, 4);
+    }
+
+    /**
+     * @param baseUrl            基础Url(不会被编码)
+     * @param expectedParameters 预计添加的参数数量(用于预先分配容量)
+     */
+    public static UrlBuilder create(CharSequence baseUrl, int expectedParameters) {
+        return new UrlBuilder(UrlView.parse(baseUrl), expectedParameters);
+    }
+
+    private UrlBuilder(UrlView base, int expectedParameters) {
+        CharSequence url = base.getUrl();
+        int fragmentStart = base.getFragmentStart();
+        int end = fragmentStart < 0 ? url.length() : fragmentStart - 1;
+        this.builder = new StringBuilder(url.length() + Math.max(0, expectedParameters) * ESTIMATED_PARAMETER_LENGTH);
+        this.builder.append(url, 0, end);
+        this.fragment = base.getFragment();
+        this.hasQuery = base.getQueryStart() >= 0;
+    }
+
+    /**
+     * 添加一段路径(会被编码，包括其中的'/')
+     *
+     * @throws IllegalStateException 已经有查询参数
+     */
+    public UrlBuilder addPathSegment(CharSequence segment) {
+        appendPathSeparator();
+        PercentCodec.PATH_SEGMENT.encode(segment, builder);
+        return this;
+    }
+
+    /**
+     * 添加已编码的路径(可以包含'/'，不会再次编码)
+     *
+     * @throws IllegalStateException 已经有查询参数
+     */
+    public UrlBuilder addEncodedPath(CharSequence path) {
+        appendPathSeparator();
+        int start = path.length() > 0 && path.charAt(0) == '/' ? 1 : 0;
+        builder.append(path, start, path.length());
+        return this;
+    }
+
+    /**
+     * 添加查询参数(名称和值都会被编码)
+     *
+     * @param value 参数值(为null时只添加名称)
+     */
+    public UrlBuilder addQueryParameter(CharSequence name, CharSequence value) {
+        appendQuerySeparator();
+        PercentCodec.QUERY_PARAM.encode(name, builder);
+        if (value != null) {
+            builder.append('=');
+            PercentCodec.QUERY_PARAM.encode(value, builder);
+        }
+        return this;
+    }
+
+    /**
+     * 添加查询参数(数值不需要编码，不创建字符串)
+     */
+    public UrlBuilder addQueryParameter(CharSequence name, long value) {
+        appendQuerySeparator();
+        PercentCodec.QUERY_PARAM.encode(name, builder);
+        builder.append('=').append(value);
+        return this;
+    }
+
+    /**
+     * 添加已编码的查询参数(不会再次编码)
+     *
+     * @param value 参数值(为null时只添加名称)
+     */
+    public UrlBuilder addEncodedQueryParameter(CharSequence name, CharSequence value) {
+        appendQuerySeparator();
+        builder.append(name);
+        if (value != null) {
+            builder.append('=').append(value);
+        }
+        return this;
+    }
+
+    /**
+     * 设置片段(会被编码，替换基础Url中的片段)
+     *
+     * @param fragment 片段(为null时移除片段)
+     */
+    public UrlBuilder setFragment(CharSequence fragment) {
+        this.fragment = fragment == null ? null : PercentCodec.FRAGMENT.encode(fragment.toString());
+        return this;
+    }
+
+    /**
+     * 构建Url
+     */
+    public String build() {
+        if (fragment == null) {
+            return builder.toString();
+        }
+        int length = builder.length();
+        String url = builder.append('#').append(fragment).toString();
+        builder.setLength(length);
+        return url;
+    }
+
+    @Override
+    public String toString() {
+        return build();
+    }
+
+    private void appendPathSeparator() {
+        if (hasQuery) {
+            throw new IllegalStateException("Cannot add path after query parameters");
+        }
+        int length = builder.length();
+        if (length == 0 || builder.charAt(length - 1) != '/') {
+            builder.append('/');
+        }
+    }
+
+    private void appendQuerySeparator() {
+        if (hasQuery) {
+            char last = builder.charAt(builder.length() - 1);
+            if (last != '?' && last != '&') {
+                builder.append('&');
+            }
+        } else {
+            builder.append('?');
+            hasQuery = true;
+        }
+    }
+
+}
@@ -1,12 +1,7 @@
 package com.henley.android.utils;
 
-import android.net.Uri;
 import android.text.TextUtils;
 
-import java.io.UnsupportedEncodingException;
-import java.net.URLDecoder;
-import java.net.URLEncoder;
-
 /**
  * Url处理辅助类
  *
@@ -60,7 +55,7 @@ public final class UrlUtils {
             url = url.trim();
             if (!url.startsWith(PROTOCOL_HTTP) && !url.startsWith(PROTOCOL_HTTPS) && !url.startsWith(PROTOCOL_FILE)) {
                 if (url.contains("//")) {
-                    url = url.replaceAll("//", "/");
+                    url = url.replace("//", "/");
                 }
                 url = PROTOCOL_HTTPS + url;
             }
@@ -74,16 +69,21 @@ public final class UrlUtils {
      */
     public static String getFullUrlWithDomain(String url, String domain, boolean replace) {
         if (!TextUtils.isEmpty(url) && !url.startsWith(PROTOCOL_FILE)) {
-            String host = Uri.parse(url).getHost();
-            if (host == null || TextUtils.isEmpty(host)) { // 判断域名是否为空
+            UrlView view = UrlView.parse(url);
+            if (!view.hasHost()) { // 判断域名是否为空
                 if (url.startsWith("//")) { // 判断Url是否以//开头
                     url = url.replace("//", "/");
                 }
                 url = domain + url; // 拼接域名
             } else if (replace) {
-                String useHost = Uri.parse(domain).getHost();
-                if (useHost != null && !TextUtils.equals(host, useHost)) { // 判断域名是否相同
-                    url = url.replace(host, useHost);
+                UrlView domainView = UrlView.parse(domain);
+                if (domainView.hasHost() && !view.isHost(domainView.getHost())) { // 判断域名是否相同
+                    // 只替换域名部分
+                    url = new StringBuilder(url.length() + domain.length())
+                            .append(url, 0, view.getHostStart())
+                            .append(domain, domainView.getHostStart(), domainView.getHostEnd())
+                            .append(url, view.getHostEnd(), url.length())
+                            .toString();
                 }
             }
         }
@@ -91,30 +91,46 @@ public final class UrlUtils {
         return url;
     }
 
+    /**
+     * 解析Url(只记录各部分的位置，不创建字符串)
+     *
+     * @see UrlView
+     */
+    public static UrlView parse(CharSequence url) {
+        return UrlView.parse(url);
+    }
+
+    /**
+     * 创建Url构建器
+     *
+     * @see UrlBuilder
+     */
+    public static UrlBuilder newBuilder(CharSequence baseUrl) {
+        return UrlBuilder.create(baseUrl);
+    }
+
+    /**
+     * URL编码(UTF-8，与{@link java.net.URLEncoder}的结果相同)
+     *
+     * @see PercentCodec#FORM
+     */
     public static String encode(String content) {
         if (TextUtils.isEmpty(content)) {
             return "";
         }
-        try {
-            return URLEncoder.encode(content, "UTF-8");
-        } catch (UnsupportedEncodingException e) {
-            @SuppressWarnings("deprecated")
-            String encode = URLEncoder.encode(content);
-            return encode;
-        }
+        return PercentCodec.FORM.encode(content);
     }
 
+    /**
+     * URL解码(UTF-8，与{@link java.net.URLDecoder}的结果相同)
+     *
+     * @see PercentCodec#FORM
+     */
     public static String decode(String content) {
         if (TextUtils.isEmpty(content)) {
             return "";
         }
-        try {
-            return URLDecoder.decode(content, "UTF-8");
-        } catch (UnsupportedEncodingException e) {
-            @SuppressWarnings("deprecated")
-            String decode = URLDecoder.decode(content);
-            return decode;
-        }
+        return PercentCodec.FORM.decode(content);
     }
 
 }
@@ -0,0 +1,360 @@
+package com.henley.android.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Url解析结果(只记录各部分在原字符串中的位置，不复制字符串)
+ * <p>按RFC 3986的通用格式解析：[scheme:][//[userInfo@]host[:port]][path][?query][#fragment]，不校验各部分的内容</p>
+ * <p>各部分可以通过{@code getXxxStart()}/{@code getXxxEnd()}获取位置(不存在时为-1)，需要字符串时才通过{@code getXxx()}截取；
+ * 查询参数在调用{@link #getQueryParameter(String)}等方法时才查找并解码(使用{@link PercentCodec#FORM}的
+ * {@link PercentCodec#decodeLenient(String) 宽松解码}：'%'后不是两个十六进制字符时按原样保留，如"q=100%"的值为"100%"，
+ * 转义的字节不是正确的UTF-8时替换为U+FFFD，不会因为格式错误的参数抛出异常)</p>
+ * <p>实例不可变，可以在多个线程中使用(只要原字符序列不被修改)</p>
+ *
+ * @author Henley
+ * @since 2026/10/18 21:00
+ * @see UrlUtils#parse(CharSequence)
+ * @see UrlBuilder
+ */
+public final class UrlView {
+
+    private final CharSequence url;
+    private final int schemeEnd;
+    private final int hostStart;
+    private final int hostEnd;
+    private final int portStart;
+    private final int pathStart;
+    private final int pathEnd;
+    private final int queryStart;
+    private final int queryEnd;
+    private final int fragmentStart;
+
+    /**
+     * 解析Url
+     */
+    public static UrlView parse(CharSequence url) {
+        if (url == null) {
+            throw new NullPointerException("url == null");
+        }
+        return new UrlView(url);
+    }
+
+    private UrlView(CharSequence url) {
+        this.url = url;
+        int length = url.length();
+        this.schemeEnd = findSchemeEnd(url, length);
+        int position = schemeEnd + 1;
+        if (position + 1 < length && url.charAt(position) == '/' && url.charAt(position + 1) == '/') {
+            int authorityStart = position + 2;
+            int authorityEnd = indexOfAny(url, authorityStart, length, "/?#");
+            int start = authorityStart;
+            for (int i = authorityEnd - 1; i >= authorityStart; i--) {
+                if (url.charAt(i) == '@') {
+                    start = i + 1;
+                    break;
+                }
+            }
+            int end = authorityEnd;
+            int port = -1;
+            // IPv6地址中的':'不是端口分隔符
+            int searchFrom = start < authorityEnd && url.charAt(start) == '[' ? indexOf(url, ']', start, authorityEnd) : start;
+            for (int i = authorityEnd - 1; i > searchFrom && i >= start; i--) {
+                if (url.charAt(i) == ':') {
+                    end = i;
+                    port = i + 1;
+                    break;
+                }
+            }
+            this.hostStart = start;
+            this.hostEnd = end;
+            this.portStart = port;
+            position = authorityEnd;
+        } else {
+            this.hostStart = -1;
+            this.hostEnd = -1;
+            this.portStart = -1;
+        }
+        this.pathStart = position;
+        this.pathEnd = indexOfAny(url, position, length, "?#");
+        int fragment = indexOf(url, '#', pathEnd, length);
+        if (pathEnd < length && url.charAt(pathEnd) == '?') {
+            this.queryStart = pathEnd + 1;
+            this.queryEnd = fragment;
+        } else {
+            this.queryStart = -1;
+            this.queryEnd = -1;
+        }
+        this.fragmentStart = fragment < length ? fragment + 1 : -1;
+    }
+
+    /**
+     * 查找scheme后的':'的位置(没有scheme时返回-1)
+     */
+    private static int findSchemeEnd(CharSequence url, int length) {
+        for (int i = 0; i < length; i++) {
+            char c = url.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                continue;
+            }
+            if (i > 0 && ((c >= '0' && c <= '9') || c == '+' || c == '-' || c == '.')) {
+                continue;
+            }
+            return c == ':' && i > 0 ? i : -1;
+        }
+        return -1;
+    }
+
+    private static int indexOfAny(CharSequence s, int from, int to, String chars) {
+        for (int i = from; i < to; i++) {
+            if (chars.indexOf(s.charAt(i)) >= 0) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    private static int indexOf(CharSequence s, char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (s.charAt(i) == c) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    /**
+     * 获取原Url
+     */
+    public CharSequence getUrl() {
+        return url;
+    }
+
+    /**
+     * 获取scheme的结束位置(不含':'，没有scheme时为-1)
+     */
+    public int getSchemeEnd() {
+        return schemeEnd;
+    }
+
+    /**
+     * 获取scheme(如"https"，没有时返回null)
+     */
+    public String getScheme() {
+        return schemeEnd < 0 ? null : substring(0, schemeEnd);
+    }
+
+    /**
+     * 判断scheme是否为指定值(忽略大小写，不创建字符串)
+     */
+    public boolean isScheme(String scheme) {
+        return schemeEnd == scheme.length() && regionMatches(0, scheme);
+    }
+
+    public boolean hasHost() {
+        return hostStart >= 0 && hostEnd > hostStart;
+    }
+
+    public int getHostStart() {
+        return hostStart;
+    }
+
+    public int getHostEnd() {
+        return hostEnd;
+    }
+
+    /**
+     * 获取主机名(没有"//"时返回null，"//"后为空时返回空字符串；IPv6地址包含'['和']')
+     */
+    public String getHost() {
+        return hostStart < 0 ? null : substring(hostStart, hostEnd);
+    }
+
+    /**
+     * 判断主机名是否为指定值(忽略大小写，不创建字符串)
+     */
+    public boolean isHost(CharSequence host) {
+        return hostStart >= 0 && hostEnd - hostStart == host.length() && regionMatches(hostStart, host);
+    }
+
+    /**
+     * 获取端口(没有指定或不是数字时返回-1)
+     */
+    public int getPort() {
+        if (portStart < 0 || portStart == pathStart) {
+            return -1;
+        }
+        int port = 0;
+        for (int i = portStart; i < pathStart; i++) {
+            char c = url.charAt(i);
+            if (c < '0' || c > '9' || port > 65535) {
+                return -1;
+            }
+            port = port * 10 + (c - '0');
+        }
+        return port <= 65535 ? port : -1;
+    }
+
+    public int getPathStart() {
+        return pathStart;
+    }
+
+    public int getPathEnd() {
+        return pathEnd;
+    }
+
+    /**
+     * 获取路径(未解码，没有时返回空字符串)
+     */
+    public String getPath() {
+        return substring(pathStart, pathEnd);
+    }
+
+    public int getQueryStart() {
+        return queryStart;
+    }
+
+    public int getQueryEnd() {
+        return queryEnd;
+    }
+
+    /**
+     * 获取查询字符串(不含'?'，未解码，没有时返回null)
+     */
+    public String getQuery() {
+        return queryStart < 0 ? null : substring(queryStart, queryEnd);
+    }
+
+    public int getFragmentStart() {
+        return fragmentStart;
+    }
+
+    /**
+     * 获取片段(不含'#'，未解码，没有时返回null)
+     */
+    public String getFragment() {
+        return fragmentStart < 0 ? null : substring(fragmentStart, url.length());
+    }
+
+    /**
+     * 获取第一个名称为name的查询参数的值(已解码；参数只有名称时返回空字符串，不存在时返回null)
+     */
+    public String getQueryParameter(String name) {
+        if (queryStart < 0) {
+            return null;
+        }
+        int start = queryStart;
+        while (start <= queryEnd) {
+            int end = indexOf(url, '&', start, queryEnd);
+            int separator = indexOf(url, '=', start, end);
+            if (nameMatches(start, separator, name)) {
+                return separator < end ? decode(separator + 1, end) : "";
+            }
+            start = end + 1;
+        }
+        return null;
+    }
+
+    /**
+     * 获取所有名称为name的查询参数的值(已解码)
+     */
+    public List<String> getQueryParameters(String name) {
+        if (queryStart < 0) {
+            return Collections.emptyList();
+        }
+        List<String> values = null;
+        int start = queryStart;
+        while (start <= queryEnd) {
+            int end = indexOf(url, '&', start, queryEnd);
+            int separator = indexOf(url, '=', start, end);
+            if (nameMatches(start, separator, name)) {
+                if (values == null) {
+                    values = new ArrayList<>(2);
+                }
+                values.add(separator < end ? decode(separator + 1, end) : "");
+            }
+            start = end + 1;
+        }
+        return values == null ? Collections.<String>emptyList() : values;
+    }
+
+    /**
+     * 判断是否包含名称为name的查询参数
+     */
+    public boolean hasQueryParameter(String name) {
+        return getQueryParameter(name) != null;
+    }
+
+    /**
+     * 获取所有查询参数的名称(已解码，按出现顺序，可能重复)
+     */
+    public List<String> getQueryParameterNames() {
+        if (queryStart < 0) {
+            return Collections.emptyList();
+        }
+        List<String> names = new ArrayList<>();
+        int start = queryStart;
+        while (start <= queryEnd) {
+            int end = indexOf(url, '&', start, queryEnd);
+            int separator = indexOf(url, '=', start, end);
+            if (separator > start) {
+                names.add(decode(start, separator));
+            }
+            start = end + 1;
+        }
+        return names;
+    }
+
+    /**
+     * 判断[start, end)中未解码的参数名是否为name(不需要解码时直接比较)
+     */
+    private boolean nameMatches(int start, int end, String name) {
+        if (end == start) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            char c = url.charAt(i);
+            if (c == '%' || c == '+') {
+                return decode(start, end).equals(name);
+            }
+        }
+        if (end - start != name.length()) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (url.charAt(i) != name.charAt(i - start)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String decode(int start, int end) {
+        return PercentCodec.FORM.decodeLenient(substring(start, end));
+    }
+
+    private boolean regionMatches(int start, CharSequence other) {
+        for (int i = 0; i < other.length(); i++) {
+            char a = url.charAt(start + i);
+            char b = other.charAt(i);
+            if (a != b && Character.toLowerCase(a) != Character.toLowerCase(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String substring(int start, int end) {
+        if (url instanceof String) {
+            return ((String) url).substring(start, end);
+        }
+        return url.subSequence(start, end).toString();
+    }
+
+    @Override
+    public String toString() {
+        return url.toString();
+    }
+
+}
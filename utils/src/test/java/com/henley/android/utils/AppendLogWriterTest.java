@@ -0,0 +1,265 @@
+package com.henley.android.utils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link AppendLogWriter}的测试
+ */
+public class AppendLogWriterTest {
+
+    private static final long TIMEOUT = 5000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * 缓冲的数据达到bufferSize时由后台线程写入文件，未达到时不写入
+     */
+    @Test
+    public void flushesWhenBufferIsFull() throws Exception {
+        File file = new File(folder.getRoot(), "size.log");
+        AppendLogWriter writer = AppendLogWriter.builder(file)
+                .setBufferSize(64)
+                .setFlushInterval(0)
+                .build();
+        try {
+            writer.append("0123456789");
+            Thread.sleep(100);
+            assertEquals(0, file.length());
+            for (int i = 0; i < 5; i++) {
+                writer.append("0123456789");
+            }
+            // 66字节，超过bufferSize
+            waitForLength(file, 66);
+            assertEquals(66, file.length());
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * 距离上次写入超过flushInterval时由后台线程写入文件
+     */
+    @Test
+    public void flushesAfterInterval() throws Exception {
+        File file = new File(folder.getRoot(), "time.log");
+        AppendLogWriter writer = AppendLogWriter.builder(file)
+                .setBufferSize(1024 * 64)
+                .setFlushInterval(200)
+                .build();
+        try {
+            writer.append("record");
+            assertEquals(0, file.length());
+            waitForLength(file, 7);
+            assertEquals("record\n", read(file));
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * flush()返回时，当前线程在调用前追加的记录都已写入文件
+     */
+    @Test
+    public void flushIsBarrierForEarlierAppends() throws Exception {
+        final File file = new File(folder.getRoot(), "barrier.log");
+        final AppendLogWriter writer = AppendLogWriter.builder(file)
+                .setBufferSize(256)
+                .setFlushInterval(0)
+                .setMaxFileSize(0)
+                .build();
+        final int threads = 4;
+        final int records = 500;
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] appenders = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final String prefix = "t" + t + "-";
+            appenders[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int i = 0; i < records; i++) {
+                            String record = prefix + i;
+                            writer.append(record);
+                            if (i % 50 == 49) {
+                                writer.flush();
+                                assertTrue(record, read(file).contains(record + "\n"));
+                            }
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            });
+            appenders[t].start();
+        }
+        start.countDown();
+        for (Thread appender : appenders) {
+            appender.join();
+        }
+        assertNull(failure.get());
+        writer.close();
+        String[] lines = read(file).split("\n");
+        assertEquals(threads * records, lines.length);
+        // 每个线程的记录保持追加顺序
+        int[] next = new int[threads];
+        for (String line : lines) {
+            int thread = line.charAt(1) - '0';
+            assertEquals(line, "t" + thread + "-" + next[thread]++, line);
+        }
+    }
+
+    /**
+     * 文件超过maxFileSize时滚动，只保留maxBackupCount个历史文件
+     */
+    @Test
+    public void rotatesAndKeepsBackupCount() throws Exception {
+        File file = new File(folder.getRoot(), "rotate.log");
+        AppendLogWriter writer = AppendLogWriter.builder(file)
+                .setFlushInterval(0)
+                .setMaxFileSize(20)
+                .setMaxBackupCount(2)
+                .build();
+        List<String> records = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            // 每次写入11字节，写入两次后超过20字节
+            String record = "record-" + (100 + i);
+            records.add(record);
+            writer.append(record);
+            writer.flush();
+        }
+        writer.close();
+        assertTrue(file.exists());
+        assertTrue(new File(file.getPath() + ".1").exists());
+        assertTrue(new File(file.getPath() + ".2").exists());
+        assertFalse(new File(file.getPath() + ".3").exists());
+        assertEquals("", read(file));
+        assertEquals(lines(records.subList(8, 10)), read(new File(file.getPath() + ".1")));
+        assertEquals(lines(records.subList(6, 8)), read(new File(file.getPath() + ".2")));
+    }
+
+    @Test
+    public void rotatesWithoutBackup() throws Exception {
+        File file = new File(folder.getRoot(), "truncate.log");
+        AppendLogWriter writer = AppendLogWriter.builder(file)
+                .setFlushInterval(0)
+                .setMaxFileSize(10)
+                .setMaxBackupCount(0)
+                .build();
+        writer.append("0123456789");
+        writer.flush();
+        writer.append("abc");
+        writer.close();
+        assertEquals("abc\n", read(file));
+        assertEquals(1, folder.getRoot().list().length);
+    }
+
+    /**
+     * 滚动失败时继续追加到当前文件，异常在flush()中抛出，恢复后再次滚动
+     */
+    @Test
+    public void rotationFailureDoesNotLoseRecords() throws Exception {
+        File file = new File(folder.getRoot(), "broken.log");
+        // 非空目录无法删除，滚动时删除最旧的历史文件失败
+        File blocker = new File(file.getPath() + ".1");
+        assertTrue(new File(blocker, "child").mkdirs());
+        AppendLogWriter writer = AppendLogWriter.builder(file)
+                .setFlushInterval(0)
+                .setMaxFileSize(10)
+                .setMaxBackupCount(1)
+                .build();
+        writer.append("0123456789");
+        try {
+            writer.flush();
+            fail();
+        } catch (RuntimeException expected) {
+            assertTrue(expected.getCause() instanceof IOException);
+        }
+        writer.append("after");
+        try {
+            writer.flush();
+            fail();
+        } catch (RuntimeException expected) {
+            // 文件仍然超过maxFileSize，再次滚动失败
+        }
+        assertEquals("0123456789\nafter\n", read(file));
+
+        FileUtils.deleteFile(blocker.getPath());
+        writer.append("recovered");
+        writer.flush();
+        writer.append("new");
+        writer.close();
+        assertEquals("0123456789\nafter\nrecovered\n", read(blocker));
+        assertEquals("new\n", read(file));
+    }
+
+    @Test
+    public void appendAfterCloseThrows() throws Exception {
+        File file = new File(folder.getRoot(), "closed.log");
+        AppendLogWriter writer = AppendLogWriter.builder(file).build();
+        writer.append("last");
+        writer.close();
+        writer.close();
+        writer.flush();
+        assertEquals("last\n", read(file));
+        try {
+            writer.append("more");
+            fail();
+        } catch (IllegalStateException expected) {
+            // 已关闭
+        }
+    }
+
+    private static void waitForLength(File file, long length) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (file.length() < length && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static String lines(List<String> records) {
+        StringBuilder builder = new StringBuilder();
+        for (String record : records) {
+            builder.append(record).append('\n');
+        }
+        return builder.toString();
+    }
+
+    private static String read(File file) throws IOException {
+        FileInputStream input = new FileInputStream(file);
+        try {
+            byte[] data = new byte[(int) file.length()];
+            int count = 0;
+            while (count < data.length) {
+                int n = input.read(data, count, data.length - count);
+                if (n < 0) {
+                    break;
+                }
+                count += n;
+            }
+            return new String(Arrays.copyOf(data, count), "UTF-8");
+        } finally {
+            input.close();
+        }
+    }
+
+}
@@ -0,0 +1,387 @@
+package com.henley.android.utils;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link AsyncFileUtils}的测试(线程池是静态共享的，每个测试结束前释放所有阻塞的任务)
+ */
+public class AsyncFileUtilsTest {
+
+    private static final long SEED = 20261018L;
+    private static final long TIMEOUT = 5000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<CountDownLatch> gates = new ArrayList<>();
+
+    @After
+    public void releaseBlockers() {
+        for (CountDownLatch gate : gates) {
+            gate.countDown();
+        }
+    }
+
+    /**
+     * 同一个文件的任务按提交顺序依次执行，不会同时执行
+     */
+    @Test
+    public void sameFileTasksRunInOrder() throws Exception {
+        File file = folder.newFile("ordered");
+        final Random random = new Random(SEED);
+        final List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>());
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicBoolean overlapped = new AtomicBoolean();
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            final int index = i;
+            final int sleep = random.nextInt(3);
+            futures.add(AsyncFileUtils.submit(file, i % 2, new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    if (active.incrementAndGet() > 1) {
+                        overlapped.set(true);
+                    }
+                    Thread.sleep(sleep);
+                    order.add(index);
+                    active.decrementAndGet();
+                    return null;
+                }
+            }, null, null));
+        }
+        awaitAll(futures);
+        assertFalse(overlapped.get());
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            expected.add(i);
+        }
+        assertEquals(expected, order);
+    }
+
+    /**
+     * 移动文件等待源文件和目标文件之前的任务都完成后才执行，之后提交的两个文件的任务都在移动完成后执行
+     */
+    @Test
+    public void moveWaitsForSourceAndDestination() throws Exception {
+        final File src = write("src", "data");
+        final File dest = new File(folder.getRoot(), "dest");
+        CountDownLatch srcGate = gate();
+        CountDownLatch destGate = gate();
+        CountDownLatch started = new CountDownLatch(2);
+        Future<?> srcBlocker = block(src, started, srcGate);
+        Future<?> destBlocker = block(dest, started, destGate);
+        assertTrue(started.await(TIMEOUT, TimeUnit.MILLISECONDS));
+
+        Future<Boolean> move = AsyncFileUtils.moveFile(src, dest, null);
+        Future<Boolean> afterOnSrc = exists(src);
+        Future<Boolean> afterOnDest = exists(dest);
+
+        srcGate.countDown();
+        srcBlocker.get(TIMEOUT, TimeUnit.MILLISECONDS);
+        Thread.sleep(100);
+        assertFalse(move.isDone());
+        assertTrue(src.exists());
+
+        destGate.countDown();
+        destBlocker.get(TIMEOUT, TimeUnit.MILLISECONDS);
+        assertTrue(move.get(TIMEOUT, TimeUnit.MILLISECONDS));
+        assertFalse(afterOnSrc.get(TIMEOUT, TimeUnit.MILLISECONDS));
+        assertTrue(afterOnDest.get(TIMEOUT, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * 随机的跨文件复制(包括方向相反的复制)不会互相等待
+     */
+    @Test
+    public void crossFileCopiesDoNotDeadlock() throws Exception {
+        File[] files = new File[4];
+        for (int i = 0; i < files.length; i++) {
+            files[i] = write("file" + i, "content" + i);
+        }
+        Random random = new Random(SEED + 1);
+        List<Future<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            File a = files[random.nextInt(files.length)];
+            File b = files[random.nextInt(files.length)];
+            if (a != b) {
+                futures.add(AsyncFileUtils.copyFile(a, b, null));
+            }
+        }
+        awaitAll(futures);
+    }
+
+    /**
+     * 等待中的{@link AsyncFileUtils#PRIORITY_USER_VISIBLE}任务先于{@link AsyncFileUtils#PRIORITY_PREFETCH}任务执行，同一优先级按提交顺序执行
+     */
+    @Test
+    public void userVisibleTasksRunBeforePrefetch() throws Exception {
+        // 占用所有线程，只释放一个，使等待的任务依次执行
+        CountDownLatch started = new CountDownLatch(AsyncFileUtils.MAX_POOL_SIZE);
+        CountDownLatch first = gate();
+        CountDownLatch others = gate();
+        block(null, started, first);
+        for (int i = 1; i < AsyncFileUtils.MAX_POOL_SIZE; i++) {
+            block(null, started, others);
+        }
+        assertTrue(started.await(TIMEOUT, TimeUnit.MILLISECONDS));
+
+        List<String> order = Collections.synchronizedList(new ArrayList<String>());
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            futures.add(record(order, "p" + i, AsyncFileUtils.PRIORITY_PREFETCH));
+            futures.add(record(order, "v" + i, AsyncFileUtils.PRIORITY_USER_VISIBLE));
+        }
+        first.countDown();
+        awaitAll(futures);
+        assertEquals(Arrays.asList("v0", "v1", "v2", "p0", "p1", "p2"), order);
+    }
+
+    /**
+     * 未完成的预加载任务达到上限时取消新的预加载任务，不影响用户可见的任务
+     */
+    @Test
+    public void prefetchQueueIsBounded() throws Exception {
+        CountDownLatch started = new CountDownLatch(AsyncFileUtils.MAX_POOL_SIZE);
+        CountDownLatch gate = gate();
+        for (int i = 0; i < AsyncFileUtils.MAX_POOL_SIZE; i++) {
+            block(null, started, gate);
+        }
+        assertTrue(started.await(TIMEOUT, TimeUnit.MILLISECONDS));
+
+        List<String> order = Collections.synchronizedList(new ArrayList<String>());
+        List<Future<Void>> accepted = new ArrayList<>();
+        for (int i = 0; i < AsyncFileUtils.MAX_PENDING_PREFETCH; i++) {
+            accepted.add(record(order, "p" + i, AsyncFileUtils.PRIORITY_PREFETCH));
+        }
+        Future<Void> rejected = record(order, "rejected", AsyncFileUtils.PRIORITY_PREFETCH);
+        Future<Void> visible = record(order, "visible", AsyncFileUtils.PRIORITY_USER_VISIBLE);
+        assertTrue(rejected.isCancelled());
+        assertFalse(visible.isDone());
+        for (Future<Void> future : accepted) {
+            assertFalse(future.isDone());
+        }
+
+        gate.countDown();
+        awaitAll(accepted);
+        visible.get(TIMEOUT, TimeUnit.MILLISECONDS);
+        assertFalse(order.contains("rejected"));
+        assertEquals(AsyncFileUtils.MAX_PENDING_PREFETCH + 1, order.size());
+        // 完成后可以继续提交预加载任务
+        Future<Void> later = record(order, "later", AsyncFileUtils.PRIORITY_PREFETCH);
+        later.get(TIMEOUT, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 等待中的任务被取消后不会执行也不会回调，同一文件之后的任务照常执行
+     */
+    @Test
+    public void cancelledTaskIsSkipped() throws Exception {
+        File file = folder.newFile("cancel");
+        CountDownLatch gate = gate();
+        CountDownLatch started = new CountDownLatch(1);
+        block(file, started, gate);
+        assertTrue(started.await(TIMEOUT, TimeUnit.MILLISECONDS));
+
+        final AtomicBoolean ran = new AtomicBoolean();
+        RecordingCallback<String> callback = new RecordingCallback<>();
+        Future<String> cancelled = AsyncFileUtils.submit(file, AsyncFileUtils.PRIORITY_USER_VISIBLE, new Callable<String>() {
+            @Override
+            public String call() {
+                ran.set(true);
+                return "cancelled";
+            }
+        }, callback, new DirectExecutor());
+        Future<Boolean> next = exists(file);
+        assertTrue(cancelled.cancel(false));
+        gate.countDown();
+        assertTrue(next.get(TIMEOUT, TimeUnit.MILLISECONDS));
+        Thread.sleep(50);
+        assertFalse(ran.get());
+        assertEquals(0, callback.calls.get());
+    }
+
+    /**
+     * 取消在一个文件上等待的移动操作后，另一个文件上排在它之后的任务不再被阻塞
+     */
+    @Test
+    public void cancellingWaitingMoveUnblocksOtherFile() throws Exception {
+        File src = write("src", "data");
+        File dest = new File(folder.getRoot(), "dest");
+        CountDownLatch destGate = gate();
+        CountDownLatch started = new CountDownLatch(1);
+        block(dest, started, destGate);
+        assertTrue(started.await(TIMEOUT, TimeUnit.MILLISECONDS));
+
+        Future<Boolean> move = AsyncFileUtils.moveFile(src, dest, null);
+        Future<Boolean> afterOnSrc = exists(src);
+        Thread.sleep(50);
+        assertFalse(afterOnSrc.isDone());
+        assertTrue(move.cancel(false));
+        // 目标文件上的任务仍在阻塞
+        assertTrue(afterOnSrc.get(TIMEOUT, TimeUnit.MILLISECONDS));
+        destGate.countDown();
+        assertFalse(exists(dest).get(TIMEOUT, TimeUnit.MILLISECONDS));
+        assertTrue(src.exists());
+    }
+
+    /**
+     * 回调在指定的{@link Executor}中执行
+     */
+    @Test
+    public void callbacksRunOnCallbackExecutor() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                return new Thread(runnable, "callback-thread");
+            }
+        });
+        try {
+            RecordingCallback<String> success = new RecordingCallback<>();
+            AsyncFileUtils.submit(null, AsyncFileUtils.PRIORITY_USER_VISIBLE, new Callable<String>() {
+                @Override
+                public String call() {
+                    return Thread.currentThread().getName();
+                }
+            }, success, executor);
+            assertTrue(success.done.await(TIMEOUT, TimeUnit.MILLISECONDS));
+            assertEquals("callback-thread", success.thread.get());
+            assertTrue(String.valueOf(success.result.get()).startsWith("AsyncFileUtils #"));
+
+            RecordingCallback<String> failure = new RecordingCallback<>();
+            final IOException error = new IOException("expected");
+            AsyncFileUtils.submit(folder.getRoot(), AsyncFileUtils.PRIORITY_PREFETCH, new Callable<String>() {
+                @Override
+                public String call() throws IOException {
+                    throw error;
+                }
+            }, failure, executor);
+            assertTrue(failure.done.await(TIMEOUT, TimeUnit.MILLISECONDS));
+            assertEquals("callback-thread", failure.thread.get());
+            assertTrue(failure.result.get() == error);
+            assertEquals(1, failure.calls.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private CountDownLatch gate() {
+        CountDownLatch gate = new CountDownLatch(1);
+        gates.add(gate);
+        return gate;
+    }
+
+    private static Future<Void> block(File file, final CountDownLatch started, final CountDownLatch gate) {
+        return AsyncFileUtils.submit(file, AsyncFileUtils.PRIORITY_USER_VISIBLE, new Callable<Void>() {
+            @Override
+            public Void call() throws InterruptedException {
+                started.countDown();
+                gate.await();
+                return null;
+            }
+        }, null, null);
+    }
+
+    private static Future<Void> record(final List<String> order, final String name, int priority) {
+        return AsyncFileUtils.submit(null, priority, new Callable<Void>() {
+            @Override
+            public Void call() {
+                order.add(name);
+                return null;
+            }
+        }, null, null);
+    }
+
+    private static Future<Boolean> exists(final File file) {
+        return AsyncFileUtils.submit(file, AsyncFileUtils.PRIORITY_USER_VISIBLE, new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                return file.exists();
+            }
+        }, null, null);
+    }
+
+    private File write(String name, String content) throws IOException {
+        File file = new File(folder.getRoot(), name);
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    private static <T> void awaitAll(List<Future<T>> futures) throws InterruptedException, TimeoutException {
+        for (Future<T> future : futures) {
+            try {
+                future.get(TIMEOUT, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                fail(e.getCause().toString());
+            }
+        }
+    }
+
+    private static final class DirectExecutor implements Executor {
+
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    }
+
+    private static final class RecordingCallback<T> implements AsyncFileUtils.Callback<T> {
+
+        private final CountDownLatch done = new CountDownLatch(1);
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicReference<String> thread = new AtomicReference<>();
+        private final AtomicReference<Object> result = new AtomicReference<>();
+
+        @Override
+        public void onSuccess(T value) {
+            record(value);
+        }
+
+        @Override
+        public void onFailure(Throwable error) {
+            record(error);
+        }
+
+        private void record(Object value) {
+            calls.incrementAndGet();
+            thread.set(Thread.currentThread().getName());
+            result.set(value);
+            done.countDown();
+        }
+    }
+
+}
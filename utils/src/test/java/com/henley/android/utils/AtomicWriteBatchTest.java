@@ -0,0 +1,223 @@
+package com.henley.android.utils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileLock;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link AtomicWriteBatch}的测试
+ */
+public class AtomicWriteBatchTest {
+
+    private static final int THREADS = 8;
+    private static final int WRITES_PER_THREAD = 20;
+    private static final int DATA_SIZE = 64 * 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * 多个线程同时写入同一个文件时，任何时刻读到的都是某一次写入的完整内容
+     */
+    @Test
+    public void concurrentWritersNeverInterleave() throws Exception {
+        final File target = new File(folder.getRoot(), "data.bin");
+        FileUtils.writeFileAtomic(target, filled((byte) 0));
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] writers = new Thread[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            final byte value = (byte) (i + 1);
+            writers[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int j = 0; j < WRITES_PER_THREAD; j++) {
+                            FileUtils.writeFileAtomic(target, filled(value));
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            });
+            writers[i].start();
+        }
+        start.countDown();
+        while (isAlive(writers)) {
+            assertUniform(read(target));
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        assertNull(failure.get());
+        assertUniform(read(target));
+        assertEquals(1, folder.getRoot().list().length);
+    }
+
+    /**
+     * 与目标文件同名加".tmp"的已有文件不受影响
+     */
+    @Test
+    public void existingTmpFileIsNotTouched() throws IOException {
+        File target = new File(folder.getRoot(), "name");
+        File userFile = new File(folder.getRoot(), "name.tmp");
+        byte[] userData = "user data".getBytes("UTF-8");
+        write(userFile, userData);
+        FileUtils.writeFileAtomic(target, "content".getBytes("UTF-8"));
+        assertArrayEquals(userData, read(userFile));
+        assertArrayEquals("content".getBytes("UTF-8"), read(target));
+    }
+
+    @Test
+    public void commitReplacesAllFiles() throws IOException {
+        File first = new File(folder.getRoot(), "a/first.txt");
+        File second = new File(folder.getRoot(), "b/second.txt");
+        FileUtils.writeFileAtomic(first, new byte[]{1});
+        AtomicWriteBatch batch = AtomicWriteBatch.create();
+        batch.write(first, new byte[]{2}).write(second, new byte[]{3});
+        assertArrayEquals(new byte[]{1}, read(first));
+        assertFalse(second.exists());
+        batch.commit();
+        assertArrayEquals(new byte[]{2}, read(first));
+        assertArrayEquals(new byte[]{3}, read(second));
+        assertEquals(1, first.getParentFile().list().length);
+        assertEquals(1, second.getParentFile().list().length);
+    }
+
+    @Test
+    public void abortKeepsTargetAndRemovesTempFiles() throws IOException {
+        File target = new File(folder.getRoot(), "x");
+        FileUtils.writeFileAtomic(target, new byte[]{1});
+        AtomicWriteBatch batch = AtomicWriteBatch.create();
+        batch.write(target, new byte[]{2, 2});
+        assertEquals(2, folder.getRoot().list().length);
+        batch.abort();
+        assertArrayEquals(new byte[]{1}, read(target));
+        assertTrue(Arrays.equals(new String[]{"x"}, folder.getRoot().list()));
+    }
+
+    /**
+     * 进程被杀死后遗留的临时文件在下次写入该目录时被删除，其他文件不受影响
+     */
+    @Test
+    public void orphanedTempFilesAreDeleted() throws IOException {
+        File directory = folder.newFolder("orphans");
+        File target = new File(directory, "data.bin");
+        write(target, new byte[]{1});
+        File orphan = new File(directory, "data.bin.8f3a9c0d12e4b657.tmp");
+        File otherOrphan = new File(directory, "other.bin.c0ffee00c0ffee00.tmp");
+        write(orphan, new byte[]{9, 9});
+        write(otherOrphan, new byte[]{9});
+        String[] userFiles = {"data.bin.tmp", "notes.1234.tmp", "data.bin.8F3A9C0D12E4B657.tmp", "data.bin.8f3a9c0d12e4b65.tmp", ".0123456789abcdef.tmp"};
+        for (String name : userFiles) {
+            write(new File(directory, name), new byte[]{7});
+        }
+
+        assertTrue(FileUtils.writeFileAtomic(target, new byte[]{2}));
+        assertFalse(orphan.exists());
+        assertFalse(otherOrphan.exists());
+        assertArrayEquals(new byte[]{2}, read(target));
+        for (String name : userFiles) {
+            assertArrayEquals(name, new byte[]{7}, read(new File(directory, name)));
+        }
+        assertEquals(1 + userFiles.length, directory.list().length);
+    }
+
+    /**
+     * 正在被其他写入方锁定的临时文件不会被当作遗留文件删除
+     */
+    @Test
+    public void lockedTempFileIsKept() throws IOException {
+        File directory = folder.newFolder("locked");
+        File inUse = new File(directory, "data.bin.0123456789abcdef.tmp");
+        RandomAccessFile writer = new RandomAccessFile(inUse, "rw");
+        try {
+            FileLock lock = writer.getChannel().lock();
+            assertTrue(FileUtils.writeFileAtomic(new File(directory, "data.bin"), new byte[]{1}));
+            assertTrue(inUse.exists());
+            lock.release();
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * 写入过程中临时文件名符合清理规则，批次结束后不遗留临时文件
+     */
+    @Test
+    public void tempFilesUseRecognizableNames() throws IOException {
+        File directory = folder.newFolder("names");
+        File target = new File(directory, "a");
+        AtomicWriteBatch batch = AtomicWriteBatch.create();
+        batch.write(target, new byte[]{1});
+        String[] names = directory.list();
+        assertEquals(1, names.length);
+        assertTrue(names[0], names[0].matches("a\\.[0-9a-f]{16}\\.tmp"));
+        batch.commit();
+        assertTrue(Arrays.equals(new String[]{"a"}, directory.list()));
+    }
+
+    private static boolean isAlive(Thread[] threads) {
+        for (Thread thread : threads) {
+            if (thread.isAlive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] filled(byte value) {
+        byte[] data = new byte[DATA_SIZE];
+        Arrays.fill(data, value);
+        return data;
+    }
+
+    private static void assertUniform(byte[] data) {
+        assertEquals(DATA_SIZE, data.length);
+        for (byte b : data) {
+            assertEquals(data[0], b);
+        }
+    }
+
+    private static void write(File file, byte[] data) throws IOException {
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(data);
+        } finally {
+            out.close();
+        }
+    }
+
+    private static byte[] read(File file) throws IOException {
+        FileInputStream in = new FileInputStream(file);
+        try {
+            byte[] data = new byte[(int) file.length()];
+            int offset = 0;
+            int count;
+            while (offset < data.length && (count = in.read(data, offset, data.length - offset)) > 0) {
+                offset += count;
+            }
+            return offset == data.length ? data : Arrays.copyOf(data, offset);
+        } finally {
+            in.close();
+        }
+    }
+
+}
@@ -0,0 +1,336 @@
+package com.henley.android.utils;
+
+import android.util.Base64;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link Base64Codec}及{@link Base64Coder}的测试
+ * <p>参考结果由java.util.Base64按{@link Base64}的规则生成：每76个字符换行，开启换行时非空输出总以换行符结尾</p>
+ */
+public class Base64CodecTest {
+
+    private static final long SEED = 20261018L;
+    private static final int[] FLAGS = createFlags();
+    private static final String[] RFC4648_INPUT = {"", "f", "fo", "foo", "foob", "fooba", "foobar"};
+    private static final String[] RFC4648_OUTPUT = {"", "Zg==", "Zm8=", "Zm9v", "Zm9vYg==", "Zm9vYmE=", "Zm9vYmFy"};
+
+    /**
+     * RFC 4648第10节的测试向量
+     */
+    @Test
+    public void rfc4648Vectors() throws IOException {
+        for (int i = 0; i < RFC4648_INPUT.length; i++) {
+            byte[] input = RFC4648_INPUT[i].getBytes("US-ASCII");
+            String expected = RFC4648_OUTPUT[i];
+            assertEquals(expected, Base64Codec.encodeToString(input, Base64.NO_WRAP));
+            assertEquals(expected.replace("=", ""), Base64Codec.encodeToString(input, Base64.NO_WRAP | Base64.NO_PADDING));
+            assertEquals(expected.isEmpty() ? "" : expected + "\n", Base64Codec.encodeToString(input, Base64.DEFAULT));
+            assertEquals(expected.isEmpty() ? "" : expected + "\r\n", Base64Codec.encodeToString(input, Base64.CRLF));
+            assertArrayEquals(input, Base64Codec.decode(expected, Base64.DEFAULT));
+            assertArrayEquals(input, Base64Codec.decode(expected.replace("=", ""), Base64.DEFAULT));
+        }
+    }
+
+    @Test
+    public void urlSafeAlphabet() {
+        byte[] input = {(byte) 0xFB, (byte) 0xFF, (byte) 0xBF};
+        assertEquals("+/+/", Base64Codec.encodeToString(input, Base64.NO_WRAP));
+        assertEquals("-_-_", Base64Codec.encodeToString(input, Base64.NO_WRAP | Base64.URL_SAFE));
+        assertArrayEquals(input, Base64Codec.decode("-_-_", Base64.URL_SAFE));
+        // 另一个字母表中的字符被忽略
+        assertArrayEquals(new byte[0], Base64Codec.decode("+/+/", Base64.URL_SAFE));
+    }
+
+    /**
+     * 所有标志位组合下编码结果与参考结果相同，各种形式的解码都能还原
+     */
+    @Test
+    public void encodeMatchesReferenceForAllFlags() throws IOException {
+        Random random = new Random(SEED);
+        for (int flags : FLAGS) {
+            for (int length = 0; length <= 200; length++) {
+                checkEncodeAndDecode(randomBytes(random, length), flags);
+            }
+            for (int length : new int[]{56, 57, 58, 114, 57 * 64, 57 * 64 + 1, 57 * 96 + 2, 10000, 65537}) {
+                checkEncodeAndDecode(randomBytes(random, length), flags);
+            }
+        }
+    }
+
+    /**
+     * 解码时忽略所有不属于字母表的字符(包括非ASCII字符)，结果与去掉这些字符后相同
+     */
+    @Test
+    public void decodeIgnoresCharactersOutsideAlphabet() {
+        Random random = new Random(SEED + 1);
+        // 'Ł'(U+0141)的低8位是'A'，'中'(U+4E2D)的低8位是'-'，不能被当作字母表中的字符
+        char[] noise = {' ', '\t', '\r', '\n', '.', '*', '\u00E9', '\u4E2D', '\uFFFF', '\u0141'};
+        for (int round = 0; round < 500; round++) {
+            byte[] data = randomBytes(random, random.nextInt(300));
+            String encoded = Base64Codec.encodeToString(data, Base64.NO_WRAP);
+            StringBuilder noisy = new StringBuilder();
+            for (int i = 0; i < encoded.length(); i++) {
+                while (random.nextInt(4) == 0) {
+                    noisy.append(noise[random.nextInt(noise.length)]);
+                }
+                noisy.append(encoded.charAt(i));
+            }
+            String text = noisy.toString();
+            assertArrayEquals(data, Base64Codec.decode(text, Base64.DEFAULT));
+            assertEquals(data.length, Base64Codec.decodedLength(text, Base64.DEFAULT));
+            byte[] latin1 = new byte[text.length()];
+            for (int i = 0; i < latin1.length; i++) {
+                char c = text.charAt(i);
+                latin1[i] = c < 0x100 ? (byte) c : (byte) 0xFF;
+            }
+            assertArrayEquals(data, Base64Codec.decode(latin1, Base64.DEFAULT));
+            assertArrayEquals(data, decodeWithCoder(latin1, Base64.DEFAULT, 1 + random.nextInt(7)));
+        }
+    }
+
+    @Test
+    public void decodeRejectsMalformedInput() {
+        for (String input : new String[]{"A", "AAAAA", "=", "A=", "AB=", "AB=A", "ABC=A", "ABCD=", "AB===", "AB==AB", "====",
+                "Zg==Zg=="}) {
+            try {
+                Base64Codec.decode(input, Base64.DEFAULT);
+                fail(input);
+            } catch (IllegalArgumentException expected) {
+                // 数据格式错误
+            }
+            try {
+                decodeWithCoder(input.getBytes(), Base64.DEFAULT, 1);
+                fail(input);
+            } catch (IllegalArgumentException expected) {
+                // 数据格式错误
+            }
+        }
+    }
+
+    /**
+     * 解码器出错后状态被重置，可以继续解码新的数据
+     */
+    @Test
+    public void decoderIsReusableAfterError() {
+        Base64Coder.Decoder decoder = Base64Coder.newDecoder(Base64.DEFAULT);
+        byte[] dst = new byte[16];
+        byte[] bad = "AB=A".getBytes();
+        try {
+            decoder.process(bad, 0, bad.length, dst, 0, true);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // 数据格式错误
+        }
+        byte[] good = "Zm9vYmFy".getBytes();
+        assertEquals(6, decoder.process(good, 0, good.length, dst, 0, true));
+        assertArrayEquals("foobar".getBytes(), Arrays.copyOf(dst, 6));
+    }
+
+    /**
+     * 增量编码/解码在任意位置分段时结果与一次处理相同
+     */
+    @Test
+    public void coderMatchesCodecForAnySplit() {
+        Random random = new Random(SEED + 2);
+        for (int round = 0; round < 300; round++) {
+            int flags = FLAGS[random.nextInt(FLAGS.length)];
+            byte[] data = randomBytes(random, random.nextInt(1000));
+            byte[] encoded = Base64Codec.encode(data, flags);
+            int maxChunk = 1 + random.nextInt(100);
+            assertArrayEquals(encoded, encodeWithCoder(data, flags, maxChunk, random));
+            assertArrayEquals(data, decodeWithCoder(encoded, flags, maxChunk));
+        }
+    }
+
+    @Test
+    public void streamsMatchCodec() throws IOException {
+        Random random = new Random(SEED + 3);
+        for (int flags : FLAGS) {
+            for (int length : new int[]{0, 1, 2, 3, 57, 1000, 57 * 96, 57 * 96 + 1, 30000}) {
+                byte[] data = randomBytes(random, length);
+                byte[] encoded = Base64Codec.encode(data, flags);
+
+                ByteArrayOutputStream sink = new ByteArrayOutputStream();
+                OutputStream out = Base64Coder.encodingOutputStream(sink, flags);
+                writeInPieces(out, data, random);
+                out.close();
+                assertArrayEquals(encoded, sink.toByteArray());
+
+                sink = new ByteArrayOutputStream();
+                out = Base64Coder.decodingOutputStream(sink, flags);
+                writeInPieces(out, encoded, random);
+                out.close();
+                assertArrayEquals(data, sink.toByteArray());
+
+                assertArrayEquals(encoded, readAll(Base64Coder.encodingInputStream(new ByteArrayInputStream(data), flags)));
+                assertArrayEquals(data, readAll(Base64Coder.decodingInputStream(new ByteArrayInputStream(encoded), flags)));
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void decodingStreamReportsMalformedInput() throws IOException {
+        readAll(Base64Coder.decodingInputStream(new ByteArrayInputStream("Zm9vY".getBytes()), Base64.DEFAULT));
+    }
+
+    private static void checkEncodeAndDecode(byte[] data, int flags) throws IOException {
+        String expected = reference(data, flags);
+        int length = Base64Codec.encodedLength(data.length, flags);
+        assertEquals(expected.length(), length);
+        assertEquals(expected, Base64Codec.encodeToString(data, flags));
+        assertEquals(expected, new String(Base64Codec.encode(data, flags), "US-ASCII"));
+
+        ByteBuffer heap = ByteBuffer.allocate(length);
+        assertEquals(length, Base64Codec.encode(ByteBuffer.wrap(data), heap, flags));
+        assertEquals(expected, new String(heap.array(), "US-ASCII"));
+        ByteBuffer direct = ByteBuffer.allocateDirect(length);
+        ByteBuffer source = ByteBuffer.allocateDirect(data.length);
+        source.put(data).flip();
+        assertEquals(length, Base64Codec.encode(source, direct, flags));
+        direct.flip();
+        byte[] directBytes = new byte[direct.remaining()];
+        direct.get(directBytes);
+        assertEquals(expected, new String(directBytes, "US-ASCII"));
+
+        byte[] encoded = expected.getBytes("US-ASCII");
+        assertEquals(data.length, Base64Codec.decodedLength(encoded, 0, encoded.length, flags));
+        assertEquals(data.length, Base64Codec.decodedLength(expected, flags));
+        assertArrayEquals(data, Base64Codec.decode(encoded, flags));
+        assertArrayEquals(data, Base64Codec.decode(expected, flags));
+        byte[] padded = new byte[data.length + 2];
+        char[] chars = ("#" + expected).toCharArray();
+        assertEquals(data.length, Base64Codec.decode(chars, 1, chars.length - 1, padded, 1, flags));
+        assertArrayEquals(data, Arrays.copyOfRange(padded, 1, data.length + 1));
+
+        ByteBuffer decoded = ByteBuffer.allocate(data.length);
+        assertEquals(data.length, Base64Codec.decode(ByteBuffer.wrap(encoded), decoded, flags));
+        assertArrayEquals(data, decoded.array());
+        ByteBuffer directSource = ByteBuffer.allocateDirect(encoded.length);
+        directSource.put(encoded).flip();
+        ByteBuffer directDecoded = ByteBuffer.allocateDirect(data.length);
+        assertEquals(data.length, Base64Codec.decode(directSource, directDecoded, flags));
+        directDecoded.flip();
+        byte[] result = new byte[directDecoded.remaining()];
+        directDecoded.get(result);
+        assertArrayEquals(data, result);
+    }
+
+    /**
+     * 按{@link Base64}的规则生成参考结果
+     */
+    private static String reference(byte[] data, int flags) {
+        java.util.Base64.Encoder encoder = (flags & Base64.URL_SAFE) == 0
+                ? java.util.Base64.getEncoder() : java.util.Base64.getUrlEncoder();
+        if ((flags & Base64.NO_PADDING) != 0) {
+            encoder = encoder.withoutPadding();
+        }
+        String encoded = encoder.encodeToString(data);
+        if ((flags & Base64.NO_WRAP) != 0) {
+            return encoded;
+        }
+        String newline = (flags & Base64.CRLF) == 0 ? "\n" : "\r\n";
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < encoded.length(); i += 76) {
+            builder.append(encoded, i, Math.min(i + 76, encoded.length())).append(newline);
+        }
+        return builder.toString();
+    }
+
+    private static byte[] encodeWithCoder(byte[] data, int flags, int maxChunk, Random random) {
+        Base64Coder.Encoder encoder = Base64Coder.newEncoder(flags);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int p = 0;
+        do {
+            int count = Math.min(data.length - p, random.nextInt(maxChunk + 1));
+            boolean finish = p + count == data.length;
+            byte[] dst = new byte[encoder.maxOutputSize(count)];
+            out.write(dst, 0, encoder.process(data, p, count, dst, 0, finish));
+            p += count;
+            if (finish) {
+                break;
+            }
+        } while (true);
+        return out.toByteArray();
+    }
+
+    private static byte[] decodeWithCoder(byte[] data, int flags, int chunk) {
+        Base64Coder.Decoder decoder = Base64Coder.newDecoder(flags);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int p = 0;
+        do {
+            int count = Math.min(data.length - p, chunk);
+            boolean finish = p + count == data.length;
+            byte[] dst = new byte[decoder.maxOutputSize(count)];
+            out.write(dst, 0, decoder.process(data, p, count, dst, 0, finish));
+            p += count;
+            if (finish) {
+                break;
+            }
+        } while (true);
+        return out.toByteArray();
+    }
+
+    private static void writeInPieces(OutputStream out, byte[] data, Random random) throws IOException {
+        int p = 0;
+        while (p < data.length) {
+            if (random.nextInt(8) == 0) {
+                out.write(data[p++]);
+            } else {
+                int count = Math.min(data.length - p, 1 + random.nextInt(20000));
+                out.write(data, p, count);
+                p += count;
+            }
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            byte[] buffer = new byte[777];
+            int length;
+            while ((length = in.read(buffer)) != -1) {
+                out.write(buffer, 0, length);
+            }
+        } finally {
+            in.close();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] randomBytes(Random random, int length) {
+        byte[] data = new byte[length];
+        random.nextBytes(data);
+        return data;
+    }
+
+    /**
+     * NO_PADDING、NO_WRAP、CRLF、URL_SAFE的所有组合
+     */
+    private static int[] createFlags() {
+        int[] bits = {Base64.NO_PADDING, Base64.NO_WRAP, Base64.CRLF, Base64.URL_SAFE};
+        int[] flags = new int[1 << bits.length];
+        for (int i = 0; i < flags.length; i++) {
+            for (int j = 0; j < bits.length; j++) {
+                if ((i & 1 << j) != 0) {
+                    flags[i] |= bits[j];
+                }
+            }
+        }
+        return flags;
+    }
+
+}
@@ -0,0 +1,178 @@
+package com.henley.android.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link BufferPool}的测试
+ */
+public class BufferPoolTest {
+
+    private static final int[] SIZES = {1, 4096, 4097, 8192, 20000, 65536, 100000, 262144};
+    private static final int ITERATIONS = 10000;
+
+    @Before
+    public void setUp() {
+        warmUp();
+        BufferPool.resetCounters();
+    }
+
+    @Test
+    public void acquiredBuffersAreLargeEnough() {
+        for (int size : SIZES) {
+            byte[] bytes = BufferPool.acquireBytes(size);
+            char[] chars = BufferPool.acquireChars(size);
+            assertTrue(bytes.length >= size);
+            assertTrue(chars.length >= size);
+            BufferPool.release(bytes);
+            BufferPool.release(chars);
+        }
+    }
+
+    /**
+     * 稳定运行时申请和归还不再分配新的缓冲区
+     */
+    @Test
+    public void steadyStateDoesNotAllocate() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            int size = SIZES[i % SIZES.length];
+            byte[] bytes = BufferPool.acquireBytes(size);
+            char[] chars = BufferPool.acquireChars(size);
+            BufferPool.release(chars);
+            BufferPool.release(bytes);
+        }
+        assertEquals(ITERATIONS * 2L, BufferPool.getAcquireCount());
+        assertEquals(0, BufferPool.getAllocationCount());
+        assertEquals(0, BufferPool.getAllocatedBytes());
+    }
+
+    /**
+     * 同时持有同一级别的多个缓冲区(线程缓存加共享缓冲区)时也不再分配
+     */
+    @Test
+    public void steadyStateWithNestedBuffersDoesNotAllocate() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            byte[] first = BufferPool.acquireBytes(BufferPool.DEFAULT_BUFFER_SIZE);
+            byte[] second = BufferPool.acquireBytes(BufferPool.DEFAULT_BUFFER_SIZE);
+            byte[] third = BufferPool.acquireBytes(BufferPool.DEFAULT_BUFFER_SIZE);
+            assertNotSame(first, second);
+            assertNotSame(second, third);
+            BufferPool.release(third);
+            BufferPool.release(second);
+            BufferPool.release(first);
+        }
+        assertEquals(0, BufferPool.getAllocationCount());
+    }
+
+    @Test
+    public void steadyStateAcrossThreadsDoesNotAllocate() throws Exception {
+        final int threads = 4;
+        final CyclicBarrier barrier = new CyclicBarrier(threads + 1);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        for (int t = 0; t < threads; t++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        warmUp();
+                        barrier.await();
+                        barrier.await();
+                        for (int i = 0; i < ITERATIONS; i++) {
+                            BufferPool.release(BufferPool.acquireBytes(SIZES[i % SIZES.length]));
+                            BufferPool.release(BufferPool.acquireChars(SIZES[i % SIZES.length]));
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        try {
+                            barrier.await();
+                        } catch (Exception ignored) {
+                        }
+                    }
+                }
+            }).start();
+        }
+        barrier.await();
+        BufferPool.resetCounters();
+        barrier.await();
+        barrier.await();
+        assertNull(failure.get());
+        assertEquals(threads * ITERATIONS * 2L, BufferPool.getAcquireCount());
+        assertEquals(0, BufferPool.getAllocationCount());
+    }
+
+    @Test
+    public void oversizedBuffersAreNotPooled() {
+        byte[] first = BufferPool.acquireBytes(262145);
+        BufferPool.release(first);
+        byte[] second = BufferPool.acquireBytes(262145);
+        assertNotSame(first, second);
+        assertEquals(2, BufferPool.getAllocationCount());
+    }
+
+    /**
+     * 同一线程中重复归还仍在池中的缓冲区时不会把它交给两个使用者
+     */
+    @Test
+    public void doubleReleaseIsIgnored() {
+        for (int size : new int[]{4096, 65536, 262144}) {
+            byte[] buffer = BufferPool.acquireBytes(size);
+            byte[] other = BufferPool.acquireBytes(size);
+            BufferPool.release(buffer);
+            BufferPool.release(buffer);
+            BufferPool.release(other);
+            byte[] first = BufferPool.acquireBytes(size);
+            byte[] second = BufferPool.acquireBytes(size);
+            assertNotSame(first, second);
+            BufferPool.release(first);
+            BufferPool.release(second);
+
+            char[] chars = BufferPool.acquireChars(size);
+            BufferPool.release(chars);
+            BufferPool.release(chars);
+            char[] firstChars = BufferPool.acquireChars(size);
+            char[] secondChars = BufferPool.acquireChars(size);
+            assertSame(chars, firstChars);
+            assertNotSame(firstChars, secondChars);
+            BufferPool.release(firstChars);
+            BufferPool.release(secondChars);
+        }
+    }
+
+    @Test
+    public void buffersWithOtherLengthsAreIgnored() {
+        byte[] odd = new byte[5000];
+        BufferPool.release(odd);
+        for (int i = 0; i < 8; i++) {
+            assertNotSame(odd, BufferPool.acquireBytes(5000));
+        }
+    }
+
+    /**
+     * 每个级别同时持有并归还多个缓冲区，填满线程缓存和共享缓冲区(每个级别4个)
+     */
+    private static void warmUp() {
+        for (int size : SIZES) {
+            byte[][] bytes = new byte[5][];
+            char[][] chars = new char[5][];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = BufferPool.acquireBytes(size);
+                chars[i] = BufferPool.acquireChars(size);
+            }
+            for (int i = 0; i < bytes.length; i++) {
+                BufferPool.release(bytes[i]);
+                BufferPool.release(chars[i]);
+            }
+        }
+    }
+
+}
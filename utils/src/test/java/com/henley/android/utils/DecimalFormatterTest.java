@@ -0,0 +1,181 @@
+package com.henley.android.utils;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.text.DecimalFormat;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * {@link DecimalFormatter}与{@code new DecimalFormat(pattern)}的对比测试(包括快速路径和回退到{@link DecimalFormat}的情况)
+ */
+public class DecimalFormatterTest {
+
+    private static final long SEED = 20261018L;
+    private static final String[] PATTERNS = {
+            // NumberUtils.formatOneDecimal/formatTwoDecimal/formatTwoDecimalPercent
+            "##0.0", "##0.00", "##0.00%",
+            // NumberUtils.formateDecimalFromString使用的分组格式
+            "###,###,###,##0.##", "###,###,###,##0.00", "###,###,###,###,##0",
+            "##0.0%", "#,##0", "0", "0.#", "#,##,##0.0#",
+            // 快速路径不支持的格式
+            "000.000", "#.##E0", "\u00A4#,##0.00",
+    };
+    private static final Locale[] LOCALES = {
+            Locale.US,
+            Locale.GERMANY,
+            Locale.FRANCE,
+            Locale.forLanguageTag("de-CH"),
+            Locale.forLanguageTag("ar-EG"),
+            Locale.forLanguageTag("th-TH-u-nu-thai"),
+            Locale.forLanguageTag("hi-IN-u-nu-deva"),
+    };
+    private static final int CASES_PER_PATTERN = 2000;
+
+    private final Locale defaultLocale = Locale.getDefault();
+
+    @After
+    public void restoreLocale() {
+        Locale.setDefault(defaultLocale);
+    }
+
+    @Test
+    public void randomDoublesMatchDecimalFormat() {
+        Random random = new Random(SEED);
+        for (Locale locale : LOCALES) {
+            Locale.setDefault(locale);
+            for (String pattern : PATTERNS) {
+                DecimalFormat reference = new DecimalFormat(pattern);
+                for (int i = 0; i < CASES_PER_PATTERN; i++) {
+                    assertSame(reference, pattern, randomDouble(random));
+                }
+            }
+        }
+    }
+
+    /**
+     * 恰好位于或接近舍入边界的值(HALF_EVEN)
+     */
+    @Test
+    public void tiesMatchDecimalFormat() {
+        Random random = new Random(SEED + 1);
+        for (Locale locale : LOCALES) {
+            Locale.setDefault(locale);
+            for (String pattern : PATTERNS) {
+                DecimalFormat reference = new DecimalFormat(pattern);
+                for (int scale = 0; scale <= 5; scale++) {
+                    for (int i = 0; i < 200; i++) {
+                        // k.5 / 10^scale，例如0.125、2.675、0.005
+                        double tie = (random.nextInt(200000) * 2 + 1) / (2 * Math.pow(10, scale));
+                        assertSame(reference, pattern, tie);
+                        assertSame(reference, pattern, -tie);
+                        assertSame(reference, pattern, Math.nextUp(tie));
+                        assertSame(reference, pattern, Math.nextDown(tie));
+                    }
+                }
+                double[] fixed = {0.5, 1.5, 2.5, 0.05, 0.15, 0.25, 0.005, 0.015, 0.045, 1.005, 2.675, 1.115, 0.0005, 0.00005};
+                for (double value : fixed) {
+                    assertSame(reference, pattern, value);
+                    assertSame(reference, pattern, -value);
+                }
+            }
+        }
+    }
+
+    /**
+     * 负零及舍入后为零的负数保留负号(与{@link DecimalFormat}相同)，非有限值交给{@link DecimalFormat}处理
+     */
+    @Test
+    public void negativeZeroAndSpecialValues() {
+        double[] values = {
+                -0.0, 0.0, -0.001, -0.0049, -0.04, -1e-300, Double.MIN_VALUE, -Double.MIN_VALUE,
+                Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.MAX_VALUE, -Double.MAX_VALUE,
+                1L << 43, (1L << 43) / 100.0, 9.999999999999e12, Long.MAX_VALUE, Long.MIN_VALUE,
+        };
+        for (Locale locale : LOCALES) {
+            Locale.setDefault(locale);
+            for (String pattern : PATTERNS) {
+                DecimalFormat reference = new DecimalFormat(pattern);
+                for (double value : values) {
+                    assertSame(reference, pattern, value);
+                }
+            }
+        }
+        Locale.setDefault(Locale.US);
+        assertEquals("-0.00", DecimalFormatter.format(-0.0, "##0.00"));
+        assertEquals("-0", DecimalFormatter.format(-0.001, "###,###,###,##0.##"));
+    }
+
+    @Test
+    public void randomLongsMatchDecimalFormat() {
+        Random random = new Random(SEED + 2);
+        long[] fixed = {0, -1, 1, 999, 1000, -1000, 1234567, (1L << 43) - 1, 1L << 43, -(1L << 43), Long.MAX_VALUE, Long.MIN_VALUE};
+        for (Locale locale : LOCALES) {
+            Locale.setDefault(locale);
+            for (String pattern : PATTERNS) {
+                DecimalFormat reference = new DecimalFormat(pattern);
+                for (long value : fixed) {
+                    assertEquals(describe(pattern, value), reference.format(value), DecimalFormatter.format(value, pattern));
+                }
+                for (int i = 0; i < 500; i++) {
+                    long value = random.nextLong() >> random.nextInt(64);
+                    assertEquals(describe(pattern, value), reference.format(value), DecimalFormatter.format(value, pattern));
+                }
+            }
+        }
+    }
+
+    /**
+     * 使用非拉丁数字的语言时输出对应的数字字符
+     */
+    @Test
+    public void nonLatinDigits() {
+        Locale.setDefault(Locale.forLanguageTag("th-TH-u-nu-thai"));
+        String formatted = DecimalFormatter.format(1234.5, "###,###,###,##0.00");
+        assertEquals(new DecimalFormat("###,###,###,##0.00").format(1234.5), formatted);
+        assertNotEquals("1,234.50", formatted);
+        assertEquals('\u0E51', formatted.charAt(0));
+    }
+
+    /**
+     * 默认语言改变后缓存失效
+     */
+    @Test
+    public void localeChangeInvalidatesCache() {
+        Locale.setDefault(Locale.US);
+        assertEquals("1,234.50", DecimalFormatter.format(1234.5, "###,###,###,##0.00"));
+        Locale.setDefault(Locale.GERMANY);
+        assertEquals("1.234,50", DecimalFormatter.format(1234.5, "###,###,###,##0.00"));
+        assertEquals("1.234,50", DecimalFormatter.getFormat("###,###,###,##0.00").format(1234.5));
+    }
+
+    private static void assertSame(DecimalFormat reference, String pattern, double value) {
+        String expected = reference.format(value);
+        String message = describe(pattern, value);
+        assertEquals(message, expected, DecimalFormatter.format(value, pattern));
+        assertEquals(message, "#" + expected, DecimalFormatter.format(value, pattern, new StringBuilder("#")).toString());
+    }
+
+    private static double randomDouble(Random random) {
+        switch (random.nextInt(5)) {
+            case 0:
+                return Double.longBitsToDouble(random.nextLong());
+            case 1:
+                // 短小数
+                return (random.nextInt(2000001) - 1000000) / Math.pow(10, random.nextInt(6));
+            case 2:
+                return random.nextDouble() * 10 - 5;
+            default:
+                return (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(16));
+        }
+    }
+
+    private static String describe(String pattern, Object value) {
+        return Locale.getDefault() + " " + pattern + " " + value;
+    }
+
+}
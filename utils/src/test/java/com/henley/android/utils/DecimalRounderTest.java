@@ -0,0 +1,240 @@
+package com.henley.android.utils;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link DecimalRounder}的随机属性测试(结果必须与{@code new BigDecimal(x).setScale(scale, mode).doubleValue()}逐位相同)
+ */
+public class DecimalRounderTest {
+
+    private static final long SEED = 20261018L;
+    private static final int MAX_SCALE = 9;
+    private static final int CASES_PER_SCALE = 1000;
+
+    @Test
+    public void randomDoubleBitPatterns() {
+        Random random = new Random(SEED);
+        for (RoundingMode mode : RoundingMode.values()) {
+            for (int scale = 0; scale <= MAX_SCALE; scale++) {
+                for (int i = 0; i < CASES_PER_SCALE; i++) {
+                    double value = Double.longBitsToDouble(random.nextLong());
+                    if (!Double.isNaN(value) && !Double.isInfinite(value)) {
+                        assertRound(value, scale, mode);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void randomDoublesInCommonRange() {
+        Random random = new Random(SEED + 1);
+        for (RoundingMode mode : RoundingMode.values()) {
+            for (int scale = 0; scale <= MAX_SCALE; scale++) {
+                for (int i = 0; i < CASES_PER_SCALE; i++) {
+                    double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12));
+                    assertRound(value, scale, mode);
+                    // 短小数(如0.125、2.675)
+                    assertRound(random.nextInt(100000) / Math.pow(10, random.nextInt(6)), scale, mode);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void randomFloatBitPatterns() {
+        Random random = new Random(SEED + 2);
+        for (RoundingMode mode : RoundingMode.values()) {
+            for (int scale = 0; scale <= MAX_SCALE; scale++) {
+                for (int i = 0; i < CASES_PER_SCALE; i++) {
+                    float value = Float.intBitsToFloat(random.nextInt());
+                    if (!Float.isNaN(value) && !Float.isInfinite(value)) {
+                        assertRound(value, scale, mode);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * (2n + 1) / 2^(scale + 1)放大10^scale倍后小数部分恰好为0.5
+     */
+    @Test
+    public void dyadicTies() {
+        Random random = new Random(SEED + 3);
+        for (RoundingMode mode : RoundingMode.values()) {
+            for (int scale = 0; scale <= MAX_SCALE; scale++) {
+                double denominator = Math.pow(2, scale + 1);
+                for (int i = 0; i < CASES_PER_SCALE; i++) {
+                    double value = (2L * random.nextInt(1 << 20) + 1) / denominator;
+                    assertRound(value, scale, mode);
+                    assertRound(-value, scale, mode);
+                    assertRound(Math.nextUp(value), scale, mode);
+                    assertRound(Math.nextAfter(value, 0), scale, mode);
+                }
+            }
+        }
+    }
+
+    /**
+     * 放大后接近2^52(快速路径与{@link BigDecimal}的分界)
+     */
+    @Test
+    public void valuesNearTwoPowerFiftyTwo() {
+        double limit = Math.pow(2, 52);
+        for (RoundingMode mode : RoundingMode.values()) {
+            for (int scale = 0; scale <= MAX_SCALE; scale++) {
+                double boundary = limit / Math.pow(10, scale);
+                double value = boundary;
+                for (int i = 0; i < 64; i++) {
+                    value = Math.nextAfter(value, 0);
+                }
+                for (int i = 0; i < 128; i++) {
+                    assertRound(value, scale, mode);
+                    assertRound(-value, scale, mode);
+                    value = Math.nextUp(value);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void scalesOutsideFastRange() {
+        Random random = new Random(SEED + 4);
+        for (RoundingMode mode : RoundingMode.values()) {
+            for (int i = 0; i < CASES_PER_SCALE; i++) {
+                double value = (random.nextDouble() - 0.5) * 1e6;
+                assertRound(value, -1 - random.nextInt(3), mode);
+                assertRound(value, 10 + random.nextInt(10), mode);
+            }
+        }
+    }
+
+    @Test
+    public void unnecessary() {
+        assertEquals(1.25, DecimalRounder.round(1.25, 2, RoundingMode.UNNECESSARY), 0);
+        assertEquals(-3.0, DecimalRounder.round(-3.0, 0, RoundingMode.UNNECESSARY), 0);
+        assertEquals(0.5, DecimalRounder.round(0.5, 1, RoundingMode.UNNECESSARY), 0);
+        double[] inexact = {0.1, 1.005, 2.5, -7.125};
+        int[] scales = {1, 2, 0, 2};
+        for (int i = 0; i < inexact.length; i++) {
+            try {
+                DecimalRounder.round(inexact[i], scales[i], RoundingMode.UNNECESSARY);
+                fail("Expected ArithmeticException for " + inexact[i]);
+            } catch (ArithmeticException expected) {
+                // 与BigDecimal相同
+            }
+        }
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void nanIsRejected() {
+        DecimalRounder.round(Double.NaN, 2, RoundingMode.HALF_UP);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void infinityIsRejected() {
+        DecimalRounder.round(Double.NEGATIVE_INFINITY, 2, RoundingMode.HALF_UP);
+    }
+
+    @Test
+    public void roundDoubleArray() {
+        Random random = new Random(SEED + 5);
+        for (RoundingMode mode : RoundingMode.values()) {
+            if (mode == RoundingMode.UNNECESSARY) {
+                continue;
+            }
+            for (int scale = 0; scale <= MAX_SCALE; scale++) {
+                double[] values = new double[64];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(10));
+                }
+                values[3] = Double.NaN;
+                values[7] = Double.POSITIVE_INFINITY;
+                double[] original = values.clone();
+                int offset = 2;
+                int length = values.length - 4;
+                DecimalRounder.round(values, offset, length, scale, mode);
+                for (int i = 0; i < values.length; i++) {
+                    double expected = i < offset || i >= offset + length || Double.isNaN(original[i]) || Double.isInfinite(original[i])
+                            ? original[i] : expected(original[i], scale, mode);
+                    assertBitsEqual(original[i], scale, mode, expected, values[i]);
+                }
+                DecimalRounder.round(original, scale, mode);
+                for (int i = 0; i < original.length; i++) {
+                    if (i >= offset && i < offset + length) {
+                        assertBitsEqual(original[i], scale, mode, values[i], original[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void roundFloatArray() {
+        Random random = new Random(SEED + 6);
+        for (RoundingMode mode : RoundingMode.values()) {
+            if (mode == RoundingMode.UNNECESSARY) {
+                continue;
+            }
+            for (int scale = 0; scale <= MAX_SCALE; scale++) {
+                float[] values = new float[64];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = (float) ((random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(8)));
+                }
+                values[5] = Float.NaN;
+                values[9] = Float.NEGATIVE_INFINITY;
+                float[] original = values.clone();
+                int offset = 1;
+                int length = values.length - 3;
+                DecimalRounder.round(values, offset, length, scale, mode);
+                for (int i = 0; i < values.length; i++) {
+                    float expected = i < offset || i >= offset + length || Float.isNaN(original[i]) || Float.isInfinite(original[i])
+                            ? original[i] : (float) expected(original[i], scale, mode);
+                    if (Float.floatToIntBits(expected) != Float.floatToIntBits(values[i])) {
+                        fail("round(" + original[i] + "f, " + scale + ", " + mode + ") expected " + expected + " but was " + values[i]);
+                    }
+                }
+                float[] whole = original.clone();
+                DecimalRounder.round(whole, scale, mode);
+                for (int i = offset; i < offset + length; i++) {
+                    assertEquals(Float.floatToIntBits(values[i]), Float.floatToIntBits(whole[i]));
+                }
+            }
+        }
+    }
+
+    private static void assertRound(double value, int scale, RoundingMode mode) {
+        double expected;
+        try {
+            expected = expected(value, scale, mode);
+        } catch (ArithmeticException e) {
+            try {
+                DecimalRounder.round(value, scale, mode);
+                fail("round(" + value + ", " + scale + ", " + mode + ") expected ArithmeticException");
+            } catch (ArithmeticException expectedException) {
+                // 与BigDecimal相同
+            }
+            return;
+        }
+        assertBitsEqual(value, scale, mode, expected, DecimalRounder.round(value, scale, mode));
+    }
+
+    private static void assertBitsEqual(double value, int scale, RoundingMode mode, double expected, double actual) {
+        if (Double.doubleToLongBits(expected) != Double.doubleToLongBits(actual)) {
+            fail("round(" + new BigDecimal(value) + ", " + scale + ", " + mode + ") expected " + expected + " but was " + actual);
+        }
+    }
+
+    private static double expected(double value, int scale, RoundingMode mode) {
+        return new BigDecimal(value).setScale(scale, mode).doubleValue();
+    }
+
+}
@@ -0,0 +1,301 @@
+package com.henley.android.utils;
+
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link DigestUtils}消息摘要及HMAC的测试
+ */
+public class DigestUtilsTest {
+
+    private static final long SEED = 20261018L;
+    private static final String[] ALGORITHMS = {"MD5", "SHA", "SHA-256", "SHA-384", "SHA-512"};
+    private static final String[] HMAC_ALGORITHMS = {"HmacMD5", "HmacSHA1", "HmacSHA256", "HmacSHA512"};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * 所有重载与{@link MessageDigest}的结果相同
+     */
+    @Test
+    public void overloadsMatchMessageDigest() throws Exception {
+        Random random = new Random(SEED);
+        for (int round = 0; round < 200; round++) {
+            String algorithm = ALGORITHMS[random.nextInt(ALGORITHMS.length)];
+            byte[] data = new byte[random.nextInt(300)];
+            random.nextBytes(data);
+            int offset = data.length == 0 ? 0 : random.nextInt(data.length);
+            int length = random.nextInt(data.length - offset + 1);
+            byte[] expected = reference(algorithm, data, offset, length);
+
+            assertArrayEquals(expected, DigestUtils.digest(algorithm, data, offset, length));
+            assertArrayEquals(reference(algorithm, data, 0, data.length), DigestUtils.digest(algorithm, data));
+            byte[] out = new byte[expected.length + 3];
+            assertEquals(expected.length, DigestUtils.digest(algorithm, data, offset, length, out, 3));
+            assertArrayEquals(expected, Arrays.copyOfRange(out, 3, out.length));
+
+            ByteBuffer direct = ByteBuffer.allocateDirect(length);
+            direct.put(data, offset, length).flip();
+            assertArrayEquals(expected, DigestUtils.digest(algorithm, direct));
+            assertEquals(0, direct.remaining());
+            ByteBuffer heap = ByteBuffer.wrap(data, offset, length);
+            assertEquals(expected.length, DigestUtils.digest(algorithm, heap, out, 0));
+            assertArrayEquals(expected, Arrays.copyOf(out, expected.length));
+
+            boolean lowerCase = random.nextBoolean();
+            String hex = hex(expected, lowerCase);
+            assertEquals("#" + hex, DigestUtils.appendDigestHex(new StringBuilder("#"), algorithm, data, offset, length, lowerCase).toString());
+        }
+        byte[] data = "abc".getBytes("UTF-8");
+        assertEquals("900150983CD24FB0D6963F7D28E17F72", DigestUtils.encodeMD5Hex(data));
+        assertEquals("A9993E364706816ABA3E25717850C26C9CD0D89D", DigestUtils.encodeSHAHex(data));
+        assertEquals("BA7816BF8F01CFEA414140DE5DAE2223B00361A396177A9CB410FF61F20015AD", DigestUtils.encodeSHA256Hex(data));
+    }
+
+    /**
+     * 在进度回调中再次计算相同算法的摘要(嵌套使用)时，内外两层的结果都正确
+     */
+    @Test
+    public void nestedDigestUsesSeparateInstance() throws IOException {
+        final byte[] data = new byte[3 * 1024 * 1024 + 17];
+        new Random(SEED).nextBytes(data);
+        File file = folder.newFile("data.bin");
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(data);
+        } finally {
+            out.close();
+        }
+        final byte[] inner = "inner".getBytes("UTF-8");
+        final byte[] innerExpected = reference("SHA-256", inner, 0, inner.length);
+        final int[] calls = new int[1];
+        byte[] outer = DigestUtils.digest(file, "SHA-256", new DigestUtils.ProgressListener() {
+            @Override
+            public void onProgress(long processedBytes, long totalBytes) {
+                calls[0]++;
+                assertArrayEquals(innerExpected, DigestUtils.digest("SHA-256", inner));
+            }
+        });
+        assertTrue(calls[0] > 2);
+        assertArrayEquals(reference("SHA-256", data, 0, data.length), outer);
+        assertArrayEquals(innerExpected, DigestUtils.digest("SHA-256", inner));
+    }
+
+    /**
+     * 输出数组空间不足时抛出异常，缓存的实例被归还且状态被重置
+     */
+    @Test
+    public void tooSmallOutputReleasesDigest() throws Exception {
+        byte[] data = "abc".getBytes("UTF-8");
+        try {
+            DigestUtils.digest("SHA-256", data, 0, data.length, new byte[16], 0);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // 空间不足
+        }
+        assertArrayEquals(reference("SHA-256", data, 0, data.length), DigestUtils.digest("SHA-256", data));
+    }
+
+    /**
+     * 写入调用方数组的重载在预热后不分配内存
+     */
+    @Test
+    public void digestIntoArrayDoesNotAllocate() throws Exception {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        byte[] data = new byte[64];
+        byte[] out = new byte[64];
+        StringBuilder builder = new StringBuilder(256);
+        for (int i = 0; i < 20000; i++) {
+            DigestUtils.digest("SHA-256", data, 0, data.length, out, 0);
+            builder.setLength(0);
+            DigestUtils.appendDigestHex(builder, "MD5", data, 0, data.length, true);
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 10000; i++) {
+            DigestUtils.digest("SHA-256", data, 0, data.length, out, 0);
+            builder.setLength(0);
+            DigestUtils.appendDigestHex(builder, "MD5", data, 0, data.length, true);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        // 允许测量本身的少量分配，每次调用分配一个对象就会超过
+        assertTrue("allocated " + allocated + " bytes", allocated < 10000);
+    }
+
+    /**
+     * RFC 2202及RFC 4231中的测试用例2
+     */
+    @Test
+    public void hmacKnownVectors() throws Exception {
+        byte[] key = "Jefe".getBytes("US-ASCII");
+        byte[] data = "what do ya want for nothing?".getBytes("US-ASCII");
+        String[] expected = {
+                "750c783e6ab0b503eaa86e310a5db738",
+                "effcdf6ae5eb2fa2d27416d5f184df9c259a7c79",
+                "5bdcc146bf60754e6a042426089575c75a003f089d2739839dec58b964ec3843",
+                "164b7a7bfcf819e2e395fbe73b56e0a387bd64222e831fd610270cd7ea250554"
+                        + "9758bf75c05a994a6d034f65f8f0e6fdcaeab1a34d4a6b4b636e070a38bce737",
+        };
+        for (int i = 0; i < HMAC_ALGORITHMS.length; i++) {
+            assertEquals(expected[i], DigestUtils.hmacHex(HMAC_ALGORITHMS[i], key, data, true));
+            assertEquals(expected[i], DigestUtils.newHmac(HMAC_ALGORITHMS[i], key).signHex(data, true));
+        }
+        assertEquals(expected[2].toUpperCase(Locale.US), DigestUtils.encodeHmacSHA256Hex(data, key));
+    }
+
+    /**
+     * 签名器及静态方法的所有重载与每次新建的{@link Mac}结果相同，签名器可以重复使用
+     */
+    @Test
+    public void hmacMatchesFreshMac() throws Exception {
+        Random random = new Random(SEED);
+        for (String algorithm : HMAC_ALGORITHMS) {
+            byte[] key = new byte[1 + random.nextInt(200)];
+            random.nextBytes(key);
+            DigestUtils.HmacSigner signer = DigestUtils.newHmac(algorithm, key);
+            assertEquals(algorithm, signer.getAlgorithm());
+            for (int round = 0; round < 50; round++) {
+                byte[] data = new byte[random.nextInt(3000)];
+                random.nextBytes(data);
+                int offset = data.length == 0 ? 0 : random.nextInt(data.length);
+                int length = random.nextInt(data.length - offset + 1);
+                byte[] expected = referenceHmac(algorithm, key, data, offset, length);
+                assertEquals(expected.length, signer.getMacLength());
+
+                assertArrayEquals(expected, signer.sign(data, offset, length));
+                assertArrayEquals(expected, signer.sign(ByteBuffer.wrap(data, offset, length)));
+                assertArrayEquals(expected, signer.sign(new ByteArrayInputStream(data, offset, length)));
+                byte[] out = new byte[expected.length + 2];
+                assertEquals(expected.length, signer.sign(data, offset, length, out, 2));
+                assertArrayEquals(expected, Arrays.copyOfRange(out, 2, out.length));
+                assertEquals("#" + hex(expected, true), signer.appendHex(new StringBuilder("#"), data, offset, length, true).toString());
+                Mac mac = signer.newMac();
+                mac.update(data, offset, length);
+                assertArrayEquals(expected, mac.doFinal());
+
+                assertArrayEquals(expected, DigestUtils.hmac(algorithm, key, data, offset, length));
+                assertArrayEquals(expected, DigestUtils.hmac(algorithm, key, ByteBuffer.wrap(data, offset, length)));
+                assertArrayEquals(expected, DigestUtils.hmac(algorithm, key, new ByteArrayInputStream(data, offset, length)));
+            }
+            byte[] data = {1, 2, 3};
+            assertEquals(EncodeUtils.base64Encode2String(referenceHmac(algorithm, key, data, 0, data.length)), signer.signBase64(data));
+            try {
+                signer.sign(data, 0, data.length, new byte[signer.getMacLength()], 1);
+                fail();
+            } catch (IllegalArgumentException expected) {
+                // 空间不足
+            }
+        }
+    }
+
+    /**
+     * 全局缓存区分不同的密钥，清除缓存后结果不变
+     */
+    @Test
+    public void hmacCacheDistinguishesKeys() throws Exception {
+        byte[] data = "payload".getBytes("UTF-8");
+        byte[] first = {1, 2, 3, 4};
+        byte[] second = {1, 2, 3, 5};
+        for (int i = 0; i < 2; i++) {
+            assertArrayEquals(referenceHmac("HmacSHA256", first, data, 0, data.length), DigestUtils.hmac("HmacSHA256", first, data));
+            assertArrayEquals(referenceHmac("HmacSHA256", second, data, 0, data.length), DigestUtils.hmac("HmacSHA256", second, data));
+            assertArrayEquals(referenceHmac("HmacSHA1", first, data, 0, data.length), DigestUtils.hmac("HmacSHA1", first, data));
+        }
+        DigestUtils.clearHmacCache();
+        assertArrayEquals(referenceHmac("HmacSHA256", first, data, 0, data.length), DigestUtils.hmac("HmacSHA256", first, data));
+    }
+
+    /**
+     * 签名器可以在多个线程中同时使用
+     */
+    @Test
+    public void hmacSignerIsThreadSafe() throws Exception {
+        final byte[] key = "shared".getBytes("UTF-8");
+        final DigestUtils.HmacSigner signer = DigestUtils.newHmac("HmacSHA256", key);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int seed = t;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        Random random = new Random(SEED + seed);
+                        for (int i = 0; i < 2000; i++) {
+                            byte[] data = new byte[random.nextInt(100)];
+                            random.nextBytes(data);
+                            assertArrayEquals(referenceHmac("HmacSHA256", key, data, 0, data.length), signer.sign(data));
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(failure.get());
+    }
+
+    private static byte[] referenceHmac(String algorithm, byte[] key, byte[] data, int offset, int length) {
+        try {
+            Mac mac = Mac.getInstance(algorithm);
+            mac.init(new SecretKeySpec(key, algorithm));
+            mac.update(data, offset, length);
+            return mac.doFinal();
+        } catch (GeneralSecurityException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static byte[] reference(String algorithm, byte[] data, int offset, int length) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError(e);
+        }
+        digest.update(data, offset, length);
+        return digest.digest();
+    }
+
+    private static String hex(byte[] data, boolean lowerCase) {
+        StringBuilder builder = new StringBuilder();
+        for (byte b : data) {
+            builder.append(String.format(Locale.US, lowerCase ? "%02x" : "%02X", b & 0xFF));
+        }
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,203 @@
+package com.henley.android.utils;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link DigitScanner}及{@link NumberUtils#getNumberList(String)}的测试
+ */
+public class DigitScannerTest {
+
+    private static final long SEED = 20261018L;
+    /**
+     * JVM的"\d"只匹配ASCII数字
+     */
+    private static final Pattern DIGITS = Pattern.compile("\\d+");
+    private static final long[] UNUSED = {};
+
+    /**
+     * 随机字符串(包括其他语言的数字)的各种API与JVM的正则表达式结果相同
+     */
+    @Test
+    public void matchesRegex() {
+        Random random = new Random(SEED);
+        char[] pool = {'0', '5', '9', 'a', ' ', '-', '.', '/', ':', '\u0663', '\uFF13', '\u0E51', '\u00B2'};
+        for (int round = 0; round < 5000; round++) {
+            StringBuilder text = new StringBuilder();
+            for (int i = random.nextInt(30); i > 0; i--) {
+                text.append(pool[random.nextInt(pool.length)]);
+            }
+            assertConsistent(text.toString());
+        }
+    }
+
+    @Test
+    public void emptyAndDigitFreeText() {
+        for (String text : new String[]{"", "abc", "\u0663\u0664", "\uFF11\uFF12", "-.,"}) {
+            assertConsistent(text);
+            assertEquals(-1, DigitScanner.indexOfDigits(text, 0));
+            assertEquals(0, DigitScanner.parseLongs(text).length);
+            assertEquals(0, DigitScanner.findSpans(text, new int[4]));
+            assertEquals("", NumberUtils.getNumberFromString(text));
+        }
+    }
+
+    /**
+     * 被非数字隔开的相邻数字分别返回，首尾的数字也会返回
+     */
+    @Test
+    public void adjacentRuns() {
+        String text = "1a22b333 4444";
+        int[] spans = new int[10];
+        assertEquals(4, DigitScanner.findSpans(text, spans));
+        assertArrayEquals(new int[]{0, 1, 2, 4, 5, 8, 9, 13, 0, 0}, spans);
+        assertArrayEquals(new long[]{1, 22, 333, 4444}, DigitScanner.parseLongs(text));
+        assertEquals(Arrays.asList("1", "22", "333", "4444"), NumberUtils.getNumberList(text));
+        assertEquals("1", NumberUtils.getNumberFromString(text));
+        assertEquals("007", NumberUtils.getNumberFromString("No.007-8"));
+        assertEquals(7, DigitScanner.parseLongs("No.007")[0]);
+
+        assertEquals(2, DigitScanner.indexOfDigits(text, 1));
+        assertEquals(2, DigitScanner.indexOfDigits(text, 2));
+        assertEquals(3, DigitScanner.indexOfDigits(text, 3));
+        assertEquals(0, DigitScanner.indexOfDigits(text, -5));
+        assertEquals(-1, DigitScanner.indexOfDigits(text, 100));
+        assertEquals(4, DigitScanner.endOfDigits(text, 2));
+        assertEquals(4, DigitScanner.endOfDigits(text, 4));
+    }
+
+    /**
+     * 超出long范围的数字为Long.MAX_VALUE
+     */
+    @Test
+    public void overflowSaturates() {
+        String max = String.valueOf(Long.MAX_VALUE);
+        String overflow = new BigInteger(max).add(BigInteger.ONE).toString();
+        String text = max + " " + overflow + " 99999999999999999999999 " + "0000000000000000000000001";
+        assertArrayEquals(new long[]{Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE, 1}, DigitScanner.parseLongs(text));
+        assertEquals(Long.MAX_VALUE - 1, DigitScanner.parseDigits("9223372036854775806", 0, 19));
+        assertEquals(Long.MAX_VALUE, DigitScanner.parseDigits("9223372036854775808", 0, 19));
+        assertEquals(Long.MAX_VALUE, DigitScanner.parseDigits("9223372036854775810", 0, 19));
+        assertEquals(0, DigitScanner.parseDigits("12", 1, 1));
+        // 溢出不影响之后的数字
+        assertArrayEquals(new long[]{Long.MAX_VALUE, 42}, DigitScanner.parseLongs("123456789012345678901234567890x42"));
+    }
+
+    /**
+     * 复用调用方提供的数组：只写入找到的个数，多出的数字被忽略，之前的内容不会被清除
+     */
+    @Test
+    public void reusesCallerBuffers() {
+        long[] values = new long[3];
+        Arrays.fill(values, -1);
+        assertEquals(2, DigitScanner.parseLongs("a1b2", values));
+        assertArrayEquals(new long[]{1, 2, -1}, values);
+        assertEquals(3, DigitScanner.parseLongs("7 8 9 10 11", values));
+        assertArrayEquals(new long[]{7, 8, 9}, values);
+        assertEquals(0, DigitScanner.parseLongs("none", values));
+        assertArrayEquals(new long[]{7, 8, 9}, values);
+        assertEquals(0, DigitScanner.parseLongs("1 2", UNUSED));
+
+        int[] spans = new int[5];
+        assertEquals(2, DigitScanner.findSpans("1 2 3", spans));
+        assertArrayEquals(new int[]{0, 1, 2, 3, 0}, spans);
+        assertEquals(0, DigitScanner.findSpans("1", new int[1]));
+
+        // 自动扩容的版本
+        StringBuilder text = new StringBuilder();
+        long[] expected = new long[100];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = i * 7L;
+            text.append(expected[i]).append(',');
+        }
+        assertArrayEquals(expected, DigitScanner.parseLongs(text));
+        assertArrayEquals(Arrays.copyOf(expected, 8), DigitScanner.parseLongs(text.substring(0, text.indexOf("56,"))));
+    }
+
+    /**
+     * visitor返回false时停止扫描
+     */
+    @Test
+    public void visitorCanStopEarly() {
+        final List<String> visited = new ArrayList<>();
+        int count = DigitScanner.scan("10 20 30 40", new DigitScanner.Visitor() {
+            @Override
+            public boolean onDigits(CharSequence text, int start, int end) {
+                visited.add(text.subSequence(start, end).toString());
+                return visited.size() < 2;
+            }
+        });
+        assertEquals(2, count);
+        assertEquals(Arrays.asList("10", "20"), visited);
+        assertEquals(0, DigitScanner.scan("", new DigitScanner.Visitor() {
+            @Override
+            public boolean onDigits(CharSequence text, int start, int end) {
+                throw new AssertionError();
+            }
+        }));
+    }
+
+    /**
+     * 其他语言的数字(如阿拉伯-印度数字、全角数字)不是数字
+     */
+    @Test
+    public void onlyAsciiDigits() {
+        assertEquals("12", NumberUtils.getNumberFromString("\u0661\u0662 12 \uFF11\uFF12"));
+        assertEquals(Collections.singletonList("12"), NumberUtils.getNumberList("\u0661\u0662 12 \uFF11\uFF12"));
+        assertEquals(Arrays.asList("1", "2"), NumberUtils.getNumberList("1\u00B22"));
+    }
+
+    private static void assertConsistent(String text) {
+        List<String> expected = new ArrayList<>();
+        List<Long> expectedValues = new ArrayList<>();
+        List<Integer> expectedSpans = new ArrayList<>();
+        Matcher matcher = DIGITS.matcher(text);
+        while (matcher.find()) {
+            expected.add(matcher.group());
+            BigInteger value = new BigInteger(matcher.group());
+            expectedValues.add(value.bitLength() < 64 ? value.longValue() : Long.MAX_VALUE);
+            expectedSpans.add(matcher.start());
+            expectedSpans.add(matcher.end());
+        }
+
+        final List<String> visited = new ArrayList<>();
+        int count = DigitScanner.scan(text, new DigitScanner.Visitor() {
+            @Override
+            public boolean onDigits(CharSequence text, int start, int end) {
+                visited.add(text.subSequence(start, end).toString());
+                return true;
+            }
+        });
+        assertEquals(text, expected, visited);
+        assertEquals(text, expected.size(), count);
+        if (!text.isEmpty()) {
+            assertEquals(text, expected, NumberUtils.getNumberList(text));
+        }
+        assertEquals(text, expected.isEmpty() ? "" : expected.get(0), NumberUtils.getNumberFromString(text));
+
+        long[] values = DigitScanner.parseLongs(text);
+        assertEquals(text, expectedValues.size(), values.length);
+        long[] buffer = new long[values.length + 1];
+        assertEquals(text, values.length, DigitScanner.parseLongs(text, buffer));
+        int[] spans = new int[expectedSpans.size()];
+        assertEquals(text, expected.size(), DigitScanner.findSpans(text, spans));
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(text, expectedValues.get(i).longValue(), values[i]);
+            assertEquals(text, values[i], buffer[i]);
+            assertEquals(text, expectedSpans.get(i * 2).intValue(), spans[i * 2]);
+            assertEquals(text, expectedSpans.get(i * 2 + 1).intValue(), spans[i * 2 + 1]);
+        }
+    }
+
+}
@@ -0,0 +1,224 @@
+package com.henley.android.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeNoException;
+
+/**
+ * {@link DirectoryFingerprint}的测试
+ */
+public class DirectoryFingerprintTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File directory;
+    private File indexFile;
+    private DirectoryFingerprint fingerprint;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = folder.newFolder("data");
+        indexFile = new File(folder.getRoot(), "index");
+        fingerprint = DirectoryFingerprint.create(directory, indexFile, "SHA-256", 4);
+    }
+
+    @After
+    public void tearDown() {
+        fingerprint.shutdown();
+    }
+
+    @Test
+    public void detectsAddedChangedAndRemovedFiles() throws IOException {
+        write("a.txt", "a");
+        write("sub/b.txt", "b");
+        DirectoryFingerprint.Result first = fingerprint.scan();
+        assertEquals(Arrays.asList("a.txt", "sub/b.txt"), first.getAddedPaths());
+
+        write("sub/b.txt", "bb");
+        write("c.txt", "c");
+        assertTrue(new File(directory, "a.txt").delete());
+        DirectoryFingerprint.Result second = fingerprint.scan();
+        assertEquals(Arrays.asList("c.txt"), second.getAddedPaths());
+        assertEquals(Arrays.asList("sub/b.txt"), second.getChangedPaths());
+        assertEquals(Arrays.asList("a.txt"), second.getRemovedPaths());
+        assertEquals(2, second.getFileCount());
+    }
+
+    /**
+     * 未变化的文件(修改时间足够早)使用索引中的摘要，重新创建实例后从索引文件加载
+     */
+    @Test
+    public void unchangedFilesAreNotHashedAgain() throws IOException {
+        File a = write("a.txt", "a");
+        File b = write("sub/b.txt", "b");
+        long old = System.currentTimeMillis() - 60000;
+        assertTrue(a.setLastModified(old));
+        assertTrue(b.setLastModified(old));
+        DirectoryFingerprint.Result first = fingerprint.scan();
+        assertEquals(2, first.getHashedCount());
+        fingerprint.shutdown();
+
+        fingerprint = DirectoryFingerprint.create(directory, indexFile, "SHA-256", 4);
+        DirectoryFingerprint.Result second = fingerprint.scan();
+        assertEquals(0, second.getHashedCount());
+        assertFalse(second.hasChanges());
+        assertArrayEquals(first.getDirectoryDigest(), second.getDirectoryDigest());
+    }
+
+    /**
+     * 指向上级目录的符号链接不会导致无限循环，链接指向的目录中的文件不会重复计入
+     */
+    @Test
+    public void symlinkToAncestorIsSkipped() throws IOException {
+        write("a.txt", "a");
+        write("sub/b.txt", "b");
+        symlink(new File(directory, "sub/loop"), directory);
+        symlink(new File(directory, "self"), new File(directory, "sub"));
+        DirectoryFingerprint.Result result = fingerprint.scan();
+        assertEquals(2, result.getFileCount());
+        assertNotNull(result.getFileDigest("a.txt"));
+        assertNotNull(result.getFileDigest("sub/b.txt"));
+        assertNull(result.getFileDigest("self/b.txt"));
+    }
+
+    /**
+     * 指向文件的符号链接按目标文件计算
+     */
+    @Test
+    public void symlinkToFileIsHashed() throws IOException {
+        File outside = folder.newFile("outside.txt");
+        write(outside, "outside");
+        write("a.txt", "outside");
+        symlink(new File(directory, "link.txt"), outside);
+        DirectoryFingerprint.Result result = fingerprint.scan();
+        assertEquals(2, result.getFileCount());
+        assertArrayEquals(result.getFileDigest("a.txt"), result.getFileDigest("link.txt"));
+    }
+
+    /**
+     * 列出文件后、计算摘要前被删除的文件视为已删除，不会导致扫描失败
+     */
+    @Test
+    public void fileDeletedBeforeHashingIsRemoved() throws IOException {
+        write("a.txt", "a");
+        write("b.txt", "b");
+        DirectoryFingerprint.Result first = fingerprint.scan();
+        assertEquals(Arrays.asList("a.txt", "b.txt"), first.getAddedPaths());
+
+        // 修改时间过新的文件都会重新计算摘要，在计算前删除b.txt及新增的c.txt
+        write("c.txt", "c");
+        DirectoryFingerprint deleting = new DirectoryFingerprint(directory, indexFile, "SHA-256",
+                new DeletingExecutor(new File(directory, "b.txt"), new File(directory, "c.txt")));
+        DirectoryFingerprint.Result second = deleting.scan();
+        assertEquals(Collections.emptyList(), second.getAddedPaths());
+        assertEquals(Collections.emptyList(), second.getChangedPaths());
+        assertEquals(Arrays.asList("b.txt"), second.getRemovedPaths());
+        assertEquals(1, second.getFileCount());
+        assertEquals(1, second.getHashedCount());
+        assertNull(second.getFileDigest("b.txt"));
+        assertNull(second.getFileDigest("c.txt"));
+
+        // 删除已记录到索引中，与新建索引扫描的结果相同
+        fingerprint.shutdown();
+        fingerprint = DirectoryFingerprint.create(directory, indexFile, "SHA-256", 4);
+        DirectoryFingerprint.Result third = fingerprint.scan();
+        assertFalse(third.hasChanges());
+        assertArrayEquals(second.getDirectoryDigest(), third.getDirectoryDigest());
+        DirectoryFingerprint fresh = DirectoryFingerprint.create(directory, new File(folder.getRoot(), "fresh"), "SHA-256", 4);
+        assertArrayEquals(second.getDirectoryDigest(), fresh.scan().getDirectoryDigest());
+        fresh.shutdown();
+    }
+
+    private File write(String path, String content) throws IOException {
+        File file = new File(directory, path);
+        file.getParentFile().mkdirs();
+        write(file, content);
+        return file;
+    }
+
+    private static void write(File file, String content) throws IOException {
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * 在调用线程中执行任务，执行前先删除指定的文件
+     */
+    private static final class DeletingExecutor extends AbstractExecutorService {
+
+        private final File[] files;
+        private volatile boolean shutdown;
+
+        private DeletingExecutor(File... files) {
+            this.files = files;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            for (File file : files) {
+                file.delete();
+            }
+            command.run();
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+
+    private static void symlink(File link, File target) {
+        try {
+            Files.createSymbolicLink(link.toPath(), target.toPath());
+        } catch (IOException | UnsupportedOperationException e) {
+            assumeNoException(e);
+        }
+    }
+
+}
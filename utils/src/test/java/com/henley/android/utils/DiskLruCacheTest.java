@@ -0,0 +1,299 @@
+package com.henley.android.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link DiskLruCache}的测试
+ */
+public class DiskLruCacheTest {
+
+    private static final int APP_VERSION = 100;
+    private static final long MAX_SIZE = 1024 * 1024;
+    private static final int MAX_COUNT = 1000;
+    private static final String JOURNAL_HEADER = "com.henley.android.utils.DiskLruCache\n1\n" + APP_VERSION + "\n\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File directory;
+    private File journalFile;
+    private DiskLruCache cache;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = folder.newFolder("cache");
+        journalFile = new File(directory, "journal");
+        cache = DiskLruCache.open(directory, APP_VERSION, MAX_SIZE, MAX_COUNT);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        cache.close();
+    }
+
+    @Test
+    public void writeAndReadEntry() throws IOException {
+        set("a", "hello");
+        assertEquals("hello", get("a"));
+        assertEquals(5, cache.size());
+        assertEquals(1, cache.count());
+    }
+
+    @Test
+    public void uncommittedEditIsInvisible() throws IOException {
+        DiskLruCache.Editor editor = cache.edit("a");
+        editor.set("pending");
+        assertNull(cache.get("a"));
+        assertNull(cache.edit("a"));
+        editor.commit();
+        assertEquals("pending", get("a"));
+    }
+
+    @Test
+    public void reopenRestoresEntries() throws IOException {
+        set("a", "one");
+        set("b", "two");
+        assertTrue(cache.remove("a"));
+        cache.close();
+        cache = DiskLruCache.open(directory, APP_VERSION, MAX_SIZE, MAX_COUNT);
+        assertNull(cache.get("a"));
+        assertEquals("two", get("b"));
+        assertEquals(3, cache.size());
+    }
+
+    /**
+     * 日志最后一行被截断时忽略该行并重建日志
+     */
+    @Test
+    public void reopenAfterTruncatedJournalLine() throws IOException {
+        set("a", "one");
+        set("b", "two");
+        cache.close();
+        // 截断最后一行"CLEAN b 3\n"，只保留"CLEAN b"
+        truncate(journalFile, 3);
+        cache = DiskLruCache.open(directory, APP_VERSION, MAX_SIZE, MAX_COUNT);
+        assertEquals("one", get("a"));
+        // b只剩下DIRTY记录，文件被删除
+        assertNull(cache.get("b"));
+        assertFalse(new File(directory, "b.0").exists());
+        String journal = FileUtils.readFile(journalFile, "UTF-8", false);
+        assertTrue(journal.startsWith(JOURNAL_HEADER));
+        assertTrue(journal.endsWith("\n"));
+        set("c", "three");
+        cache.close();
+        cache = DiskLruCache.open(directory, APP_VERSION, MAX_SIZE, MAX_COUNT);
+        assertEquals("one", get("a"));
+        assertEquals("three", get("c"));
+    }
+
+    /**
+     * 日志头被截断时清空缓存并重新开始
+     */
+    @Test
+    public void reopenAfterTruncatedJournalHeader() throws IOException {
+        set("a", "one");
+        cache.close();
+        writeJournal("com.henley.android.utils.DiskLruCache\n1\n");
+        cache = DiskLruCache.open(directory, APP_VERSION, MAX_SIZE, MAX_COUNT);
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.count());
+        assertFalse(new File(directory, "a.0").exists());
+        set("b", "two");
+        assertEquals("two", get("b"));
+    }
+
+    @Test
+    public void appVersionChangeClearsCache() throws IOException {
+        set("a", "one");
+        cache.close();
+        cache = DiskLruCache.open(directory, APP_VERSION + 1, MAX_SIZE, MAX_COUNT);
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    /**
+     * 只有DIRTY而没有CLEAN的条目(编辑时进程被杀死)在重新打开时被删除
+     */
+    @Test
+    public void dirtyEntriesWithoutCleanAreDroppedOnReopen() throws IOException {
+        cache.close();
+        writeFile("a.0", "aaa");
+        writeFile("b.0.tmp", "partial");
+        writeFile("c.0", "ccc");
+        writeFile("c.0.tmp", "partial");
+        writeJournal(JOURNAL_HEADER
+                + "DIRTY a\nCLEAN a 3\n"
+                + "DIRTY b\n"
+                + "DIRTY c\nCLEAN c 3\nDIRTY c\n");
+        cache = DiskLruCache.open(directory, APP_VERSION, MAX_SIZE, MAX_COUNT);
+        assertEquals("aaa", get("a"));
+        assertNull(cache.get("b"));
+        assertNull(cache.get("c"));
+        assertEquals(1, cache.count());
+        assertEquals(3, cache.size());
+        assertFalse(new File(directory, "b.0.tmp").exists());
+        assertFalse(new File(directory, "c.0").exists());
+        assertFalse(new File(directory, "c.0.tmp").exists());
+    }
+
+    /**
+     * 文件长度与日志不一致的条目在重新打开时被删除
+     */
+    @Test
+    public void entriesWithWrongLengthAreDroppedOnReopen() throws IOException {
+        cache.close();
+        writeFile("a.0", "aaa");
+        writeFile("b.0", "bb");
+        writeJournal(JOURNAL_HEADER + "CLEAN a 3\nCLEAN b 5\n");
+        cache = DiskLruCache.open(directory, APP_VERSION, MAX_SIZE, MAX_COUNT);
+        assertEquals("aaa", get("a"));
+        assertNull(cache.get("b"));
+    }
+
+    @Test
+    public void trimToMaxSizeEvictsLeastRecentlyUsed() throws IOException {
+        cache.close();
+        cache = DiskLruCache.open(directory, APP_VERSION, 10, MAX_COUNT);
+        set("a", "aaaa");
+        set("b", "bbbb");
+        get("a");
+        set("c", "cccc");
+        cache.flush();
+        assertEquals(8, cache.size());
+        assertEquals("aaaa", get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("cccc", get("c"));
+    }
+
+    @Test
+    public void trimToMaxCountEvictsLeastRecentlyUsed() throws IOException {
+        cache.close();
+        cache = DiskLruCache.open(directory, APP_VERSION, MAX_SIZE, 2);
+        set("a", "a");
+        set("b", "b");
+        get("a");
+        set("c", "c");
+        cache.flush();
+        assertEquals(2, cache.count());
+        assertEquals("a", get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("c", get("c"));
+    }
+
+    @Test
+    public void setLimitsTrimsOnReopen() throws IOException {
+        set("a", "aaaa");
+        set("b", "bbbb");
+        set("c", "cccc");
+        cache.close();
+        cache = DiskLruCache.open(directory, APP_VERSION, 5, MAX_COUNT);
+        cache.flush();
+        assertEquals(4, cache.size());
+        assertEquals("cccc", get("c"));
+    }
+
+    @Test
+    public void staleSnapshotCannotEdit() throws IOException {
+        set("a", "one");
+        DiskLruCache.Snapshot snapshot = cache.get("a");
+        set("a", "two");
+        assertNull(snapshot.edit());
+        snapshot.close();
+    }
+
+    @Test
+    public void freshSnapshotCanEdit() throws IOException {
+        set("a", "one");
+        DiskLruCache.Snapshot snapshot = cache.get("a");
+        DiskLruCache.Editor editor = snapshot.edit();
+        assertNotNull(editor);
+        editor.set("two");
+        editor.commit();
+        snapshot.close();
+        assertEquals("two", get("a"));
+    }
+
+    /**
+     * 重新打开后获取的快照在条目被修改后同样过期
+     */
+    @Test
+    public void staleSnapshotCannotEditAfterReopen() throws IOException {
+        set("a", "one");
+        set("b", "two");
+        cache.close();
+        cache = DiskLruCache.open(directory, APP_VERSION, MAX_SIZE, MAX_COUNT);
+        DiskLruCache.Snapshot snapshotA = cache.get("a");
+        DiskLruCache.Snapshot snapshotB = cache.get("b");
+        set("a", "three");
+        assertNull(snapshotA.edit());
+        DiskLruCache.Editor editor = snapshotB.edit();
+        assertNotNull(editor);
+        editor.abort();
+        snapshotA.close();
+        snapshotB.close();
+    }
+
+    @Test
+    public void snapshotReadsCommittedContent() throws IOException {
+        set("a", "one");
+        DiskLruCache.Snapshot snapshot = cache.get("a");
+        set("a", "changed");
+        assertEquals("one", snapshot.getString());
+        snapshot.close();
+    }
+
+    private void set(String key, String value) throws IOException {
+        DiskLruCache.Editor editor = cache.edit(key);
+        assertNotNull(editor);
+        editor.set(value);
+        editor.commit();
+    }
+
+    private String get(String key) throws IOException {
+        DiskLruCache.Snapshot snapshot = cache.get(key);
+        assertNotNull(snapshot);
+        try {
+            return snapshot.getString();
+        } finally {
+            snapshot.close();
+        }
+    }
+
+    private void writeJournal(String content) throws IOException {
+        writeFile("journal", content);
+    }
+
+    private void writeFile(String name, String content) throws IOException {
+        FileOutputStream out = new FileOutputStream(new File(directory, name));
+        try {
+            out.write(content.getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+    }
+
+    private static void truncate(File file, int bytes) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.setLength(raf.length() - bytes);
+        } finally {
+            raf.close();
+        }
+    }
+
+}
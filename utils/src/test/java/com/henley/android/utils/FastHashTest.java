@@ -0,0 +1,187 @@
+package com.henley.android.utils;
+
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Random;
+import java.util.zip.Checksum;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link FastHash}的测试(参考值来自各算法的参考实现及Guava)
+ */
+public class FastHashTest {
+
+    private static final long SEED = 20261018L;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void xxHash64Vectors() {
+        assertEquals("ef46db3751d8e999", hex(FastHash.xxHash64(), ""));
+        assertEquals("44bc2cf5ad770999", hex(FastHash.xxHash64(), "abc"));
+        assertEquals(0xEF46DB3751D8E999L, FastHash.xxHash64().getValue());
+        assertEquals(64, FastHash.xxHash64().getBits());
+    }
+
+    /**
+     * 参考实现MurmurHash3_x86_32("hello", 0)的结果为0x248bfa47
+     */
+    @Test
+    public void murmur3Hash32Vectors() {
+        FastHash hash = FastHash.murmur3Hash32(0).update("hello".getBytes(UTF_8));
+        assertEquals(0x248BFA47L, hash.getValue());
+        assertEquals("248bfa47", hash.getHex());
+        assertEquals(0L, FastHash.murmur3Hash32(0).getValue());
+        assertEquals(32, hash.getBits());
+    }
+
+    @Test
+    public void murmur3Hash128Vectors() {
+        FastHash hash = FastHash.murmur3Hash128(0).update("hello".getBytes(UTF_8));
+        assertEquals("029bbd41b3a7d8cb191dae486a901e5b", hash.getHex());
+        assertEquals(0xCBD8A7B341BD9B02L, hash.getValue());
+        assertEquals("00000000000000000000000000000000", FastHash.murmur3Hash128(0).getHex());
+        assertEquals(128, hash.getBits());
+    }
+
+    @Test
+    public void crc32cVectors() {
+        assertEquals(0xE3069283L, FastHash.crc32c().update("123456789".getBytes(UTF_8)).getValue());
+        assertEquals("e3069283", FastHash.crc32c().update("123456789".getBytes(UTF_8)).getHex());
+        assertEquals(0L, FastHash.crc32c().getValue());
+    }
+
+    /**
+     * 与JDK 9及以上版本的{@code java.util.zip.CRC32C}结果相同
+     */
+    @Test
+    public void crc32cMatchesJdk() throws Exception {
+        Class<?> type;
+        try {
+            type = Class.forName("java.util.zip.CRC32C");
+        } catch (ClassNotFoundException e) {
+            type = null;
+        }
+        Assume.assumeNotNull(type);
+        Random random = new Random(SEED);
+        for (int round = 0; round < 500; round++) {
+            byte[] data = new byte[random.nextInt(round % 50 == 0 ? 100000 : 300)];
+            random.nextBytes(data);
+            Checksum expected = (Checksum) type.newInstance();
+            expected.update(data, 0, data.length);
+            assertEquals(expected.getValue(), FastHash.crc32c().update(data).getValue());
+        }
+    }
+
+    /**
+     * 分段更新(包括逐字节更新、ByteBuffer、文件)与一次更新的结果相同
+     */
+    @Test
+    public void chunkedUpdatesMatchOneShot() throws IOException {
+        Random random = new Random(SEED + 1);
+        File file = new File(folder.getRoot(), "data");
+        for (int round = 0; round < 300; round++) {
+            byte[] data = new byte[random.nextInt(round % 30 == 0 ? 70000 : 200)];
+            random.nextBytes(data);
+            FastHash[] oneShot = all();
+            FastHash[] chunked = all();
+            FastHash[] singleByte = all();
+            FastHash[] buffer = all();
+            FastHash[] fromFile = all();
+            write(file, data);
+            for (int i = 0; i < oneShot.length; i++) {
+                oneShot[i].update(data);
+                int position = 0;
+                while (position < data.length) {
+                    int length = Math.min(data.length - position, random.nextInt(40));
+                    chunked[i].update(data, position, length);
+                    position += length;
+                }
+                for (byte b : data) {
+                    singleByte[i].update(b);
+                }
+                ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+                direct.put(data).flip();
+                buffer[i].update(direct);
+                fromFile[i].update(file);
+
+                String message = oneShot[i].getClass().getSimpleName() + " " + data.length;
+                assertEquals(message, data.length, oneShot[i].getLength());
+                assertArrayEquals(message, oneShot[i].getBytes(), chunked[i].getBytes());
+                assertArrayEquals(message, oneShot[i].getBytes(), singleByte[i].getBytes());
+                assertArrayEquals(message, oneShot[i].getBytes(), buffer[i].getBytes());
+                assertArrayEquals(message, oneShot[i].getBytes(), fromFile[i].getBytes());
+                assertEquals(message, oneShot[i].getValue(), chunked[i].getValue());
+            }
+        }
+    }
+
+    /**
+     * 获取结果不改变状态，可以继续更新；reset()后与新实例相同
+     */
+    @Test
+    public void valueDoesNotChangeState() {
+        byte[] data = "hello world, this is longer than one block".getBytes(UTF_8);
+        for (int i = 0; i < all().length; i++) {
+            FastHash expected = all()[i].update(data);
+            FastHash hash = all()[i];
+            for (int j = 0; j < data.length; j++) {
+                hash.getBytes();
+                hash.update(data, j, 1);
+            }
+            assertArrayEquals(expected.getBytes(), hash.getBytes());
+            assertArrayEquals(all()[i].getBytes(), hash.reset().getBytes());
+            assertEquals(0, hash.getLength());
+        }
+    }
+
+    /**
+     * 字符序列按UTF-16小端字节序处理
+     */
+    @Test
+    public void charSequenceUsesUtf16LittleEndian() {
+        String text = "h\u4E2D\uD83D\uDE00";
+        byte[] bytes = text.getBytes(Charset.forName("UTF-16LE"));
+        for (int i = 0; i < all().length; i++) {
+            assertArrayEquals(all()[i].update(bytes).getBytes(), all()[i].update(text).getBytes());
+        }
+    }
+
+    private static FastHash[] all() {
+        return new FastHash[]{
+                FastHash.crc32c(),
+                FastHash.xxHash64(),
+                FastHash.xxHash64(SEED),
+                FastHash.murmur3Hash32(0),
+                FastHash.murmur3Hash32(42),
+                FastHash.murmur3Hash128(0),
+                FastHash.murmur3Hash128(42),
+        };
+    }
+
+    private static String hex(FastHash hash, String text) {
+        return hash.update(text.getBytes(UTF_8)).getHex();
+    }
+
+    private static void write(File file, byte[] data) throws IOException {
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(data);
+        } finally {
+            out.close();
+        }
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.henley.android.utils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * {@link FileUtils#readFile(File, String, boolean)}与原有逐行读取实现的兼容性测试
+ */
+public class FileUtilsReadFileTest {
+
+    private static final long SEED = 20261018L;
+    private static final String[] CHARSETS = {"UTF-8", "UTF-16", "GBK", "ISO-8859-1"};
+    private static final String[] PIECES = {"", "a", "line", "中文行", "emoji😀", " \t ", "\n", "\r", "\r\n", "\n\n", "\r\r", "\n\r"};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void joinLinesMatchesLegacyImplementation() throws IOException {
+        Random random = new Random(SEED);
+        File file = folder.newFile("text.txt");
+        for (int i = 0; i < 400; i++) {
+            String charsetName = CHARSETS[random.nextInt(CHARSETS.length)];
+            write(file, randomText(random, i % 50 == 0 ? 40000 : 40).getBytes(Charset.forName(charsetName)));
+            assertEquals(legacyReadFile(file, charsetName), FileUtils.readFile(file.getPath(), charsetName));
+        }
+    }
+
+    @Test
+    public void leadingEmptyLinesAreDropped() throws IOException {
+        File file = folder.newFile("leading.txt");
+        write(file, "\n\r\n\rfirst\n\nsecond\r\n".getBytes("UTF-8"));
+        assertEquals("first\r\n\r\nsecond", FileUtils.readFile(file.getPath(), "UTF-8"));
+        assertEquals(legacyReadFile(file, "UTF-8"), FileUtils.readFile(file.getPath(), "UTF-8"));
+    }
+
+    @Test
+    public void rawContentIsReturnedWithoutJoin() throws IOException {
+        Random random = new Random(SEED + 1);
+        File file = folder.newFile("raw.txt");
+        for (int i = 0; i < 100; i++) {
+            String text = randomText(random, i % 10 == 0 ? 100000 : 100);
+            write(file, text.getBytes("UTF-8"));
+            assertEquals(text, FileUtils.readFile(file, "UTF-8", false));
+        }
+    }
+
+    /**
+     * 跨越解码块(64KB)边界的多字节字符及非法字节按与{@link InputStreamReader}相同的方式替换
+     */
+    @Test
+    public void malformedBytesAreReplacedLikeReader() throws IOException {
+        Random random = new Random(SEED + 2);
+        File file = folder.newFile("malformed.txt");
+        for (int i = 0; i < 20; i++) {
+            byte[] bytes = randomText(random, 30000).getBytes("UTF-8");
+            for (int j = 0; j < 20; j++) {
+                bytes[random.nextInt(bytes.length)] = (byte) (0x80 + random.nextInt(0x80));
+            }
+            write(file, bytes);
+            assertEquals(legacyReadFile(file, "UTF-8"), FileUtils.readFile(file.getPath(), "UTF-8"));
+        }
+    }
+
+    @Test
+    public void emptyAndMissingFiles() throws IOException {
+        File file = folder.newFile("empty.txt");
+        assertEquals("", FileUtils.readFile(file.getPath(), "UTF-8"));
+        assertEquals("", FileUtils.readFile(file, "UTF-8", false));
+        assertNull(FileUtils.readFile(new File(folder.getRoot(), "missing.txt").getPath(), "UTF-8"));
+        assertNull(FileUtils.readFile(folder.getRoot(), "UTF-8", true));
+    }
+
+    private static String randomText(Random random, int pieces) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < pieces; i++) {
+            builder.append(PIECES[random.nextInt(PIECES.length)]);
+        }
+        return builder.toString();
+    }
+
+    private static void write(File file, byte[] bytes) throws IOException {
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(bytes);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * 原有实现：逐行读取，以"\r\n"连接，内容为空时不添加分隔符
+     * <p>原有的判断条件为{@code !"".equals(builder.toString())}，这里改为等价的{@code builder.length() > 0}，避免测试本身耗时过长</p>
+     */
+    private static String legacyReadFile(File file, String charsetName) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), charsetName));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (builder.length() > 0) {
+                    builder.append("\r\n");
+                }
+                builder.append(line);
+            }
+        } finally {
+            reader.close();
+        }
+        return builder.toString();
+    }
+
+}
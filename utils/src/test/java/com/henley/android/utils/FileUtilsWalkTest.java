@@ -0,0 +1,88 @@
+package com.henley.android.utils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link FileUtils#getFileSize(File)}及{@link FileUtils#deleteFile(File)}的测试
+ * <p>本地单元测试中SDK_INT为0，只覆盖Android 5.0以下的递归实现，{@link FileWalker}的测试见{@link FileWalkerTest}</p>
+ */
+public class FileUtilsWalkTest {
+
+    private static final long SEED = 20261018L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void sizeOfTreeMatchesSumOfFiles() throws IOException {
+        File root = folder.newFolder("root");
+        long expected = createTree(root, new Random(SEED), 3);
+        assertEquals(expected, FileUtils.getFileSize(root));
+    }
+
+    @Test
+    public void sizeOfSingleAndMissingFiles() throws IOException {
+        File file = new File(folder.getRoot(), "single.bin");
+        write(file, 1234);
+        assertEquals(1234, FileUtils.getFileSize(file));
+        assertEquals(0, FileUtils.getFileSize(new File(folder.getRoot(), "missing")));
+        assertEquals(0, FileUtils.getFileSize((File) null));
+    }
+
+    @Test
+    public void deleteRemovesWholeTree() throws IOException {
+        File root = folder.newFolder("root");
+        createTree(root, new Random(SEED + 1), 3);
+        assertTrue(FileUtils.deleteFile(root));
+        assertFalse(root.exists());
+        assertTrue(FileUtils.deleteFile(root));
+    }
+
+    @Test
+    public void deleteSingleFile() throws IOException {
+        File file = new File(folder.getRoot(), "single.bin");
+        write(file, 10);
+        assertTrue(FileUtils.deleteFile(file));
+        assertFalse(file.exists());
+    }
+
+    private static long createTree(File directory, Random random, int depth) throws IOException {
+        long size = 0;
+        int files = 1 + random.nextInt(20);
+        for (int i = 0; i < files; i++) {
+            int length = random.nextInt(4096);
+            write(new File(directory, "file" + i), length);
+            size += length;
+        }
+        if (depth > 0) {
+            int directories = 1 + random.nextInt(4);
+            for (int i = 0; i < directories; i++) {
+                File child = new File(directory, "dir" + i);
+                assertTrue(child.mkdir());
+                size += createTree(child, random, depth - 1);
+            }
+        }
+        return size;
+    }
+
+    private static void write(File file, int length) throws IOException {
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(new byte[length]);
+        } finally {
+            out.close();
+        }
+    }
+
+}
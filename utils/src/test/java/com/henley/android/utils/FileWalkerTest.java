@@ -0,0 +1,360 @@
+package com.henley.android.utils;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link FileWalker}的测试(通过{@link FileWalker.FileSystem}使用JVM的文件接口，不依赖Android版本)
+ */
+public class FileWalkerTest {
+
+    private static final long SEED = 20261018L;
+    private static final long TIMEOUT = 10;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<FileWalker> walkers = new ArrayList<>();
+
+    @After
+    public void shutdownWalkers() {
+        for (FileWalker walker : walkers) {
+            walker.shutdown();
+        }
+    }
+
+    /**
+     * 统计结果与目录树一致，并且每个条目只获取一次文件信息
+     */
+    @Test
+    public void walkStatsEachEntryOnce() throws IOException {
+        File root = folder.newFolder("root");
+        Tree tree = new Tree();
+        tree.create(root, new Random(SEED), 3);
+        for (int parallelism : new int[]{1, 4}) {
+            CountingFileSystem fileSystem = new CountingFileSystem();
+            FileWalker.Result result = newWalker(parallelism, fileSystem).walk(root);
+            assertEquals(tree.size, result.getTotalSize());
+            assertEquals(tree.files, result.getFileCount());
+            assertEquals(tree.directories + 1, result.getDirectoryCount());
+            assertEquals(0, result.getFailedCount());
+            assertTrue(result.isSuccessful());
+            assertEquals(tree.files + tree.directories + 1, fileSystem.calls.size());
+            for (Map.Entry<String, AtomicInteger> entry : fileSystem.calls.entrySet()) {
+                assertEquals(entry.getKey(), 1, entry.getValue().get());
+            }
+        }
+    }
+
+    /**
+     * 条目较多的目录被拆分为多个任务，由多个工作线程同时处理
+     */
+    @Test
+    public void largeDirectoryIsSplitAcrossWorkers() throws IOException {
+        final File root = folder.newFolder("large");
+        for (int i = 0; i < 1000; i++) {
+            write(new File(root, "file" + i), 1);
+        }
+        final Set<Thread> workers = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+        CountingFileSystem fileSystem = new CountingFileSystem() {
+            @Override
+            public long lstat(String path) throws IOException {
+                Thread thread = Thread.currentThread();
+                if (thread instanceof ForkJoinWorkerThread && workers.add(thread)) {
+                    // 每个工作线程第一次调用时等待其他工作线程加入，没有拆分任务时超时
+                    long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT);
+                    while (workers.size() < 2 && System.currentTimeMillis() < deadline) {
+                        Thread.yield();
+                    }
+                }
+                return super.lstat(path);
+            }
+        };
+        FileWalker.Result result = newWalker(4, fileSystem).walk(root);
+        assertTrue(workers.size() >= 2);
+        assertEquals(1000, result.getFileCount());
+        assertEquals(1000, result.getTotalSize());
+    }
+
+    /**
+     * 符号链接作为普通条目处理，不会进入链接指向的目录，删除时只删除链接本身
+     */
+    @Test
+    public void symlinksAreNotFollowed() throws IOException {
+        File target = folder.newFolder("target");
+        write(new File(target, "inner"), 500);
+        File targetFile = new File(folder.getRoot(), "target.bin");
+        write(targetFile, 300);
+        File root = folder.newFolder("root");
+        write(new File(root, "own"), 10);
+        Files.createSymbolicLink(new File(root, "dirLink").toPath(), target.toPath());
+        Files.createSymbolicLink(new File(root, "fileLink").toPath(), targetFile.toPath());
+        Files.createSymbolicLink(new File(root, "loop").toPath(), root.toPath());
+
+        FileWalker walker = newWalker(2, new CountingFileSystem());
+        FileWalker.Result result = walker.walk(root);
+        assertEquals(10, result.getTotalSize());
+        assertEquals(4, result.getFileCount());
+        assertEquals(1, result.getDirectoryCount());
+
+        result = walker.delete(root);
+        assertTrue(result.isSuccessful());
+        assertFalse(root.exists());
+        assertEquals(500, new File(target, "inner").length());
+        assertEquals(300, targetFile.length());
+    }
+
+    @Test
+    public void deleteRemovesWholeTree() throws IOException {
+        File root = folder.newFolder("root");
+        Tree tree = new Tree();
+        tree.create(root, new Random(SEED + 1), 3);
+        FileWalker.Result result = newWalker(4, new CountingFileSystem()).delete(root);
+        assertTrue(result.isSuccessful());
+        assertEquals(tree.size, result.getTotalSize());
+        assertEquals(tree.files, result.getFileCount());
+        assertEquals(tree.directories + 1, result.getDirectoryCount());
+        assertFalse(root.exists());
+    }
+
+    @Test
+    public void singleFileAndMissingPath() throws IOException {
+        File file = new File(folder.getRoot(), "single.bin");
+        write(file, 1234);
+        FileWalker walker = newWalker(2, new CountingFileSystem());
+        assertEquals(1234, walker.getSize(file));
+        assertEquals(1, walker.countFiles(file));
+        FileWalker.Result result = walker.walk(new File(folder.getRoot(), "missing"));
+        assertEquals(0, result.getFileCount());
+        assertEquals(0, result.getDirectoryCount());
+        assertTrue(result.isSuccessful());
+        assertTrue(walker.delete(file).isSuccessful());
+        assertFalse(file.exists());
+    }
+
+    /**
+     * 获取文件信息失败的条目计入失败数量，其他条目正常处理
+     */
+    @Test
+    public void failedEntriesAreCounted() throws IOException {
+        File root = folder.newFolder("root");
+        write(new File(root, "good"), 7);
+        write(new File(root, "bad"), 100);
+        File sub = new File(root, "sub");
+        assertTrue(sub.mkdir());
+        write(new File(sub, "bad"), 100);
+        CountingFileSystem fileSystem = new CountingFileSystem() {
+            @Override
+            public long lstat(String path) throws IOException {
+                if (path.endsWith(File.separator + "bad")) {
+                    throw new IOException("Permission denied");
+                }
+                return super.lstat(path);
+            }
+        };
+        FileWalker walker = newWalker(2, fileSystem);
+        FileWalker.Result result = walker.walk(root);
+        assertEquals(7, result.getTotalSize());
+        assertEquals(1, result.getFileCount());
+        assertEquals(2, result.getFailedCount());
+        assertFalse(result.isSuccessful());
+        assertFalse(result.isCancelled());
+
+        result = walker.delete(root);
+        assertFalse(result.isSuccessful());
+        assertFalse(new File(root, "good").exists());
+        assertTrue(new File(root, "bad").exists());
+        assertTrue(new File(sub, "bad").exists());
+    }
+
+    /**
+     * 进度在工作线程中回调，最后一次回调的值与结果一致
+     */
+    @Test
+    public void progressIsReported() throws IOException {
+        File root = folder.newFolder("root");
+        Tree tree = new Tree();
+        tree.create(root, new Random(SEED + 2), 3);
+        final List<long[]> progress = Collections.synchronizedList(new ArrayList<long[]>());
+        FileWalker walker = newWalker(4, new CountingFileSystem()).setProgressListener(new FileWalker.ProgressListener() {
+            @Override
+            public void onProgress(long fileCount, long directoryCount, long totalSize) {
+                progress.add(new long[]{fileCount, directoryCount, totalSize});
+            }
+        });
+        FileWalker.Result result = walker.walk(root);
+        assertTrue(progress.size() > 1);
+        for (long[] values : progress) {
+            assertTrue(values[0] <= result.getFileCount());
+            assertTrue(values[1] <= result.getDirectoryCount());
+            assertTrue(values[2] <= result.getTotalSize());
+        }
+        long[] last = progress.get(progress.size() - 1);
+        assertEquals(result.getFileCount(), last[0]);
+        assertEquals(result.getDirectoryCount(), last[1]);
+        assertEquals(result.getTotalSize(), last[2]);
+    }
+
+    /**
+     * cancel()取消此遍历器上正在进行的所有操作，删除模式下未处理的条目保留
+     */
+    @Test
+    public void cancelStopsAllRunningOperations() throws Exception {
+        final File first = folder.newFolder("first");
+        final File second = folder.newFolder("second");
+        new Tree().create(first, new Random(SEED + 3), 2);
+        new Tree().create(second, new Random(SEED + 4), 2);
+        final CountDownLatch blocked = new CountDownLatch(2);
+        final CountDownLatch release = new CountDownLatch(1);
+        CountingFileSystem fileSystem = new CountingFileSystem() {
+            @Override
+            public long lstat(String path) throws IOException {
+                if (Thread.currentThread() instanceof ForkJoinWorkerThread && path.endsWith("file0")) {
+                    blocked.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new IOException(e);
+                    }
+                }
+                return super.lstat(path);
+            }
+        };
+        final FileWalker walker = newWalker(4, fileSystem);
+        final AtomicReference<FileWalker.Result> firstResult = new AtomicReference<>();
+        final AtomicReference<FileWalker.Result> secondResult = new AtomicReference<>();
+        Thread firstThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                firstResult.set(walker.delete(first));
+            }
+        });
+        Thread secondThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                secondResult.set(walker.walk(second));
+            }
+        });
+        firstThread.start();
+        secondThread.start();
+        assertTrue(blocked.await(TIMEOUT, TimeUnit.SECONDS));
+        walker.cancel();
+        release.countDown();
+        firstThread.join();
+        secondThread.join();
+        assertNotNull(firstResult.get());
+        assertTrue(firstResult.get().isCancelled());
+        assertFalse(firstResult.get().isSuccessful());
+        assertTrue(first.exists());
+        assertTrue(secondResult.get().isCancelled());
+
+        // 取消只影响调用时正在进行的操作
+        FileWalker.Result result = walker.delete(first);
+        assertTrue(result.isSuccessful());
+        assertFalse(first.exists());
+    }
+
+    private FileWalker newWalker(int parallelism, FileWalker.FileSystem fileSystem) {
+        FileWalker walker = new FileWalker(parallelism, fileSystem);
+        walkers.add(walker);
+        return walker;
+    }
+
+    /**
+     * 使用JVM的文件接口获取文件信息，并记录每个路径的调用次数
+     */
+    private static class CountingFileSystem implements FileWalker.FileSystem {
+
+        final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+
+        @Override
+        public long lstat(String path) throws IOException {
+            AtomicInteger count = calls.get(path);
+            if (count == null) {
+                AtomicInteger created = new AtomicInteger();
+                count = calls.putIfAbsent(path, created);
+                if (count == null) {
+                    count = created;
+                }
+            }
+            count.incrementAndGet();
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(Paths.get(path), BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            } catch (NoSuchFileException e) {
+                return MISSING;
+            }
+            if (attributes.isDirectory()) {
+                return DIRECTORY;
+            }
+            return attributes.isRegularFile() ? attributes.size() : SPECIAL;
+        }
+    }
+
+    /**
+     * 随机目录树
+     */
+    private static final class Tree {
+
+        long size;
+        long files;
+        long directories;
+
+        void create(File directory, Random random, int depth) throws IOException {
+            int count = 1 + random.nextInt(depth == 3 ? 400 : 20);
+            for (int i = 0; i < count; i++) {
+                int length = random.nextInt(2048);
+                write(new File(directory, "file" + i), length);
+                size += length;
+                files++;
+            }
+            if (depth > 0) {
+                int children = 1 + random.nextInt(4);
+                for (int i = 0; i < children; i++) {
+                    File child = new File(directory, "dir" + i);
+                    assertTrue(child.mkdir());
+                    directories++;
+                    create(child, random, depth - 1);
+                }
+            }
+        }
+    }
+
+    private static void write(File file, int length) throws IOException {
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(new byte[length]);
+        } finally {
+            out.close();
+        }
+    }
+
+}
@@ -0,0 +1,244 @@
+package com.henley.android.utils;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Formattable;
+import java.util.Formatter;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link FormatTemplate}与{@link String#format(String, Object...)}的对比测试
+ */
+public class FormatTemplateTest {
+
+    private static final long SEED = 20261018L;
+    private static final Locale[] LOCALES = {
+            Locale.US,
+            Locale.GERMANY,
+            Locale.forLanguageTag("ar-EG"),
+            Locale.forLanguageTag("th-TH-u-nu-thai"),
+    };
+    private static final String[] LITERALS = {"", "a", " ", "\u4E2D\u6587", "x=", "\uD83D\uDE00", "$", "1"};
+    private static final String[] PLAIN_SPECS = {"%s", "%d", "%c", "%b", "%%", "%n"};
+    private static final String[] DELEGATE_SPECS = {
+            "%.2f", "%05d", "%x", "%e", "%-6s", "%S", "%,d", "%+d", "%10.3e", "%h", "%o", "%B", "%C",
+            "%(d", "%#x", "%tY", "%.3s", "%#s", "%g", "%a",
+    };
+    private static final String[] MALFORMED_SPECS = {
+            "%", "%q", "%5", "%.f", "%-d", "%1$", "%0$s", "%,s", "%-%", "%5n", "%2$%", "%t", "%tq",
+    };
+
+    private final Locale defaultLocale = Locale.getDefault();
+
+    @After
+    public void restoreLocale() {
+        Locale.setDefault(defaultLocale);
+    }
+
+    /**
+     * 随机的格式和参数(包括不匹配的参数)与String.format的结果或异常类型相同
+     */
+    @Test
+    public void randomFormatsMatchStringFormat() {
+        Random random = new Random(SEED);
+        for (Locale locale : LOCALES) {
+            Locale.setDefault(locale);
+            for (int round = 0; round < 3000; round++) {
+                String format = randomFormat(random, round % 10 == 0);
+                Object[] args = new Object[random.nextInt(5)];
+                for (int i = 0; i < args.length; i++) {
+                    args[i] = randomValue(random);
+                }
+                assertSameResult(format, args);
+            }
+        }
+    }
+
+    /**
+     * 模板中的参数再次格式化时(toString()和Formattable中)结果不受影响
+     */
+    @Test
+    public void nestedFormatting() {
+        Object nested = new Object() {
+            @Override
+            public String toString() {
+                return FormatTemplate.compile("[%s|%d|%.1f]").format("in", 7, 1.25);
+            }
+        };
+        Formattable formattable = new Formattable() {
+            @Override
+            public void formatTo(Formatter formatter, int flags, int width, int precision) {
+                formatter.format("<%s:%05d>", FormatTemplate.compile("%s%s").format("f", "t"), width);
+            }
+        };
+        Locale.setDefault(Locale.US);
+        assertSameResult("%s %s %8s %d", new Object[]{nested, formattable, formattable, 3});
+        assertSameResult("%1$s%1$s%2$x", new Object[]{nested, 255});
+    }
+
+    @Test
+    public void malformedFormats() {
+        Locale.setDefault(Locale.US);
+        for (String spec : MALFORMED_SPECS) {
+            assertSameResult("a" + spec, new Object[]{"x", 1});
+            assertSameResult(spec + "%s", new Object[]{"x", 1});
+        }
+    }
+
+    @Test
+    public void missingArguments() {
+        Locale.setDefault(Locale.US);
+        assertSameResult("%s %s", new Object[]{"x"});
+        assertSameResult("%3$s", new Object[]{"x", "y"});
+        assertSameResult("%s %<s %s", new Object[]{"x"});
+        assertSameResult("%99$d", new Object[0]);
+    }
+
+    private static void assertSameResult(String format, Object[] args) {
+        String expected;
+        try {
+            expected = String.format(format, args);
+        } catch (RuntimeException e) {
+            assertSameException(format, args, e.getClass());
+            return;
+        }
+        FormatTemplate template = FormatTemplate.compile(format);
+        String message = format + " " + describe(args);
+        assertEquals(message, expected, template.format(args));
+        assertEquals(message, "#" + expected, template.appendTo(new StringBuilder("#"), args).toString());
+        FormatTemplate.Arguments arguments = toArguments(args);
+        assertEquals(message, expected, template.format(arguments));
+        assertEquals(message, "#" + expected, template.appendTo(new StringBuilder("#"), arguments).toString());
+    }
+
+    private static void assertSameException(String format, Object[] args, Class<?> expected) {
+        String message = format + " " + describe(args);
+        FormatTemplate.Arguments arguments = toArguments(args);
+        for (int i = 0; i < 4; i++) {
+            try {
+                FormatTemplate template = FormatTemplate.compile(format);
+                switch (i) {
+                    case 0:
+                        template.format(args);
+                        break;
+                    case 1:
+                        template.appendTo(new StringBuilder(), args);
+                        break;
+                    case 2:
+                        template.format(arguments);
+                        break;
+                    default:
+                        template.appendTo(new StringBuilder(), arguments);
+                        break;
+                }
+                fail(message + " expected " + expected.getName());
+            } catch (RuntimeException e) {
+                assertEquals(message, expected, e.getClass());
+            }
+        }
+    }
+
+    private static FormatTemplate.Arguments toArguments(Object[] args) {
+        FormatTemplate.Arguments arguments = new FormatTemplate.Arguments(1);
+        for (Object arg : args) {
+            if (arg instanceof Integer) {
+                arguments.add(((Integer) arg).intValue());
+            } else if (arg instanceof Long) {
+                arguments.add(((Long) arg).longValue());
+            } else if (arg instanceof Float) {
+                arguments.add(((Float) arg).floatValue());
+            } else if (arg instanceof Double) {
+                arguments.add(((Double) arg).doubleValue());
+            } else if (arg instanceof Boolean) {
+                arguments.add(((Boolean) arg).booleanValue());
+            } else if (arg instanceof Character) {
+                arguments.add(((Character) arg).charValue());
+            } else {
+                arguments.add(arg);
+            }
+        }
+        return arguments;
+    }
+
+    private static String randomFormat(Random random, boolean malformed) {
+        StringBuilder format = new StringBuilder();
+        for (int i = random.nextInt(6); i >= 0; i--) {
+            format.append(LITERALS[random.nextInt(LITERALS.length)]);
+            int choice = random.nextInt(10);
+            if (choice < 4) {
+                format.append(PLAIN_SPECS[random.nextInt(PLAIN_SPECS.length)]);
+            } else if (choice < 7) {
+                format.append(DELEGATE_SPECS[random.nextInt(DELEGATE_SPECS.length)]);
+            } else if (choice < 9) {
+                // 带参数索引的格式
+                String spec = random.nextBoolean() ? PLAIN_SPECS[random.nextInt(4)]
+                        : DELEGATE_SPECS[random.nextInt(DELEGATE_SPECS.length)];
+                format.append('%').append(random.nextInt(5) + 1).append('$').append(spec, 1, spec.length());
+            } else {
+                format.append("%<s");
+            }
+        }
+        if (malformed) {
+            format.insert(random.nextInt(format.length() + 1), MALFORMED_SPECS[random.nextInt(MALFORMED_SPECS.length)]);
+        }
+        return format.toString();
+    }
+
+    private static Object randomValue(Random random) {
+        switch (random.nextInt(16)) {
+            case 0:
+                return null;
+            case 1:
+                return "s" + random.nextInt(100);
+            case 2:
+                return "\u4E2D\uD83D\uDE00";
+            case 3:
+                return random.nextInt();
+            case 4:
+                return new int[]{Integer.MIN_VALUE, Integer.MAX_VALUE, 0, -1, 0x1F600, 0x110000}[random.nextInt(6)];
+            case 5:
+                return random.nextBoolean() ? random.nextLong() : Long.MIN_VALUE;
+            case 6:
+                return (short) random.nextInt();
+            case 7:
+                return (byte) random.nextInt();
+            case 8:
+                return new float[]{random.nextFloat() * 1000 - 500, Float.NaN, -0.0f, Float.MIN_VALUE}[random.nextInt(4)];
+            case 9:
+                return new double[]{random.nextGaussian() * 1e6, Double.POSITIVE_INFINITY, 0.1, -1e-300}[random.nextInt(4)];
+            case 10:
+                return random.nextBoolean();
+            case 11:
+                return new char[]{'a', '\u4E2D', '\uD83D', '%', '0'}[random.nextInt(5)];
+            case 12:
+                return new BigDecimal(random.nextInt()).movePointLeft(random.nextInt(6));
+            case 13:
+                return BigInteger.valueOf(random.nextLong()).shiftLeft(random.nextInt(80));
+            case 14:
+                return new Formattable() {
+                    @Override
+                    public void formatTo(Formatter formatter, int flags, int width, int precision) {
+                        formatter.format("F(%d,%d,%d)", flags, width, precision);
+                    }
+                };
+            default:
+                return new StringBuilder("sb");
+        }
+    }
+
+    private static String describe(Object[] args) {
+        StringBuilder builder = new StringBuilder("[");
+        for (Object arg : args) {
+            builder.append(arg == null ? "null" : arg.getClass().getSimpleName() + ":" + arg).append(", ");
+        }
+        return builder.append(']').toString();
+    }
+
+}
@@ -0,0 +1,165 @@
+package com.henley.android.utils;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link HexCodec}的测试
+ */
+public class HexCodecTest {
+
+    private static final long SEED = 20261018L;
+
+    /**
+     * RFC 4648第10节的BASE16测试向量
+     */
+    @Test
+    public void rfc4648Vectors() throws Exception {
+        String[] input = {"", "f", "fo", "foo", "foob", "fooba", "foobar"};
+        String[] output = {"", "66", "666F", "666F6F", "666F6F62", "666F6F6261", "666F6F626172"};
+        for (int i = 0; i < input.length; i++) {
+            byte[] bytes = input[i].getBytes("US-ASCII");
+            assertEquals(output[i], HexCodec.encodeToString(bytes, false));
+            assertEquals(output[i].toLowerCase(Locale.US), HexCodec.encodeToString(bytes, true));
+            assertArrayEquals(bytes, HexCodec.decode(output[i]));
+            assertArrayEquals(bytes, HexCodec.decode(output[i].toLowerCase(Locale.US)));
+        }
+    }
+
+    @Test
+    public void allByteValues() {
+        byte[] bytes = new byte[256];
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+            expected.append(String.format(Locale.US, "%02X", i));
+        }
+        assertEquals(expected.toString(), HexCodec.encodeToString(bytes, false));
+        assertEquals(expected.toString().toLowerCase(Locale.US), HexCodec.encodeToString(bytes, true));
+        assertArrayEquals(bytes, HexCodec.decode(expected));
+    }
+
+    /**
+     * 各种输入输出形式的编码结果相同，并且都能还原
+     */
+    @Test
+    public void randomRoundTrip() throws Exception {
+        Random random = new Random(SEED);
+        for (int round = 0; round < 500; round++) {
+            byte[] data = new byte[random.nextInt(200)];
+            random.nextBytes(data);
+            boolean lowerCase = random.nextBoolean();
+            int offset = random.nextInt(3);
+            String expected = reference(data, lowerCase);
+
+            assertEquals(expected, HexCodec.encodeToString(data, lowerCase));
+            byte[] padded = new byte[data.length + offset];
+            System.arraycopy(data, 0, padded, offset, data.length);
+            assertEquals(expected, HexCodec.encodeToString(padded, offset, data.length, lowerCase));
+
+            char[] chars = new char[offset + data.length * 2];
+            assertEquals(data.length * 2, HexCodec.encode(padded, offset, data.length, chars, offset, lowerCase));
+            assertEquals(expected, new String(chars, offset, data.length * 2));
+            byte[] ascii = new byte[offset + data.length * 2];
+            assertEquals(data.length * 2, HexCodec.encode(padded, offset, data.length, ascii, offset, lowerCase));
+            assertEquals(expected, new String(ascii, offset, data.length * 2, "US-ASCII"));
+
+            ByteBuffer heap = ByteBuffer.allocate(data.length * 2);
+            assertEquals(data.length * 2, HexCodec.encode(ByteBuffer.wrap(data), heap, lowerCase));
+            assertEquals(expected, new String(heap.array(), "US-ASCII"));
+            ByteBuffer direct = ByteBuffer.allocateDirect(data.length * 2);
+            ByteBuffer source = ByteBuffer.allocateDirect(data.length);
+            source.put(data).flip();
+            assertEquals(data.length * 2, HexCodec.encode(source, direct, lowerCase));
+            direct.flip();
+            byte[] directBytes = new byte[direct.remaining()];
+            direct.get(directBytes);
+            assertEquals(expected, new String(directBytes, "US-ASCII"));
+
+            StringBuilder builder = new StringBuilder("#");
+            HexCodec.appendTo(builder, padded, offset, data.length, lowerCase);
+            assertEquals("#" + expected, builder.toString());
+
+            String mixed = mixCase(expected, random);
+            assertArrayEquals(data, HexCodec.decode(mixed));
+            byte[] decoded = new byte[offset + data.length];
+            assertEquals(data.length, HexCodec.decode("#" + mixed, 1, mixed.length(), decoded, offset));
+            assertArrayEquals(data, Arrays.copyOfRange(decoded, offset, decoded.length));
+            decoded = new byte[offset + data.length];
+            assertEquals(data.length, HexCodec.decode(mixed.toCharArray(), 0, mixed.length(), decoded, offset));
+            assertArrayEquals(data, Arrays.copyOfRange(decoded, offset, decoded.length));
+            decoded = new byte[offset + data.length];
+            assertEquals(data.length, HexCodec.decode(mixed.getBytes("US-ASCII"), 0, mixed.length(), decoded, offset));
+            assertArrayEquals(data, Arrays.copyOfRange(decoded, offset, decoded.length));
+        }
+    }
+
+    @Test
+    public void decodeRejectsOddLength() {
+        for (String input : new String[]{"0", "ABC", "12345"}) {
+            try {
+                HexCodec.decode(input);
+                fail(input);
+            } catch (IllegalArgumentException expected) {
+                // 长度为奇数
+            }
+        }
+    }
+
+    /**
+     * 非十六进制字符(包括低8位是十六进制字符的非ASCII字符)被拒绝
+     */
+    @Test
+    public void decodeRejectsIllegalCharacters() {
+        for (String input : new String[]{"0G", "G0", "  ", "0x", "-1", "\u01300", "A\u0141", "\u00C1A", "\uFF10\uFF11"}) {
+            try {
+                HexCodec.decode(input);
+                fail(input);
+            } catch (IllegalArgumentException expected) {
+                // 非十六进制字符
+            }
+            try {
+                HexCodec.decode(input.toCharArray(), 0, input.length(), new byte[1], 0);
+                fail(input);
+            } catch (IllegalArgumentException expected) {
+                // 非十六进制字符
+            }
+        }
+        try {
+            HexCodec.decode(new byte[]{'A', (byte) 0xC1}, 0, 2, new byte[1], 0);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // 非ASCII字节
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void encodedLengthRejectsOverflow() {
+        HexCodec.encodedLength(Integer.MAX_VALUE / 2 + 1);
+    }
+
+    private static String reference(byte[] data, boolean lowerCase) {
+        StringBuilder builder = new StringBuilder();
+        for (byte b : data) {
+            builder.append(String.format(Locale.US, lowerCase ? "%02x" : "%02X", b & 0xFF));
+        }
+        return builder.toString();
+    }
+
+    private static String mixCase(String hex, Random random) {
+        char[] chars = hex.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = random.nextBoolean() ? Character.toUpperCase(chars[i]) : Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+}
@@ -0,0 +1,313 @@
+package com.henley.android.utils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link LineIterator}的测试
+ */
+public class LineIteratorTest {
+
+    private static final long SEED = 20261018L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void splitsOnAllLineTerminators() {
+        assertEquals(Arrays.asList("a", "b", "c", "d"), lines("a\nb\rc\r\nd"));
+        assertEquals(Arrays.asList("a", "", "b"), lines("a\n\nb"));
+        assertEquals(Arrays.asList("a", "", "b"), lines("a\r\rb"));
+        assertEquals(Arrays.asList("a", "", "b"), lines("a\n\r\nb"));
+        assertEquals(Arrays.asList("a", "b"), lines("a\r\nb\r\n"));
+        assertEquals(Collections.singletonList(""), lines("\n"));
+        assertEquals(Collections.singletonList(""), lines("\r\n"));
+        assertEquals(Collections.<String>emptyList(), lines(""));
+    }
+
+    /**
+     * 最后一行没有换行符时也会返回
+     */
+    @Test
+    public void trailingLineWithoutTerminator() {
+        assertEquals(Arrays.asList("first", "last"), lines("first\nlast"));
+        assertEquals(Collections.singletonList("only"), lines("only"));
+        assertEquals(Arrays.asList("x", "y"), lines("x\ry"));
+    }
+
+    /**
+     * 随机内容、随机读取分段(包括"\r\n"被拆分到两次读取中)时与{@link BufferedReader#readLine()}结果相同
+     */
+    @Test
+    public void matchesBufferedReaderWithRandomChunks() throws IOException {
+        Random random = new Random(SEED);
+        char[] pool = {'a', 'b', '\r', '\n', ' ', '\u4E2D'};
+        for (int round = 0; round < 2000; round++) {
+            StringBuilder text = new StringBuilder();
+            for (int i = random.nextInt(40); i > 0; i--) {
+                text.append(pool[random.nextInt(pool.length)]);
+            }
+            List<String> expected = new ArrayList<>();
+            BufferedReader reference = new BufferedReader(new StringReader(text.toString()));
+            String line;
+            while ((line = reference.readLine()) != null) {
+                expected.add(line);
+            }
+
+            List<String> actual = new ArrayList<>();
+            for (CharSequence next : LineIterator.create(new ChunkedReader(text.toString(), random))) {
+                actual.add(next.toString());
+            }
+            assertEquals(text.toString(), expected, actual);
+
+            actual.clear();
+            LineIterator iterator = LineIterator.create(new ChunkedReader(text.toString(), random));
+            CharSequence next;
+            while ((next = iterator.readLine()) != null) {
+                actual.add(next.toString());
+                assertEquals(actual.size(), iterator.getLineNumber());
+            }
+            iterator.close();
+            assertEquals(text.toString(), expected, actual);
+        }
+    }
+
+    /**
+     * 分段恰好在"\r"和"\n"之间时不会多出空行
+     */
+    @Test
+    public void crlfAcrossChunkBoundary() {
+        String text = "one\r\ntwo\r\n\r\nthree";
+        for (int split = 0; split <= text.length(); split++) {
+            List<String> actual = new ArrayList<>();
+            for (CharSequence line : LineIterator.create(new SplitReader(text, split))) {
+                actual.add(line.toString());
+            }
+            assertEquals("split at " + split, Arrays.asList("one", "two", "", "three"), actual);
+        }
+    }
+
+    /**
+     * 行比字符缓冲区长时完整返回
+     */
+    @Test
+    public void lineLongerThanBuffer() {
+        char[] chars = new char[BufferPool.acquireChars().length * 3 + 5];
+        Arrays.fill(chars, 'x');
+        String longLine = new String(chars);
+        assertEquals(Arrays.asList(longLine, "", longLine), lines(longLine + "\r\n\r" + longLine + "\n"));
+    }
+
+    /**
+     * visitor返回false时提前结束并关闭底层的Reader
+     */
+    @Test
+    public void earlyTerminationClosesReader() {
+        TrackingReader reader = new TrackingReader("1\n2\n3\n4\n");
+        final List<String> visited = new ArrayList<>();
+        int count = LineIterator.create(reader).visit(new LineIterator.LineVisitor() {
+            @Override
+            public boolean onLine(CharSequence line, int lineNumber) {
+                visited.add(lineNumber + ":" + line);
+                return lineNumber < 2;
+            }
+        });
+        assertEquals(2, count);
+        assertEquals(Arrays.asList("1:1", "2:2"), visited);
+        assertTrue(reader.closed);
+    }
+
+    /**
+     * 迭代结束或调用close()时关闭底层的Reader
+     */
+    @Test
+    public void exhaustedIteratorClosesReader() {
+        TrackingReader reader = new TrackingReader("a\nb");
+        LineIterator iterator = LineIterator.create(reader);
+        int count = 0;
+        for (CharSequence ignored : iterator) {
+            count++;
+        }
+        assertEquals(2, count);
+        assertTrue(reader.closed);
+        assertFalse(iterator.hasNext());
+        try {
+            iterator.next();
+            fail();
+        } catch (java.util.NoSuchElementException expected) {
+            // 没有更多的行
+        }
+
+        reader = new TrackingReader("a\nb");
+        iterator = LineIterator.create(reader);
+        assertEquals("a", iterator.next().toString());
+        iterator.close();
+        assertTrue(reader.closed);
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void iteratorCanOnlyBeRequestedOnce() {
+        LineIterator iterator = LineIterator.create(new StringReader("a"));
+        assertTrue(iterator.iterator() == iterator);
+        try {
+            iterator.iterator();
+            fail();
+        } catch (IllegalStateException expected) {
+            // 只能遍历一次
+        } finally {
+            iterator.close();
+        }
+    }
+
+    /**
+     * 返回的行是共用的缓冲区，读取下一行后内容改变
+     */
+    @Test
+    public void returnedLineIsReused() {
+        LineIterator iterator = LineIterator.create(new StringReader("first\nsecond"));
+        CharSequence first = iterator.next();
+        String copy = first.toString();
+        CharSequence second = iterator.next();
+        assertTrue(first == second);
+        assertEquals("first", copy);
+        assertEquals("second", second.toString());
+        iterator.close();
+    }
+
+    @Test
+    public void fileEntryPoints() throws IOException {
+        File file = folder.newFile("lines.txt");
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write("\u4E2D\u6587\r\nb\nc".getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+        final List<String> visited = new ArrayList<>();
+        assertEquals(3, FileUtils.readLines(file, "UTF-8", new LineIterator.LineVisitor() {
+            @Override
+            public boolean onLine(CharSequence line, int lineNumber) {
+                visited.add(line.toString());
+                return true;
+            }
+        }));
+        assertEquals(Arrays.asList("\u4E2D\u6587", "b", "c"), visited);
+        assertEquals(-1, FileUtils.readLines(new File(folder.getRoot(), "missing"), "UTF-8", null));
+        assertNull(FileUtils.lineIterator(new File(folder.getRoot(), "missing"), "UTF-8"));
+
+        LineIterator iterator = LineIterator.create(new ByteArrayInputStream("x\ny".getBytes("UTF-8")), "UTF-8");
+        assertEquals("x", iterator.next().toString());
+        assertEquals("y", iterator.next().toString());
+        assertFalse(iterator.hasNext());
+    }
+
+    private static List<String> lines(String text) {
+        List<String> lines = new ArrayList<>();
+        for (CharSequence line : LineIterator.create(new StringReader(text))) {
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+
+    /**
+     * 每次读取随机数量(1~8)字符的Reader
+     */
+    private static final class ChunkedReader extends Reader {
+
+        private final String text;
+        private final Random random;
+        private int position;
+
+        private ChunkedReader(String text, Random random) {
+            this.text = text;
+            this.random = random;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position >= text.length()) {
+                return -1;
+            }
+            int count = Math.min(Math.min(length, 1 + random.nextInt(8)), text.length() - position);
+            text.getChars(position, position + count, buffer, offset);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * 第一次读取在指定位置结束的Reader
+     */
+    private static final class SplitReader extends Reader {
+
+        private final String text;
+        private final int split;
+        private int position;
+
+        private SplitReader(String text, int split) {
+            this.text = text;
+            this.split = split;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position >= text.length()) {
+                return -1;
+            }
+            int end = position < split ? split : text.length();
+            int count = Math.min(length, end - position);
+            if (count == 0) {
+                end = text.length();
+                count = Math.min(length, end - position);
+            }
+            text.getChars(position, position + count, buffer, offset);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static final class TrackingReader extends StringReader {
+
+        private boolean closed;
+
+        private TrackingReader(String text) {
+            super(text);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            super.close();
+        }
+    }
+
+}
@@ -0,0 +1,244 @@
+package com.henley.android.utils;
+
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link MultiDigest}及{@link FileUtils#copyFileWithDigest}的测试
+ */
+public class MultiDigestTest {
+
+    private static final long SEED = 20261018L;
+    private static final String[] ALGORITHMS = {"MD5", "SHA-1", "SHA-256", "SHA-512"};
+    private static final int[] SIZES = {0, 1, 63, 64, 65, 8191, 8192, 8193, 1 << 16, (1 << 20) + 7};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * 复制时一次计算的多个摘要与分别读取目标文件计算的摘要相同
+     */
+    @Test
+    public void copyDigestsMatchFileDigests() throws IOException {
+        Random random = new Random(SEED);
+        for (int size : SIZES) {
+            File src = write("src-" + size, randomBytes(random, size));
+            File dest = new File(folder.getRoot(), "out/dest-" + size);
+            FileUtils.CopyResult result = FileUtils.copyFileWithDigest(src, dest, ALGORITHMS);
+            assertEquals(size, result.getLength());
+            assertEquals(size, dest.length());
+            for (String algorithm : ALGORITHMS) {
+                byte[] expected = DigestUtils.digest(dest, algorithm, null);
+                assertArrayEquals(algorithm + " " + size, expected, DigestUtils.digest(src, algorithm, null));
+                assertArrayEquals(algorithm + " " + size, expected, result.getDigest(algorithm));
+                assertEquals(DigestUtils.byte2Hex(expected), result.getDigestHex(algorithm));
+            }
+        }
+    }
+
+    /**
+     * 包装的流和通道(随机长度的读写)计算的摘要与{@link DigestUtils#digest(File, String, DigestUtils.ProgressListener)}相同
+     */
+    @Test
+    public void wrappersMatchFileDigests() throws IOException {
+        Random random = new Random(SEED + 1);
+        for (int size : SIZES) {
+            byte[] data = randomBytes(random, size);
+            File file = write("data-" + size, data);
+
+            MultiDigest input = MultiDigest.create(ALGORITHMS);
+            drain(input.wrap(new ByteArrayInputStream(data)), random);
+
+            MultiDigest output = MultiDigest.create(ALGORITHMS);
+            ByteArrayOutputStream sink = new ByteArrayOutputStream();
+            OutputStream wrapped = output.wrap(sink);
+            writeRandomly(wrapped, data, random);
+            assertArrayEquals(data, sink.toByteArray());
+
+            MultiDigest readable = MultiDigest.create(ALGORITHMS);
+            ReadableByteChannel channel = readable.wrapReadable(new FileInputStream(file).getChannel());
+            try {
+                ByteBuffer buffer = ByteBuffer.allocate(1 + random.nextInt(10000));
+                while (channel.read(buffer) != -1) {
+                    buffer.clear();
+                }
+            } finally {
+                channel.close();
+            }
+
+            MultiDigest writable = MultiDigest.create(ALGORITHMS);
+            ByteArrayOutputStream channelSink = new ByteArrayOutputStream();
+            WritableByteChannel writableChannel = writable.wrapWritable(Channels.newChannel(channelSink));
+            ByteBuffer source = ByteBuffer.wrap(data);
+            while (source.hasRemaining()) {
+                ByteBuffer slice = source.duplicate();
+                slice.limit(Math.min(source.limit(), source.position() + 1 + random.nextInt(5000)));
+                writableChannel.write(slice);
+                source.position(slice.position());
+            }
+            assertArrayEquals(data, channelSink.toByteArray());
+
+            for (String algorithm : ALGORITHMS) {
+                byte[] expected = DigestUtils.digest(file, algorithm, null);
+                String message = algorithm + " " + size;
+                assertArrayEquals(message, expected, input.getDigest(algorithm));
+                assertArrayEquals(message, expected, output.getDigest(algorithm));
+                assertArrayEquals(message, expected, readable.getDigest(algorithm));
+                assertArrayEquals(message, expected, writable.getDigest(algorithm));
+                assertTrue(message, input.matches(algorithm.toLowerCase(), expected));
+            }
+            assertEquals(size, input.getLength());
+            assertEquals(size, readable.getLength());
+        }
+    }
+
+    @Test
+    public void updateAfterDigestRequiresReset() {
+        MultiDigest digest = MultiDigest.create("SHA-256");
+        digest.update(new byte[]{1, 2, 3}, 0, 3);
+        byte[] first = digest.getDigest("SHA-256");
+        try {
+            digest.update(new byte[1], 0, 1);
+            fail();
+        } catch (IllegalStateException expected) {
+            // 已经计算摘要
+        }
+        digest.reset().update(ByteBuffer.wrap(new byte[]{1, 2, 3}));
+        assertArrayEquals(first, digest.getDigest("SHA-256"));
+        try {
+            digest.getDigest("MD5");
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // 创建时未指定的算法
+        }
+    }
+
+    /**
+     * 摘要与期望值不一致时抛出异常并删除目标文件
+     */
+    @Test
+    public void digestMismatchDeletesDestination() throws IOException {
+        byte[] data = randomBytes(new Random(SEED + 2), 10000);
+        File src = write("src", data);
+        File dest = new File(folder.getRoot(), "dest");
+        byte[] expected = DigestUtils.digest(src, "SHA-256", null);
+
+        FileUtils.CopyResult result = FileUtils.copyFileWithDigest(src, dest, "SHA-256", expected);
+        assertArrayEquals(expected, result.getDigest("SHA-256"));
+        assertTrue(dest.exists());
+
+        byte[] wrong = expected.clone();
+        wrong[0] ^= 1;
+        try {
+            FileUtils.copyFileWithDigest(src, dest, "SHA-256", wrong);
+            fail();
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        assertFalse(dest.exists());
+    }
+
+    /**
+     * 复制过程中读取失败时删除已写入的目标文件(未指定期望的摘要时也删除)
+     */
+    @Test
+    public void readFailureDeletesDestination() throws IOException {
+        // 从偏移0读取/proc/self/mem时返回EIO
+        File src = new File("/proc/self/mem");
+        Assume.assumeTrue(src.canRead());
+        File dest = new File(folder.getRoot(), "dest");
+        try {
+            FileUtils.copyFileWithDigest(src, dest, "MD5");
+            fail();
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        assertFalse(dest.exists());
+    }
+
+    /**
+     * 源文件无法打开时不会删除已有的目标文件
+     */
+    @Test
+    public void missingSourceKeepsExistingDestination() throws IOException {
+        File dest = write("dest", new byte[]{1, 2, 3});
+        try {
+            FileUtils.copyFileWithDigest(new File(folder.getRoot(), "missing"), dest, "MD5");
+            fail();
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        assertTrue(dest.exists());
+        assertEquals(3, dest.length());
+    }
+
+    private File write(String name, byte[] data) throws IOException {
+        File file = new File(folder.getRoot(), name);
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(data);
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    private static byte[] randomBytes(Random random, int size) {
+        byte[] data = new byte[size];
+        random.nextBytes(data);
+        return data;
+    }
+
+    /**
+     * 混合单字节读取和随机长度的批量读取
+     */
+    private static void drain(InputStream input, Random random) throws IOException {
+        byte[] buffer = new byte[4096];
+        while (true) {
+            if (random.nextInt(4) == 0) {
+                if (input.read() == -1) {
+                    return;
+                }
+            } else if (input.read(buffer, 0, 1 + random.nextInt(buffer.length)) == -1) {
+                return;
+            }
+        }
+    }
+
+    private static void writeRandomly(OutputStream output, byte[] data, Random random) throws IOException {
+        int position = 0;
+        while (position < data.length) {
+            if (random.nextInt(4) == 0) {
+                output.write(data[position++]);
+            } else {
+                int length = Math.min(data.length - position, 1 + random.nextInt(5000));
+                output.write(Arrays.copyOfRange(data, position, position + length), 0, length);
+                position += length;
+            }
+        }
+    }
+
+}
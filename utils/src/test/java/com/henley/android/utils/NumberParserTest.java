@@ -0,0 +1,281 @@
+package com.henley.android.utils;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link NumberParser}的测试(结果必须与JDK的解析结果完全相同，JDK抛出异常时返回默认值)
+ */
+public class NumberParserTest {
+
+    private static final long SEED = 20261018L;
+    private static final int INT_DEFAULT = -1357;
+    private static final long LONG_DEFAULT = -24681357L;
+    private static final float FLOAT_DEFAULT = -13.57f;
+    private static final double DOUBLE_DEFAULT = -2468.1357;
+    /**
+     * 阿拉伯-印度数字、天城文数字、全角数字的0
+     */
+    private static final char[] NON_ASCII_ZEROS = {'\u0660', '\u0966', '\uFF10'};
+    private static final String[] INTEGER_CASES = {
+            "", "+", "-", "0", "-0", "+0", "00", "007", "-007", "1", "-1", "+1", "++1", "--1", "+-1", "1-", "1+",
+            " 1", "1 ", "\t1", "1\n", "1 2", "1_000", "1,000", "1.0", "1e3", "0x10", "0X10", "#10", "a", "1a", "a1",
+            "2147483647", "2147483648", "-2147483648", "-2147483649", "+2147483647", "02147483647", "21474836470",
+            "4294967296", "-4294967296", "9999999999", "9223372036854775807", "9223372036854775808",
+            "-9223372036854775808", "-9223372036854775809", "09223372036854775807", "18446744073709551616",
+            "99999999999999999999", "-99999999999999999999", "00000000000000000000000001",
+            "\u0661\u0662\u0663", "-\u0661\u0662\u0663", "1\u0662", "\uFF11\uFF12", "\u0967\u0968", "\u00B9", "\u2460",
+            "12\u00A0", "\u200B1", "\uFF0B1", "\uFF0D1"
+    };
+    private static final String[] FLOATING_CASES = {
+            "", " ", "+", "-", ".", "+.", "-.", "e", "E1", ".e1", "1e", "1e+", "1e-", "1e+-1", "1ee1", "1.2.3", "..1",
+            "0", "-0", "+0", "0.0", "-0.0", "00.000", ".0", "0.", "1", "-1", ".5", "5.", "-.5", "+5.", "1e0", "1E0",
+            "1e+0", "1e-0", "1e10", "1e22", "1e23", "1e-22", "1e-23", "1e308", "1e309", "-1e309", "1e-324", "4.9e-324",
+            "2e-324", "2.4703282292062328e-324", "2.4703282292062327e-324", "1.7976931348623157e308",
+            "1.7976931348623158e308", "1.7976931348623159e308", "3.4028235e38", "3.4028236e38", "1.4e-45", "7e-46",
+            "0.1", "0.2", "0.3", "123.456", "9007199254740992", "9007199254740993", "9007199254740993.0",
+            "90071992547409930e-1", "16777216", "16777217", "16777217.0", "1.00000017881393432617187499",
+            "1.000000178813934326171875", "1.00000017881393432617187501", "2.2250738585072011e-308",
+            "2.2250738585072012e-308", "0.000000000000000000000000000001", "100000000000000000000000",
+            "12345678901234567890", "1234567890123456789012345678901234567890e-20", "1e100000", "1e-100000",
+            "1e2147483647", "1e2147483648", "1e-2147483648", "1e99999999999999999999", "0e99999999999999999999",
+            "1f", "1F", "1d", "1D", "1.5f", "1e5d", "1ff", "1fd", "1df", "f", ".f", "1.f", "1e5 f", "1 e5", "1l", "1L",
+            " 1.5 ", "\t\n1.5\r ", "\u00001.5\u0000", "1.5\u00A0", "\u2003" + "1.5", "1,5", "1_0",
+            "NaN", "+NaN", "-NaN", "nan", "NAN", "NaN ", " NaN", "NaNf", "NaNd", "NaN1", "Na", "N",
+            "Infinity", "+Infinity", "-Infinity", "infinity", "Inf", "INFINITY", "Infinity ", "Infinityf", "I",
+            "0x1p3", "0X1P3", "-0x1p3", "0x1.8p1", "0x.8p1", "0x1p-1074", "0x1p-1075", "0x1.fffffffffffffp1023",
+            "0x1p1024", "0x1p3f", "0x1p3d", "0x1", "0x", "0xp3", "0x1p", "0xg", " 0x1p3 ",
+            "1\u0662", "\u0661.5", "\uFF11.5", "1.\uFF15", "1e\uFF12"
+    };
+
+    @Test
+    public void parseIntMatchesJdk() {
+        for (String s : INTEGER_CASES) {
+            checkInt(s);
+        }
+        Random random = new Random(SEED);
+        for (int round = 0; round < 200000; round++) {
+            checkInt(randomInteger(random));
+        }
+    }
+
+    @Test
+    public void parseLongMatchesJdk() {
+        for (String s : INTEGER_CASES) {
+            checkLong(s);
+        }
+        Random random = new Random(SEED + 1);
+        for (int round = 0; round < 200000; round++) {
+            checkLong(randomInteger(random));
+        }
+    }
+
+    /**
+     * 所有int和long的边界值及其相邻值
+     */
+    @Test
+    public void integerLimits() {
+        long[] limits = {0, Byte.MAX_VALUE, Short.MAX_VALUE, Integer.MAX_VALUE, 1L << 32, Long.MAX_VALUE / 10, Long.MAX_VALUE};
+        for (long limit : limits) {
+            for (long delta = -11; delta <= 11; delta++) {
+                for (long value : new long[]{limit + delta, -limit + delta}) {
+                    checkInt(Long.toString(value));
+                    checkLong(Long.toString(value));
+                }
+            }
+        }
+        checkInt("-2147483648");
+        checkLong("-9223372036854775808");
+        checkLong("9223372036854775807");
+    }
+
+    @Test
+    public void parseFloatMatchesJdk() {
+        for (String s : FLOATING_CASES) {
+            checkFloat(s);
+        }
+        Random random = new Random(SEED + 2);
+        for (int round = 0; round < 200000; round++) {
+            checkFloat(randomFloating(random));
+        }
+        for (int round = 0; round < 50000; round++) {
+            float value = Float.intBitsToFloat(random.nextInt());
+            checkFloat(Float.toString(value));
+            checkFloat(Double.toString(value));
+        }
+    }
+
+    @Test
+    public void parseDoubleMatchesJdk() {
+        for (String s : FLOATING_CASES) {
+            checkDouble(s);
+        }
+        Random random = new Random(SEED + 3);
+        for (int round = 0; round < 200000; round++) {
+            checkDouble(randomFloating(random));
+        }
+        for (int round = 0; round < 50000; round++) {
+            checkDouble(Double.toString(Double.longBitsToDouble(random.nextLong())));
+            checkDouble(Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(40) - 20)));
+        }
+    }
+
+    /**
+     * 只解析[offset, offset + length)中的字符
+     */
+    @Test
+    public void parseRange() {
+        String s = "x-12345y";
+        assertEquals(-12345, NumberParser.parseInt(s, 1, 6, INT_DEFAULT));
+        assertEquals(123, NumberParser.parseInt(s, 2, 3, INT_DEFAULT));
+        assertEquals(INT_DEFAULT, NumberParser.parseInt(s, 0, 6, INT_DEFAULT));
+        assertEquals(INT_DEFAULT, NumberParser.parseInt(s, 2, 0, INT_DEFAULT));
+        assertEquals(-12345L, NumberParser.parseLong(s, 1, 6, LONG_DEFAULT));
+        assertEquals(INT_DEFAULT, NumberParser.parseInt(null, INT_DEFAULT));
+        assertEquals(LONG_DEFAULT, NumberParser.parseLong(null, LONG_DEFAULT));
+        String f = "[ 1.25e2 ]";
+        assertEquals(125f, NumberParser.parseFloat(f, 1, 8, FLOAT_DEFAULT), 0f);
+        assertEquals(1.25, NumberParser.parseDouble(f, 2, 4, DOUBLE_DEFAULT), 0);
+        assertEquals(DOUBLE_DEFAULT, NumberParser.parseDouble(f, 0, 9, DOUBLE_DEFAULT), 0);
+        assertEquals(FLOAT_DEFAULT, NumberParser.parseFloat(null, FLOAT_DEFAULT), 0f);
+        assertEquals(DOUBLE_DEFAULT, NumberParser.parseDouble(null, DOUBLE_DEFAULT), 0);
+        String nonAscii = "#\u0661\u0662#";
+        assertEquals(12, NumberParser.parseInt(nonAscii, 1, 2, INT_DEFAULT));
+        assertEquals(12L, NumberParser.parseLong(nonAscii, 1, 2, LONG_DEFAULT));
+    }
+
+    private static void checkInt(String s) {
+        int expected;
+        try {
+            expected = Integer.parseInt(s);
+        } catch (NumberFormatException e) {
+            expected = INT_DEFAULT;
+        }
+        assertEquals(s, expected, NumberParser.parseInt(s, INT_DEFAULT));
+        assertEquals(s, expected, NumberParser.parseInt("<" + s + ">", 1, s.length(), INT_DEFAULT));
+    }
+
+    private static void checkLong(String s) {
+        long expected;
+        try {
+            expected = Long.parseLong(s);
+        } catch (NumberFormatException e) {
+            expected = LONG_DEFAULT;
+        }
+        assertEquals(s, expected, NumberParser.parseLong(s, LONG_DEFAULT));
+        assertEquals(s, expected, NumberParser.parseLong("<" + s + ">", 1, s.length(), LONG_DEFAULT));
+    }
+
+    private static void checkFloat(String s) {
+        float expected;
+        try {
+            expected = Float.parseFloat(s);
+        } catch (NumberFormatException e) {
+            expected = FLOAT_DEFAULT;
+        }
+        int expectedBits = Float.floatToIntBits(expected);
+        assertEquals(s, expectedBits, Float.floatToIntBits(NumberParser.parseFloat(s, FLOAT_DEFAULT)));
+        assertEquals(s, expectedBits, Float.floatToIntBits(NumberParser.parseFloat("<" + s + ">", 1, s.length(), FLOAT_DEFAULT)));
+    }
+
+    private static void checkDouble(String s) {
+        double expected;
+        try {
+            expected = Double.parseDouble(s);
+        } catch (NumberFormatException e) {
+            expected = DOUBLE_DEFAULT;
+        }
+        long expectedBits = Double.doubleToLongBits(expected);
+        assertEquals(s, expectedBits, Double.doubleToLongBits(NumberParser.parseDouble(s, DOUBLE_DEFAULT)));
+        assertEquals(s, expectedBits, Double.doubleToLongBits(NumberParser.parseDouble("<" + s + ">", 1, s.length(), DOUBLE_DEFAULT)));
+    }
+
+    /**
+     * 生成随机的整数字符串：大多数是合法的(包括溢出边界附近的长度)，少数混入非法字符或非ASCII数字
+     */
+    private static String randomInteger(Random random) {
+        StringBuilder builder = new StringBuilder();
+        int sign = random.nextInt(8);
+        if (sign == 0) {
+            builder.append('-');
+        } else if (sign == 1) {
+            builder.append('+');
+        }
+        int digits = random.nextInt(22);
+        for (int i = 0; i < digits; i++) {
+            builder.append((char) ('0' + random.nextInt(10)));
+        }
+        int mutation = random.nextInt(10);
+        if (mutation == 0 && builder.length() > 0) {
+            String garbage = "+- .e0x\u00A0\u2007";
+            builder.setCharAt(random.nextInt(builder.length()), garbage.charAt(random.nextInt(garbage.length())));
+        } else if (mutation == 1) {
+            for (int i = 0; i < builder.length(); i++) {
+                char c = builder.charAt(i);
+                if (c >= '0' && c <= '9' && random.nextBoolean()) {
+                    builder.setCharAt(i, (char) (NON_ASCII_ZEROS[random.nextInt(NON_ASCII_ZEROS.length)] + (c - '0')));
+                }
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 生成随机的浮点数字符串：覆盖快速路径(有效数字少、指数小)、交给JDK的情况以及各种非法格式
+     */
+    private static String randomFloating(Random random) {
+        StringBuilder builder = new StringBuilder();
+        if (random.nextInt(8) == 0) {
+            builder.append(" \t\n\u0000".charAt(random.nextInt(4)));
+        }
+        int sign = random.nextInt(6);
+        if (sign == 0) {
+            builder.append('-');
+        } else if (sign == 1) {
+            builder.append('+');
+        }
+        int intDigits = random.nextInt(random.nextBoolean() ? 6 : 25);
+        for (int i = 0; i < intDigits; i++) {
+            builder.append(randomDigit(random));
+        }
+        if (random.nextInt(3) > 0) {
+            builder.append('.');
+            int fractionDigits = random.nextInt(random.nextBoolean() ? 6 : 25);
+            for (int i = 0; i < fractionDigits; i++) {
+                builder.append(randomDigit(random));
+            }
+        }
+        if (random.nextInt(3) == 0) {
+            builder.append(random.nextBoolean() ? 'e' : 'E');
+            int exponentSign = random.nextInt(3);
+            if (exponentSign == 0) {
+                builder.append('-');
+            } else if (exponentSign == 1) {
+                builder.append('+');
+            }
+            builder.append(random.nextInt(random.nextBoolean() ? 30 : 400));
+        }
+        if (random.nextInt(6) == 0) {
+            builder.append("fFdD".charAt(random.nextInt(4)));
+        }
+        if (random.nextInt(8) == 0) {
+            builder.append(" \t\r".charAt(random.nextInt(3)));
+        }
+        if (random.nextInt(12) == 0 && builder.length() > 0) {
+            String garbage = "+-.eEfdxXpP0 \u0661";
+            builder.setCharAt(random.nextInt(builder.length()), garbage.charAt(random.nextInt(garbage.length())));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 随机数字(0较多，用于产生尾部的0及前导0)
+     */
+    private static char randomDigit(Random random) {
+        return random.nextInt(4) == 0 ? '0' : (char) ('0' + random.nextInt(10));
+    }
+
+}
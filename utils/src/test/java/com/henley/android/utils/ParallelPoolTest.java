@@ -0,0 +1,77 @@
+package com.henley.android.utils;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link ParallelPool}的测试
+ */
+public class ParallelPoolTest {
+
+    @Test
+    public void clampsParallelism() {
+        assertEquals(1, ParallelPool.clamp(0));
+        assertEquals(1, ParallelPool.clamp(-3));
+        assertEquals(5, ParallelPool.clamp(5));
+        assertEquals(ParallelPool.MAX_PARALLELISM, ParallelPool.clamp(Integer.MAX_VALUE));
+        int expected = Math.min(Runtime.getRuntime().availableProcessors(), ParallelPool.MAX_PARALLELISM);
+        assertEquals(expected, ParallelPool.defaultParallelism());
+    }
+
+    /**
+     * 默认并行度(及被限制为默认值的并行度)使用同一个线程池，关闭时被忽略
+     */
+    @Test
+    public void defaultParallelismSharesOnePool() throws Exception {
+        int parallelism = ParallelPool.defaultParallelism();
+        ForkJoinPool shared = ParallelPool.forkJoinPool(parallelism);
+        assertSame(shared, ParallelPool.forkJoinPool(parallelism));
+        assertSame(shared, ParallelPool.executor(parallelism, "test"));
+        if (parallelism == ParallelPool.MAX_PARALLELISM) {
+            assertSame(shared, ParallelPool.forkJoinPool(ParallelPool.MAX_PARALLELISM + 1));
+        }
+        assertTrue(ParallelPool.isShared(shared));
+
+        ParallelPool.shutdown(shared);
+        FileWalker.create().shutdown();
+        TreeDigest.create("MD5").shutdown();
+        DirectoryFingerprint.create(new File("."), new File("index"), "MD5").shutdown();
+        assertFalse(shared.isShutdown());
+        assertEquals("ok", shared.submit(new Callable<String>() {
+            @Override
+            public String call() {
+                return "ok";
+            }
+        }).get());
+    }
+
+    /**
+     * 其他并行度使用单独的线程池，可以被关闭
+     */
+    @Test
+    public void otherParallelismOwnsPool() {
+        int parallelism = ParallelPool.defaultParallelism() == 1 ? 2 : 1;
+        ForkJoinPool pool = ParallelPool.forkJoinPool(parallelism);
+        assertNotSame(ParallelPool.forkJoinPool(ParallelPool.defaultParallelism()), pool);
+        assertEquals(parallelism, pool.getParallelism());
+        assertFalse(ParallelPool.isShared(pool));
+        ExecutorService executor = ParallelPool.executor(parallelism, "test");
+        assertNotSame(pool, executor);
+
+        ParallelPool.shutdown(pool);
+        ParallelPool.shutdown(executor);
+        assertTrue(pool.isShutdown());
+        assertTrue(executor.isShutdown());
+    }
+
+}
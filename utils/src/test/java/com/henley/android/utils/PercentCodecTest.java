@@ -0,0 +1,119 @@
+package com.henley.android.utils;
+
+import org.junit.Test;
+
+import java.net.URLDecoder;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link PercentCodec}的解码及{@link UrlView}查询参数的测试
+ */
+public class PercentCodecTest {
+
+    private static final long SEED = 20261018L;
+    private static final String[] MALFORMED = {"%", "100%", "%4", "a%4", "%G0", "%0G", "%%", "%%41", "%4%41", "%zz%41x", "%\u00E9A"};
+
+    /**
+     * 正确的输入(包括随机转义的字符)与URLDecoder的结果相同
+     */
+    @Test
+    public void formDecodeMatchesUrlDecoder() throws Exception {
+        Random random = new Random(SEED);
+        char[] pool = {'a', 'Z', '0', ' ', '+', '%', '&', '=', '/', '~', '\u00E9', '\u4E2D', '\uD83D', '\uDE00'};
+        for (int round = 0; round < 2000; round++) {
+            StringBuilder text = new StringBuilder();
+            for (int i = random.nextInt(20); i > 0; i--) {
+                text.append(pool[random.nextInt(pool.length)]);
+            }
+            String encoded = PercentCodec.FORM.encode(text.toString());
+            String expected = URLDecoder.decode(encoded, "UTF-8");
+            assertEquals(expected, PercentCodec.FORM.decode(encoded));
+            assertEquals(expected, PercentCodec.FORM.decodeLenient(encoded));
+            assertEquals("#" + expected, PercentCodec.FORM.decodeLenient(encoded, new StringBuilder("#")).toString());
+        }
+    }
+
+    @Test
+    public void inputWithoutEscapeIsReturnedAsIs() {
+        String input = "plain-text_1.0";
+        assertSame(input, PercentCodec.FORM.decode(input));
+        assertSame(input, PercentCodec.FORM.decodeLenient(input));
+        String plus = "a+b";
+        assertSame(plus, PercentCodec.QUERY_PARAM.decodeLenient(plus));
+    }
+
+    /**
+     * 严格解码在格式错误时抛出异常(与URLDecoder相同)
+     */
+    @Test
+    public void strictDecodeRejectsMalformedEscape() throws Exception {
+        for (String input : MALFORMED) {
+            try {
+                URLDecoder.decode(input, "UTF-8");
+                fail("URLDecoder accepted " + input);
+            } catch (IllegalArgumentException expected) {
+                // 作为参考
+            }
+            try {
+                PercentCodec.FORM.decode(input);
+                fail(input);
+            } catch (IllegalArgumentException expected) {
+                // 格式错误
+            }
+        }
+    }
+
+    /**
+     * 宽松解码保留格式错误的'%'，其余部分正常解码
+     */
+    @Test
+    public void lenientDecodeKeepsMalformedEscape() {
+        String[] expected = {"%", "100%", "%4", "a%4", "%G0", "%0G", "%%", "%A", "%4A", "%zzAx", "%\u00E9A"};
+        for (int i = 0; i < MALFORMED.length; i++) {
+            assertEquals(MALFORMED[i], expected[i], PercentCodec.FORM.decodeLenient(MALFORMED[i]));
+        }
+        assertEquals("\u4E2D\uFFFD+ %", PercentCodec.PATH.decodeLenient("%E4%B8%AD%E4+%20%"));
+        assertEquals("50% off", PercentCodec.FORM.decodeLenient("50%+off"));
+    }
+
+    /**
+     * 转义的字节不是正确的UTF-8时替换为U+FFFD
+     */
+    @Test
+    public void invalidUtf8IsReplaced() throws Exception {
+        for (String input : new String[]{"%FF", "a%C3", "%C3%28", "%E4%B8", "%80abc"}) {
+            String expected = URLDecoder.decode(input, "UTF-8");
+            assertTrue(expected.indexOf('\uFFFD') >= 0);
+            assertEquals(expected, PercentCodec.FORM.decode(input));
+            assertEquals(expected, PercentCodec.FORM.decodeLenient(input));
+        }
+    }
+
+    /**
+     * 查询参数中格式错误的'%'不会导致异常
+     */
+    @Test
+    public void urlViewQueryWithMalformedEscape() {
+        UrlView url = UrlView.parse("https://h/p?q=100%&x=1&%zz=2&n=%E4%B8%AD&q=%41");
+        assertEquals("100%", url.getQueryParameter("q"));
+        assertEquals(Arrays.asList("100%", "A"), url.getQueryParameters("q"));
+        assertEquals("1", url.getQueryParameter("x"));
+        assertEquals("2", url.getQueryParameter("%zz"));
+        assertEquals("\u4E2D", url.getQueryParameter("n"));
+        assertTrue(url.hasQueryParameter("x"));
+        assertFalse(url.hasQueryParameter("y"));
+        assertNull(url.getQueryParameter("y"));
+        assertEquals(Arrays.asList("q", "x", "%zz", "n", "q"), url.getQueryParameterNames());
+        assertEquals(Collections.emptyList(), UrlView.parse("https://h/p").getQueryParameterNames());
+    }
+
+}
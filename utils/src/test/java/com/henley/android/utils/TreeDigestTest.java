@@ -0,0 +1,232 @@
+package com.henley.android.utils;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link TreeDigest}的测试(根摘要格式必须保持稳定)
+ */
+public class TreeDigestTest {
+
+    private static final long SEED = 20261018L;
+    private static final int CHUNK_SIZE = 64;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<TreeDigest> digests = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+        for (TreeDigest digest : digests) {
+            digest.shutdown();
+        }
+    }
+
+    /**
+     * 固定的测试向量：块大小4，"abcdefghij"分为3块，第3块直接提升到上一层
+     * <p>root = H(0x01 || H(0x01 || H(0x00 || "abcd") || H(0x00 || "efgh")) || H(0x00 || "ij"))</p>
+     */
+    @Test
+    public void knownVectorWithOddLeafPromotion() throws IOException {
+        File file = write("abcdefghij".getBytes("UTF-8"));
+        TreeDigest.Result result = create("SHA-256", 4, 2).digest(file);
+        assertEquals(3, result.getChunkCount());
+        assertEquals("2A5B33D54D89D05737A7DD798D9862D55951564AAFB5460691AD8A7A9AB6C678", result.getRootDigestHex());
+    }
+
+    /**
+     * 空文件视为一个空块：root = H(0x00)
+     */
+    @Test
+    public void emptyFileIsSingleEmptyChunk() throws IOException {
+        TreeDigest.Result result = create("SHA-256", CHUNK_SIZE, 2).digest(write(new byte[0]));
+        assertEquals(1, result.getChunkCount());
+        assertEquals(0, result.getLength());
+        assertEquals("6E340B9CFFB37A989CA544E6BB780A2C78901D3FB33738768511A30617AFA01D", result.getRootDigestHex());
+    }
+
+    /**
+     * 各种块数(包括每一层都有奇数节点的情况)的结果与参考实现相同，且与并行度无关
+     */
+    @Test
+    public void rootMatchesReferenceForAllChunkCounts() throws Exception {
+        Random random = new Random(SEED);
+        for (String algorithm : new String[]{"MD5", "SHA-1", "SHA-256"}) {
+            TreeDigest serial = create(algorithm, CHUNK_SIZE, 1);
+            TreeDigest parallel = create(algorithm, CHUNK_SIZE, 8);
+            for (int length : new int[]{1, CHUNK_SIZE - 1, CHUNK_SIZE, CHUNK_SIZE + 1, CHUNK_SIZE * 3, CHUNK_SIZE * 5 + 7,
+                    CHUNK_SIZE * 7, CHUNK_SIZE * 8, CHUNK_SIZE * 9 - 1, CHUNK_SIZE * 33, 100000}) {
+                byte[] data = new byte[length];
+                random.nextBytes(data);
+                File file = write(data);
+                byte[][] expectedChunks = referenceChunks(algorithm, data, CHUNK_SIZE);
+                byte[] expectedRoot = referenceRoot(algorithm, expectedChunks);
+                TreeDigest.Result serialResult = serial.digest(file);
+                TreeDigest.Result parallelResult = parallel.digest(file);
+                assertEquals(expectedChunks.length, serialResult.getChunkCount());
+                for (int i = 0; i < expectedChunks.length; i++) {
+                    assertArrayEquals(expectedChunks[i], serialResult.getChunkDigest(i));
+                    assertArrayEquals(expectedChunks[i], parallelResult.getChunkDigest(i));
+                }
+                assertArrayEquals(expectedRoot, serialResult.getRootDigest());
+                assertArrayEquals(expectedRoot, parallelResult.getRootDigest());
+                assertArrayEquals(expectedRoot, serial.computeRoot(expectedChunks));
+            }
+        }
+    }
+
+    @Test
+    public void verifyChunkDetectsTamperedChunk() throws IOException {
+        byte[] data = new byte[CHUNK_SIZE * 5 + 10];
+        new Random(SEED + 1).nextBytes(data);
+        File file = write(data);
+        TreeDigest digest = create("SHA-256", CHUNK_SIZE, 4);
+        TreeDigest.Result result = digest.digest(file);
+        for (int i = 0; i < result.getChunkCount(); i++) {
+            assertTrue(digest.verifyChunk(file, i, result.getChunkDigest(i)));
+        }
+        data[CHUNK_SIZE * 2 + 3] ^= 1;
+        write(file, data);
+        for (int i = 0; i < result.getChunkCount(); i++) {
+            assertEquals(i != 2, digest.verifyChunk(file, i, result.getChunkDigest(i)));
+        }
+    }
+
+    /**
+     * 未下载完成的文件中已完整的块可以通过校验
+     */
+    @Test
+    public void verifyChunkOnPartialFile() throws IOException {
+        byte[] data = new byte[CHUNK_SIZE * 6];
+        new Random(SEED + 2).nextBytes(data);
+        File file = write(data);
+        TreeDigest digest = create("SHA-256", CHUNK_SIZE, 4);
+        TreeDigest.Result result = digest.digest(file);
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.setLength(CHUNK_SIZE * 3 + 5);
+        } finally {
+            raf.close();
+        }
+        for (int i = 0; i < result.getChunkCount(); i++) {
+            assertEquals(i < 3, digest.verifyChunk(file, i, result.getChunkDigest(i)));
+        }
+    }
+
+    @Test
+    public void resultsAreStableAcrossRuns() throws IOException {
+        byte[] data = new byte[CHUNK_SIZE * 17 + 3];
+        new Random(SEED + 3).nextBytes(data);
+        File file = write(data);
+        TreeDigest digest = create("SHA-256", CHUNK_SIZE, 8);
+        String root = digest.digest(file).getRootDigestHex();
+        for (int i = 0; i < 20; i++) {
+            assertEquals(root, digest.digest(file).getRootDigestHex());
+        }
+    }
+
+    /**
+     * 奇数节点不做任何计算直接提升：单个块的根就是该块的摘要，3个块的根只合并一次前两个块
+     */
+    @Test
+    public void oddNodeIsPromotedUnchanged() throws Exception {
+        TreeDigest digest = create("SHA-256", CHUNK_SIZE, 1);
+        byte[] a = new byte[]{1, 2, 3};
+        byte[] b = new byte[]{4, 5};
+        byte[] c = new byte[]{6};
+        assertArrayEquals(a, digest.computeRoot(new byte[][]{a}));
+
+        MessageDigest sha = MessageDigest.getInstance("SHA-256");
+        sha.update((byte) 0x01);
+        sha.update(a);
+        sha.update(b);
+        byte[] ab = sha.digest();
+        sha.update((byte) 0x01);
+        sha.update(ab);
+        sha.update(c);
+        assertArrayEquals(sha.digest(), digest.computeRoot(new byte[][]{a, b, c}));
+        // 输入数组不会被修改
+        assertArrayEquals(new byte[]{6}, c);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void computeRootRejectsEmptyList() {
+        create("SHA-256", CHUNK_SIZE, 1).computeRoot(new byte[0][]);
+    }
+
+    private TreeDigest create(String algorithm, int chunkSize, int parallelism) {
+        TreeDigest digest = TreeDigest.create(algorithm, chunkSize, parallelism);
+        digests.add(digest);
+        return digest;
+    }
+
+    private File write(byte[] data) throws IOException {
+        File file = folder.newFile();
+        write(file, data);
+        return file;
+    }
+
+    private static void write(File file, byte[] data) throws IOException {
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(data);
+        } finally {
+            out.close();
+        }
+    }
+
+    private static byte[][] referenceChunks(String algorithm, byte[] data, int chunkSize) throws NoSuchAlgorithmException {
+        int count = Math.max(1, (data.length + chunkSize - 1) / chunkSize);
+        byte[][] chunks = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            MessageDigest digest = MessageDigest.getInstance(algorithm);
+            digest.update((byte) 0x00);
+            int start = i * chunkSize;
+            digest.update(Arrays.copyOfRange(data, start, Math.min(start + chunkSize, data.length)));
+            chunks[i] = digest.digest();
+        }
+        return chunks;
+    }
+
+    /**
+     * 参考实现：逐层两两合并，某一层的节点数为奇数时最后一个节点直接提升
+     */
+    private static byte[] referenceRoot(String algorithm, byte[][] leaves) throws NoSuchAlgorithmException {
+        List<byte[]> level = new ArrayList<>(Arrays.asList(leaves));
+        while (level.size() > 1) {
+            List<byte[]> parent = new ArrayList<>();
+            for (int i = 0; i < level.size(); i += 2) {
+                if (i + 1 == level.size()) {
+                    parent.add(level.get(i));
+                } else {
+                    MessageDigest digest = MessageDigest.getInstance(algorithm);
+                    digest.update((byte) 0x01);
+                    digest.update(level.get(i));
+                    digest.update(level.get(i + 1));
+                    parent.add(digest.digest());
+                }
+            }
+            level = parent;
+        }
+        return level.get(0);
+    }
+
+}
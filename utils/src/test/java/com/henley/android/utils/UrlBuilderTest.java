@@ -0,0 +1,142 @@
+package com.henley.android.utils;
+
+import org.junit.Test;
+
+import java.net.URI;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link UrlBuilder}的测试
+ */
+public class UrlBuilderTest {
+
+    private static final long SEED = 20261018L;
+
+    @Test
+    public void encodesPathAndQuery() {
+        String url = UrlBuilder.create("https://example.com/api", 2)
+                .addPathSegment("user info")
+                .addPathSegment("a/b")
+                .addQueryParameter("id", "1&2")
+                .addQueryParameter("name", "\u5F20\u4E09")
+                .addQueryParameter("flag", null)
+                .addQueryParameter("n", -42L)
+                .build();
+        assertEquals("https://example.com/api/user%20info/a%2Fb?id=1%262&name=%E5%BC%A0%E4%B8%89&flag&n=-42", url);
+    }
+
+    @Test
+    public void pathSeparators() {
+        assertEquals("https://h/a", UrlBuilder.create("https://h").addPathSegment("a").build());
+        assertEquals("https://h/a", UrlBuilder.create("https://h/").addPathSegment("a").build());
+        assertEquals("https://h/a/b/c", UrlBuilder.create("https://h/a").addEncodedPath("/b/c").build());
+        assertEquals("https://h/a/b%20c", UrlBuilder.create("https://h/a/").addEncodedPath("b%20c").build());
+        assertEquals("/x", UrlBuilder.create("").addPathSegment("x").build());
+    }
+
+    /**
+     * 基础Url已有查询参数时继续追加，不重复添加'?'或'&'
+     */
+    @Test
+    public void baseWithExistingQuery() {
+        assertEquals("https://h/p?a=1&b=2", UrlBuilder.create("https://h/p?a=1").addQueryParameter("b", "2").build());
+        assertEquals("https://h/p?b=2", UrlBuilder.create("https://h/p?").addQueryParameter("b", "2").build());
+        assertEquals("https://h/p?a=1&b=2", UrlBuilder.create("https://h/p?a=1&").addQueryParameter("b", "2").build());
+        assertEquals("https://h/p?a=1", UrlBuilder.create("https://h/p?a=1").build());
+        try {
+            UrlBuilder.create("https://h/p?a=1").addPathSegment("x");
+            fail();
+        } catch (IllegalStateException expected) {
+            // 已经有查询参数
+        }
+        try {
+            UrlBuilder.create("https://h/p").addQueryParameter("a", "1").addEncodedPath("x");
+            fail();
+        } catch (IllegalStateException expected) {
+            // 已经有查询参数
+        }
+    }
+
+    /**
+     * 基础Url中的片段保留在最后，可以被替换或移除
+     */
+    @Test
+    public void baseWithFragment() {
+        assertEquals("https://h/p/x?a=1#top", UrlBuilder.create("https://h/p#top")
+                .addPathSegment("x")
+                .addQueryParameter("a", "1")
+                .build());
+        assertEquals("https://h/p?q=1&a=2#f", UrlBuilder.create("https://h/p?q=1#f").addQueryParameter("a", "2").build());
+        assertEquals("https://h/p?a=1#new%20frag", UrlBuilder.create("https://h/p#old")
+                .addQueryParameter("a", "1")
+                .setFragment("new frag")
+                .build());
+        assertEquals("https://h/p", UrlBuilder.create("https://h/p#old").setFragment(null).build());
+        assertEquals("https://h/p#", UrlBuilder.create("https://h/p#").build());
+    }
+
+    /**
+     * build()可以多次调用，之后仍可以继续添加参数
+     */
+    @Test
+    public void buildIsRepeatable() {
+        UrlBuilder builder = UrlBuilder.create("https://h/p#f").addQueryParameter("a", "1");
+        assertEquals("https://h/p?a=1#f", builder.build());
+        assertEquals("https://h/p?a=1#f", builder.toString());
+        builder.addEncodedQueryParameter("b", "%20").addEncodedQueryParameter("c", null);
+        assertEquals("https://h/p?a=1&b=%20&c#f", builder.build());
+    }
+
+    /**
+     * 随机的路径段和参数经过{@link UrlView}及{@link URI}解析后得到原值
+     */
+    @Test
+    public void randomRoundTrip() throws Exception {
+        Random random = new Random(SEED);
+        char[] pool = {'a', 'Z', '0', ' ', '+', '%', '&', '=', '/', '?', '#', '~', '@', ':', '\u00E9', '\u4E2D', '\uD83D', '\uDE00'};
+        String[] bases = {"https://h", "https://h/base/", "http://u@[::1]:80/p?k=v", "https://h/p?", "https://h/p#frag"};
+        for (int round = 0; round < 1000; round++) {
+            String base = bases[random.nextInt(bases.length)];
+            UrlBuilder builder = UrlBuilder.create(base);
+            String segment = null;
+            if (base.indexOf('?') < 0) {
+                segment = randomText(random, pool);
+                builder.addPathSegment(segment);
+            }
+            String name = "n" + randomText(random, pool);
+            String value = randomText(random, pool);
+            builder.addQueryParameter(name, value);
+            String url = builder.build();
+
+            UrlView view = UrlView.parse(url);
+            assertEquals(url, value, view.getQueryParameter(name));
+            URI uri = new URI(url);
+            assertEquals(url, UrlView.parse(base).getFragment(), uri.getRawFragment());
+            if (segment != null) {
+                // 新增的路径段中没有未编码的'/'，解码后为原值
+                String basePath = UrlView.parse(base).getPath();
+                String added = view.getPath().substring(basePath.endsWith("/") ? basePath.length() : basePath.length() + 1);
+                assertEquals(url, -1, added.indexOf('/'));
+                String path = uri.getPath();
+                assertEquals(url, segment, path.substring(path.length() - segment.length()));
+            }
+        }
+    }
+
+    private static String randomText(Random random, char[] pool) {
+        StringBuilder text = new StringBuilder();
+        for (int i = random.nextInt(8); i > 0; i--) {
+            char c = pool[random.nextInt(pool.length)];
+            if (Character.isHighSurrogate(c)) {
+                text.append(c).append('\uDE00');
+            } else if (!Character.isLowSurrogate(c)) {
+                text.append(c);
+            }
+        }
+        return text.toString();
+    }
+
+}